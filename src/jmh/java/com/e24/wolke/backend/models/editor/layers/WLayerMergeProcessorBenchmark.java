@@ -0,0 +1,86 @@
+package com.e24.wolke.backend.models.editor.layers;
+
+import com.e24.wolke.backend.models.application.ApplicationConstants.Resolution;
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.models.editor.EditorConstants;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * WLayerMergeProcessorBenchmark.java
+ *
+ * <p>Mesure le temps de fusion des calques de l'éditeur et de leur conversion en données de
+ * présence d'obstacles par {@link WLayerMergeProcessor#update()}, qui est appelée à chaque
+ * modification d'un calque.
+ *
+ * @author Nilon123456789
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WLayerMergeProcessorBenchmark {
+
+  /** La résolution des calques */
+  @Param({"LOW", "MEDIUM", "HIGH", "ULTRA"})
+  public String resolution;
+
+  /** Le nombre de calques, le calque sélectionné étant celui du milieu */
+  @Param({"1", "3"})
+  public int layerCount;
+
+  /** Le {@code WLayerMergeProcessor} mesuré */
+  private WLayerMergeProcessor processor;
+
+  /** Prépare des calques contenant chacun un obstacle, comme dans l'éditeur */
+  @Setup(Level.Trial)
+  public void setup() {
+    System.setProperty("java.awt.headless", "true");
+    LocaleManager.update(Locale.FRENCH);
+
+    Resolution preset = Resolution.valueOf(resolution);
+    int width = preset.getWidth();
+    int height = preset.getHeight();
+
+    WLayerList layerList =
+        new WLayerList(width, height, EditorConstants.DEFAULT_LAYER_IMAGE_TYPE, layerCount + 1);
+    layerList.fill(layerCount);
+    layerList.setSelectedLayerIndex(layerCount / 2);
+
+    for (int i = 0; i < layerCount; i++) {
+      Graphics2D g2d = layerList.getLayerAt(i).getImage().createGraphics();
+      g2d.setColor(Color.BLACK);
+      g2d.fillOval(width * (i + 1) / (layerCount + 2), height / 3, height / 3, height / 3);
+      g2d.dispose();
+    }
+
+    processor = new WLayerMergeProcessor(layerList);
+  }
+
+  /**
+   * Fusion des calques et conversion en données de présence d'obstacles
+   *
+   * @return Les données de présence d'obstacles
+   */
+  @Benchmark
+  public int[] update() {
+    processor.update();
+    return processor.getMergedImageData();
+  }
+}
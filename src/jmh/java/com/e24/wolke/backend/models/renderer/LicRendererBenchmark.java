@@ -0,0 +1,100 @@
+package com.e24.wolke.backend.models.renderer;
+
+import com.e24.wolke.backend.models.application.ApplicationConstants.Resolution;
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.models.obstacles.WObstacleMask;
+import com.e24.wolke.backend.models.simulation.SimulationProperties;
+import com.e24.wolke.backend.simulation.physics.ParticleMatrix;
+import com.e24.wolke.backend.simulation.physics.SimulationData;
+import com.e24.wolke.backend.simulation.physics.engine.PhysicsEngine;
+import java.awt.image.BufferedImage;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * LicRendererBenchmark.java
+ *
+ * <p>Mesure le temps de texture LIC d'une image de la simulation par {@link LicRenderer}, sur le
+ * pool de threads du rendu.
+ *
+ * @author Nilon123456789
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LicRendererBenchmark {
+
+  /** Nombre de pas effectués pour obtenir une matrice de particules non uniforme */
+  private static final int SETTLING_STEPS = 10;
+
+  /** La résolution de la simulation */
+  @Param({"LOW", "MEDIUM", "HIGH"})
+  public String resolution;
+
+  /** Le {@code LicRenderer} mesuré */
+  private LicRenderer licRenderer;
+
+  /** Les données de la simulation */
+  private SimulationData simulationData;
+
+  /** Le masque des obstacles */
+  private WObstacleMask mask;
+
+  /** L'image texturée */
+  private BufferedImage image;
+
+  /** Prépare une matrice de vélocité de la résolution mesurée */
+  @Setup(Level.Trial)
+  public void setup() {
+    System.setProperty("java.awt.headless", "true");
+    LocaleManager.update(Locale.FRENCH);
+
+    Resolution preset = Resolution.valueOf(resolution);
+
+    simulationData =
+        new SimulationProperties().createSimulationData(preset.getWidth(), preset.getHeight());
+    PhysicsEngine engine = new PhysicsEngine(simulationData);
+    for (int i = 0; i < SETTLING_STEPS; i++) {
+      engine.update(simulationData.getTimeStep());
+      simulationData.returnParticleMatrixToPool(simulationData.pollRenderParticleMatrix());
+    }
+
+    mask = WObstacleMask.of(simulationData.getObstacle());
+    image = new BufferedImage(preset.getWidth(), preset.getHeight(), BufferedImage.TYPE_INT_RGB);
+    licRenderer = new LicRenderer();
+  }
+
+  /**
+   * Texture LIC de l'image de la simulation
+   *
+   * @return L'image texturée
+   */
+  @Benchmark
+  public BufferedImage apply() {
+    ParticleMatrix particleMatrix = simulationData.getCurrentParticleMatrix();
+    licRenderer.apply(
+        particleMatrix.getXVelocity().getMatrix(),
+        particleMatrix.getYVelocity().getMatrix(),
+        particleMatrix.getXLength(),
+        particleMatrix.getYLength(),
+        mask,
+        RendererConstants.DEFAULT_LIC_BLEND,
+        image);
+    return image;
+  }
+}
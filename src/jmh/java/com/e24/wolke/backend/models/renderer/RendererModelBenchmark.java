@@ -0,0 +1,173 @@
+package com.e24.wolke.backend.models.renderer;
+
+import com.e24.wolke.backend.controller.Controller;
+import com.e24.wolke.backend.models.application.ApplicationConstants.Resolution;
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.models.renderer.RendererConstants.VisualizationType;
+import com.e24.wolke.backend.models.simulation.SimulationProperties;
+import com.e24.wolke.backend.simulation.physics.ParticleMatrix;
+import com.e24.wolke.backend.simulation.physics.SimulationData;
+import com.e24.wolke.backend.simulation.physics.engine.PhysicsEngine;
+import com.e24.wolke.utils.images.WColor;
+import java.awt.image.BufferedImage;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * RendererModelBenchmark.java
+ *
+ * <p>Mesure le temps de conversion d'une matrice de particules en image par {@link
+ * RendererModel#updateSimulationFrame(double[], int, int, double, double,
+ * com.e24.wolke.backend.models.obstacles.WObstacleCellMatrix)}, en couleurs et en niveaux de gris.
+ * {@link #setRGBBaseline()} mesure l'ancienne conversion pixel par pixel, colonne par colonne, avec
+ * {@code BufferedImage#setRGB} et {@link WColor}, comme référence pour la table de couleurs, et
+ * {@link #singleThreadBaseline()} la table de couleurs sur un seul thread, comme référence pour le
+ * rendu par bandes de {@link ParallelRasterizer}.
+ *
+ * @author Nilon123456789
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RendererModelBenchmark {
+
+  /** Nombre de pas effectués pour obtenir une matrice de particules non uniforme */
+  private static final int SETTLING_STEPS = 10;
+
+  /** La résolution du rendu */
+  @Param({"LOW", "MEDIUM", "HIGH", "ULTRA"})
+  public String resolution;
+
+  /** Si le rendu est en niveaux de gris */
+  @Param({"false", "true"})
+  public boolean greyscale;
+
+  /** Le {@code Controller} qui gère le {@code RendererModel} mesuré */
+  private Controller controller;
+
+  /** Le {@code RendererModel} mesuré */
+  private RendererModel rendererModel;
+
+  /** Les données de la simulation rendue */
+  private SimulationData simulationData;
+
+  /** Les valeurs rendues */
+  private double[] values;
+
+  /** Le minimum et le maximum des valeurs rendues */
+  private double[] minMax;
+
+  /** Prépare un {@code RendererModel} et une matrice de vélocité de la résolution mesurée */
+  @Setup(Level.Trial)
+  public void setup() {
+    System.setProperty("java.awt.headless", "true");
+    LocaleManager.update(Locale.FRENCH);
+
+    Resolution preset = Resolution.valueOf(resolution);
+
+    simulationData =
+        new SimulationProperties().createSimulationData(preset.getWidth(), preset.getHeight());
+    PhysicsEngine engine = new PhysicsEngine(simulationData);
+    for (int i = 0; i < SETTLING_STEPS; i++) {
+      engine.update(simulationData.getTimeStep());
+      simulationData.returnParticleMatrixToPool(simulationData.pollRenderParticleMatrix());
+    }
+
+    ParticleMatrix particleMatrix = simulationData.getCurrentParticleMatrix();
+    values = particleMatrix.getParticlesByVisualization(VisualizationType.VELOCITY);
+    minMax = particleMatrix.getMinMaxByVisualization(VisualizationType.VELOCITY);
+
+    controller = new Controller();
+    rendererModel = controller.getRendererModel();
+    rendererModel.stop();
+    rendererModel.setResolution(preset.getWidth(), preset.getHeight());
+    rendererModel.setGrayscaleVisualisation(greyscale);
+    rendererModel.getSimulationImage();
+  }
+
+  /** Arrête le processus de rendu du {@code Controller} */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    rendererModel.stop();
+  }
+
+  /**
+   * Conversion de la matrice de vélocité en image
+   *
+   * @return L'image produite
+   */
+  @Benchmark
+  public BufferedImage updateSimulationFrame() {
+    rendererModel.updateSimulationFrame(
+        values,
+        simulationData.getCurrentParticleMatrix().getXLength(),
+        simulationData.getCurrentParticleMatrix().getYLength(),
+        minMax[0],
+        minMax[1],
+        simulationData.getObstacle());
+    return rendererModel.getSimulationImage();
+  }
+
+  /**
+   * Conversion de la matrice de vélocité en image avec la table de couleurs, sur un seul thread
+   *
+   * @return L'image produite
+   */
+  @Benchmark
+  public BufferedImage singleThreadBaseline() {
+    BufferedImage image = rendererModel.getSimulationImage();
+    rendererModel
+        .getColorMap()
+        .apply(
+            values,
+            simulationData.getCurrentParticleMatrix().getXLength(),
+            simulationData.getCurrentParticleMatrix().getYLength(),
+            minMax[0],
+            minMax[1],
+            image);
+    return image;
+  }
+
+  /**
+   * Conversion de la matrice de vélocité en image, pixel par pixel avec {@code setRGB}
+   *
+   * @return L'image produite
+   */
+  @Benchmark
+  public BufferedImage setRGBBaseline() {
+    BufferedImage image = rendererModel.getSimulationImage();
+    float[][] gradient = rendererModel.getGradientHSBColors();
+    int sizeX = simulationData.getCurrentParticleMatrix().getXLength();
+    int sizeY = simulationData.getCurrentParticleMatrix().getYLength();
+
+    for (int i = 0; i < sizeX; i++) {
+      for (int j = 0; j < sizeY; j++) {
+        int index = j * sizeX + i;
+        image.setRGB(
+            i,
+            j,
+            greyscale
+                ? WColor.interpolateGrayscaleFromMinMax(values[index], minMax[0], minMax[1])
+                : WColor.interpolateHSBColorFromMinMax(
+                    gradient[1], gradient[0], values[index], minMax[0], minMax[1]));
+      }
+    }
+    return image;
+  }
+}
@@ -0,0 +1,117 @@
+package com.e24.wolke.backend.models.renderer;
+
+import com.e24.wolke.backend.models.application.ApplicationConstants.Resolution;
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.models.simulation.SimulationProperties;
+import com.e24.wolke.backend.simulation.physics.ParticleMatrix;
+import com.e24.wolke.backend.simulation.physics.SimulationData;
+import com.e24.wolke.backend.simulation.physics.engine.PhysicsEngine;
+import java.awt.image.BufferedImage;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * VectorFieldRendererBenchmark.java
+ *
+ * <p>Mesure le temps de dessin du champ de vecteurs de la vélocité par {@link VectorFieldRenderer}
+ * pour des écarts entre les flèches de 5 à 20 pixels, avec et sans calcul des flèches en parallèle.
+ * Le canvas fait le double de la résolution de la simulation.
+ *
+ * @author Nilon123456789
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VectorFieldRendererBenchmark {
+
+  /** Nombre de pas effectués pour obtenir une matrice de particules non uniforme */
+  private static final int SETTLING_STEPS = 10;
+
+  /** Taille d'un pixel de la simulation dans le canvas */
+  private static final double PIXEL_SIZE = 2;
+
+  /** La résolution de la simulation */
+  @Param({"MEDIUM", "ULTRA"})
+  public String resolution;
+
+  /** L'écart entre les flèches (px) */
+  @Param({"5", "10", "15", "20"})
+  public int step;
+
+  /** Si les flèches sont calculées en parallèle */
+  @Param({"false", "true"})
+  public boolean parallel;
+
+  /** Le {@code VectorFieldRenderer} mesuré */
+  private VectorFieldRenderer vectorFieldRenderer;
+
+  /** Les données de la simulation */
+  private SimulationData simulationData;
+
+  /** La norme maximale de la vélocité */
+  private double max;
+
+  /** Prépare une matrice de vélocité de la résolution mesurée */
+  @Setup(Level.Trial)
+  public void setup() {
+    System.setProperty("java.awt.headless", "true");
+    LocaleManager.update(Locale.FRENCH);
+
+    Resolution preset = Resolution.valueOf(resolution);
+
+    simulationData =
+        new SimulationProperties().createSimulationData(preset.getWidth(), preset.getHeight());
+    PhysicsEngine engine = new PhysicsEngine(simulationData);
+    for (int i = 0; i < SETTLING_STEPS; i++) {
+      engine.update(simulationData.getTimeStep());
+      simulationData.returnParticleMatrixToPool(simulationData.pollRenderParticleMatrix());
+    }
+
+    ParticleMatrix particleMatrix = simulationData.getCurrentParticleMatrix();
+    double[] xMinMax = particleMatrix.getXVelocityMinMax();
+    double[] yMinMax = particleMatrix.getYVelocityMinMax();
+    max =
+        Math.max(
+            Math.max(Math.abs(xMinMax[0]), Math.abs(xMinMax[1])),
+            Math.max(Math.abs(yMinMax[0]), Math.abs(yMinMax[1])));
+
+    vectorFieldRenderer = new VectorFieldRenderer();
+    vectorFieldRenderer.setParallel(parallel);
+  }
+
+  /**
+   * Dessin du champ de vecteurs de la vélocité
+   *
+   * @return L'image produite
+   */
+  @Benchmark
+  public BufferedImage render() {
+    ParticleMatrix particleMatrix = simulationData.getCurrentParticleMatrix();
+    return vectorFieldRenderer.render(
+        particleMatrix.getXVelocity().getMatrix(),
+        particleMatrix.getYVelocity().getMatrix(),
+        max,
+        particleMatrix.getXLength(),
+        particleMatrix.getYLength(),
+        simulationData.getObstacle().getMatrix(),
+        step,
+        PIXEL_SIZE,
+        (int) (particleMatrix.getXLength() * PIXEL_SIZE),
+        (int) (particleMatrix.getYLength() * PIXEL_SIZE));
+  }
+}
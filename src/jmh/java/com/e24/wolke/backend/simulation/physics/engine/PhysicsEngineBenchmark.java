@@ -0,0 +1,164 @@
+package com.e24.wolke.backend.simulation.physics.engine;
+
+import com.e24.wolke.backend.models.application.ApplicationConstants.Resolution;
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.models.simulation.SimulationProperties;
+import com.e24.wolke.backend.simulation.physics.ParticleMatrix;
+import com.e24.wolke.backend.simulation.physics.SimulationData;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PhysicsEngineBenchmark.java
+ *
+ * <p>Mesure le temps d'exécution d'un pas complet et de chacune des étapes de {@link
+ * PhysicsEngine}, pour chaque résolution et chaque moteur. Les étapes sont mesurées sur un
+ * écoulement déjà établi autour de l'obstacle par défaut, les mêmes que celles de {@link
+ * PhysicsEngine#STEP_STAGES}.
+ *
+ * @author Nilon123456789
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PhysicsEngineBenchmark {
+
+  /** Nombre de pas effectués avant la mesure, pour que l'écoulement soit établi */
+  private static final int SETTLING_STEPS = 20;
+
+  /** La résolution de la simulation */
+  @Param({"LOW", "MEDIUM", "HIGH", "ULTRA"})
+  public String resolution;
+
+  /** Le moteur physique ({@code st} ou {@code mt}) */
+  @Param({"st", "mt"})
+  public String engineType;
+
+  /** Les données de la simulation */
+  private SimulationData simulationData;
+
+  /** Le moteur physique mesuré */
+  private PhysicsEngine engine;
+
+  /** Le pas de temps de la simulation (s) */
+  private double timeStep;
+
+  /** Prépare une simulation de la résolution et du moteur mesurés, puis établit l'écoulement */
+  @Setup(Level.Trial)
+  public void setup() {
+    LocaleManager.update(Locale.FRENCH);
+
+    Resolution preset = Resolution.valueOf(resolution);
+    simulationData =
+        new SimulationProperties().createSimulationData(preset.getWidth(), preset.getHeight());
+    timeStep = simulationData.getTimeStep();
+
+    engine =
+        engineType.equals("mt")
+            ? new PhysicsEngineMultiThreaded(simulationData)
+            : new PhysicsEngine(simulationData);
+    engine.setPipelined(false);
+
+    for (int i = 0; i < SETTLING_STEPS; i++) step();
+  }
+
+  /**
+   * Un pas complet, tel qu'effectué par la boucle de simulation
+   *
+   * @return La matrice de particules produite
+   */
+  @Benchmark
+  public ParticleMatrix step() {
+    engine.update(timeStep);
+
+    ParticleMatrix rendered = simulationData.pollRenderParticleMatrix();
+    simulationData.returnParticleMatrixToPool(rendered);
+    return rendered;
+  }
+
+  /**
+   * L'advection, mesurée à partir de la même matrice à chaque invocation
+   *
+   * @return La matrice de particules produite
+   */
+  @Benchmark
+  public ParticleMatrix advection() {
+    ParticleMatrix source = simulationData.getPreviousParticleMatrix();
+
+    engine.advect(timeStep);
+
+    ParticleMatrix advected = simulationData.getCurrentParticleMatrix();
+    simulationData.setCurrentParticleMatrix(source);
+    simulationData.returnParticleMatrixToPool(advected);
+    return advected;
+  }
+
+  /** Le confinement de vortex */
+  @Benchmark
+  public void vorticityConfinement() {
+    engine.vorticityConfinement();
+  }
+
+  /** La diffusion, résolue par la méthode de Jacobi */
+  @Benchmark
+  public void diffusion() {
+    engine.diffusion(timeStep);
+  }
+
+  /** L'ajout des forces externes */
+  @Benchmark
+  public void addForce() {
+    engine.addForce(0, 0);
+  }
+
+  /** La divergence de la vélocité */
+  @Benchmark
+  public void velocityDivergence() {
+    engine.velocityDivergence();
+  }
+
+  /** La résolution de la pression par la méthode de Jacobi */
+  @Benchmark
+  public void pressureSolver() {
+    engine.pressureSolver();
+  }
+
+  /** L'application des conditions aux frontières */
+  @Benchmark
+  public void applyBoundaryConditions() {
+    engine.applyBoundaryConditions();
+  }
+
+  /** Le gradient de la pression */
+  @Benchmark
+  public void pressureGradient() {
+    engine.pressureGradient();
+  }
+
+  /** La soustraction du gradient de la pression à la vélocité */
+  @Benchmark
+  public void substractPressureGradient() {
+    engine.substractPressureGradient();
+  }
+
+  /** La recherche des minimums et maximums de la matrice de particules */
+  @Benchmark
+  public void findMinMax() {
+    engine.findMinMax();
+  }
+}
@@ -0,0 +1,97 @@
+package com.e24.wolke.eventsystem;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * EventBrokerBenchmark.java
+ *
+ * <p>Mesure le débit de diffusion de {@link EventBroker#publish(Subject, Object)} avec un ou
+ * plusieurs diffuseurs concurrents.
+ *
+ * @author Nilon123456789
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventBrokerBenchmark {
+
+  /** Nombre de {@code Consumer} abonnés au sujet diffusé */
+  @Param({"1", "8"})
+  public int subscriberCount;
+
+  /** Le {@code EventBroker} mesuré */
+  private EventBroker broker;
+
+  /** {@code EventBroker} sans abonnement */
+  private EventBroker emptyBroker;
+
+  /** Message diffusé */
+  private final Object message = new Object();
+
+  /** Dernier message reçu, empêche l'élimination des abonnés par le JIT */
+  private Object received;
+
+  /**
+   * Prépare un {@code EventBroker} avec tous les sujets abonnés, comme c'est le cas dans
+   * l'application, et {@code subscriberCount} abonnés au sujet diffusé.
+   */
+  @Setup(Level.Trial)
+  public void setup() {
+    broker = new EventBroker();
+    emptyBroker = new EventBroker();
+
+    for (Subject subject : Subject.values()) broker.subscribe(subject, o -> {});
+
+    for (int i = 0; i < subscriberCount; i++)
+      broker.subscribe(Subject.ON_TEST_PUBSUB_OBJECT, o -> received = o);
+  }
+
+  /**
+   * Diffusion par un seul thread
+   *
+   * @return Le résultat de la diffusion
+   */
+  @Benchmark
+  @Threads(1)
+  public boolean publishSingleThread() {
+    return broker.publish(Subject.ON_TEST_PUBSUB_OBJECT, message);
+  }
+
+  /**
+   * Diffusion par quatre threads concurrents
+   *
+   * @return Le résultat de la diffusion
+   */
+  @Benchmark
+  @Threads(4)
+  public boolean publishConcurrent() {
+    return broker.publish(Subject.ON_TEST_PUBSUB_OBJECT, message);
+  }
+
+  /**
+   * Diffusion d'un sujet sans abonné, qui doit être rejetée le plus rapidement possible
+   *
+   * @return Le résultat de la diffusion
+   */
+  @Benchmark
+  @Threads(4)
+  public boolean publishUnsubscribed() {
+    return emptyBroker.publish(Subject.ON_TEST_PUBSUB_OBJECT, message);
+  }
+}
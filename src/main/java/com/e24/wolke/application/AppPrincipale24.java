@@ -1,6 +1,8 @@
 package com.e24.wolke.application;
 
 import com.e24.wolke.backend.controller.Controller;
+import com.e24.wolke.backend.metrics.MetricsServer;
+import com.e24.wolke.backend.metrics.PrometheusExporter;
 import com.e24.wolke.backend.models.application.ApplicationConstants;
 import com.e24.wolke.backend.models.application.LocaleManager;
 import com.e24.wolke.eventsystem.Subject;
@@ -8,6 +10,7 @@ import com.e24.wolke.filesystem.WUserFileManager;
 import com.e24.wolke.filesystem.scenes.WSceneConstants;
 import com.e24.wolke.frontend.MainFrame;
 import com.e24.wolke.frontend.help.IntroFrame;
+import com.e24.wolke.utils.jfr.WFlightRecorder;
 import com.formdev.flatlaf.FlatLaf;
 import java.awt.EventQueue;
 import java.awt.Taskbar;
@@ -38,10 +41,15 @@ public class AppPrincipale24 {
   /**
    * Main
    *
-   * @param args Arguments de la ligne de commande
+   * @param args Arguments de la ligne de commande : une scène à ouvrir, l'option {@code
+   *     --jfr[=<fichier>]} pour démarrer un enregistrement JFR et l'option {@code
+   *     --metrics[=<port>]} pour exposer les métriques de la simulation
    */
   public static void main(String[] args) {
     AppPrincipale24.setupLocalization();
+    String[] arguments =
+        MetricsServer.startFromArguments(
+            WFlightRecorder.startFromArguments(args), createMetricsExporter());
     FlatLaf.registerCustomDefaultsSource("themes");
     AppPrincipale24.setupInitialTheme();
     WUserFileManager.copyResourcesToUserFolder();
@@ -53,8 +61,9 @@ public class AppPrincipale24 {
               controller = new Controller();
               frame = new MainFrame(controller);
               frame.setVisible(true);
-              if (args.length > 0 && args[0].endsWith(WSceneConstants.WOLKE_EXTENSION)) {
-                controller.getSceneHandler().importScene(new File(args[0]));
+              if (arguments.length > 0
+                  && arguments[0].endsWith(WSceneConstants.WOLKE_EXTENSION)) {
+                controller.getSceneHandler().importScene(new File(arguments[0]));
               }
               frame.getGlassPane().setVisible(true);
               new IntroFrame(controller).setVisible(true);
@@ -70,6 +79,28 @@ public class AppPrincipale24 {
         });
   }
 
+  /**
+   * Méthode créant la source des métriques du serveur de métriques. Les modèles sont lus à chaque
+   * requête, puisque le {@code Controller} est créé après le démarrage du serveur et remplacé lors
+   * de la réinitialisation.
+   *
+   * @return La source des métriques
+   */
+  private static PrometheusExporter createMetricsExporter() {
+    return new PrometheusExporter(
+            () -> controller == null ? null : controller.getSimulationModel().getPhysicsEngine())
+        .addTimer(() -> controller == null ? null : controller.getRendererModel().getTimer())
+        .addTimer(
+            () ->
+                controller == null
+                    ? null
+                    : controller
+                        .getEditorModel()
+                        .getLayerModel()
+                        .getLayerMergeProcessor()
+                        .getTimer());
+  }
+
   /**
    * Méthode initialisant les particularités de l'application de l'icone et du style de la barre de
    * menu de l'application sur Mac
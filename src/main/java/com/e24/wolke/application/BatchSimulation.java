@@ -0,0 +1,345 @@
+package com.e24.wolke.application;
+
+import com.e24.wolke.application.BatchSimulationOptions.EngineType;
+import com.e24.wolke.backend.metrics.MetricsServer;
+import com.e24.wolke.backend.metrics.PrometheusExporter;
+import com.e24.wolke.backend.models.application.ApplicationConstants;
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.models.editor.layers.WLayerGenerator;
+import com.e24.wolke.backend.models.obstacles.ObstacleModel;
+import com.e24.wolke.backend.models.renderer.OffscreenRenderer;
+import com.e24.wolke.backend.models.simulation.SimulationProperties;
+import com.e24.wolke.backend.simulation.checkpoint.SimulationCheckpoint;
+import com.e24.wolke.backend.simulation.physics.SimulationData;
+import com.e24.wolke.backend.simulation.physics.engine.PhysicsEngine;
+import com.e24.wolke.backend.simulation.physics.engine.PhysicsEngineMultiThreaded;
+import com.e24.wolke.backend.simulation.recording.FrameExporter;
+import com.e24.wolke.backend.simulation.recording.FrameRecorder;
+import com.e24.wolke.filesystem.scenes.WScene;
+import com.e24.wolke.filesystem.scenes.WSceneReader;
+import com.e24.wolke.utils.Timer;
+import com.e24.wolke.utils.TimerHandle;
+import com.e24.wolke.utils.jfr.WFlightRecorder;
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+
+/**
+ * Classe d'exécution sans interface graphique du simulateur Wolke. Elle simule une scène pendant un
+ * nombre de pas donné, puis écrit le temps d'exécution de chaque étape et le débit de la simulation
+ * en CSV ou en JSON, afin de comparer des résolutions, des moteurs ou des paramètres du solveur.
+ * Elle peut aussi exporter les images rendues de la simulation, voir {@link FrameExporter}.
+ *
+ * @see BatchSimulationOptions
+ * @author Nilon123456789
+ */
+public class BatchSimulation {
+
+  /** Code de sortie lorsque les arguments sont invalides */
+  private static final int EXIT_USAGE = 2;
+
+  /** Code de sortie lorsque la simulation ou l'écriture du rapport échoue */
+  private static final int EXIT_FAILURE = 1;
+
+  /** Moteur physique de l'exécution en cours, lu par le serveur de métriques */
+  private static volatile PhysicsEngine runningEngine;
+
+  /** Classe non instanciable */
+  private BatchSimulation() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  /**
+   * Main de l'application
+   *
+   * @param args Arguments de la ligne de commande, voir {@link BatchSimulationOptions#usage()}
+   */
+  public static void main(String[] args) {
+    System.setProperty("java.awt.headless", "true");
+    LocaleManager.update(ApplicationConstants.DEFAULT_LOCALE);
+
+    disableInfoLog();
+
+    BatchSimulationOptions options;
+    try {
+      String[] arguments =
+          MetricsServer.startFromArguments(
+              WFlightRecorder.startFromArguments(args),
+              new PrometheusExporter(() -> runningEngine));
+      options = BatchSimulationOptions.parse(arguments);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println(BatchSimulationOptions.usage());
+      System.exit(EXIT_USAGE);
+      return;
+    }
+
+    try {
+      BatchSimulationReport report = run(options);
+      writeReport(report, options);
+    } catch (IllegalArgumentException | IOException e) {
+      System.err.println(e.getMessage());
+      System.exit(EXIT_FAILURE);
+    }
+
+    // Le ForkJoinPool commun de l'application n'est pas composé de threads daemon
+    System.exit(0);
+  }
+
+  /** Désactive les logs d'information */
+  private static void disableInfoLog() {
+    LoggerContext ctx = (LoggerContext) LogManager.getContext(false);
+    Configuration config = ctx.getConfiguration();
+    LoggerConfig loggerConfig = config.getLoggerConfig(LogManager.ROOT_LOGGER_NAME);
+    loggerConfig.setLevel(Level.WARN);
+    ctx.updateLoggers();
+  }
+
+  /**
+   * Exécute une simulation selon les options données et mesure son temps d'exécution
+   *
+   * @param options Les options de l'exécution
+   * @return Le rapport de l'exécution
+   * @throws IllegalArgumentException Si la scène ne peut pas être lue
+   * @throws IOException En cas d'erreur de lecture ou d'écriture d'un point de reprise, de
+   *     l'enregistrement des champs ou de l'exportation des images
+   */
+  public static BatchSimulationReport run(BatchSimulationOptions options) throws IOException {
+    int width = options.getWidth();
+    int height = options.getHeight();
+
+    SimulationCheckpoint checkpoint = null;
+    if (options.getRestore() != null) {
+      checkpoint = SimulationCheckpoint.read(options.getRestore().toPath());
+      width = checkpoint.getXLength();
+      height = checkpoint.getYLength();
+    }
+
+    WScene scene = null;
+    String sceneName = "default";
+
+    if (options.getScene() != null) {
+      scene = WSceneReader.read(options.getScene());
+      if (scene == null)
+        throw new IllegalArgumentException("Unable to read scene: " + options.getScene());
+
+      sceneName = scene.getName();
+    }
+
+    SimulationProperties properties = readProperties(scene);
+    SimulationData simulationData = createSimulationData(properties, scene, width, height);
+    if (!Double.isNaN(options.getTimeStep())) simulationData.setTimeStep(options.getTimeStep());
+
+    EngineType engineType = options.getEngine();
+    if (engineType == null)
+      engineType =
+          properties.isMultiThreaded() ? EngineType.MULTI_THREADED : EngineType.SINGLE_THREADED;
+
+    PhysicsEngine engine =
+        engineType == EngineType.MULTI_THREADED
+            ? new PhysicsEngineMultiThreaded(simulationData)
+            : new PhysicsEngine(simulationData);
+    engine.setMaxJacobiIterations(options.getJacobiIterations());
+    engine.setMaxJacobiDiff(options.getJacobiTolerance());
+    if (checkpoint != null) {
+      engine.restoreCheckpoint(checkpoint);
+      if (!Double.isNaN(options.getTimeStep())) simulationData.setTimeStep(options.getTimeStep());
+    }
+    runningEngine = engine;
+
+    FrameRecorder recorder = null;
+    if (options.getRecordDirectory() != null) {
+      recorder =
+          new FrameRecorder(
+              options.getRecordDirectory().toPath(),
+              width,
+              height,
+              options.getRecordFields(),
+              options.getRecordDecimation());
+      engine.addStepListener(recorder);
+    }
+
+    FrameExporter exporter = null;
+    if (options.getExportDirectory() != null) {
+      exporter =
+          new FrameExporter(
+              options.getExportDirectory().toPath(),
+              new OffscreenRenderer(options.getExportVisualization(), options.getExportLegend()),
+              options.getExportFormat(),
+              width,
+              height,
+              options.getExportDecimation(),
+              options.getExportWriters());
+      engine.addStepListener(exporter);
+    }
+
+    Timer timer = engine.getTimer();
+    long elapsed;
+    try {
+      for (int i = 0; i < options.getWarmupSteps(); i++) engine.updateWithoutRender();
+
+      timer.reinitialize();
+
+      long start = System.nanoTime();
+      for (int i = 0; i < options.getSteps(); i++) engine.updateWithoutRender();
+      elapsed = System.nanoTime() - start;
+    } finally {
+      if (recorder != null) {
+        engine.removeStepListener(recorder);
+        recorder.close();
+      }
+      if (exporter != null) {
+        engine.removeStepListener(exporter);
+        exporter.close();
+      }
+    }
+
+    if (options.getCheckpoint() != null) engine.writeCheckpoint(options.getCheckpoint().toPath());
+
+    BatchSimulationReport report =
+        new BatchSimulationReport(
+            sceneName,
+            engineType.getShortName(),
+            width,
+            height,
+            options.getSteps(),
+            simulationData.getTimeStep(),
+            options.getJacobiIterations(),
+            options.getJacobiTolerance(),
+            elapsed);
+
+    for (String stage : PhysicsEngine.STEP_STAGES) addStage(report, timer.getHandle(stage));
+    addStage(report, timer.getHandle(PhysicsEngine.STEP_TIMER));
+
+    return report;
+  }
+
+  /**
+   * Retourne les propriétés de simulation d'une scène, ou les propriétés par défaut
+   *
+   * @param scene La scène, {@code null} pour les propriétés par défaut
+   * @return Les propriétés de la simulation
+   */
+  public static SimulationProperties readProperties(WScene scene) {
+    SimulationProperties properties = new SimulationProperties();
+    if (scene != null && scene.getSimulationProperties() != null)
+      properties.readStandardProperties(scene.getSimulationProperties());
+
+    return properties;
+  }
+
+  /**
+   * Crée les données d'une simulation à une résolution donnée, avec les obstacles de l'image de
+   * l'éditeur d'une scène
+   *
+   * @param properties Les propriétés de la simulation
+   * @param scene La scène, {@code null} pour une simulation sans obstacle
+   * @param width La largeur de la simulation (px)
+   * @param height La hauteur de la simulation (px)
+   * @return Les données de la simulation
+   */
+  public static SimulationData createSimulationData(
+      SimulationProperties properties, WScene scene, int width, int height) {
+    SimulationData simulationData = properties.createSimulationData(width, height);
+
+    if (scene != null && scene.getEditorImage() != null)
+      applyObstacles(simulationData, scene.getEditorImage(), width, height);
+
+    return simulationData;
+  }
+
+  /**
+   * Ajoute au rapport le temps d'exécution d'une étape, si celle-ci a été mesurée
+   *
+   * @param report Le rapport
+   * @param stage Le {@code TimerHandle} de l'étape, {@code null} s'il n'est pas enregistré
+   */
+  private static void addStage(BatchSimulationReport report, TimerHandle stage) {
+    if (stage == null || stage.getCount() == 0) return;
+
+    report.addStage(
+        new BatchSimulationReport.StageTiming(
+            stage.getName(),
+            stage.getCount(),
+            stage.getTotalMillis(),
+            stage.getPercentileMillis(50),
+            stage.getPercentileMillis(95),
+            stage.getPercentileMillis(99),
+            stage.getMaxMillis()));
+  }
+
+  /**
+   * Applique les obstacles d'une image de l'éditeur aux données de simulation. L'image est mise à
+   * l'échelle de la simulation de la même façon que dans l'éditeur, et tout pixel non transparent
+   * est un obstacle.
+   *
+   * @param simulationData Les données de la simulation
+   * @param editorImage L'image de l'éditeur
+   * @param width La largeur de la simulation (px)
+   * @param height La hauteur de la simulation (px)
+   */
+  private static void applyObstacles(
+      SimulationData simulationData, BufferedImage editorImage, int width, int height) {
+    BufferedImage image =
+        new WLayerGenerator(width, height, BufferedImage.TYPE_INT_ARGB)
+            .fixUncompatibleBufferedImage(editorImage);
+
+    int[] presence = new int[width * height];
+    for (int y = 0; y < height; y++)
+      for (int x = 0; x < width; x++)
+        presence[y * width + x] = (image.getRGB(x, y) >>> 24) == 0 ? 0 : 1;
+
+    ObstacleModel.mergeObstacleData(simulationData.getObstacle(), presence);
+  }
+
+  /**
+   * Écrit le rapport dans le fichier des options, ou sur la sortie standard
+   *
+   * @param report Le rapport
+   * @param options Les options de l'exécution
+   * @throws IOException En cas d'erreur d'écriture
+   */
+  private static void writeReport(BatchSimulationReport report, BatchSimulationOptions options)
+      throws IOException {
+    if (options.getOutput() == null) {
+      Writer out = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+      writeReport(report, options, out);
+      out.flush();
+      return;
+    }
+
+    try (BufferedWriter out =
+        Files.newBufferedWriter(options.getOutput().toPath(), StandardCharsets.UTF_8)) {
+      writeReport(report, options, out);
+    }
+  }
+
+  /**
+   * Écrit le rapport dans le format des options
+   *
+   * @param report Le rapport
+   * @param options Les options de l'exécution
+   * @param out La destination du rapport
+   * @throws IOException En cas d'erreur d'écriture
+   */
+  private static void writeReport(
+      BatchSimulationReport report, BatchSimulationOptions options, Appendable out)
+      throws IOException {
+    switch (options.getFormat()) {
+      case JSON:
+        report.writeJson(out);
+        break;
+      default:
+        report.writeCsv(out, true);
+    }
+  }
+}
@@ -0,0 +1,741 @@
+package com.e24.wolke.application;
+
+import com.e24.wolke.backend.metrics.MetricsServer;
+import com.e24.wolke.backend.models.application.ApplicationConstants;
+import com.e24.wolke.backend.models.application.ApplicationConstants.Resolution;
+import com.e24.wolke.backend.models.renderer.RendererConstants.VisualizationType;
+import com.e24.wolke.backend.models.simulation.SimulationConstants;
+import com.e24.wolke.backend.simulation.recording.FrameExporter;
+import com.e24.wolke.backend.simulation.recording.FrameExporter.ImageFormat;
+import com.e24.wolke.backend.simulation.recording.RecordedField;
+import java.io.File;
+import java.util.EnumSet;
+import java.util.Locale;
+
+/**
+ * La classe {@code BatchSimulationOptions} regroupe les options d'une exécution de {@link
+ * BatchSimulation}, lues à partir des arguments de la ligne de commande.
+ *
+ * @author Nilon123456789
+ */
+public class BatchSimulationOptions {
+
+  /**
+   * Les formats de sortie du rapport d'exécution
+   *
+   * <p>[CSV, JSON]
+   *
+   * @author Nilon123456789
+   */
+  public enum OutputFormat {
+    /** Une ligne par étape de la simulation, avec une ligne d'en-tête */
+    CSV,
+
+    /** Un objet JSON contenant la configuration, le débit et les étapes */
+    JSON
+  }
+
+  /**
+   * Les moteurs physiques disponibles
+   *
+   * <p>[SINGLE_THREADED, MULTI_THREADED]
+   *
+   * @author Nilon123456789
+   */
+  public enum EngineType {
+    /** {@code PhysicsEngine} */
+    SINGLE_THREADED("st"),
+
+    /** {@code PhysicsEngineMultiThreaded} */
+    MULTI_THREADED("mt");
+
+    /** Le nom court du moteur, utilisé sur la ligne de commande et dans les rapports */
+    private final String shortName;
+
+    /**
+     * Construction d'un element de {@code EngineType}
+     *
+     * @param shortName Le nom court du moteur
+     */
+    EngineType(String shortName) {
+      this.shortName = shortName;
+    }
+
+    /**
+     * Getter pour {@code this#shortName}
+     *
+     * @return Le nom court du moteur
+     */
+    public String getShortName() {
+      return shortName;
+    }
+
+    /**
+     * Retourne le moteur correspondant à un nom court
+     *
+     * @param shortName Le nom court du moteur
+     * @return Le {@code EngineType} correspondant
+     * @throws IllegalArgumentException Si aucun moteur ne correspond
+     */
+    public static EngineType fromShortName(String shortName) {
+      for (EngineType engineType : EngineType.values())
+        if (engineType.shortName.equalsIgnoreCase(shortName)) return engineType;
+
+      throw new IllegalArgumentException("Unknown engine: " + shortName);
+    }
+  }
+
+  /** Le fichier de scène (.wlks), {@code null} pour la scène par défaut */
+  private File scene;
+
+  /** La largeur de la matrice de la simulation (px) */
+  private int width = ApplicationConstants.DEFAULT_RESOLUTION.getWidth();
+
+  /** La hauteur de la matrice de la simulation (px) */
+  private int height = ApplicationConstants.DEFAULT_RESOLUTION.getHeight();
+
+  /** Le moteur physique, {@code null} pour celui de la scène */
+  private EngineType engine;
+
+  /** Le nombre de pas mesurés */
+  private int steps = 100;
+
+  /** Le nombre de pas exécutés avant la mesure */
+  private int warmupSteps = 10;
+
+  /** Le nombre maximum d'itérations de la méthode de Jacobi */
+  private int jacobiIterations = SimulationConstants.MAX_JACOBI_ITERATIONS;
+
+  /** La tolérance de la méthode de Jacobi */
+  private double jacobiTolerance = SimulationConstants.MAX_JACOBI_DIFF;
+
+  /** Le pas de temps (s), {@code NaN} pour celui de la scène */
+  private double timeStep = Double.NaN;
+
+  /** Le format du rapport */
+  private OutputFormat format = OutputFormat.CSV;
+
+  /** Le fichier du rapport, {@code null} pour la sortie standard */
+  private File output;
+
+  /** Le point de reprise à partir duquel la simulation reprend, {@code null} pour aucun */
+  private File restore;
+
+  /** Le fichier du point de reprise écrit à la fin, {@code null} pour aucun */
+  private File checkpoint;
+
+  /** Le dossier de l'enregistrement des champs, {@code null} pour ne pas enregistrer */
+  private File recordDirectory;
+
+  /** Le nombre d'itérations entre deux images enregistrées */
+  private int recordDecimation = 1;
+
+  /** Les champs enregistrés */
+  private EnumSet<RecordedField> recordFields =
+      EnumSet.of(RecordedField.X_VELOCITY, RecordedField.Y_VELOCITY, RecordedField.PRESSURE);
+
+  /** Le dossier de l'exportation des images, {@code null} pour ne pas exporter */
+  private File exportDirectory;
+
+  /** Le nombre d'itérations entre deux images exportées */
+  private int exportDecimation = 1;
+
+  /** Le format des images exportées */
+  private ImageFormat exportFormat = ImageFormat.PNG;
+
+  /** Le type de visualisation des images exportées */
+  private VisualizationType exportVisualization = VisualizationType.VELOCITY;
+
+  /** Si la légende est dessinée sur les images exportées */
+  private boolean exportLegend;
+
+  /** Le nombre de threads d'écriture des images exportées */
+  private int exportWriters = FrameExporter.DEFAULT_WRITER_THREADS;
+
+  /** Construction d'un {@code BatchSimulationOptions} avec les valeurs par défaut */
+  public BatchSimulationOptions() {}
+
+  /**
+   * Méthode permettant de lire les options à partir des arguments de la ligne de commande
+   *
+   * @param args Les arguments de la ligne de commande
+   * @return Les options lues
+   * @throws IllegalArgumentException Si un argument est inconnu, manquant ou invalide
+   */
+  public static BatchSimulationOptions parse(String[] args) {
+    BatchSimulationOptions options = new BatchSimulationOptions();
+
+    for (int i = 0; i < args.length; i++) {
+      String arg = args[i];
+
+      if (!arg.startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + arg);
+
+      if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + arg);
+      String value = args[++i];
+
+      try {
+        switch (arg) {
+          case "--scene":
+            options.setScene(new File(value));
+            break;
+          case "--resolution":
+            options.setResolution(value);
+            break;
+          case "--engine":
+            options.setEngine(EngineType.fromShortName(value));
+            break;
+          case "--steps":
+            options.setSteps(Integer.parseInt(value));
+            break;
+          case "--warmup":
+            options.setWarmupSteps(Integer.parseInt(value));
+            break;
+          case "--jacobi-iterations":
+            options.setJacobiIterations(Integer.parseInt(value));
+            break;
+          case "--jacobi-tolerance":
+            options.setJacobiTolerance(Double.parseDouble(value));
+            break;
+          case "--time-step":
+            options.setTimeStep(Double.parseDouble(value));
+            break;
+          case "--format":
+            options.setFormat(OutputFormat.valueOf(value.toUpperCase(Locale.ROOT)));
+            break;
+          case "--output":
+            options.setOutput(new File(value));
+            break;
+          case "--restore":
+            options.setRestore(new File(value));
+            break;
+          case "--checkpoint":
+            options.setCheckpoint(new File(value));
+            break;
+          case "--record":
+            options.setRecordDirectory(new File(value));
+            break;
+          case "--record-every":
+            options.setRecordDecimation(Integer.parseInt(value));
+            break;
+          case "--record-fields":
+            options.setRecordFields(RecordedField.parseList(value));
+            break;
+          case "--export":
+            options.setExportDirectory(new File(value));
+            break;
+          case "--export-every":
+            options.setExportDecimation(Integer.parseInt(value));
+            break;
+          case "--export-format":
+            options.setExportFormat(ImageFormat.valueOf(value.toUpperCase(Locale.ROOT)));
+            break;
+          case "--export-field":
+            options.setExportVisualization(
+                VisualizationType.valueOf(value.toUpperCase(Locale.ROOT).replace('-', '_')));
+            break;
+          case "--export-legend":
+            options.setExportLegend(parseBoolean(value));
+            break;
+          case "--export-writers":
+            options.setExportWriters(Integer.parseInt(value));
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown option: " + arg);
+        }
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid value for " + arg + ": " + value, e);
+      }
+    }
+
+    return options;
+  }
+
+  /**
+   * Lit un booléen de la ligne de commande
+   *
+   * @param value La valeur, {@code true} ou {@code false}
+   * @return Le booléen lu
+   * @throws IllegalArgumentException Si la valeur n'est ni {@code true} ni {@code false}
+   */
+  private static boolean parseBoolean(String value) {
+    if (value.equalsIgnoreCase("true")) return true;
+    if (value.equalsIgnoreCase("false")) return false;
+
+    throw new IllegalArgumentException("Invalid boolean: " + value);
+  }
+
+  /**
+   * Retourne le message d'utilisation de la ligne de commande
+   *
+   * @return Le message d'utilisation
+   */
+  public static String usage() {
+    return String.join(
+        System.lineSeparator(),
+        "Usage: BatchSimulation [options]",
+        "  --scene <file.wlks>          Scene to simulate (default: empty domain)",
+        "  --resolution <LOW|MEDIUM|HIGH|ULTRA|WxH>  Simulation grid (default: "
+            + ApplicationConstants.DEFAULT_RESOLUTION.name()
+            + ")",
+        "  --engine <st|mt>             Physics engine (default: scene setting)",
+        "  --steps <n>                  Measured steps (default: 100)",
+        "  --warmup <n>                 Unmeasured steps run first (default: 10)",
+        "  --jacobi-iterations <n>      Pressure solver iteration cap",
+        "  --jacobi-tolerance <x>       Pressure solver tolerance",
+        "  --time-step <s>              Time step (default: scene setting)",
+        "  --format <csv|json>          Report format (default: csv)",
+        "  --output <file>              Report file (default: standard output)",
+        "  --restore <file.wckp>        Resume from a checkpoint (resolution taken from it)",
+        "  --checkpoint <file.wckp>     Write a checkpoint of the final state",
+        "  --record <directory>         Record fields to a ring of segment files",
+        "  --record-every <n>           Record every n-th step (default: 1)",
+        "  --record-fields <a,b,...>    Recorded fields (default: xVelocity,yVelocity,pressure)",
+        "  --export <directory>         Export rendered frames as an image sequence",
+        "  --export-every <n>           Export every n-th step (default: 1)",
+        "  --export-format <png|ppm>    Exported image format (default: png)",
+        "  --export-field <type>        Rendered field, e.g. velocity, pressure, velocity-lic",
+        "  --export-legend <true|false> Draw the colour scale next to the field (default: false)",
+        "  --export-writers <n>         Image encoding threads (default: "
+            + FrameExporter.DEFAULT_WRITER_THREADS
+            + ")",
+        "  --jfr[=<file>]               Record a JFR profile (default: wolke-<date>.jfr)",
+        "  --metrics[=<port>]           Serve Prometheus metrics on localhost (default port: "
+            + MetricsServer.DEFAULT_PORT
+            + ")");
+  }
+
+  /**
+   * Getter pour {@code this#scene}
+   *
+   * @return Le fichier de scène, {@code null} pour la scène par défaut
+   */
+  public File getScene() {
+    return scene;
+  }
+
+  /**
+   * Setter pour {@code this#scene}
+   *
+   * @param scene Le fichier de scène, {@code null} pour la scène par défaut
+   */
+  public void setScene(File scene) {
+    this.scene = scene;
+  }
+
+  /**
+   * Getter pour {@code this#width}
+   *
+   * @return La largeur de la matrice de la simulation (px)
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Getter pour {@code this#height}
+   *
+   * @return La hauteur de la matrice de la simulation (px)
+   */
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * Modifie la résolution de la simulation
+   *
+   * @param width La largeur de la matrice (px)
+   * @param height La hauteur de la matrice (px)
+   */
+  public void setResolution(int width, int height) {
+    if (width < 3 || height < 3)
+      throw new IllegalArgumentException("Resolution must be at least 3x3");
+
+    this.width = width;
+    this.height = height;
+  }
+
+  /**
+   * Modifie la résolution de la simulation à partir du nom d'une {@link Resolution} ou d'une
+   * chaîne de la forme {@code LARGEURxHAUTEUR}
+   *
+   * @param resolution La résolution
+   */
+  public void setResolution(String resolution) {
+    for (Resolution preset : Resolution.values()) {
+      if (!preset.name().equalsIgnoreCase(resolution)) continue;
+
+      setResolution(preset.getWidth(), preset.getHeight());
+      return;
+    }
+
+    String[] size = resolution.toLowerCase(Locale.ROOT).split("x");
+    if (size.length != 2) throw new IllegalArgumentException("Invalid resolution: " + resolution);
+
+    setResolution(Integer.parseInt(size[0].trim()), Integer.parseInt(size[1].trim()));
+  }
+
+  /**
+   * Getter pour {@code this#engine}
+   *
+   * @return Le moteur physique, {@code null} pour celui de la scène
+   */
+  public EngineType getEngine() {
+    return engine;
+  }
+
+  /**
+   * Setter pour {@code this#engine}
+   *
+   * @param engine Le moteur physique, {@code null} pour celui de la scène
+   */
+  public void setEngine(EngineType engine) {
+    this.engine = engine;
+  }
+
+  /**
+   * Getter pour {@code this#steps}
+   *
+   * @return Le nombre de pas mesurés
+   */
+  public int getSteps() {
+    return steps;
+  }
+
+  /**
+   * Setter pour {@code this#steps}
+   *
+   * @param steps Le nombre de pas mesurés, doit être positif
+   */
+  public void setSteps(int steps) {
+    if (steps <= 0) throw new IllegalArgumentException("Steps must be positive");
+
+    this.steps = steps;
+  }
+
+  /**
+   * Getter pour {@code this#warmupSteps}
+   *
+   * @return Le nombre de pas exécutés avant la mesure
+   */
+  public int getWarmupSteps() {
+    return warmupSteps;
+  }
+
+  /**
+   * Setter pour {@code this#warmupSteps}
+   *
+   * @param warmupSteps Le nombre de pas exécutés avant la mesure, ne doit pas être négatif
+   */
+  public void setWarmupSteps(int warmupSteps) {
+    if (warmupSteps < 0) throw new IllegalArgumentException("Warmup steps must not be negative");
+
+    this.warmupSteps = warmupSteps;
+  }
+
+  /**
+   * Getter pour {@code this#jacobiIterations}
+   *
+   * @return Le nombre maximum d'itérations de la méthode de Jacobi
+   */
+  public int getJacobiIterations() {
+    return jacobiIterations;
+  }
+
+  /**
+   * Setter pour {@code this#jacobiIterations}
+   *
+   * @param jacobiIterations Le nombre maximum d'itérations de la méthode de Jacobi
+   */
+  public void setJacobiIterations(int jacobiIterations) {
+    if (jacobiIterations <= 0)
+      throw new IllegalArgumentException("Jacobi iterations must be positive");
+
+    this.jacobiIterations = jacobiIterations;
+  }
+
+  /**
+   * Getter pour {@code this#jacobiTolerance}
+   *
+   * @return La tolérance de la méthode de Jacobi
+   */
+  public double getJacobiTolerance() {
+    return jacobiTolerance;
+  }
+
+  /**
+   * Setter pour {@code this#jacobiTolerance}
+   *
+   * @param jacobiTolerance La tolérance de la méthode de Jacobi
+   */
+  public void setJacobiTolerance(double jacobiTolerance) {
+    if (jacobiTolerance < 0)
+      throw new IllegalArgumentException("Jacobi tolerance must not be negative");
+
+    this.jacobiTolerance = jacobiTolerance;
+  }
+
+  /**
+   * Getter pour {@code this#timeStep}
+   *
+   * @return Le pas de temps (s), {@code NaN} pour celui de la scène
+   */
+  public double getTimeStep() {
+    return timeStep;
+  }
+
+  /**
+   * Setter pour {@code this#timeStep}
+   *
+   * @param timeStep Le pas de temps (s), {@code NaN} pour celui de la scène
+   */
+  public void setTimeStep(double timeStep) {
+    if (timeStep <= 0) throw new IllegalArgumentException("Time step must be positive");
+
+    this.timeStep = timeStep;
+  }
+
+  /**
+   * Getter pour {@code this#format}
+   *
+   * @return Le format du rapport
+   */
+  public OutputFormat getFormat() {
+    return format;
+  }
+
+  /**
+   * Setter pour {@code this#format}
+   *
+   * @param format Le format du rapport
+   */
+  public void setFormat(OutputFormat format) {
+    this.format = format;
+  }
+
+  /**
+   * Getter pour {@code this#output}
+   *
+   * @return Le fichier du rapport, {@code null} pour la sortie standard
+   */
+  public File getOutput() {
+    return output;
+  }
+
+  /**
+   * Setter pour {@code this#output}
+   *
+   * @param output Le fichier du rapport, {@code null} pour la sortie standard
+   */
+  public void setOutput(File output) {
+    this.output = output;
+  }
+
+  /**
+   * Getter pour {@code this#restore}
+   *
+   * @return Le point de reprise à partir duquel la simulation reprend, {@code null} pour aucun
+   */
+  public File getRestore() {
+    return restore;
+  }
+
+  /**
+   * Setter pour {@code this#restore}
+   *
+   * @param restore Le point de reprise à partir duquel la simulation reprend, {@code null} pour
+   *     aucun
+   */
+  public void setRestore(File restore) {
+    this.restore = restore;
+  }
+
+  /**
+   * Getter pour {@code this#checkpoint}
+   *
+   * @return Le fichier du point de reprise écrit à la fin, {@code null} pour aucun
+   */
+  public File getCheckpoint() {
+    return checkpoint;
+  }
+
+  /**
+   * Setter pour {@code this#checkpoint}
+   *
+   * @param checkpoint Le fichier du point de reprise écrit à la fin, {@code null} pour aucun
+   */
+  public void setCheckpoint(File checkpoint) {
+    this.checkpoint = checkpoint;
+  }
+
+  /**
+   * Getter pour {@code this#recordDirectory}
+   *
+   * @return Le dossier de l'enregistrement des champs, {@code null} pour ne pas enregistrer
+   */
+  public File getRecordDirectory() {
+    return recordDirectory;
+  }
+
+  /**
+   * Setter pour {@code this#recordDirectory}
+   *
+   * @param recordDirectory Le dossier de l'enregistrement des champs, {@code null} pour ne pas
+   *     enregistrer
+   */
+  public void setRecordDirectory(File recordDirectory) {
+    this.recordDirectory = recordDirectory;
+  }
+
+  /**
+   * Getter pour {@code this#recordDecimation}
+   *
+   * @return Le nombre d'itérations entre deux images enregistrées
+   */
+  public int getRecordDecimation() {
+    return recordDecimation;
+  }
+
+  /**
+   * Setter pour {@code this#recordDecimation}
+   *
+   * @param recordDecimation Le nombre d'itérations entre deux images enregistrées
+   */
+  public void setRecordDecimation(int recordDecimation) {
+    if (recordDecimation <= 0)
+      throw new IllegalArgumentException("Record decimation must be positive");
+
+    this.recordDecimation = recordDecimation;
+  }
+
+  /**
+   * Getter pour {@code this#recordFields}
+   *
+   * @return Les champs enregistrés
+   */
+  public EnumSet<RecordedField> getRecordFields() {
+    return recordFields;
+  }
+
+  /**
+   * Setter pour {@code this#recordFields}
+   *
+   * @param recordFields Les champs enregistrés
+   */
+  public void setRecordFields(EnumSet<RecordedField> recordFields) {
+    this.recordFields = recordFields;
+  }
+
+  /**
+   * Getter pour {@code this#exportDirectory}
+   *
+   * @return Le dossier de l'exportation des images, {@code null} pour ne pas exporter
+   */
+  public File getExportDirectory() {
+    return exportDirectory;
+  }
+
+  /**
+   * Setter pour {@code this#exportDirectory}
+   *
+   * @param exportDirectory Le dossier de l'exportation des images, {@code null} pour ne pas
+   *     exporter
+   */
+  public void setExportDirectory(File exportDirectory) {
+    this.exportDirectory = exportDirectory;
+  }
+
+  /**
+   * Getter pour {@code this#exportDecimation}
+   *
+   * @return Le nombre d'itérations entre deux images exportées
+   */
+  public int getExportDecimation() {
+    return exportDecimation;
+  }
+
+  /**
+   * Setter pour {@code this#exportDecimation}
+   *
+   * @param exportDecimation Le nombre d'itérations entre deux images exportées
+   */
+  public void setExportDecimation(int exportDecimation) {
+    if (exportDecimation <= 0)
+      throw new IllegalArgumentException("Export decimation must be positive");
+
+    this.exportDecimation = exportDecimation;
+  }
+
+  /**
+   * Getter pour {@code this#exportFormat}
+   *
+   * @return Le format des images exportées
+   */
+  public ImageFormat getExportFormat() {
+    return exportFormat;
+  }
+
+  /**
+   * Setter pour {@code this#exportFormat}
+   *
+   * @param exportFormat Le format des images exportées
+   */
+  public void setExportFormat(ImageFormat exportFormat) {
+    this.exportFormat = exportFormat;
+  }
+
+  /**
+   * Getter pour {@code this#exportVisualization}
+   *
+   * @return Le type de visualisation des images exportées
+   */
+  public VisualizationType getExportVisualization() {
+    return exportVisualization;
+  }
+
+  /**
+   * Setter pour {@code this#exportVisualization}
+   *
+   * @param exportVisualization Le type de visualisation des images exportées
+   */
+  public void setExportVisualization(VisualizationType exportVisualization) {
+    this.exportVisualization = exportVisualization;
+  }
+
+  /**
+   * Getter pour {@code this#exportLegend}
+   *
+   * @return Si la légende est dessinée sur les images exportées
+   */
+  public boolean getExportLegend() {
+    return exportLegend;
+  }
+
+  /**
+   * Setter pour {@code this#exportLegend}
+   *
+   * @param exportLegend Si la légende est dessinée sur les images exportées
+   */
+  public void setExportLegend(boolean exportLegend) {
+    this.exportLegend = exportLegend;
+  }
+
+  /**
+   * Getter pour {@code this#exportWriters}
+   *
+   * @return Le nombre de threads d'écriture des images exportées
+   */
+  public int getExportWriters() {
+    return exportWriters;
+  }
+
+  /**
+   * Setter pour {@code this#exportWriters}
+   *
+   * @param exportWriters Le nombre de threads d'écriture des images exportées
+   */
+  public void setExportWriters(int exportWriters) {
+    if (exportWriters <= 0) throw new IllegalArgumentException("Export writers must be positive");
+
+    this.exportWriters = exportWriters;
+  }
+}
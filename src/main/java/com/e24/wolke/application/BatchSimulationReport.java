@@ -0,0 +1,420 @@
+package com.e24.wolke.application;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * La classe {@code BatchSimulationReport} regroupe les mesures d'une exécution de {@link
+ * BatchSimulation} et permet de les ecrire en CSV ou en JSON.
+ *
+ * @author Nilon123456789
+ */
+public class BatchSimulationReport {
+
+  /** En-tête du rapport CSV */
+  public static final String CSV_HEADER =
+      "scene,engine,width,height,steps,stage,count,total_ms,mean_ms,p50_ms,p95_ms,p99_ms,max_ms,"
+          + "share,"
+          + "steps_per_second,simulated_seconds_per_second,cells_per_second";
+
+  /**
+   * La classe {@code StageTiming} représente le temps d'exécution d'une étape de la simulation
+   *
+   * @author Nilon123456789
+   */
+  public static class StageTiming {
+
+    /** Le nom de l'étape */
+    private final String name;
+
+    /** Le nombre d'exécutions mesurées */
+    private final long count;
+
+    /** Le temps d'exécution total (ms) */
+    private final double totalMs;
+
+    /** Le temps d'exécution médian d'une exécution (ms) */
+    private final double p50Ms;
+
+    /** Le 95e percentile du temps d'exécution d'une exécution (ms) */
+    private final double p95Ms;
+
+    /** Le 99e percentile du temps d'exécution d'une exécution (ms) */
+    private final double p99Ms;
+
+    /** Le plus long temps d'exécution d'une exécution (ms) */
+    private final double maxMs;
+
+    /**
+     * Construction d'un {@code StageTiming}
+     *
+     * @param name Le nom de l'étape
+     * @param count Le nombre d'exécutions mesurées
+     * @param totalMs Le temps d'exécution total (ms)
+     * @param p50Ms Le temps d'exécution médian d'une exécution (ms)
+     * @param p95Ms Le 95e percentile du temps d'exécution d'une exécution (ms)
+     * @param p99Ms Le 99e percentile du temps d'exécution d'une exécution (ms)
+     * @param maxMs Le plus long temps d'exécution d'une exécution (ms)
+     */
+    public StageTiming(
+        String name,
+        long count,
+        double totalMs,
+        double p50Ms,
+        double p95Ms,
+        double p99Ms,
+        double maxMs) {
+      this.name = name;
+      this.count = count;
+      this.totalMs = totalMs;
+      this.p50Ms = p50Ms;
+      this.p95Ms = p95Ms;
+      this.p99Ms = p99Ms;
+      this.maxMs = maxMs;
+    }
+
+    /**
+     * Getter pour {@code this#name}
+     *
+     * @return Le nom de l'étape
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Getter pour {@code this#count}
+     *
+     * @return Le nombre d'exécutions mesurées
+     */
+    public long getCount() {
+      return count;
+    }
+
+    /**
+     * Getter pour {@code this#totalMs}
+     *
+     * @return Le temps d'exécution total (ms)
+     */
+    public double getTotalMs() {
+      return totalMs;
+    }
+
+    /**
+     * Getter pour {@code this#p50Ms}
+     *
+     * @return Le temps d'exécution médian d'une exécution (ms)
+     */
+    public double getP50Ms() {
+      return p50Ms;
+    }
+
+    /**
+     * Getter pour {@code this#p95Ms}
+     *
+     * @return Le 95e percentile du temps d'exécution d'une exécution (ms)
+     */
+    public double getP95Ms() {
+      return p95Ms;
+    }
+
+    /**
+     * Getter pour {@code this#p99Ms}
+     *
+     * @return Le 99e percentile du temps d'exécution d'une exécution (ms)
+     */
+    public double getP99Ms() {
+      return p99Ms;
+    }
+
+    /**
+     * Getter pour {@code this#maxMs}
+     *
+     * @return Le plus long temps d'exécution d'une exécution (ms)
+     */
+    public double getMaxMs() {
+      return maxMs;
+    }
+
+    /**
+     * Retourne le temps d'exécution moyen de l'étape par pas de simulation
+     *
+     * @param steps Le nombre de pas de simulation mesurés
+     * @return Le temps moyen par pas (ms)
+     */
+    public double getMeanMs(int steps) {
+      return steps == 0 ? 0 : totalMs / steps;
+    }
+  }
+
+  /** Le nom de la scène */
+  private final String scene;
+
+  /** Le nom court du moteur physique */
+  private final String engine;
+
+  /** La largeur de la matrice de la simulation (px) */
+  private final int width;
+
+  /** La hauteur de la matrice de la simulation (px) */
+  private final int height;
+
+  /** Le nombre de pas mesurés */
+  private final int steps;
+
+  /** Le pas de temps (s) */
+  private final double timeStep;
+
+  /** Le nombre maximum d'itérations de la méthode de Jacobi */
+  private final int jacobiIterations;
+
+  /** La tolérance de la méthode de Jacobi */
+  private final double jacobiTolerance;
+
+  /** Le temps réel écoulé pendant les pas mesurés (ns) */
+  private final long elapsedNanos;
+
+  /** Le temps d'exécution des étapes, dans l'ordre d'exécution */
+  private final List<StageTiming> stages = new ArrayList<StageTiming>();
+
+  /**
+   * Construction d'un {@code BatchSimulationReport}
+   *
+   * @param scene Le nom de la scène
+   * @param engine Le nom court du moteur physique
+   * @param width La largeur de la matrice de la simulation (px)
+   * @param height La hauteur de la matrice de la simulation (px)
+   * @param steps Le nombre de pas mesurés
+   * @param timeStep Le pas de temps (s)
+   * @param jacobiIterations Le nombre maximum d'itérations de la méthode de Jacobi
+   * @param jacobiTolerance La tolérance de la méthode de Jacobi
+   * @param elapsedNanos Le temps réel écoulé pendant les pas mesurés (ns)
+   */
+  public BatchSimulationReport(
+      String scene,
+      String engine,
+      int width,
+      int height,
+      int steps,
+      double timeStep,
+      int jacobiIterations,
+      double jacobiTolerance,
+      long elapsedNanos) {
+    this.scene = scene;
+    this.engine = engine;
+    this.width = width;
+    this.height = height;
+    this.steps = steps;
+    this.timeStep = timeStep;
+    this.jacobiIterations = jacobiIterations;
+    this.jacobiTolerance = jacobiTolerance;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Ajoute le temps d'exécution d'une étape au rapport
+   *
+   * @param stage Le temps d'exécution de l'étape
+   */
+  public void addStage(StageTiming stage) {
+    stages.add(stage);
+  }
+
+  /**
+   * Retourne le temps d'exécution des étapes
+   *
+   * @return La liste non modifiable des étapes, dans l'ordre d'exécution
+   */
+  public List<StageTiming> getStages() {
+    return Collections.unmodifiableList(stages);
+  }
+
+  /**
+   * Retourne le nombre de pas de simulation par seconde réelle
+   *
+   * @return Le débit de la simulation (pas/s)
+   */
+  public double getStepsPerSecond() {
+    return elapsedNanos == 0 ? 0 : steps / (elapsedNanos / 1e9);
+  }
+
+  /**
+   * Retourne le nombre de secondes simulées par seconde réelle
+   *
+   * @return Le rapport entre le temps simulé et le temps réel
+   */
+  public double getSimulatedSecondsPerSecond() {
+    return getStepsPerSecond() * timeStep;
+  }
+
+  /**
+   * Retourne le nombre de cellules mises à jour par seconde réelle
+   *
+   * @return Le débit de la simulation (cellules/s)
+   */
+  public double getCellsPerSecond() {
+    return getStepsPerSecond() * width * height;
+  }
+
+  /**
+   * Retourne le temps réel écoulé pendant les pas mesurés
+   *
+   * @return Le temps écoulé (ms)
+   */
+  public double getElapsedMs() {
+    return elapsedNanos / 1e6;
+  }
+
+  /**
+   * Écrit le rapport au format CSV, avec une ligne par étape. Les colonnes de configuration et de
+   * débit sont répétées sur chaque ligne, de sorte que les rapports de plusieurs exécutions peuvent
+   * être concaténés.
+   *
+   * @param out La destination du rapport
+   * @param header {@code true} pour écrire la ligne d'en-tête
+   * @throws IOException En cas d'erreur d'écriture
+   */
+  public void writeCsv(Appendable out, boolean header) throws IOException {
+    if (header) out.append(CSV_HEADER).append(System.lineSeparator());
+
+    double totalMs = getElapsedMs();
+
+    for (StageTiming stage : stages) {
+      out.append(
+              String.join(
+                  ",",
+                  csvField(scene),
+                  engine,
+                  Integer.toString(width),
+                  Integer.toString(height),
+                  Integer.toString(steps),
+                  csvField(stage.getName()),
+                  Long.toString(stage.getCount()),
+                  format(stage.getTotalMs()),
+                  format(stage.getMeanMs(steps)),
+                  format(stage.getP50Ms()),
+                  format(stage.getP95Ms()),
+                  format(stage.getP99Ms()),
+                  format(stage.getMaxMs()),
+                  format(totalMs == 0 ? 0 : stage.getTotalMs() / totalMs),
+                  format(getStepsPerSecond()),
+                  format(getSimulatedSecondsPerSecond()),
+                  format(getCellsPerSecond())))
+          .append(System.lineSeparator());
+    }
+  }
+
+  /**
+   * Écrit le rapport au format JSON
+   *
+   * @param out La destination du rapport
+   * @throws IOException En cas d'erreur d'écriture
+   */
+  public void writeJson(Appendable out) throws IOException {
+    String nl = System.lineSeparator();
+
+    out.append("{").append(nl);
+    out.append("  \"scene\": ").append(jsonString(scene)).append(",").append(nl);
+    out.append("  \"engine\": ").append(jsonString(engine)).append(",").append(nl);
+    out.append("  \"width\": ").append(Integer.toString(width)).append(",").append(nl);
+    out.append("  \"height\": ").append(Integer.toString(height)).append(",").append(nl);
+    out.append("  \"steps\": ").append(Integer.toString(steps)).append(",").append(nl);
+    out.append("  \"timeStep\": ").append(format(timeStep)).append(",").append(nl);
+    out.append("  \"jacobiIterations\": ")
+        .append(Integer.toString(jacobiIterations))
+        .append(",")
+        .append(nl);
+    out.append("  \"jacobiTolerance\": ").append(format(jacobiTolerance)).append(",").append(nl);
+    out.append("  \"elapsedMs\": ").append(format(getElapsedMs())).append(",").append(nl);
+    out.append("  \"stepsPerSecond\": ").append(format(getStepsPerSecond())).append(",").append(nl);
+    out.append("  \"simulatedSecondsPerSecond\": ")
+        .append(format(getSimulatedSecondsPerSecond()))
+        .append(",")
+        .append(nl);
+    out.append("  \"cellsPerSecond\": ").append(format(getCellsPerSecond())).append(",").append(nl);
+    out.append("  \"stages\": [");
+
+    for (int i = 0; i < stages.size(); i++) {
+      StageTiming stage = stages.get(i);
+      out.append(i == 0 ? "" : ",").append(nl);
+      out.append("    {\"name\": ")
+          .append(jsonString(stage.getName()))
+          .append(", \"count\": ")
+          .append(Long.toString(stage.getCount()))
+          .append(", \"totalMs\": ")
+          .append(format(stage.getTotalMs()))
+          .append(", \"meanMs\": ")
+          .append(format(stage.getMeanMs(steps)))
+          .append(", \"p50Ms\": ")
+          .append(format(stage.getP50Ms()))
+          .append(", \"p95Ms\": ")
+          .append(format(stage.getP95Ms()))
+          .append(", \"p99Ms\": ")
+          .append(format(stage.getP99Ms()))
+          .append(", \"maxMs\": ")
+          .append(format(stage.getMaxMs()))
+          .append("}");
+    }
+
+    out.append(stages.isEmpty() ? "" : nl + "  ").append("]").append(nl);
+    out.append("}").append(nl);
+  }
+
+  /**
+   * Formate un nombre décimal indépendamment de la locale
+   *
+   * @param value Le nombre à formater
+   * @return Le nombre formate
+   */
+  private static String format(double value) {
+    if (Double.isNaN(value) || Double.isInfinite(value)) return "0";
+    return String.format(Locale.ROOT, "%.6g", value);
+  }
+
+  /**
+   * Protège une valeur CSV contenant des séparateurs ou des guillemets
+   *
+   * @param value La valeur à protéger
+   * @return La valeur protégée
+   */
+  private static String csvField(String value) {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return value;
+    return "\"" + value.replace("\"", "\"\"") + "\"";
+  }
+
+  /**
+   * Protège une chaîne de caractères JSON
+   *
+   * @param value La chaîne à protéger
+   * @return La chaîne JSON, entre guillemets
+   */
+  private static String jsonString(String value) {
+    StringBuilder builder = new StringBuilder("\"");
+    for (char c : value.toCharArray()) {
+      switch (c) {
+        case '"':
+          builder.append("\\\"");
+          break;
+        case '\\':
+          builder.append("\\\\");
+          break;
+        case '\n':
+          builder.append("\\n");
+          break;
+        case '\r':
+          builder.append("\\r");
+          break;
+        case '\t':
+          builder.append("\\t");
+          break;
+        default:
+          if (c < 0x20) builder.append(String.format("\\u%04x", (int) c));
+          else builder.append(c);
+      }
+    }
+    return builder.append('"').toString();
+  }
+}
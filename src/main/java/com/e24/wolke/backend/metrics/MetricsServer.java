@@ -0,0 +1,214 @@
+package com.e24.wolke.backend.metrics;
+
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * MetricsServer.java
+ *
+ * <p>Serveur HTTP local qui expose les métriques d'un {@link PrometheusExporter} sur {@code
+ * http://localhost:<port>/metrics}, afin de suivre une simulation de longue durée sans interface
+ * graphique. Le serveur n'écoute que sur l'interface de bouclage et ne répond qu'aux requêtes
+ * {@code GET} et {@code HEAD}.
+ *
+ * <p>Le serveur est désactivé par défaut, il est démarré par l'option {@value #OPTION} de la ligne
+ * de commande, voir {@link #startFromArguments(String[], PrometheusExporter)}.
+ *
+ * @author Nilon123456789
+ */
+public class MetricsServer {
+
+  /** Option de la ligne de commande, seule ou suivie de {@code =<port>} */
+  public static final String OPTION = "--metrics";
+
+  /** Port par défaut du serveur */
+  public static final int DEFAULT_PORT = 9464;
+
+  /** Chemin des métriques */
+  public static final String PATH = "/metrics";
+
+  /** Code HTTP d'une méthode non permise */
+  private static final int METHOD_NOT_ALLOWED = 405;
+
+  /** Code HTTP d'une réponse réussie */
+  private static final int OK = 200;
+
+  /** Logger de la classe */
+  private static final Logger LOGGER = LogManager.getLogger(MetricsServer.class.getSimpleName());
+
+  /** Source des métriques */
+  private final PrometheusExporter exporter;
+
+  /** Port demandé, {@code 0} pour un port libre choisi par le système */
+  private final int requestedPort;
+
+  /** Serveur HTTP, {@code null} s'il n'est pas démarré */
+  private HttpServer server;
+
+  /** Thread unique qui répond aux requêtes */
+  private ExecutorService executor;
+
+  /**
+   * Constructeur de la classe MetricsServer
+   *
+   * @param exporter Source des métriques
+   * @param port Port du serveur, {@code 0} pour un port libre choisi par le système
+   * @throws IllegalArgumentException Si le port n'est pas entre {@code 0} et {@code 65535}
+   */
+  public MetricsServer(PrometheusExporter exporter, int port) {
+    if (port < 0 || port > 0xFFFF) throw new IllegalArgumentException("Invalid port: " + port);
+
+    this.exporter = exporter;
+    this.requestedPort = port;
+  }
+
+  /**
+   * Retire l'option {@value #OPTION} des arguments de la ligne de commande et démarre un serveur si
+   * elle est présente. Sans port, le serveur écoute sur {@link #DEFAULT_PORT}.
+   *
+   * @param args Les arguments de la ligne de commande
+   * @param exporter Source des métriques
+   * @return Les arguments sans l'option {@value #OPTION}
+   * @throws IllegalArgumentException Si le port de l'option est invalide
+   */
+  public static String[] startFromArguments(String[] args, PrometheusExporter exporter) {
+    List<String> remaining = new ArrayList<>(args.length);
+    int port = -1;
+
+    for (String arg : args) {
+      if (arg.equals(OPTION)) port = DEFAULT_PORT;
+      else if (arg.startsWith(OPTION + "=")) port = parsePort(arg.substring(OPTION.length() + 1));
+      else remaining.add(arg);
+    }
+
+    if (port >= 0) new MetricsServer(exporter, port).start();
+
+    return remaining.toArray(new String[0]);
+  }
+
+  /**
+   * Lit le port de l'option {@value #OPTION}
+   *
+   * @param value La valeur de l'option
+   * @return Le port
+   * @throws IllegalArgumentException Si la valeur n'est pas un port valide
+   */
+  private static int parsePort(String value) {
+    try {
+      int port = Integer.parseInt(value);
+      if (port < 0 || port > 0xFFFF) throw new IllegalArgumentException("Invalid port: " + value);
+      return port;
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid value for " + OPTION + ": " + value, e);
+    }
+  }
+
+  /**
+   * Démarre le serveur. Une erreur au démarrage, par exemple un port déjà utilisé, est journalisée
+   * sans interrompre l'application.
+   *
+   * @return {@code true} si le serveur a démarré
+   */
+  public synchronized boolean start() {
+    if (server != null) return false;
+
+    InetSocketAddress address =
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), requestedPort);
+    try {
+      server = HttpServer.create(address, 0);
+    } catch (IOException e) {
+      LOGGER.error(
+          LocaleManager.getLocaleResourceBundle().getString("log.metricsServer.failed"),
+          requestedPort,
+          e.getMessage());
+      return false;
+    }
+
+    executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "MetricsServer");
+              thread.setDaemon(true);
+              return thread;
+            });
+
+    server.createContext(PATH, this::handle);
+    server.setExecutor(executor);
+    server.start();
+
+    LOGGER.info(
+        LocaleManager.getLocaleResourceBundle().getString("log.metricsServer.started"),
+        "http://localhost:" + getPort() + PATH);
+    return true;
+  }
+
+  /** Arrête le serveur */
+  public synchronized void stop() {
+    if (server == null) return;
+
+    server.stop(0);
+    executor.shutdownNow();
+    server = null;
+    executor = null;
+  }
+
+  /**
+   * Retourne si le serveur est démarré
+   *
+   * @return {@code true} si le serveur est démarré
+   */
+  public synchronized boolean isRunning() {
+    return server != null;
+  }
+
+  /**
+   * Retourne le port sur lequel le serveur écoute
+   *
+   * @return Le port, ou le port demandé si le serveur n'est pas démarré
+   */
+  public synchronized int getPort() {
+    return server == null ? requestedPort : server.getAddress().getPort();
+  }
+
+  /**
+   * Répond à une requête sur {@link #PATH}
+   *
+   * @param exchange La requête
+   * @throws IOException En cas d'erreur d'écriture de la réponse
+   */
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      String method = exchange.getRequestMethod();
+      if (!method.equals("GET") && !method.equals("HEAD")) {
+        exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+        exchange.sendResponseHeaders(METHOD_NOT_ALLOWED, -1);
+        return;
+      }
+
+      byte[] body = exporter.scrape().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", PrometheusExporter.CONTENT_TYPE);
+
+      if (method.equals("HEAD")) {
+        exchange.sendResponseHeaders(OK, -1);
+        return;
+      }
+
+      exchange.sendResponseHeaders(OK, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    }
+  }
+}
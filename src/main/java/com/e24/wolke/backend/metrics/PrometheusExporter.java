@@ -0,0 +1,328 @@
+package com.e24.wolke.backend.metrics;
+
+import com.e24.wolke.backend.models.simulation.SimulationConstants.ENGINE_STATE;
+import com.e24.wolke.backend.simulation.physics.ParticleMatrixPool;
+import com.e24.wolke.backend.simulation.physics.SimulationData;
+import com.e24.wolke.backend.simulation.physics.engine.PhysicsEngine;
+import com.e24.wolke.utils.LatencyHistogram;
+import com.e24.wolke.utils.Timer;
+import com.e24.wolke.utils.TimerHandle;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * PrometheusExporter.java
+ *
+ * <p>Produit les métriques de la simulation dans le format texte de Prometheus (version 0.0.4) :
+ * débit du moteur physique, histogrammes des durées de chaque {@link TimerHandle}, occupation de la
+ * piscine de matrices, file de rendu et statistiques de la JVM (mémoire, GC, threads).
+ *
+ * <p>Les sources sont lues à chaque appel de {@link #scrape()} au travers de {@link Supplier}, de
+ * sorte que le moteur ou les timers peuvent être remplacés entre deux lectures, par exemple lors de
+ * la réinitialisation de l'application. Une source qui retourne {@code null} est ignorée.
+ *
+ * @see MetricsServer
+ * @author Nilon123456789
+ */
+public class PrometheusExporter {
+
+  /** Type de contenu du format texte de Prometheus */
+  public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  /** Préfixe des métriques de l'application */
+  private static final String PREFIX = "wolke_";
+
+  /** Bornes supérieures des classes des histogrammes de durées (s) */
+  private static final double[] DURATION_BUCKETS = {
+    0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5
+  };
+
+  /** Nombre de nanosecondes dans une seconde */
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  /** Nombre de millisecondes dans une seconde */
+  private static final double MILLIS_PER_SECOND = 1_000.0;
+
+  /** Source du moteur physique */
+  private final Supplier<PhysicsEngine> engineSupplier;
+
+  /** Sources des timers exportés en plus de celui du moteur physique */
+  private final List<Supplier<Timer>> timerSuppliers = new CopyOnWriteArrayList<>();
+
+  /**
+   * Constructeur de la classe PrometheusExporter
+   *
+   * @param engineSupplier Source du moteur physique, dont le timer est exporté
+   */
+  public PrometheusExporter(Supplier<PhysicsEngine> engineSupplier) {
+    this.engineSupplier = engineSupplier;
+  }
+
+  /**
+   * Ajoute un timer dont les {@link TimerHandle} sont exportés
+   *
+   * @param timerSupplier Source du timer
+   * @return Cette instance
+   */
+  public PrometheusExporter addTimer(Supplier<Timer> timerSupplier) {
+    timerSuppliers.add(timerSupplier);
+    return this;
+  }
+
+  /**
+   * Produit les métriques actuelles
+   *
+   * @return Les métriques, dans le format texte de Prometheus
+   */
+  public String scrape() {
+    StringBuilder out = new StringBuilder(8192);
+
+    PhysicsEngine engine = engineSupplier.get();
+    if (engine != null) writeEngine(out, engine);
+
+    writeTimers(out, engine);
+    writeJvm(out);
+
+    return out.toString();
+  }
+
+  /**
+   * Écrit les métriques du moteur physique et de ses données
+   *
+   * @param out La destination
+   * @param engine Le moteur physique
+   */
+  private void writeEngine(StringBuilder out, PhysicsEngine engine) {
+    TimerHandle stepTimer = engine.getTimer().getHandle(PhysicsEngine.STEP_TIMER);
+
+    writeHeader(out, "simulation_steps_total", "counter", "Simulation steps computed");
+    writeSample(out, "simulation_steps_total", "", stepTimer == null ? 0 : stepTimer.getCount());
+
+    writeHeader(out, "simulation_iteration", "gauge", "Current simulation iteration");
+    writeSample(out, "simulation_iteration", "", engine.getCurrentIteration());
+
+    writeHeader(out, "simulation_time_seconds", "gauge", "Simulated time");
+    writeSample(out, "simulation_time_seconds", "", engine.getCurrentTime());
+
+    writeHeader(out, "simulation_running", "gauge", "1 if the simulation loop is running");
+    writeSample(out, "simulation_running", "", engine.getState() == ENGINE_STATE.RUNNING ? 1 : 0);
+
+    writeHeader(
+        out, "simulation_steps_per_second", "gauge", "Steps per second over the last second");
+    writeSample(
+        out,
+        "simulation_steps_per_second",
+        "",
+        engine.getStepScheduler().getAchievedStepsPerSecond());
+
+    writeHeader(
+        out, "pressure_solver_iterations", "gauge", "Jacobi iterations of the last pressure solve");
+    writeSample(out, "pressure_solver_iterations", "", engine.getLastPressureSolverIterations());
+
+    SimulationData simulationData = engine.getSimulationData();
+    if (simulationData == null) return;
+
+    writeHeader(out, "render_queue_depth", "gauge", "Particle matrices waiting to be rendered");
+    writeSample(out, "render_queue_depth", "", simulationData.getRenderParticleMatrixQueueSize());
+
+    writeHeader(
+        out, "render_dropped_frames_total", "counter", "Frames discarded without being drawn");
+    writeSample(out, "render_dropped_frames_total", "", simulationData.getDroppedFrameCount());
+
+    ParticleMatrixPool pool = simulationData.getParticleMatrixPool();
+    if (pool == null) return;
+
+    writeHeader(out, "pool_available", "gauge", "Particle matrices available in the pool");
+    writeSample(out, "pool_available", "", pool.getSize());
+
+    writeHeader(out, "pool_borrows_total", "counter", "Particle matrices borrowed from the pool");
+    writeSample(out, "pool_borrows_total", "", pool.getBorrowCount());
+
+    writeHeader(out, "pool_hits_total", "counter", "Particle matrices borrowed without allocation");
+    writeSample(out, "pool_hits_total", "", pool.getHitCount());
+  }
+
+  /**
+   * Écrit l'histogramme des durées de chaque {@link TimerHandle} du moteur physique et des timers
+   * ajoutés
+   *
+   * @param out La destination
+   * @param engine Le moteur physique, {@code null} s'il n'y en a pas
+   */
+  private void writeTimers(StringBuilder out, PhysicsEngine engine) {
+    List<Timer> timers = new ArrayList<>();
+    if (engine != null) timers.add(engine.getTimer());
+    for (Supplier<Timer> timerSupplier : timerSuppliers) {
+      Timer timer = timerSupplier.get();
+      if (timer != null) timers.add(timer);
+    }
+
+    writeHeader(out, "timer_duration_seconds", "histogram", "Duration of each timed stage");
+
+    for (Timer timer : timers) {
+      for (TimerHandle handle : timer.getHandles()) {
+        String labels =
+            "category=\""
+                + escape(timer.getCategorieName())
+                + "\",timer=\""
+                + escape(handle.getName())
+                + "\"";
+        writeHistogram(out, "timer_duration_seconds", labels, handle.getHistogram());
+      }
+    }
+  }
+
+  /**
+   * Écrit les séries d'un histogramme de durées
+   *
+   * @param out La destination
+   * @param name Le nom de la métrique, sans préfixe
+   * @param labels Les étiquettes de l'histogramme, sans accolades
+   * @param histogram L'histogramme
+   */
+  private static void writeHistogram(
+      StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+    long count = histogram.getCount();
+
+    for (double bucket : DURATION_BUCKETS) {
+      long cumulative = histogram.getCountAtOrBelow((long) (bucket * NANOS_PER_SECOND));
+      writeSample(out, name + "_bucket", labels + ",le=\"" + format(bucket) + "\"", cumulative);
+    }
+    writeSample(out, name + "_bucket", labels + ",le=\"+Inf\"", count);
+    writeSample(out, name + "_sum", labels, histogram.getTotal() / NANOS_PER_SECOND);
+    writeSample(out, name + "_count", labels, count);
+  }
+
+  /**
+   * Écrit les métriques de la JVM : mémoire, ramasse-miettes, threads et temps d'exécution
+   *
+   * @param out La destination
+   */
+  private static void writeJvm(StringBuilder out) {
+    MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    MemoryUsage nonHeap = ManagementFactory.getMemoryMXBean().getNonHeapMemoryUsage();
+
+    writeRawHeader(out, "jvm_memory_used_bytes", "gauge", "Used memory");
+    writeRawSample(out, "jvm_memory_used_bytes", "area=\"heap\"", heap.getUsed());
+    writeRawSample(out, "jvm_memory_used_bytes", "area=\"nonheap\"", nonHeap.getUsed());
+
+    writeRawHeader(out, "jvm_memory_committed_bytes", "gauge", "Committed memory");
+    writeRawSample(out, "jvm_memory_committed_bytes", "area=\"heap\"", heap.getCommitted());
+    writeRawSample(out, "jvm_memory_committed_bytes", "area=\"nonheap\"", nonHeap.getCommitted());
+
+    writeRawHeader(out, "jvm_memory_max_bytes", "gauge", "Maximum memory, -1 if undefined");
+    writeRawSample(out, "jvm_memory_max_bytes", "area=\"heap\"", heap.getMax());
+    writeRawSample(out, "jvm_memory_max_bytes", "area=\"nonheap\"", nonHeap.getMax());
+
+    List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+    writeRawHeader(out, "jvm_gc_collections_total", "counter", "Garbage collections");
+    for (GarbageCollectorMXBean collector : collectors)
+      writeRawSample(
+          out,
+          "jvm_gc_collections_total",
+          "gc=\"" + escape(collector.getName()) + "\"",
+          Math.max(0, collector.getCollectionCount()));
+
+    writeRawHeader(
+        out, "jvm_gc_collection_seconds_total", "counter", "Time spent in garbage collections");
+    for (GarbageCollectorMXBean collector : collectors)
+      writeRawSample(
+          out,
+          "jvm_gc_collection_seconds_total",
+          "gc=\"" + escape(collector.getName()) + "\"",
+          Math.max(0, collector.getCollectionTime()) / MILLIS_PER_SECOND);
+
+    writeRawHeader(out, "jvm_threads_live", "gauge", "Live threads");
+    writeRawSample(
+        out, "jvm_threads_live", "", ManagementFactory.getThreadMXBean().getThreadCount());
+
+    writeRawHeader(out, "process_uptime_seconds", "gauge", "Time since the JVM started");
+    writeRawSample(
+        out,
+        "process_uptime_seconds",
+        "",
+        ManagementFactory.getRuntimeMXBean().getUptime() / MILLIS_PER_SECOND);
+  }
+
+  /**
+   * Écrit l'aide et le type d'une métrique de l'application
+   *
+   * @param out La destination
+   * @param name Le nom de la métrique, sans préfixe
+   * @param type Le type de la métrique
+   * @param help La description de la métrique
+   */
+  private static void writeHeader(StringBuilder out, String name, String type, String help) {
+    writeRawHeader(out, PREFIX + name, type, help);
+  }
+
+  /**
+   * Écrit l'aide et le type d'une métrique
+   *
+   * @param out La destination
+   * @param name Le nom complet de la métrique
+   * @param type Le type de la métrique
+   * @param help La description de la métrique
+   */
+  private static void writeRawHeader(StringBuilder out, String name, String type, String help) {
+    out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  /**
+   * Écrit une valeur d'une métrique de l'application
+   *
+   * @param out La destination
+   * @param name Le nom de la métrique, sans préfixe
+   * @param labels Les étiquettes, sans accolades, vide s'il n'y en a pas
+   * @param value La valeur
+   */
+  private static void writeSample(StringBuilder out, String name, String labels, double value) {
+    writeRawSample(out, PREFIX + name, labels, value);
+  }
+
+  /**
+   * Écrit une valeur d'une métrique
+   *
+   * @param out La destination
+   * @param name Le nom complet de la métrique
+   * @param labels Les étiquettes, sans accolades, vide s'il n'y en a pas
+   * @param value La valeur
+   */
+  private static void writeRawSample(StringBuilder out, String name, String labels, double value) {
+    out.append(name);
+    if (!labels.isEmpty()) out.append('{').append(labels).append('}');
+    out.append(' ').append(format(value)).append('\n');
+  }
+
+  /**
+   * Formate une valeur selon le format de Prometheus
+   *
+   * @param value La valeur
+   * @return La valeur formatée, sans décimales si elle est entière et sans notation scientifique
+   */
+  private static String format(double value) {
+    if (Double.isNaN(value)) return "NaN";
+    if (Double.isInfinite(value)) return value > 0 ? "+Inf" : "-Inf";
+    if (value == Math.rint(value) && Math.abs(value) < 1e15) return Long.toString((long) value);
+
+    return BigDecimal.valueOf(value).toPlainString();
+  }
+
+  /**
+   * Échappe la valeur d'une étiquette
+   *
+   * @param value La valeur
+   * @return La valeur échappée
+   */
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+}
@@ -36,6 +36,9 @@ public class ApplicationModel extends WModelSaveable {
   /** Les coordonées de la cellule actuellement inspectée par l'inspecteur */
   private Integer[] currentInspectorPosition = {0, 0};
 
+  /** L'état d'affichage du panneau de performance, qui n'est pas sauvegardé */
+  private boolean performancePaneVisibility = false;
+
   /**
    * Les coordonées de la souris par rapport au panneau de rendu en fonction de sa résolution. -1,
    * -1 si la souris n'est pas sur le panneau de rendu
@@ -232,6 +235,25 @@ public class ApplicationModel extends WModelSaveable {
     return properties.zenModeVisibility;
   }
 
+  /**
+   * Setter pour l'état d'affichage du panneau de performance
+   *
+   * @param visibility le nouvel état d'affichage du panneau de performance
+   */
+  public void setPerformancePaneVisibility(boolean visibility) {
+    performancePaneVisibility = visibility;
+    getPublisher().publish(Subject.ON_APP_PERFORMANCE_PANE_VISIBILITY_CHANGED, visibility);
+  }
+
+  /**
+   * Getter pour l'état d'affichage du panneau de performance
+   *
+   * @return l'état d'affichage du panneau de performance
+   */
+  public boolean getPerformancePaneVisibility() {
+    return performancePaneVisibility;
+  }
+
   // =======================
   // INSPECTOR METHODS
   // =======================
@@ -32,6 +32,9 @@ public class EditorModel extends WModel implements WSceneMember<BufferedImage> {
   /** L'image fusionnee */
   private BufferedImage editorImage;
 
+  /** Version de {@code this#editorImage}, incrementee a chaque actualisation */
+  private volatile long editorImageVersion;
+
   /** Le {@code WLayerManager} de l'instance */
   // private WLayerManager layerManager;
   private LayerModel layerModel;
@@ -185,6 +188,16 @@ public class EditorModel extends WModel implements WSceneMember<BufferedImage> {
 
     editorImage = image;
     image = null;
+    editorImageVersion++;
+  }
+
+  /**
+   * Getter pour la version de l'image de l'editeur, qui change a chaque actualisation de l'image
+   *
+   * @return La version de l'image de l'editeur
+   */
+  public long getEditorImageVersion() {
+    return editorImageVersion;
   }
 
   /**
@@ -2,7 +2,9 @@ package com.e24.wolke.backend.models.editor.layers;
 
 import com.e24.wolke.eventsystem.WNotifier;
 import com.e24.wolke.utils.Timer;
+import com.e24.wolke.utils.TimerHandle;
 import com.e24.wolke.utils.images.WImageUtils;
+import com.e24.wolke.utils.jfr.LayerMergeEvent;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.Raster;
@@ -54,6 +56,22 @@ public class WLayerMergeProcessor extends WNotifier implements Runnable {
   /** Le {@code Timer} de cette instance */
   private Timer timer = new Timer("WLayerMergeProcessor", LOGGER);
 
+  /** Timer de la fusion des calques */
+  private final TimerHandle mergeLayersTimer =
+      timer.register("mergeLayers").setAutoPrintFrequency(500);
+
+  /** Timer de la conversion en tableau binaire */
+  private final TimerHandle toBinaryArrayTimer =
+      timer.register("toBinaryArray").setAutoPrintFrequency(500);
+
+  /** Timer de la suppression du cache des calques */
+  private final TimerHandle clearCachedLayersTimer =
+      timer.register("clearCachedLayers").setAutoPrintFrequency(500);
+
+  /** Timer de la mise en cache des calques */
+  private final TimerHandle updateCachedLayersTimer =
+      timer.register("updateCachedLayers").setAutoPrintFrequency(500);
+
   /** Valeur pour determiner si le processus est en cours de mise a jour */
   private boolean isUpdating = false;
 
@@ -75,11 +93,6 @@ public class WLayerMergeProcessor extends WNotifier implements Runnable {
 
     emptyRaster = WImageUtils.createCompatibleEmptyRaster(mergedImage);
 
-    timer.setupAutoAveragePrint("mergeLayers", 500);
-    timer.setupAutoAveragePrint("toBinaryArray", 500);
-    timer.setupAutoAveragePrint("clearCachedLayers", 500);
-    timer.setupAutoAveragePrint("updateCachedLayers", 500);
-
     initialize();
   }
 
@@ -93,9 +106,22 @@ public class WLayerMergeProcessor extends WNotifier implements Runnable {
   public void update() {
     if (isUpdating) return;
     isUpdating = true;
+
+    LayerMergeEvent event = new LayerMergeEvent();
+    event.begin();
+
     mergeLayers();
     toBinaryArray();
     notifyObservers();
+
+    event.end();
+    if (event.shouldCommit()) {
+      event.layerCount = layerList.size();
+      event.width = layerList.getLayerGenerator().getWidth();
+      event.height = layerList.getLayerGenerator().getHeight();
+      event.commit();
+    }
+
     isUpdating = false;
   }
 
@@ -124,12 +150,12 @@ public class WLayerMergeProcessor extends WNotifier implements Runnable {
    * this#cachedUnderLayer}
    */
   private void clearCachedLayers() {
-    timer.start("clearCachedLayers");
+    long start = clearCachedLayersTimer.start();
 
     cachedOverLayer.setData(emptyRaster);
     cachedUnderLayer.setData(emptyRaster);
 
-    timer.stop("clearCachedLayers");
+    clearCachedLayersTimer.stop(start);
   }
 
   /**
@@ -137,7 +163,7 @@ public class WLayerMergeProcessor extends WNotifier implements Runnable {
    * de modification
    */
   private void updateCachedLayers() {
-    timer.start("updateCachedLayers");
+    long start = updateCachedLayersTimer.start();
     clearCachedLayers();
 
     WLayer[] overLayers = this.layerList.getLayersAboveSelection();
@@ -150,12 +176,12 @@ public class WLayerMergeProcessor extends WNotifier implements Runnable {
 
     if (this.hasUnderLayer) this.cachedUnderLayer = WLayerList.mergeLayers(underLayers);
 
-    timer.stop("updateCachedLayers");
+    updateCachedLayersTimer.stop(start);
   }
 
   /** Methode permettant de fusionner les calques du {@code this#manager} */
   private void mergeLayers() {
-    timer.start("mergeLayers");
+    long start = mergeLayersTimer.start();
 
     BufferedImage tempCanvas = this.layerList.getLayerGenerator().createBufferedImage();
     Graphics2D g2d = tempCanvas.createGraphics();
@@ -171,7 +197,7 @@ public class WLayerMergeProcessor extends WNotifier implements Runnable {
     mergedImage = tempCanvas;
     tempCanvas = null;
 
-    timer.stop("mergeLayers");
+    mergeLayersTimer.stop(start);
   }
 
   /**
@@ -179,7 +205,7 @@ public class WLayerMergeProcessor extends WNotifier implements Runnable {
    * si le pixel est non-transparent, 0 si le pixel est transparent)
    */
   private void toBinaryArray() {
-    timer.start("toBinaryArray");
+    long start = toBinaryArrayTimer.start();
 
     Raster alphaRaster = mergedImage.getAlphaRaster();
 
@@ -188,7 +214,7 @@ public class WLayerMergeProcessor extends WNotifier implements Runnable {
     for (int i = 0; i < alphaRaster.getDataBuffer().getSize(); i++)
       this.mergedImageData[i] = alphaRaster.getDataBuffer().getElem(i) == 0 ? 0 : 1;
 
-    timer.stop("toBinaryArray");
+    toBinaryArrayTimer.stop(start);
   }
 
   /**
@@ -212,6 +238,15 @@ public class WLayerMergeProcessor extends WNotifier implements Runnable {
     return mergedImageData;
   }
 
+  /**
+   * Getter pour {@code this#timer}, le timer qui mesure le temps d'execution de la fusion
+   *
+   * @return Le {@code Timer} de cette instance
+   */
+  public Timer getTimer() {
+    return timer;
+  }
+
   /** Methode permettant de commencer le processus d'observation des calques */
   public void start() {
     if (isRunning) {
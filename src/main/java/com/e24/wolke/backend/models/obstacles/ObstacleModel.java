@@ -2,6 +2,7 @@ package com.e24.wolke.backend.models.obstacles;
 
 import com.e24.wolke.backend.controller.Controller;
 import com.e24.wolke.backend.models.WModel;
+import com.e24.wolke.utils.jfr.ObstacleRebuildEvent;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -150,9 +151,18 @@ public class ObstacleModel extends WModel {
 
   /** Methode a invoquer lors du nouveau calcul d'obstacles */
   public void recalculateObstacles() {
+    ObstacleRebuildEvent event = new ObstacleRebuildEvent();
+    event.begin();
+
     this.retrieveObstaclePresenceData();
     this.mergeObstacleData();
     this.notifySimulationModel();
+
+    event.end();
+    if (event.shouldCommit()) {
+      event.cellCount = obstacleMatrix.getSize();
+      event.commit();
+    }
   }
 
   /** {@inheritDoc} */
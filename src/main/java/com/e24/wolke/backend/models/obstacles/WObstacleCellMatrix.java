@@ -24,6 +24,9 @@ public class WObstacleCellMatrix extends WMatrix1D<WObstacleCell> {
   /** Si cette matrice d'obstacles a une bordure */
   private boolean hasBorder;
 
+  /** Nombre de modifications de la matrice, voir {@code WObstacleMask#isUpToDate} */
+  private volatile int modificationCount;
+
   /**
    * Construction d'un {@code WObstacleMatrix} avec une longueur en x et en y. La matrice a une
    * bordure par defaut.
@@ -56,6 +59,23 @@ public class WObstacleCellMatrix extends WMatrix1D<WObstacleCell> {
     return borderIndices;
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public void setElementAt(WObstacleCell element, int pos) {
+    super.setElementAt(element, pos);
+    modificationCount++;
+  }
+
+  /**
+   * Getter pour le nombre de modifications faites par {@code this#setElementAt}. Les ecritures
+   * directes dans le tableau de {@code this#getMatrix()} ne sont pas comptees.
+   *
+   * @return Le nombre de modifications de la matrice
+   */
+  public int getModificationCount() {
+    return modificationCount;
+  }
+
   /** Genere la matrice d'orientation des normales */
   public void generateNormalMatrix() {
     for (int i = 0; i < getSize(); i++) {
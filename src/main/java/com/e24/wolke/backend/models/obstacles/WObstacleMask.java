@@ -0,0 +1,111 @@
+package com.e24.wolke.backend.models.obstacles;
+
+/**
+ * La classe {@code WObstacleMask} est une copie compacte de la presence des obstacles d'un {@code
+ * WObstacleCellMatrix}, a raison d'un bit par cellule. Elle peut etre lue par plusieurs threads
+ * sans acceder aux {@code WObstacleCell}.
+ *
+ * @author Nilon123456789
+ */
+public final class WObstacleMask {
+
+  /** Les bits de presence, un {@code long} par groupe de 64 cellules */
+  private final long[] bits;
+
+  /** La longueur en x de la matrice */
+  private final int xLength;
+
+  /** La longueur en y de la matrice */
+  private final int yLength;
+
+  /** La matrice copiee */
+  private final WObstacleCellMatrix source;
+
+  /** Le nombre de modifications de la matrice au moment de la copie */
+  private final int modificationCount;
+
+  /**
+   * Construction d'un {@code WObstacleMask}
+   *
+   * @param bits Les bits de presence
+   * @param source La matrice copiee
+   * @param modificationCount Le nombre de modifications de la matrice au moment de la copie
+   */
+  private WObstacleMask(long[] bits, WObstacleCellMatrix source, int modificationCount) {
+    this.bits = bits;
+    this.xLength = source.getXLength();
+    this.yLength = source.getYLength();
+    this.source = source;
+    this.modificationCount = modificationCount;
+  }
+
+  /**
+   * Copie la presence des obstacles d'une matrice
+   *
+   * @param matrix La matrice d'obstacles
+   * @return Le masque des obstacles
+   */
+  public static WObstacleMask of(WObstacleCellMatrix matrix) {
+    int modificationCount = matrix.getModificationCount();
+    WObstacleCell[] cells = matrix.getMatrix();
+    long[] bits = new long[(cells.length + Long.SIZE - 1) / Long.SIZE];
+
+    for (int i = 0; i < cells.length; i++)
+      if (cells[i] != null) bits[i >>> 6] |= 1L << i;
+
+    return new WObstacleMask(bits, matrix, modificationCount);
+  }
+
+  /**
+   * Retourne si une cellule contient un obstacle
+   *
+   * @param index L'index de la cellule dans la matrice 1d
+   * @return {@code true} si la cellule contient un obstacle
+   */
+  public boolean isObstructed(int index) {
+    return (bits[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * Retourne si une position contient un obstacle. Les positions hors de la matrice sont
+   * considerees comme des obstacles.
+   *
+   * @param x La position en x
+   * @param y La position en y
+   * @return {@code true} si la position est hors de la matrice ou contient un obstacle
+   */
+  public boolean isObstructed(int x, int y) {
+    if (x < 0 || y < 0 || x >= xLength || y >= yLength) return true;
+
+    return isObstructed(y * xLength + x);
+  }
+
+  /**
+   * Retourne si ce masque correspond encore a une matrice d'obstacles, c'est-a-dire s'il en est
+   * une copie et qu'elle n'a pas ete modifiee depuis
+   *
+   * @param matrix La matrice d'obstacles
+   * @return {@code true} si le masque est a jour
+   */
+  public boolean isUpToDate(WObstacleCellMatrix matrix) {
+    return matrix == source && matrix.getModificationCount() == modificationCount;
+  }
+
+  /**
+   * Getter pour la longueur en x de la matrice
+   *
+   * @return La longueur en x
+   */
+  public int getXLength() {
+    return xLength;
+  }
+
+  /**
+   * Getter pour la longueur en y de la matrice
+   *
+   * @return La longueur en y
+   */
+  public int getYLength() {
+    return yLength;
+  }
+}
@@ -0,0 +1,209 @@
+package com.e24.wolke.backend.models.renderer;
+
+import com.e24.wolke.utils.images.WColor;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+/**
+ * ColorMap.java
+ *
+ * <p>Table de correspondance précalculée entre une valeur normalisée et une couleur RGB. Le rendu
+ * d'une image ne fait alors qu'une quantification et une lecture de tableau par pixel, au lieu
+ * d'une conversion HSB ou de la création d'un {@code Color}, et écrit directement dans le tableau
+ * du {@link DataBufferInt} de l'image au lieu de passer par {@code BufferedImage#setRGB}.
+ *
+ * <p>Les valeurs hors de l'intervalle [min, max] prennent la couleur de l'extrémité la plus proche
+ * et les valeurs {@code NaN} prennent la couleur du minimum.
+ *
+ * @author Nilon123456789
+ */
+public class ColorMap {
+
+  /** Nombre d'entrées de la table par défaut */
+  public static final int DEFAULT_SIZE = 4096;
+
+  /** Couleurs RGB de la table, du minimum au maximum */
+  private final int[] table;
+
+  /**
+   * Constructeur de la classe ColorMap
+   *
+   * @param table Couleurs RGB de la table, du minimum au maximum, au moins 2
+   */
+  private ColorMap(int[] table) {
+    this.table = table;
+  }
+
+  /**
+   * Crée la table de couleurs du rendu : en niveaux de gris, ou du dégradé de la visualisation
+   *
+   * @param greyscale Si le rendu est en niveaux de gris
+   * @param gradientHSBColors Les couleurs HSB du dégradé, du maximum au minimum, ignorées en
+   *     niveaux de gris
+   * @return La table, de {@link #DEFAULT_SIZE} entrées
+   */
+  public static ColorMap of(boolean greyscale, float[][] gradientHSBColors) {
+    return greyscale
+        ? greyscale(DEFAULT_SIZE)
+        : hsbGradient(gradientHSBColors[1], gradientHSBColors[0], DEFAULT_SIZE);
+  }
+
+  /**
+   * Crée la table d'un dégradé de teinte HSB, identique à {@link
+   * WColor#interpolateHSBColorFromMinMax(float[], float[], double, double, double)}
+   *
+   * @param startHSB La couleur du minimum
+   * @param endHSB La couleur du maximum
+   * @param size Le nombre d'entrées de la table
+   * @return La table
+   */
+  public static ColorMap hsbGradient(float[] startHSB, float[] endHSB, int size) {
+    int[] table = createTable(size);
+    for (int i = 0; i < size; i++)
+      table[i] = WColor.interpolateHSBColorFromMinMax(startHSB, endHSB, i, 0, size - 1.0);
+
+    return new ColorMap(table);
+  }
+
+  /**
+   * Crée la table d'un dégradé en niveaux de gris, identique à {@link
+   * WColor#interpolateGrayscaleFromMinMax(double, double, double)}
+   *
+   * @param size Le nombre d'entrées de la table
+   * @return La table
+   */
+  public static ColorMap greyscale(int size) {
+    int[] table = createTable(size);
+    for (int i = 0; i < size; i++)
+      table[i] = WColor.interpolateGrayscaleFromMinMax(i, 0, size - 1.0);
+
+    return new ColorMap(table);
+  }
+
+  /**
+   * Alloue une table
+   *
+   * @param size Le nombre d'entrées de la table
+   * @return La table vide
+   * @throws IllegalArgumentException Si la table a moins de 2 entrées
+   */
+  private static int[] createTable(int size) {
+    if (size < 2) throw new IllegalArgumentException("Color map size must be at least 2: " + size);
+
+    return new int[size];
+  }
+
+  /**
+   * Retourne la couleur d'une valeur
+   *
+   * @param value La valeur
+   * @param min La valeur du début de la table
+   * @param max La valeur de la fin de la table
+   * @return La couleur RGB
+   */
+  public int getColor(double value, double min, double max) {
+    return table[getIndex(value, min, getScale(min, max))];
+  }
+
+  /**
+   * Colore une image à partir d'une matrice de valeurs, ligne par ligne. Seule la partie commune à
+   * l'image et à la matrice est écrite.
+   *
+   * @param values La matrice des valeurs, rangée ligne par ligne
+   * @param width La largeur de la matrice
+   * @param height La hauteur de la matrice
+   * @param min La valeur du début de la table
+   * @param max La valeur de la fin de la table
+   * @param image L'image, de type {@code TYPE_INT_RGB} ou {@code TYPE_INT_ARGB}
+   */
+  public void apply(
+      double[] values, int width, int height, double min, double max, BufferedImage image) {
+    int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    int rows = Math.min(height, image.getHeight());
+    int columns = Math.min(width, image.getWidth());
+
+    apply(values, width, 0, rows, columns, min, max, pixels, image.getWidth());
+  }
+
+  /**
+   * Colore les lignes {@code [startRow, endRow[} d'un tableau de pixels à partir d'une matrice de
+   * valeurs
+   *
+   * @param values La matrice des valeurs, rangée ligne par ligne
+   * @param width La largeur de la matrice
+   * @param startRow La première ligne colorée
+   * @param endRow La ligne suivant la dernière ligne colorée
+   * @param columns Le nombre de colonnes colorées
+   * @param min La valeur du début de la table
+   * @param max La valeur de la fin de la table
+   * @param pixels Les pixels RGB de l'image
+   * @param scanline La largeur d'une ligne de pixels
+   */
+  public void apply(
+      double[] values,
+      int width,
+      int startRow,
+      int endRow,
+      int columns,
+      double min,
+      double max,
+      int[] pixels,
+      int scanline) {
+    double scale = getScale(min, max);
+
+    for (int y = startRow; y < endRow; y++) {
+      int valueIndex = y * width;
+      int pixelIndex = y * scanline;
+      for (int x = 0; x < columns; x++)
+        pixels[pixelIndex + x] = table[getIndex(values[valueIndex + x], min, scale)];
+    }
+  }
+
+  /**
+   * Retourne le facteur qui convertit l'écart au minimum en index de la table
+   *
+   * @param min La valeur du début de la table
+   * @param max La valeur de la fin de la table
+   * @return Le facteur, {@code 0} si l'intervalle est vide ou invalide
+   */
+  double getScale(double min, double max) {
+    double range = max - min;
+    return range > 0 && range < Double.POSITIVE_INFINITY ? (table.length - 1) / range : 0;
+  }
+
+  /**
+   * Quantifie une valeur en index de la table
+   *
+   * @param value La valeur
+   * @param min La valeur du début de la table
+   * @param scale Le facteur de {@link #getScale(double, double)}
+   * @return L'index, borné à la table
+   */
+  int getIndex(double value, double min, double scale) {
+    double position = (value - min) * scale;
+
+    // Les comparaisons sont fausses pour NaN, qui prend donc l'index 0
+    if (!(position > 0)) return 0;
+    if (position >= table.length - 1) return table.length - 1;
+    return (int) position;
+  }
+
+  /**
+   * Retourne la couleur d'une entrée de la table
+   *
+   * @param index L'index de {@link #getIndex(double, double, double)}
+   * @return La couleur RGB
+   */
+  int getColorAt(int index) {
+    return table[index];
+  }
+
+  /**
+   * Retourne le nombre d'entrées de la table
+   *
+   * @return Le nombre d'entrées
+   */
+  public int getSize() {
+    return table.length;
+  }
+}
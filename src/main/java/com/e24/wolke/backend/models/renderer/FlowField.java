@@ -0,0 +1,206 @@
+package com.e24.wolke.backend.models.renderer;
+
+import com.e24.wolke.backend.models.obstacles.WObstacleMask;
+
+/**
+ * FlowField.java
+ *
+ * <p>Intègre des lignes dans le champ de vitesse de la simulation : la vitesse est échantillonnée
+ * par interpolation bilinéaire et les lignes avancent avec Runge-Kutta d'ordre 4 ou 2 dans la
+ * direction de la vitesse. Une ligne s'arrête au bord de la simulation, sur un obstacle du {@link
+ * WObstacleMask} ou dans une zone sans vitesse.
+ *
+ * <p>Une instance garde l'état de son dernier pas et ne doit être utilisée que par un seul thread.
+ *
+ * @author Nilon123456789
+ */
+final class FlowField {
+
+  /** Vitesse sous laquelle la direction n'est plus définie */
+  private static final double MIN_SPEED = 1e-12;
+
+  /** La vitesse en x, rangée ligne par ligne */
+  private final double[] xVelocity;
+
+  /** La vitesse en y, rangée ligne par ligne */
+  private final double[] yVelocity;
+
+  /** La largeur de la simulation */
+  private final int xLength;
+
+  /** La hauteur de la simulation */
+  private final int yLength;
+
+  /** Le masque des obstacles, {@code null} s'il n'y en a pas */
+  private final WObstacleMask mask;
+
+  /** Direction en x calculée par {@code this#direction} */
+  private double dx;
+
+  /** Direction en y calculée par {@code this#direction} */
+  private double dy;
+
+  /** Position en x après le dernier pas réussi */
+  private double x;
+
+  /** Position en y après le dernier pas réussi */
+  private double y;
+
+  /**
+   * Constructeur de la classe FlowField
+   *
+   * @param xVelocity La vitesse en x, rangée ligne par ligne
+   * @param yVelocity La vitesse en y, rangée ligne par ligne
+   * @param xLength La largeur de la simulation, au moins {@code 2}
+   * @param yLength La hauteur de la simulation, au moins {@code 2}
+   * @param mask Le masque des obstacles, {@code null} s'il n'y en a pas
+   */
+  FlowField(double[] xVelocity, double[] yVelocity, int xLength, int yLength, WObstacleMask mask) {
+    this.xVelocity = xVelocity;
+    this.yVelocity = yVelocity;
+    this.xLength = xLength;
+    this.yLength = yLength;
+    this.mask = mask;
+  }
+
+  /**
+   * Interpole bilinéairement la vitesse en x
+   *
+   * @param x La position en x, entre {@code 0} et {@code xLength - 1}
+   * @param y La position en y, entre {@code 0} et {@code yLength - 1}
+   * @return La vitesse en x interpolée
+   */
+  double sampleX(double x, double y) {
+    return sample(xVelocity, x, y);
+  }
+
+  /**
+   * Interpole bilinéairement la vitesse en y
+   *
+   * @param x La position en x, entre {@code 0} et {@code xLength - 1}
+   * @param y La position en y, entre {@code 0} et {@code yLength - 1}
+   * @return La vitesse en y interpolée
+   */
+  double sampleY(double x, double y) {
+    return sample(yVelocity, x, y);
+  }
+
+  /**
+   * Retourne si une position est dans la simulation et hors des obstacles
+   *
+   * @param x La position en x
+   * @param y La position en y
+   * @return {@code true} si une ligne peut passer par la position
+   */
+  boolean isFree(double x, double y) {
+    if (!(x >= 0 && y >= 0 && x <= xLength - 1 && y <= yLength - 1)) return false;
+
+    return mask == null || !mask.isObstructed((int) (x + 0.5), (int) (y + 0.5));
+  }
+
+  /**
+   * Avance d'un pas de Runge-Kutta d'ordre 4 dans la direction de la vitesse. La nouvelle
+   * position est lue avec {@link #getX()} et {@link #getY()}.
+   *
+   * @param x La position de départ en x
+   * @param y La position de départ en y
+   * @param h La longueur du pas, négative pour remonter le courant
+   * @return {@code false} si la ligne s'arrête avant d'avoir fait le pas
+   */
+  boolean advance(double x, double y, double h) {
+    if (!direction(x, y, h)) return false;
+    double k1x = dx;
+    double k1y = dy;
+    if (!direction(x + k1x / 2, y + k1y / 2, h)) return false;
+    double k2x = dx;
+    double k2y = dy;
+    if (!direction(x + k2x / 2, y + k2y / 2, h)) return false;
+    double k3x = dx;
+    double k3y = dy;
+    if (!direction(x + k3x, y + k3y, h)) return false;
+
+    this.x = x + (k1x + 2 * k2x + 2 * k3x + dx) / 6;
+    this.y = y + (k1y + 2 * k2y + 2 * k3y + dy) / 6;
+    return isFree(this.x, this.y);
+  }
+
+  /**
+   * Avance d'un pas du point milieu (Runge-Kutta d'ordre 2), deux fois moins coûteux que {@link
+   * #advance(double, double, double)} et assez précis pour des pas d'un pixel. La nouvelle position
+   * est lue avec {@link #getX()} et {@link #getY()}.
+   *
+   * @param x La position de départ en x
+   * @param y La position de départ en y
+   * @param h La longueur du pas, négative pour remonter le courant
+   * @return {@code false} si la ligne s'arrête avant d'avoir fait le pas
+   */
+  boolean advanceMidpoint(double x, double y, double h) {
+    if (!direction(x, y, h)) return false;
+    if (!direction(x + dx / 2, y + dy / 2, h)) return false;
+
+    this.x = x + dx;
+    this.y = y + dy;
+    return isFree(this.x, this.y);
+  }
+
+  /**
+   * Retourne la position en x après le dernier pas réussi
+   *
+   * @return La position en x
+   */
+  double getX() {
+    return x;
+  }
+
+  /**
+   * Retourne la position en y après le dernier pas réussi
+   *
+   * @return La position en y
+   */
+  double getY() {
+    return y;
+  }
+
+  /**
+   * Calcule dans {@code this#dx} et {@code this#dy} la direction de la vitesse à une position, de
+   * longueur {@code h}
+   *
+   * @param x La position en x
+   * @param y La position en y
+   * @param h La longueur de la direction
+   * @return {@code false} si la position n'est pas libre ou si la vitesse y est nulle
+   */
+  private boolean direction(double x, double y, double h) {
+    if (!isFree(x, y)) return false;
+
+    double vx = sample(xVelocity, x, y);
+    double vy = sample(yVelocity, x, y);
+    double speed = Math.sqrt(vx * vx + vy * vy);
+    if (!(speed > MIN_SPEED)) return false;
+
+    dx = vx / speed * h;
+    dy = vy / speed * h;
+    return true;
+  }
+
+  /**
+   * Interpole bilinéairement une valeur du champ
+   *
+   * @param values Les valeurs, rangées ligne par ligne
+   * @param x La position en x, entre {@code 0} et {@code xLength - 1}
+   * @param y La position en y, entre {@code 0} et {@code yLength - 1}
+   * @return La valeur interpolée
+   */
+  private double sample(double[] values, double x, double y) {
+    int x0 = Math.min((int) x, xLength - 2);
+    int y0 = Math.min((int) y, yLength - 2);
+    double fx = x - x0;
+    double fy = y - y0;
+    int index = y0 * xLength + x0;
+
+    double top = values[index] + (values[index + 1] - values[index]) * fx;
+    double bottom =
+        values[index + xLength] + (values[index + xLength + 1] - values[index + xLength]) * fx;
+    return top + (bottom - top) * fy;
+  }
+}
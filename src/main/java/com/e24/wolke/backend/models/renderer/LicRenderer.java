@@ -0,0 +1,325 @@
+package com.e24.wolke.backend.models.renderer;
+
+import com.e24.wolke.backend.models.obstacles.WObstacleMask;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * LicRenderer.java
+ *
+ * <p>Texture l'image de la simulation par convolution intégrale de lignes (LIC) : un bruit blanc,
+ * gardé tant que la taille de la simulation ne change pas, est moyenné le long des lignes de
+ * courant de la vitesse, ce qui fait apparaître l'écoulement sous forme de stries. La texture
+ * module la luminosité des couleurs déjà dessinées par la table de couleurs.
+ *
+ * <p>Le calcul suit la méthode « fast LIC » : une ligne de courant est intégrée par un {@link
+ * FlowField} depuis un pixel germe, puis la moyenne glissante du bruit est réutilisée pour tous les
+ * pixels traversés à moins de {@link #REUSE_LENGTH} pas du germe. Seuls les pixels qu'aucune ligne
+ * n'a encore traversés servent de germe. L'image est découpée en bandes de lignes calculées en
+ * parallèle sur le pool de threads du rendu; chaque bande n'écrit que dans ses propres pixels, ce
+ * qui rend le résultat indépendant du nombre de threads.
+ *
+ * @author Nilon123456789
+ */
+public class LicRenderer {
+
+  /** Nombre de pas de part et d'autre d'un pixel sur lesquels le bruit est moyenné */
+  public static final int KERNEL_LENGTH = 10;
+
+  /** Nombre de pas de part et d'autre du germe dont la convolution est réutilisée */
+  public static final int REUSE_LENGTH = 20;
+
+  /** Longueur d'un pas le long d'une ligne (px de la simulation) */
+  public static final double STEP_LENGTH = 1;
+
+  /** Nombre minimal de lignes de pixels d'une bande */
+  public static final int MIN_BAND_ROWS = 64;
+
+  /**
+   * Écart initial entre les germes. Les germes sont d'abord pris sur une grille de cet écart, puis
+   * sur des grilles deux fois plus fines, pour que les premières lignes couvrent toute la bande et
+   * se chevauchent moins.
+   */
+  public static final int SEED_STRIDE = 8;
+
+  /** Graine du bruit, pour la même texture à chaque exécution */
+  private static final long NOISE_SEED = 0x11CL;
+
+  /** Racine du nombre de valeurs moyennées, pour chaque nombre possible */
+  private static final double[] CONTRAST = new double[2 * KERNEL_LENGTH + 2];
+
+  static {
+    for (int count = 0; count < CONTRAST.length; count++) CONTRAST[count] = Math.sqrt(count);
+  }
+
+  /** Le pool de threads qui calcule les bandes */
+  private final ForkJoinPool forkJoinPool;
+
+  /** Bruit blanc entre {@code 0} et {@code 1}, un par pixel */
+  private float[] noise = new float[0];
+
+  /** Somme des valeurs déposées dans chaque pixel */
+  private float[] sums = new float[0];
+
+  /** Nombre de valeurs déposées dans chaque pixel */
+  private int[] hits = new int[0];
+
+  /** Largeur de la simulation de la texture en cours */
+  private int xLength;
+
+  /** Hauteur de la simulation de la texture en cours */
+  private int yLength;
+
+  /** Vitesse en x de la texture en cours */
+  private double[] xVelocity;
+
+  /** Vitesse en y de la texture en cours */
+  private double[] yVelocity;
+
+  /** Masque des obstacles de la texture en cours */
+  private WObstacleMask mask;
+
+  /** Pixels de l'image texturée */
+  private int[] pixels;
+
+  /** Largeur d'une ligne de {@code this#pixels} */
+  private int scanline;
+
+  /** Part de la texture dans l'image, entre {@code 0} et {@code 1} */
+  private double blend;
+
+  /** Constructeur de la classe LicRenderer, sur le pool de threads du rendu */
+  public LicRenderer() {
+    this(RendererConstants.RENDER_FORK_JOIN_POOL);
+  }
+
+  /**
+   * Constructeur de la classe LicRenderer
+   *
+   * @param forkJoinPool Le pool de threads qui calcule les bandes
+   */
+  public LicRenderer(ForkJoinPool forkJoinPool) {
+    this.forkJoinPool = forkJoinPool;
+  }
+
+  /**
+   * Texture une image de la simulation déjà colorée. Les pixels sur un obstacle ne sont pas
+   * modifiés. Une image plus petite que la simulation n'est pas texturée.
+   *
+   * @param xVelocity La vitesse en x, rangée ligne par ligne
+   * @param yVelocity La vitesse en y, rangée ligne par ligne
+   * @param xLength La largeur de la simulation, au moins {@code 2}
+   * @param yLength La hauteur de la simulation, au moins {@code 2}
+   * @param mask Le masque des obstacles, {@code null} s'il n'y en a pas
+   * @param blend La part de la texture, {@code 0} pour garder la table de couleurs seule
+   * @param image L'image {@code TYPE_INT_RGB} ou {@code TYPE_INT_ARGB} à texturer
+   */
+  public void apply(
+      double[] xVelocity,
+      double[] yVelocity,
+      int xLength,
+      int yLength,
+      WObstacleMask mask,
+      double blend,
+      BufferedImage image) {
+    if (xLength < 2 || yLength < 2) throw new IllegalArgumentException("Field too small");
+    if (!(blend > 0) || image.getWidth() < xLength || image.getHeight() < yLength) return;
+
+    if (xLength != this.xLength || yLength != this.yLength) createNoise(xLength, yLength);
+
+    this.xVelocity = xVelocity;
+    this.yVelocity = yVelocity;
+    this.mask = mask;
+    this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    this.scanline = image.getWidth();
+    this.blend = Math.min(1, blend);
+
+    try {
+      BandTask task = new BandTask(0, yLength);
+      if (yLength >= 2 * MIN_BAND_ROWS) forkJoinPool.invoke(task);
+      else task.compute();
+    } finally {
+      this.xVelocity = null;
+      this.yVelocity = null;
+      this.pixels = null;
+    }
+  }
+
+  /**
+   * Crée le bruit et les tampons d'une nouvelle taille de simulation
+   *
+   * @param xLength La largeur de la simulation
+   * @param yLength La hauteur de la simulation
+   */
+  private void createNoise(int xLength, int yLength) {
+    Random random = new Random(NOISE_SEED);
+
+    this.xLength = xLength;
+    this.yLength = yLength;
+    noise = new float[xLength * yLength];
+    sums = new float[noise.length];
+    hits = new int[noise.length];
+
+    for (int i = 0; i < noise.length; i++) noise[i] = random.nextFloat();
+  }
+
+  /**
+   * Retourne l'index du pixel le plus proche d'une position
+   *
+   * @param x La position en x, dans la simulation
+   * @param y La position en y, dans la simulation
+   * @return L'index du pixel dans la simulation
+   */
+  private int getPixel(double x, double y) {
+    return (int) (y + 0.5) * xLength + (int) (x + 0.5);
+  }
+
+  /**
+   * Calcule la texture des lignes {@code [startRow, endRow[}, divisées en deux tant que chaque
+   * moitié garde au moins {@link #MIN_BAND_ROWS} lignes
+   *
+   * @author Nilon123456789
+   */
+  private class BandTask extends RecursiveAction {
+
+    /** Sérialisation de la classe */
+    private static final long serialVersionUID = 1L;
+
+    /** La première ligne de pixels */
+    private final int startRow;
+
+    /** La ligne de pixels suivant la dernière */
+    private final int endRow;
+
+    /**
+     * Constructeur de la classe BandTask
+     *
+     * @param startRow La première ligne de pixels
+     * @param endRow La ligne de pixels suivant la dernière
+     */
+    private BandTask(int startRow, int endRow) {
+      this.startRow = startRow;
+      this.endRow = endRow;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void compute() {
+      if (endRow - startRow >= 2 * MIN_BAND_ROWS) {
+        int middle = startRow + (endRow - startRow) / 2;
+        invokeAll(new BandTask(startRow, middle), new BandTask(middle, endRow));
+        return;
+      }
+
+      int first = startRow * xLength;
+      int end = endRow * xLength;
+      Arrays.fill(sums, first, end, 0);
+      Arrays.fill(hits, first, end, 0);
+
+      FlowField field = new FlowField(xVelocity, yVelocity, xLength, yLength, mask);
+      int maxPoints = 2 * (KERNEL_LENGTH + REUSE_LENGTH) + 1;
+      int[] line = new int[maxPoints];
+      double[] prefix = new double[maxPoints + 1];
+
+      for (int stride = SEED_STRIDE; stride >= 1; stride /= 2) {
+        for (int y = startRow; y < endRow; y += stride) {
+          for (int x = 0; x < xLength; x += stride) {
+            if (hits[y * xLength + x] == 0 && field.isFree(x, y))
+              convolve(field, x, y, line, prefix, first, end);
+          }
+        }
+      }
+
+      blend(first, end);
+    }
+
+    /**
+     * Intègre la ligne de courant d'un germe et dépose la convolution du bruit dans les pixels de
+     * la bande traversés à moins de {@link #REUSE_LENGTH} pas du germe
+     *
+     * @param field Le champ du thread courant
+     * @param x La position en x du germe
+     * @param y La position en y du germe
+     * @param line Tableau de travail des pixels de la ligne
+     * @param prefix Tableau de travail des sommes cumulées du bruit
+     * @param first Le premier pixel de la bande
+     * @param end Le pixel suivant le dernier pixel de la bande
+     */
+    private void convolve(
+        FlowField field,
+        double x,
+        double y,
+        int[] line,
+        double[] prefix,
+        int first,
+        int end) {
+      int half = KERNEL_LENGTH + REUSE_LENGTH;
+
+      // La ligne remonte le courant depuis le germe, rangée à l'envers avant le germe
+      int seed = half;
+      line[seed] = getPixel(x, y);
+      int start = seed;
+      double px = x;
+      double py = y;
+      while (start > 0 && field.advanceMidpoint(px, py, -STEP_LENGTH)) {
+        px = field.getX();
+        py = field.getY();
+        line[--start] = getPixel(px, py);
+      }
+
+      int stop = seed + 1;
+      px = x;
+      py = y;
+      while (stop < line.length && field.advanceMidpoint(px, py, STEP_LENGTH)) {
+        px = field.getX();
+        py = field.getY();
+        line[stop++] = getPixel(px, py);
+      }
+
+      prefix[start] = 0;
+      for (int i = start; i < stop; i++) prefix[i + 1] = prefix[i] + noise[line[i]];
+
+      int from = Math.max(start, seed - REUSE_LENGTH);
+      int to = Math.min(stop, seed + REUSE_LENGTH + 1);
+      for (int i = from; i < to; i++) {
+        int pixel = line[i];
+        if (pixel < first || pixel >= end) continue;
+
+        int lo = Math.max(start, i - KERNEL_LENGTH);
+        int hi = Math.min(stop, i + KERNEL_LENGTH + 1);
+        int count = hi - lo;
+
+        // Le contraste est ramené à celui du bruit, même pour une ligne coupée par un obstacle
+        double mean = (prefix[hi] - prefix[lo]) / count;
+        sums[pixel] += (float) (0.5 + (mean - 0.5) * CONTRAST[count]);
+        hits[pixel]++;
+      }
+    }
+
+    /**
+     * Module la luminosité des pixels de la bande par la texture
+     *
+     * @param first Le premier pixel de la bande
+     * @param end Le pixel suivant le dernier pixel de la bande
+     */
+    private void blend(int first, int end) {
+      for (int pixel = first; pixel < end; pixel++) {
+        if (hits[pixel] == 0) continue;
+
+        double value = Math.max(0, Math.min(1, sums[pixel] / hits[pixel]));
+        double factor = 1 - blend + 2 * blend * value;
+
+        int index = (pixel / xLength) * scanline + pixel % xLength;
+        int rgb = pixels[index];
+        int r = Math.min(255, (int) (((rgb >> 16) & 0xFF) * factor));
+        int g = Math.min(255, (int) (((rgb >> 8) & 0xFF) * factor));
+        int b = Math.min(255, (int) ((rgb & 0xFF) * factor));
+        pixels[index] = (rgb & 0xFF000000) | (r << 16) | (g << 8) | b;
+      }
+    }
+  }
+}
@@ -0,0 +1,275 @@
+package com.e24.wolke.backend.models.renderer;
+
+import com.e24.wolke.backend.models.obstacles.WObstacleCellMatrix;
+import com.e24.wolke.backend.models.obstacles.WObstacleMask;
+import com.e24.wolke.backend.models.renderer.RendererConstants.VisualizationType;
+import com.e24.wolke.backend.simulation.physics.ParticleMatrix;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Locale;
+
+/**
+ * OffscreenRenderer.java
+ *
+ * <p>Rend les matrices de la simulation dans des images hors écran, sans {@code Controller} ni
+ * Swing, pour les exécutions sans interface graphique. Le rendu reprend celui de {@link
+ * RendererModel} : la même table de couleurs ({@link ColorMap#of(boolean, float[][])}), la même
+ * coloration par bandes ({@link ParallelRasterizer}), le même intervalle automatique ({@link
+ * RangeEstimator}) et la même texture LIC ({@link LicRenderer}).
+ *
+ * <p>Une légende peut être dessinée dans une bande de {@link #LEGEND_WIDTH} px à droite de la
+ * simulation : le dégradé de la table de couleurs, du maximum en haut au minimum en bas, et
+ * {@link #LEGEND_TICK_COUNT} graduations, comme {@code SimulationLegendPane}.
+ *
+ * <p>Une instance n'est utilisée que par un thread à la fois.
+ *
+ * @author Nilon123456789
+ */
+public class OffscreenRenderer {
+
+  /** Largeur de la bande de la légende (px) */
+  public static final int LEGEND_WIDTH = 80;
+
+  /** Nombre de graduations de la légende */
+  public static final int LEGEND_TICK_COUNT = 6;
+
+  /** Marge autour du dégradé de la légende (px) */
+  private static final int LEGEND_MARGIN = 6;
+
+  /** Largeur du dégradé de la légende (px) */
+  private static final int LEGEND_BAR_WIDTH = 12;
+
+  /** Couleur du fond de la légende */
+  private static final Color LEGEND_BACKGROUND = new Color(0x202020);
+
+  /** Couleur des graduations de la légende */
+  private static final Color LEGEND_FOREGROUND = Color.WHITE;
+
+  /** Police des graduations de la légende */
+  private static final Font LEGEND_FONT = new Font(Font.SANS_SERIF, Font.PLAIN, 10);
+
+  /** Le type de visualisation rendu */
+  private final VisualizationType visualizationType;
+
+  /** La table de couleurs */
+  private final ColorMap colorMap;
+
+  /**
+   * L'estimation de l'intervalle de la table de couleurs, {@code null} pour le minimum et le
+   * maximum de chaque image
+   */
+  private final RangeEstimator rangeEstimator;
+
+  /** Si la légende est dessinée */
+  private final boolean legend;
+
+  /** Colore les images */
+  private final ParallelRasterizer rasterizer = new ParallelRasterizer();
+
+  /** Texture les images de {@link VisualizationType#VELOCITY_LIC} */
+  private final LicRenderer licRenderer = new LicRenderer();
+
+  /** Masque des obstacles de la dernière image, recopié lorsque les obstacles changent */
+  private WObstacleMask obstacleMask;
+
+  /**
+   * Constructeur de la classe OffscreenRenderer, avec la table de couleurs et l'intervalle
+   * automatique des paramètres
+   *
+   * @param visualizationType Le type de visualisation rendu
+   * @param legend Si la légende est dessinée
+   */
+  public OffscreenRenderer(VisualizationType visualizationType, boolean legend) {
+    this(
+        visualizationType,
+        RendererConstants.DEFAULT_GRAYSCALE_VISUALISATION,
+        RendererConstants.DEFAULT_GRADIENT_HSB_COLORS,
+        RendererConstants.DEFAULT_AUTO_RANGE,
+        legend);
+  }
+
+  /**
+   * Constructeur de la classe OffscreenRenderer
+   *
+   * @param visualizationType Le type de visualisation rendu
+   * @param greyscale Si le rendu est en niveaux de gris
+   * @param gradientHSBColors Les couleurs HSB du dégradé, ignorées en niveaux de gris
+   * @param autoRange Si l'intervalle de la table de couleurs est estimé par percentiles
+   * @param legend Si la légende est dessinée
+   */
+  public OffscreenRenderer(
+      VisualizationType visualizationType,
+      boolean greyscale,
+      float[][] gradientHSBColors,
+      boolean autoRange,
+      boolean legend) {
+    this.visualizationType = visualizationType;
+    this.colorMap = ColorMap.of(greyscale, gradientHSBColors);
+    this.rangeEstimator =
+        autoRange
+            ? new RangeEstimator(
+                RendererConstants.AUTO_RANGE_PERCENTILES[0] / 100,
+                RendererConstants.AUTO_RANGE_PERCENTILES[1] / 100,
+                RendererConstants.AUTO_RANGE_SMOOTHING)
+            : null;
+    this.legend = legend;
+  }
+
+  /**
+   * Crée une image à la taille du rendu d'une simulation, légende comprise
+   *
+   * @param xLength La largeur de la simulation
+   * @param yLength La hauteur de la simulation
+   * @return L'image {@code TYPE_INT_RGB}
+   */
+  public BufferedImage createImage(int xLength, int yLength) {
+    return new BufferedImage(getImageWidth(xLength), yLength, BufferedImage.TYPE_INT_RGB);
+  }
+
+  /**
+   * Retourne la largeur du rendu d'une simulation, légende comprise
+   *
+   * @param xLength La largeur de la simulation
+   * @return La largeur de l'image (px)
+   */
+  public int getImageWidth(int xLength) {
+    return legend ? xLength + LEGEND_WIDTH : xLength;
+  }
+
+  /**
+   * Rend une matrice de particules dans une image de {@link #createImage(int, int)}
+   *
+   * @param matrix La matrice de particules
+   * @param obstacles Les obstacles, dessinés avec {@link RendererConstants#OBSTACLE_COLOR}, {@code
+   *     null} s'il n'y en a pas
+   * @param image L'image
+   * @return Le minimum et le maximum de la table de couleurs
+   */
+  public double[] render(
+      ParticleMatrix matrix, WObstacleCellMatrix obstacles, BufferedImage image) {
+    int xLength = matrix.getXLength();
+    int yLength = matrix.getYLength();
+    double[] values = matrix.getParticlesByVisualization(visualizationType);
+    WObstacleMask mask = getObstacleMask(obstacles);
+
+    double[] minMax =
+        rangeEstimator != null
+            ? rangeEstimator.estimate(values, mask)
+            : matrix.getMinMaxByVisualization(visualizationType);
+
+    rasterizer.rasterize(
+        values,
+        xLength,
+        yLength,
+        minMax[0],
+        minMax[1],
+        colorMap,
+        obstacles,
+        RendererConstants.OBSTACLE_COLOR,
+        image);
+
+    if (visualizationType == VisualizationType.VELOCITY_LIC)
+      licRenderer.apply(
+          matrix.getXVelocity().getMatrix(),
+          matrix.getYVelocity().getMatrix(),
+          xLength,
+          yLength,
+          mask,
+          RendererConstants.DEFAULT_LIC_BLEND,
+          image);
+
+    if (legend) drawLegend(image, xLength, minMax[0], minMax[1]);
+
+    return minMax;
+  }
+
+  /** Oublie l'intervalle automatique des images précédentes */
+  public void reset() {
+    if (rangeEstimator != null) rangeEstimator.reset();
+  }
+
+  /**
+   * Retourne le masque des obstacles, recopié si les obstacles ont changé
+   *
+   * @param obstacles Les obstacles, {@code null} s'il n'y en a pas
+   * @return Le masque des obstacles, {@code null} s'il n'y en a pas
+   */
+  private WObstacleMask getObstacleMask(WObstacleCellMatrix obstacles) {
+    if (obstacles == null) return null;
+
+    if (obstacleMask == null || !obstacleMask.isUpToDate(obstacles))
+      obstacleMask = WObstacleMask.of(obstacles);
+
+    return obstacleMask;
+  }
+
+  /**
+   * Dessine la légende dans la bande à droite de la simulation
+   *
+   * @param image L'image
+   * @param xLength La largeur de la simulation, où commence la bande
+   * @param min Le minimum de la table de couleurs
+   * @param max Le maximum de la table de couleurs
+   */
+  private void drawLegend(BufferedImage image, int xLength, double min, double max) {
+    int height = image.getHeight();
+    int barX = xLength + LEGEND_MARGIN;
+    int barTop = Math.min(LEGEND_MARGIN, height / 2);
+    int barHeight = Math.max(1, height - 2 * barTop);
+
+    Graphics2D g = image.createGraphics();
+    try {
+      g.setColor(LEGEND_BACKGROUND);
+      g.fillRect(xLength, 0, image.getWidth() - xLength, height);
+
+      // Le haut du dégradé est le maximum, comme dans SimulationLegendPane
+      for (int row = 0; row < barHeight; row++) {
+        double position = barHeight == 1 ? 1 : 1 - row / (barHeight - 1.0);
+        g.setColor(new Color(colorMap.getColor(position, 0, 1)));
+        g.drawLine(barX, barTop + row, barX + LEGEND_BAR_WIDTH - 1, barTop + row);
+      }
+
+      g.setRenderingHint(
+          RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+      g.setFont(LEGEND_FONT);
+      g.setColor(LEGEND_FOREGROUND);
+      FontMetrics metrics = g.getFontMetrics();
+      int textX = barX + LEGEND_BAR_WIDTH + LEGEND_MARGIN;
+
+      for (int i = 0; i < LEGEND_TICK_COUNT; i++) {
+        double fraction = i / (LEGEND_TICK_COUNT - 1.0);
+        int tickY = barTop + (int) Math.round(fraction * (barHeight - 1));
+        g.drawLine(barX + LEGEND_BAR_WIDTH, tickY, textX - 2, tickY);
+
+        int baseline = tickY + metrics.getAscent() / 2;
+        baseline = Math.max(metrics.getAscent(), Math.min(height - metrics.getDescent(), baseline));
+        g.drawString(
+            String.format(Locale.ROOT, "%.2f", max + (min - max) * fraction), textX, baseline);
+      }
+    } finally {
+      g.dispose();
+    }
+  }
+
+  /**
+   * Getter pour {@code this#visualizationType}
+   *
+   * @return Le type de visualisation rendu
+   */
+  public VisualizationType getVisualizationType() {
+    return visualizationType;
+  }
+
+  /**
+   * Getter pour {@code this#legend}
+   *
+   * @return Si la légende est dessinée
+   */
+  public boolean hasLegend() {
+    return legend;
+  }
+}
@@ -0,0 +1,477 @@
+package com.e24.wolke.backend.models.renderer;
+
+import com.e24.wolke.backend.models.obstacles.WObstacleCell;
+import com.e24.wolke.backend.models.obstacles.WObstacleCellMatrix;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * ParallelRasterizer.java
+ *
+ * <p>Colore l'image de la simulation par bandes de lignes sur un pool de threads dédié au rendu.
+ * Chaque bande fait en un seul passage la conversion des valeurs en couleurs avec une {@link
+ * ColorMap} et le dessin des obstacles, directement dans le tableau du {@link DataBufferInt} de
+ * l'image.
+ *
+ * <p>Les cellules de la bordure de la matrice d'obstacles gardent la couleur de leur valeur, pour
+ * que l'image ne soit pas encadrée par la bordure de la simulation.
+ *
+ * <p>Lorsque la simulation est plus grande que son affichage, l'image peut être réduite d'un
+ * facteur entier pendant la conversion : chaque pixel prend la moyenne de son bloc de cellules, ou
+ * une seule cellule du bloc, plutôt que de colorer chaque cellule pour que Java2D réduise l'image
+ * ensuite.
+ *
+ * @author Nilon123456789
+ */
+public class ParallelRasterizer {
+
+  /** Nombre de pixels sous lequel une bande n'est plus divisée */
+  public static final int MIN_BAND_PIXELS = 1 << 15;
+
+  /** Le pool de threads qui colore les bandes */
+  private final ForkJoinPool forkJoinPool;
+
+  /**
+   * Constructeur de la classe ParallelRasterizer, qui utilise {@link
+   * RendererConstants#RENDER_FORK_JOIN_POOL}
+   */
+  public ParallelRasterizer() {
+    this(RendererConstants.RENDER_FORK_JOIN_POOL);
+  }
+
+  /**
+   * Constructeur de la classe ParallelRasterizer
+   *
+   * @param forkJoinPool Le pool de threads qui colore les bandes
+   */
+  public ParallelRasterizer(ForkJoinPool forkJoinPool) {
+    this.forkJoinPool = forkJoinPool;
+  }
+
+  /**
+   * Colore une image à partir d'une matrice de valeurs et dessine les obstacles par dessus. Seule
+   * la partie commune à l'image et à la matrice est écrite.
+   *
+   * @param values La matrice des valeurs, rangée ligne par ligne
+   * @param width La largeur de la matrice
+   * @param height La hauteur de la matrice
+   * @param min La valeur du début de la table
+   * @param max La valeur de la fin de la table
+   * @param colorMap La table de couleurs
+   * @param obstacles Les obstacles, ignorés si {@code null} ou d'une autre taille que la matrice
+   * @param obstacleColor La couleur RGB des obstacles
+   * @param image L'image, de type {@code TYPE_INT_RGB} ou {@code TYPE_INT_ARGB}
+   */
+  public void rasterize(
+      double[] values,
+      int width,
+      int height,
+      double min,
+      double max,
+      ColorMap colorMap,
+      WObstacleCellMatrix obstacles,
+      int obstacleColor,
+      BufferedImage image) {
+    rasterize(values, width, height, min, max, colorMap, obstacles, obstacleColor, 1, image);
+  }
+
+  /**
+   * Colore une image en ne convertissant qu'une cellule par bloc de {@code step} x {@code step},
+   * dont la couleur remplit tout le bloc. L'image garde sa taille, mais la conversion des valeurs
+   * coûte environ {@code step²} fois moins.
+   *
+   * @param values La matrice des valeurs, rangée ligne par ligne
+   * @param width La largeur de la matrice
+   * @param height La hauteur de la matrice
+   * @param min La valeur du début de la table
+   * @param max La valeur de la fin de la table
+   * @param colorMap La table de couleurs
+   * @param obstacles Les obstacles, ignorés si {@code null} ou d'une autre taille que la matrice
+   * @param obstacleColor La couleur RGB des obstacles
+   * @param step Le côté des blocs, {@code 1} pour colorer chaque cellule
+   * @param image L'image, de type {@code TYPE_INT_RGB} ou {@code TYPE_INT_ARGB}
+   */
+  public void rasterize(
+      double[] values,
+      int width,
+      int height,
+      double min,
+      double max,
+      ColorMap colorMap,
+      WObstacleCellMatrix obstacles,
+      int obstacleColor,
+      int step,
+      BufferedImage image) {
+    rasterizeDownsampled(
+        values, width, height, min, max, colorMap, obstacles, obstacleColor, 1, false, step, image);
+  }
+
+  /**
+   * Colore une image réduite d'un facteur entier : le pixel {@code (x, y)} représente le bloc de
+   * {@code factor} x {@code factor} cellules qui commence à la cellule {@code (x * factor, y *
+   * factor)}. Avec le filtre, le pixel prend la couleur de la moyenne des valeurs du bloc hors des
+   * obstacles, ou la couleur des obstacles s'ils occupent plus de la moitié du bloc; sans le
+   * filtre, il prend la couleur de la première cellule du bloc. Seule la partie commune à l'image
+   * et à la matrice réduite est écrite.
+   *
+   * @param values La matrice des valeurs, rangée ligne par ligne
+   * @param width La largeur de la matrice
+   * @param height La hauteur de la matrice
+   * @param min La valeur du début de la table
+   * @param max La valeur de la fin de la table
+   * @param colorMap La table de couleurs
+   * @param obstacles Les obstacles, ignorés si {@code null} ou d'une autre taille que la matrice
+   * @param obstacleColor La couleur RGB des obstacles
+   * @param factor Le facteur de réduction, {@code 1} pour un pixel par cellule
+   * @param boxFilter Si les pixels prennent la moyenne de leur bloc plutôt que sa première cellule
+   * @param step Le côté des blocs de pixels d'une seule couleur, {@code 1} pour chaque pixel
+   * @param image L'image, de type {@code TYPE_INT_RGB} ou {@code TYPE_INT_ARGB}, au moins de la
+   *     taille de {@link #getDownsampledLength(int, int)} pour être entièrement écrite
+   */
+  public void rasterizeDownsampled(
+      double[] values,
+      int width,
+      int height,
+      double min,
+      double max,
+      ColorMap colorMap,
+      WObstacleCellMatrix obstacles,
+      int obstacleColor,
+      int factor,
+      boolean boxFilter,
+      int step,
+      BufferedImage image) {
+    if (step < 1) throw new IllegalArgumentException("Invalid step: " + step);
+    if (factor < 1) throw new IllegalArgumentException("Invalid factor: " + factor);
+
+    boolean drawObstacles =
+        obstacles != null && obstacles.getXLength() == width && obstacles.getYLength() == height;
+
+    BandTask task =
+        new BandTask(
+            new Frame(
+                values,
+                width,
+                height,
+                min,
+                colorMap.getScale(min, max),
+                colorMap,
+                drawObstacles ? obstacles.getMatrix() : null,
+                drawObstacles && obstacles.hasBorder(),
+                obstacleColor,
+                ((DataBufferInt) image.getRaster().getDataBuffer()).getData(),
+                image.getWidth(),
+                Math.min(getDownsampledLength(width, factor), image.getWidth()),
+                factor,
+                boxFilter && factor > 1,
+                step),
+            0,
+            Math.min(getDownsampledLength(height, factor), image.getHeight()));
+
+    // Une petite image est colorée directement, sans passer par le pool
+    if (task.frame.getCost(task.endRow - task.startRow) <= MIN_BAND_PIXELS) task.compute();
+    else forkJoinPool.invoke(task);
+  }
+
+  /**
+   * Retourne la longueur d'un côté de la matrice réduite d'un facteur, le dernier bloc pouvant être
+   * incomplet
+   *
+   * @param length La longueur d'un côté de la matrice
+   * @param factor Le facteur de réduction
+   * @return La longueur du côté de l'image réduite
+   */
+  public static int getDownsampledLength(int length, int factor) {
+    return (length + factor - 1) / factor;
+  }
+
+  /**
+   * Retourne le pool de threads qui colore les bandes
+   *
+   * @return Le pool de threads
+   */
+  public ForkJoinPool getForkJoinPool() {
+    return forkJoinPool;
+  }
+
+  /**
+   * Paramètres d'une image partagés par toutes ses bandes
+   *
+   * @author Nilon123456789
+   */
+  private static class Frame {
+
+    /** La matrice des valeurs */
+    private final double[] values;
+
+    /** La largeur de la matrice */
+    private final int width;
+
+    /** La hauteur de la matrice */
+    private final int height;
+
+    /** La valeur du début de la table */
+    private final double min;
+
+    /** Le facteur de {@link ColorMap#getScale(double, double)} */
+    private final double scale;
+
+    /** La table de couleurs */
+    private final ColorMap colorMap;
+
+    /** Les obstacles, {@code null} s'ils ne sont pas dessinés */
+    private final WObstacleCell[] obstacles;
+
+    /** Si les obstacles de la bordure gardent la couleur de leur valeur */
+    private final boolean skipBorder;
+
+    /** La couleur RGB des obstacles */
+    private final int obstacleColor;
+
+    /** Les pixels RGB de l'image */
+    private final int[] pixels;
+
+    /** La largeur d'une ligne de pixels */
+    private final int scanline;
+
+    /** Le nombre de colonnes colorées */
+    private final int columns;
+
+    /** Le facteur de réduction de la matrice */
+    private final int factor;
+
+    /** Si les pixels prennent la moyenne de leur bloc de cellules */
+    private final boolean boxFilter;
+
+    /** Le côté des blocs de pixels d'une seule couleur */
+    private final int step;
+
+    /**
+     * Constructeur de la classe Frame
+     *
+     * @param values La matrice des valeurs
+     * @param width La largeur de la matrice
+     * @param height La hauteur de la matrice
+     * @param min La valeur du début de la table
+     * @param scale Le facteur de {@link ColorMap#getScale(double, double)}
+     * @param colorMap La table de couleurs
+     * @param obstacles Les obstacles, {@code null} s'ils ne sont pas dessinés
+     * @param skipBorder Si les obstacles de la bordure gardent la couleur de leur valeur
+     * @param obstacleColor La couleur RGB des obstacles
+     * @param pixels Les pixels RGB de l'image
+     * @param scanline La largeur d'une ligne de pixels
+     * @param columns Le nombre de colonnes colorées
+     * @param factor Le facteur de réduction de la matrice
+     * @param boxFilter Si les pixels prennent la moyenne de leur bloc de cellules
+     * @param step Le côté des blocs de pixels d'une seule couleur
+     */
+    private Frame(
+        double[] values,
+        int width,
+        int height,
+        double min,
+        double scale,
+        ColorMap colorMap,
+        WObstacleCell[] obstacles,
+        boolean skipBorder,
+        int obstacleColor,
+        int[] pixels,
+        int scanline,
+        int columns,
+        int factor,
+        boolean boxFilter,
+        int step) {
+      this.values = values;
+      this.width = width;
+      this.height = height;
+      this.min = min;
+      this.scale = scale;
+      this.colorMap = colorMap;
+      this.obstacles = obstacles;
+      this.skipBorder = skipBorder;
+      this.obstacleColor = obstacleColor;
+      this.pixels = pixels;
+      this.scanline = scanline;
+      this.columns = columns;
+      this.factor = factor;
+      this.boxFilter = boxFilter;
+      this.step = step;
+    }
+
+    /**
+     * Retourne le nombre de cellules lues pour colorer des lignes de pixels
+     *
+     * @param rows Le nombre de lignes de pixels
+     * @return Le nombre de cellules lues
+     */
+    private long getCost(int rows) {
+      return (long) columns * rows * (boxFilter ? factor * factor : 1);
+    }
+  }
+
+  /**
+   * Colore les lignes {@code [startRow, endRow[} d'une image, divisées en deux tant que la bande
+   * dépasse {@link #MIN_BAND_PIXELS}
+   *
+   * @author Nilon123456789
+   */
+  private static class BandTask extends RecursiveAction {
+
+    /** Sérialisation de la classe */
+    private static final long serialVersionUID = 1L;
+
+    /** L'image colorée */
+    private final transient Frame frame;
+
+    /** La première ligne colorée */
+    private final int startRow;
+
+    /** La ligne suivant la dernière ligne colorée */
+    private final int endRow;
+
+    /**
+     * Constructeur de la classe BandTask
+     *
+     * @param frame L'image colorée
+     * @param startRow La première ligne colorée
+     * @param endRow La ligne suivant la dernière ligne colorée
+     */
+    private BandTask(Frame frame, int startRow, int endRow) {
+      this.frame = frame;
+      this.startRow = startRow;
+      this.endRow = endRow;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void compute() {
+      int rows = endRow - startRow;
+      if (rows > 1 && frame.getCost(rows) > MIN_BAND_PIXELS) {
+        int middle = startRow + rows / 2;
+        invokeAll(new BandTask(frame, startRow, middle), new BandTask(frame, middle, endRow));
+        return;
+      }
+
+      if (frame.step > 1 || frame.factor > 1) {
+        computeBlocks();
+        return;
+      }
+
+      ColorMap colorMap = frame.colorMap;
+      WObstacleCell[] obstacles = frame.obstacles;
+      int[] pixels = frame.pixels;
+
+      for (int y = startRow; y < endRow; y++) {
+        int valueIndex = y * frame.width;
+        int pixelIndex = y * frame.scanline;
+        boolean borderRow = frame.skipBorder && (y == 0 || y == frame.height - 1);
+
+        for (int x = 0; x < frame.columns; x++) {
+          if (obstacles != null
+              && obstacles[valueIndex + x] != null
+              && !(frame.skipBorder && (borderRow || x == 0 || x == frame.width - 1))) {
+            pixels[pixelIndex + x] = frame.obstacleColor;
+            continue;
+          }
+
+          pixels[pixelIndex + x] =
+              colorMap.getColorAt(
+                  colorMap.getIndex(frame.values[valueIndex + x], frame.min, frame.scale));
+        }
+      }
+    }
+
+    /**
+     * Colore les lignes de la bande d'une image réduite, par blocs de {@code frame.step} x {@code
+     * frame.step} pixels
+     */
+    private void computeBlocks() {
+      int[] pixels = frame.pixels;
+      int step = frame.step;
+
+      for (int y = startRow; y < endRow; y++) {
+        int pixelIndex = y * frame.scanline;
+
+        // Les lignes suivantes d'un bloc recopient la première, si elle est dans la bande
+        if (y % step != 0 && y > startRow) {
+          System.arraycopy(pixels, pixelIndex - frame.scanline, pixels, pixelIndex, frame.columns);
+          continue;
+        }
+
+        int row = y - y % step;
+        for (int x = 0; x < frame.columns; x += step) {
+          int color = frame.boxFilter ? getAverageColor(x, row) : getCellColor(x, row);
+          int blockEnd = pixelIndex + Math.min(frame.columns, x + step);
+          Arrays.fill(pixels, pixelIndex + x, blockEnd, color);
+        }
+      }
+    }
+
+    /**
+     * Retourne la couleur de la première cellule du bloc d'un pixel
+     *
+     * @param x La colonne du pixel
+     * @param y La ligne du pixel
+     * @return La couleur RGB du pixel
+     */
+    private int getCellColor(int x, int y) {
+      int cellX = x * frame.factor;
+      int cellY = y * frame.factor;
+      if (isObstacle(cellX, cellY)) return frame.obstacleColor;
+
+      return frame.colorMap.getColorAt(
+          frame.colorMap.getIndex(
+              frame.values[cellY * frame.width + cellX], frame.min, frame.scale));
+    }
+
+    /**
+     * Retourne la couleur de la moyenne des valeurs du bloc d'un pixel hors des obstacles
+     *
+     * @param x La colonne du pixel
+     * @param y La ligne du pixel
+     * @return La couleur RGB du pixel, celle des obstacles s'ils occupent plus de la moitié du bloc
+     */
+    private int getAverageColor(int x, int y) {
+      int startX = x * frame.factor;
+      int startY = y * frame.factor;
+      int endX = Math.min(frame.width, startX + frame.factor);
+      int endY = Math.min(frame.height, startY + frame.factor);
+
+      double sum = 0;
+      int count = 0;
+      int blocked = 0;
+      for (int cellY = startY; cellY < endY; cellY++) {
+        int valueIndex = cellY * frame.width;
+        for (int cellX = startX; cellX < endX; cellX++) {
+          if (isObstacle(cellX, cellY)) blocked++;
+          else {
+            sum += frame.values[valueIndex + cellX];
+            count++;
+          }
+        }
+      }
+
+      if (blocked > count) return frame.obstacleColor;
+
+      return frame.colorMap.getColorAt(
+          frame.colorMap.getIndex(sum / count, frame.min, frame.scale));
+    }
+
+    /**
+     * Retourne si une cellule est un obstacle dessiné
+     *
+     * @param x La colonne de la cellule
+     * @param y La ligne de la cellule
+     * @return {@code true} si la cellule prend la couleur des obstacles
+     */
+    private boolean isObstacle(int x, int y) {
+      return frame.obstacles != null
+          && frame.obstacles[y * frame.width + x] != null
+          && !(frame.skipBorder
+              && (x == 0 || y == 0 || x == frame.width - 1 || y == frame.height - 1));
+    }
+  }
+}
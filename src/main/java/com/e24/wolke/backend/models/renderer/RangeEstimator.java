@@ -0,0 +1,387 @@
+package com.e24.wolke.backend.models.renderer;
+
+import com.e24.wolke.backend.models.obstacles.WObstacleMask;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * RangeEstimator.java
+ *
+ * <p>Estime l'intervalle de la table de couleurs à partir de percentiles plutôt que du minimum et
+ * du maximum, pour qu'une seule cellule extrême n'écrase pas le reste de l'image. Un seul passage
+ * sur les valeurs calcule à la fois le minimum, le maximum et un histogramme. L'histogramme couvre
+ * les percentiles de l'image précédente élargis d'une marge, avec une case pour les valeurs en
+ * dessous et une pour les valeurs au-dessus, ce qui évite un premier passage pour trouver ses
+ * bornes. Les valeurs sont découpées en bandes comptées en parallèle sur le pool de threads du
+ * rendu, et les histogrammes des bandes sont additionnés à la fin.
+ *
+ * <p>Pour la première image, ou lorsqu'un percentile sort des bornes, les bornes sont replacées à
+ * partir d'un échantillon trié des valeurs, puis les valeurs sont comptées à nouveau.
+ *
+ * <p>Les percentiles sont ensuite lissés d'une image à l'autre par une moyenne exponentielle, pour
+ * que la légende ne saute pas à chaque image.
+ *
+ * @author Nilon123456789
+ */
+public class RangeEstimator {
+
+  /** Nombre de cases de l'histogramme entre les bornes de l'image précédente */
+  public static final int BIN_COUNT = 1024;
+
+  /** Nombre de valeurs sous lequel une bande n'est plus divisée */
+  public static final int MIN_BAND_VALUES = 1 << 15;
+
+  /**
+   * Nombre minimal de cases entre les deux percentiles pour que l'histogramme soit assez précis.
+   * Sous ce nombre, les bornes sont replacées.
+   */
+  public static final int MIN_PERCENTILE_BINS = BIN_COUNT / 4;
+
+  /** Marge ajoutée de part et d'autre des percentiles, en part de l'écart entre eux */
+  public static final double BIN_MARGIN = 0.5;
+
+  /** Nombre de valeurs échantillonnées pour placer les bornes */
+  public static final int SAMPLE_SIZE = 4096;
+
+  /** Le pool de threads qui compte les bandes */
+  private final ForkJoinPool forkJoinPool;
+
+  /** Le percentile bas, entre {@code 0} et {@code 1} */
+  private final double lowPercentile;
+
+  /** Le percentile haut, entre {@code 0} et {@code 1} */
+  private final double highPercentile;
+
+  /** Le poids d'une nouvelle image dans la moyenne exponentielle, entre {@code 0} et {@code 1} */
+  private final double smoothing;
+
+  /** Si un intervalle a déjà été estimé depuis la dernière réinitialisation */
+  private boolean hasRange;
+
+  /** Le minimum lissé */
+  private double min;
+
+  /** Le maximum lissé */
+  private double max;
+
+  /** Si {@code this#binMin} et {@code this#binMax} sont connus */
+  private boolean hasBins;
+
+  /** La borne inférieure de l'histogramme */
+  private double binMin;
+
+  /** La borne supérieure de l'histogramme */
+  private double binMax;
+
+  /** Les valeurs comptées */
+  private double[] values;
+
+  /** Le masque des obstacles, dont les cellules ne sont pas comptées */
+  private WObstacleMask mask;
+
+  /** Nombre de cases par unité de valeur, {@code 0} si l'histogramme n'a qu'une case */
+  private double binScale;
+
+  /** Tableau de travail de l'échantillon */
+  private final double[] sample = new double[SAMPLE_SIZE];
+
+  /**
+   * Constructeur de la classe RangeEstimator, sur le pool de threads du rendu
+   *
+   * @param lowPercentile Le percentile bas, entre {@code 0} et {@code 1}
+   * @param highPercentile Le percentile haut, entre {@code lowPercentile} et {@code 1}
+   * @param smoothing Le poids d'une nouvelle image, {@code 1} pour ne pas lisser
+   */
+  public RangeEstimator(double lowPercentile, double highPercentile, double smoothing) {
+    this(RendererConstants.RENDER_FORK_JOIN_POOL, lowPercentile, highPercentile, smoothing);
+  }
+
+  /**
+   * Constructeur de la classe RangeEstimator
+   *
+   * @param forkJoinPool Le pool de threads qui compte les bandes
+   * @param lowPercentile Le percentile bas, entre {@code 0} et {@code 1}
+   * @param highPercentile Le percentile haut, entre {@code lowPercentile} et {@code 1}
+   * @param smoothing Le poids d'une nouvelle image, {@code 1} pour ne pas lisser
+   * @throws IllegalArgumentException Si les percentiles ou le lissage sont hors de leur intervalle
+   */
+  public RangeEstimator(
+      ForkJoinPool forkJoinPool, double lowPercentile, double highPercentile, double smoothing) {
+    if (!(lowPercentile >= 0 && lowPercentile <= highPercentile && highPercentile <= 1))
+      throw new IllegalArgumentException(
+          "Invalid percentiles: " + lowPercentile + ", " + highPercentile);
+    if (!(smoothing > 0 && smoothing <= 1))
+      throw new IllegalArgumentException("Invalid smoothing: " + smoothing);
+
+    this.forkJoinPool = forkJoinPool;
+    this.lowPercentile = lowPercentile;
+    this.highPercentile = highPercentile;
+    this.smoothing = smoothing;
+  }
+
+  /**
+   * Estime l'intervalle d'une nouvelle image
+   *
+   * @param values Les valeurs de l'image
+   * @param mask Le masque des obstacles, ignoré s'il est {@code null} ou d'une autre taille
+   * @return Un nouveau tableau {@code [min, max]}, lissé avec les images précédentes
+   */
+  public double[] estimate(double[] values, WObstacleMask mask) {
+    this.values = values;
+    this.mask =
+        mask != null && (long) mask.getXLength() * mask.getYLength() == values.length
+            ? mask
+            : null;
+
+    try {
+      if (!hasBins && !placeBins()) return getRange();
+
+      BandTask frame = count();
+      if (frame.count == 0) return getRange();
+
+      int lowBin = getPercentileBin(frame, lowPercentile);
+      int highBin = getPercentileBin(frame, highPercentile);
+      if (!isResolved(lowBin, highBin)) {
+        placeBins();
+        frame = count();
+        lowBin = getPercentileBin(frame, lowPercentile);
+        highBin = getPercentileBin(frame, highPercentile);
+      }
+
+      double low = getPercentile(frame, lowBin, lowPercentile);
+      double high = getPercentile(frame, highBin, highPercentile);
+      setBins(low, high);
+
+      if (!hasRange) {
+        min = low;
+        max = high;
+        hasRange = true;
+      } else {
+        min += (low - min) * smoothing;
+        max += (high - max) * smoothing;
+      }
+    } finally {
+      this.values = null;
+      this.mask = null;
+    }
+
+    return getRange();
+  }
+
+  /** Oublie les images précédentes, par exemple lorsque le champ visualisé change */
+  public void reset() {
+    hasRange = false;
+    hasBins = false;
+  }
+
+  /**
+   * Retourne l'intervalle lissé
+   *
+   * @return Un nouveau tableau {@code [min, max]}, {@code [0, 0]} si aucune valeur n'a été comptée
+   */
+  public double[] getRange() {
+    return hasRange ? new double[] {min, max} : new double[] {0, 0};
+  }
+
+  /**
+   * Compte les valeurs dans l'histogramme de {@code this#binMin} à {@code this#binMax}
+   *
+   * @return La tâche racine, qui contient l'histogramme de toutes les valeurs
+   */
+  private BandTask count() {
+    double range = binMax - binMin;
+    binScale = range > 0 && range < Double.POSITIVE_INFINITY ? BIN_COUNT / range : 0;
+
+    BandTask task = new BandTask(0, values.length);
+    if (values.length > MIN_BAND_VALUES) forkJoinPool.invoke(task);
+    else task.compute();
+
+    return task;
+  }
+
+  /**
+   * Place les bornes de l'histogramme sur les percentiles d'un échantillon régulier des valeurs
+   *
+   * @return {@code false} si aucune valeur n'a été échantillonnée
+   */
+  private boolean placeBins() {
+    int stride = Math.max(1, values.length / SAMPLE_SIZE);
+    int size = 0;
+    for (int i = 0; i < values.length && size < SAMPLE_SIZE; i += stride) {
+      if (Double.isNaN(values[i]) || (mask != null && mask.isObstructed(i))) continue;
+      sample[size++] = values[i];
+    }
+    if (size == 0) return false;
+
+    Arrays.sort(sample, 0, size);
+    setBins(
+        sample[(int) (lowPercentile * (size - 1))], sample[(int) (highPercentile * (size - 1))]);
+    return true;
+  }
+
+  /**
+   * Place les bornes de l'histogramme de part et d'autre des percentiles, avec une marge pour que
+   * ceux de la prochaine image y restent
+   *
+   * @param low Le percentile bas
+   * @param high Le percentile haut
+   */
+  private void setBins(double low, double high) {
+    double margin = (high - low) * BIN_MARGIN;
+    binMin = low - margin;
+    binMax = high + margin;
+    hasBins = true;
+  }
+
+  /**
+   * Retourne si les percentiles sont dans l'histogramme et assez écartés pour être précis. Un
+   * histogramme d'une seule case, pour des valeurs toutes égales, est toujours précis.
+   *
+   * @param lowBin La case du percentile bas
+   * @param highBin La case du percentile haut
+   * @return {@code true} si les bornes n'ont pas à être replacées
+   */
+  private boolean isResolved(int lowBin, int highBin) {
+    if (binScale == 0) return true;
+
+    return lowBin > 0 && highBin <= BIN_COUNT && highBin - lowBin >= MIN_PERCENTILE_BINS;
+  }
+
+  /**
+   * Retourne la case de l'histogramme qui contient un percentile
+   *
+   * @param frame La tâche racine de l'image
+   * @param percentile Le percentile, entre {@code 0} et {@code 1}
+   * @return La case du percentile
+   */
+  private int getPercentileBin(BandTask frame, double percentile) {
+    double rank = percentile * frame.count;
+    int[] bins = frame.bins;
+    long before = 0;
+    int last = 0;
+
+    for (int bin = 0; bin < bins.length; bin++) {
+      if (bins[bin] == 0) continue;
+      if (before + bins[bin] >= rank) return bin;
+      before += bins[bin];
+      last = bin;
+    }
+
+    return last;
+  }
+
+  /**
+   * Calcule un percentile, interpolé linéairement dans sa case. Les cases des valeurs hors des
+   * bornes s'étendent jusqu'au minimum et au maximum exacts.
+   *
+   * @param frame La tâche racine de l'image
+   * @param bin La case du percentile
+   * @param percentile Le percentile, entre {@code 0} et {@code 1}
+   * @return La valeur du percentile
+   */
+  private double getPercentile(BandTask frame, int bin, double percentile) {
+    long before = 0;
+    for (int i = 0; i < bin; i++) before += frame.bins[i];
+
+    double lower = getEdge(bin, frame);
+    double upper = getEdge(bin + 1, frame);
+    double fraction = (percentile * frame.count - before) / frame.bins[bin];
+    double value = lower + (upper - lower) * Math.max(0, Math.min(1, fraction));
+    return Math.max(frame.min, Math.min(frame.max, value));
+  }
+
+  /**
+   * Retourne la borne inférieure d'une case de l'histogramme
+   *
+   * @param bin La case, {@code 0} pour les valeurs sous {@code this#binMin} et {@code BIN_COUNT +
+   *     1} pour les valeurs au-dessus de {@code this#binMax}
+   * @param frame La tâche racine de l'image
+   * @return La borne inférieure de la case, ou le maximum exact après la dernière case
+   */
+  private double getEdge(int bin, BandTask frame) {
+    if (bin == 0) return Math.min(frame.min, binMin);
+    if (bin == BIN_COUNT + 2) return Math.max(frame.max, binMax);
+    if (binScale == 0) return bin == 1 ? binMin : binMax;
+
+    return binMin + (bin - 1) / binScale;
+  }
+
+  /**
+   * Compte les valeurs {@code [start, end[}, divisées en deux tant qu'il y en a plus que {@link
+   * #MIN_BAND_VALUES}. Après {@link #compute()}, la tâche contient l'histogramme, le minimum et le
+   * maximum de toutes ses valeurs.
+   *
+   * @author Nilon123456789
+   */
+  private class BandTask extends RecursiveAction {
+
+    /** Sérialisation de la classe */
+    private static final long serialVersionUID = 1L;
+
+    /** La première valeur */
+    private final int start;
+
+    /** La valeur suivant la dernière valeur */
+    private final int end;
+
+    /** L'histogramme, avec les cases des valeurs hors des bornes aux deux extrémités */
+    private int[] bins;
+
+    /** Le nombre de valeurs comptées */
+    private long count;
+
+    /** Le minimum des valeurs comptées */
+    private double min = Double.POSITIVE_INFINITY;
+
+    /** Le maximum des valeurs comptées */
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Constructeur de la classe BandTask
+     *
+     * @param start La première valeur
+     * @param end La valeur suivant la dernière valeur
+     */
+    private BandTask(int start, int end) {
+      this.start = start;
+      this.end = end;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void compute() {
+      if (end - start > MIN_BAND_VALUES) {
+        int middle = start + (end - start) / 2;
+        BandTask left = new BandTask(start, middle);
+        BandTask right = new BandTask(middle, end);
+        invokeAll(left, right);
+
+        bins = left.bins;
+        for (int bin = 0; bin < bins.length; bin++) bins[bin] += right.bins[bin];
+        count = left.count + right.count;
+        min = Math.min(left.min, right.min);
+        max = Math.max(left.max, right.max);
+        return;
+      }
+
+      bins = new int[BIN_COUNT + 2];
+      double lower = binMin;
+      double upper = binMax;
+      double scale = binScale;
+
+      for (int i = start; i < end; i++) {
+        double value = values[i];
+        if (Double.isNaN(value) || (mask != null && mask.isObstructed(i))) continue;
+
+        count++;
+        if (value < min) min = value;
+        if (value > max) max = value;
+
+        if (value < lower) bins[0]++;
+        else if (value > upper) bins[BIN_COUNT + 1]++;
+        else bins[1 + Math.min(BIN_COUNT - 1, (int) ((value - lower) * scale))]++;
+      }
+    }
+  }
+}
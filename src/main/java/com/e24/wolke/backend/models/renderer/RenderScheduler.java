@@ -0,0 +1,183 @@
+package com.e24.wolke.backend.models.renderer;
+
+/**
+ * RenderScheduler.java
+ *
+ * <p>Cadence le rendu de la simulation sur une fréquence d'affichage cible, indépendamment de la
+ * vitesse de la physique. Une image n'est rendue qu'une fois l'intervalle de la fréquence écoulé
+ * depuis le début de la précédente; les matrices arrivées entre-temps sont alors regroupées et
+ * seule la plus récente est dessinée.
+ *
+ * <p>En mode adaptatif, le temps de rendu moyen est comparé à l'intervalle de la fréquence cible.
+ * Tant qu'il le dépasse, la qualité baisse d'un niveau : d'abord les superpositions (vecteurs,
+ * lignes de courant, texture LIC) sont suspendues, puis l'image est colorée une cellule sur deux.
+ * La qualité remonte lorsque le rendu redescend sous {@link #RECOVERY_RATIO} de l'intervalle. Au
+ * moins {@link #ADAPT_FRAMES} images séparent deux changements, pour que la moyenne reflète le
+ * nouveau niveau.
+ *
+ * <p>Une instance n'est utilisée que par le thread du rendu, sauf la lecture de la qualité et le
+ * changement de la politique.
+ *
+ * @author Nilon123456789
+ */
+public class RenderScheduler {
+
+  /** Niveau de qualité complet */
+  public static final int QUALITY_FULL = 0;
+
+  /** Niveau de qualité sans les superpositions */
+  public static final int QUALITY_NO_OVERLAYS = 1;
+
+  /** Niveau de qualité sans les superpositions, l'image colorée une cellule sur deux */
+  public static final int QUALITY_COARSE = 2;
+
+  /** Pas de la coloration au niveau {@link #QUALITY_COARSE} */
+  public static final int COARSE_STEP = 2;
+
+  /** Nombre minimal d'images rendues entre deux changements de qualité */
+  public static final int ADAPT_FRAMES = 15;
+
+  /** Part de l'intervalle sous laquelle le temps de rendu moyen fait remonter la qualité */
+  public static final double RECOVERY_RATIO = 0.5;
+
+  /** Poids d'une nouvelle image dans la moyenne exponentielle du temps de rendu */
+  public static final double FRAME_TIME_SMOOTHING = 0.2;
+
+  /** Intervalle minimal entre le début de deux images (ns), {@code 0} sans limite */
+  private volatile long frameIntervalNanos;
+
+  /** Si la qualité s'adapte au temps de rendu */
+  private volatile boolean adaptive;
+
+  /** Le début de la dernière image rendue (ns), {@code Long.MIN_VALUE} avant la première */
+  private long lastFrameStart = Long.MIN_VALUE;
+
+  /** La moyenne exponentielle du temps de rendu (ns), négative avant la première image */
+  private double averageFrameNanos = -1;
+
+  /** Le niveau de qualité actuel */
+  private volatile int qualityLevel = QUALITY_FULL;
+
+  /** Nombre d'images rendues depuis le dernier changement de qualité */
+  private int framesSinceChange;
+
+  /**
+   * Constructeur de la classe RenderScheduler
+   *
+   * @param targetFps La fréquence d'affichage cible (images/s), {@code 0} ou moins sans limite
+   * @param adaptive Si la qualité s'adapte au temps de rendu, ignoré sans fréquence cible
+   */
+  public RenderScheduler(int targetFps, boolean adaptive) {
+    setTargetFps(targetFps);
+    setAdaptive(adaptive);
+  }
+
+  /**
+   * Retourne le temps à attendre avant de rendre la prochaine image
+   *
+   * @param now Le temps actuel, de {@link System#nanoTime()}
+   * @return Le temps à attendre (ns), {@code 0} si l'image peut être rendue tout de suite
+   */
+  public long getDelayNanos(long now) {
+    if (frameIntervalNanos == 0 || lastFrameStart == Long.MIN_VALUE) return 0;
+
+    return Math.max(0, lastFrameStart + frameIntervalNanos - now);
+  }
+
+  /**
+   * Méthode à invoquer après le rendu d'une image
+   *
+   * @param start Le début du rendu, de {@link System#nanoTime()}
+   * @param end La fin du rendu, de {@link System#nanoTime()}
+   */
+  public void onFrameRendered(long start, long end) {
+    lastFrameStart = start;
+
+    double frameNanos = end - start;
+    averageFrameNanos =
+        averageFrameNanos < 0
+            ? frameNanos
+            : averageFrameNanos + (frameNanos - averageFrameNanos) * FRAME_TIME_SMOOTHING;
+
+    if (!isAdaptive() || ++framesSinceChange < ADAPT_FRAMES) return;
+
+    if (averageFrameNanos > frameIntervalNanos && qualityLevel < QUALITY_COARSE)
+      setQualityLevel(qualityLevel + 1);
+    else if (averageFrameNanos < frameIntervalNanos * RECOVERY_RATIO
+        && qualityLevel > QUALITY_FULL) setQualityLevel(qualityLevel - 1);
+  }
+
+  /** Oublie les images précédentes et remet la qualité complète */
+  public void reset() {
+    lastFrameStart = Long.MIN_VALUE;
+    averageFrameNanos = -1;
+    setQualityLevel(QUALITY_FULL);
+  }
+
+  /**
+   * Retourne si les images en attente doivent être regroupées, c'est-à-dire s'il y a une fréquence
+   * cible
+   *
+   * @return {@code true} si seule la plus récente des images en attente doit être rendue
+   */
+  public boolean isThrottled() {
+    return frameIntervalNanos > 0;
+  }
+
+  /**
+   * Retourne si la qualité s'adapte au temps de rendu
+   *
+   * @return {@code true} si le mode adaptatif est actif et qu'il y a une fréquence cible
+   */
+  public boolean isAdaptive() {
+    return adaptive && isThrottled();
+  }
+
+  /**
+   * Retourne le niveau de qualité actuel
+   *
+   * @return {@link #QUALITY_FULL}, {@link #QUALITY_NO_OVERLAYS} ou {@link #QUALITY_COARSE}
+   */
+  public int getQualityLevel() {
+    return qualityLevel;
+  }
+
+  /**
+   * Retourne la moyenne exponentielle du temps de rendu
+   *
+   * @return Le temps de rendu moyen (ns), négatif avant la première image
+   */
+  public double getAverageFrameNanos() {
+    return averageFrameNanos;
+  }
+
+  /**
+   * Setter pour la fréquence d'affichage cible
+   *
+   * @param targetFps La fréquence d'affichage cible (images/s), {@code 0} ou moins sans limite
+   */
+  public void setTargetFps(int targetFps) {
+    frameIntervalNanos = targetFps > 0 ? 1_000_000_000L / targetFps : 0;
+    if (!isAdaptive()) setQualityLevel(QUALITY_FULL);
+  }
+
+  /**
+   * Setter pour le mode adaptatif
+   *
+   * @param adaptive Si la qualité s'adapte au temps de rendu
+   */
+  public void setAdaptive(boolean adaptive) {
+    this.adaptive = adaptive;
+    if (!isAdaptive()) setQualityLevel(QUALITY_FULL);
+  }
+
+  /**
+   * Change le niveau de qualité et recommence le décompte des images
+   *
+   * @param qualityLevel Le nouveau niveau de qualité
+   */
+  private void setQualityLevel(int qualityLevel) {
+    this.qualityLevel = qualityLevel;
+    framesSinceChange = 0;
+  }
+}
@@ -3,6 +3,8 @@ package com.e24.wolke.backend.models.renderer;
 import com.e24.wolke.backend.models.application.LocaleManager;
 import com.e24.wolke.filesystem.properties.PropertiesManager;
 import com.e24.wolke.filesystem.properties.SettingsPropertiesManager;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import javax.swing.JOptionPane;
 
 /**
@@ -65,6 +67,82 @@ public final class RendererConstants {
   public static final boolean DEFAULT_GRAYSCALE_VISUALISATION =
       RendererProperties.readGreyscale(RendererConstants.PROPERTIES_MANAGER);
 
+  /**
+   * Nombre de threads du pool de rendu, la moitié des processeurs si la valeur lue n'est pas
+   * positive
+   */
+  public static final int RENDER_THREADS =
+      RendererProperties.readRenderThreads(RendererConstants.PROPERTIES_MANAGER) > 0
+          ? RendererProperties.readRenderThreads(RendererConstants.PROPERTIES_MANAGER)
+          : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+  /**
+   * Le pool de threads du rendu, distinct de {@code ApplicationConstants#FORK_JOIN_POOL} pour que
+   * le rendu et la physique ne se privent pas mutuellement de threads
+   */
+  public static final ForkJoinPool RENDER_FORK_JOIN_POOL =
+      new ForkJoinPool(
+          RENDER_THREADS,
+          pool -> {
+            ForkJoinWorkerThread thread =
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("Renderer-" + thread.getPoolIndex());
+            return thread;
+          },
+          null,
+          false);
+
+  /** Couleur RGB des obstacles dans l'image de la simulation */
+  public static final int OBSTACLE_COLOR =
+      RendererProperties.readObstacleColor(RendererConstants.PROPERTIES_MANAGER).getRGB();
+
+  /**
+   * Part par defaut de la texture LIC dans l'image de la simulation, de {@code 0} (table de
+   * couleurs seule) a {@code 1}
+   */
+  public static final double DEFAULT_LIC_BLEND =
+      RendererProperties.readLicBlend(RendererConstants.PROPERTIES_MANAGER);
+
+  /**
+   * Drapeau par defaut indiquant si l'intervalle de la table de couleurs est estime par percentiles
+   * plutot que par le minimum et le maximum
+   */
+  public static final boolean DEFAULT_AUTO_RANGE =
+      RendererProperties.readAutoRange(RendererConstants.PROPERTIES_MANAGER);
+
+  /** Percentiles bas et haut (%) qui bornent la table de couleurs en mode automatique */
+  public static final double[] AUTO_RANGE_PERCENTILES =
+      RendererProperties.readAutoRangePercentiles(RendererConstants.PROPERTIES_MANAGER);
+
+  /**
+   * Poids d'une nouvelle image dans le lissage exponentiel de l'intervalle automatique, de {@code
+   * 0} exclu (intervalle fige) a {@code 1} (aucun lissage)
+   */
+  public static final double AUTO_RANGE_SMOOTHING =
+      RendererProperties.readAutoRangeSmoothing(RendererConstants.PROPERTIES_MANAGER);
+
+  /** Fréquence d'affichage cible par defaut (images/s), {@code 0} pour rendre chaque image */
+  public static final int DEFAULT_TARGET_FPS =
+      RendererProperties.readTargetFps(RendererConstants.PROPERTIES_MANAGER);
+
+  /** Drapeau par defaut indiquant si la qualite du rendu s'adapte au temps de rendu */
+  public static final boolean DEFAULT_ADAPTIVE_QUALITY =
+      RendererProperties.readAdaptiveQuality(RendererConstants.PROPERTIES_MANAGER);
+
+  /**
+   * Drapeau par defaut indiquant si l'image de la simulation est reduite a la resolution du canvas
+   * lorsque la simulation est plus grande que son affichage
+   */
+  public static final boolean DEFAULT_DISPLAY_DOWNSAMPLING =
+      RendererProperties.readDisplayDownsampling(RendererConstants.PROPERTIES_MANAGER);
+
+  /**
+   * Drapeau indiquant si un pixel de l'image reduite prend la moyenne de son bloc de cellules
+   * plutot que sa premiere cellule
+   */
+  public static final boolean DOWNSAMPLING_BOX_FILTER =
+      RendererProperties.readDownsamplingBoxFilter(RendererConstants.PROPERTIES_MANAGER);
+
   /** Drapeau par defaut indiquant l'affichage des vecteurs */
   public static final boolean DEFAULT_SHOW_VECTORS = false;
 
@@ -98,7 +176,9 @@ public final class RendererConstants {
     /** Visualisation de la pression en x du fluide */
     PRESSURE_X("ui.simulation.visualization.pressure_x"),
     /** Visualisation de la pression en y du fluide */
-    PRESSURE_Y("ui.simulation.visualization.pressure_y");
+    PRESSURE_Y("ui.simulation.visualization.pressure_y"),
+    /** Visualisation de la vitesse du fluide texturée par les lignes de courant (LIC) */
+    VELOCITY_LIC("ui.simulation.visualization.velocity_lic");
 
     /** Le nom de la propriete de localisation */
     private final String localeProperty;
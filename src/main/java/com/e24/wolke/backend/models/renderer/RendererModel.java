@@ -3,22 +3,23 @@ package com.e24.wolke.backend.models.renderer;
 import com.e24.wolke.backend.controller.Controller;
 import com.e24.wolke.backend.models.WModelSaveable;
 import com.e24.wolke.backend.models.obstacles.WObstacleCellMatrix;
+import com.e24.wolke.backend.models.obstacles.WObstacleMask;
 import com.e24.wolke.backend.models.renderer.RendererConstants.VisualizationType;
 import com.e24.wolke.backend.simulation.physics.ParticleMatrix;
+import com.e24.wolke.backend.simulation.physics.SimulationData;
 import com.e24.wolke.eventsystem.Subject;
 import com.e24.wolke.filesystem.scenes.WSceneMember;
 import com.e24.wolke.utils.Timer;
-import com.e24.wolke.utils.images.WColor;
-import com.e24.wolke.utils.math.WVector2D;
-import java.awt.BasicStroke;
-import java.awt.Color;
-import java.awt.Graphics2D;
-import java.awt.RenderingHints;
+import com.e24.wolke.utils.TimerHandle;
+import com.e24.wolke.utils.jfr.RenderFrameEvent;
 import java.awt.geom.AffineTransform;
-import java.awt.geom.Ellipse2D;
 import java.awt.geom.Path2D;
 import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Properties;
+import java.util.WeakHashMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -49,12 +50,20 @@ public class RendererModel extends WModelSaveable implements Runnable, WSceneMem
   private final Timer timer =
       new Timer("RendererModel", LogManager.getLogger(RendererModel.class.getSimpleName()));
 
+  /** Timer du rendu d'une image de la simulation */
+  private final TimerHandle updateSimulationFrameTimer =
+      timer.register("updateSimulationFrame").setAutoPrintFrequency(500);
+
   /** La resolution de la simulation */
   private int[] resolution;
 
   /** La résolution du canvas de la simulation */
   private int[] canvasResolution;
 
+  /** La résolution du canvas de chaque panneau de rendu, voir {@link #getDownsampleFactor()} */
+  private final Map<Object, int[]> paneCanvasResolutions =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
   /** Image de la simulation */
   private BufferedImage simulationImage;
 
@@ -64,6 +73,69 @@ public class RendererModel extends WModelSaveable implements Runnable, WSceneMem
   /** Image des vecteurs */
   private BufferedImage vectorImage;
 
+  /** Image des lignes de courant */
+  private BufferedImage flowLineImage;
+
+  /** Numéro de la dernière image de la simulation publiée */
+  private volatile long frameId;
+
+  /** Version de {@code this#vectorImage}, incrémentée à chaque dessin du champ de vecteurs */
+  private volatile long vectorImageVersion;
+
+  /** Version de {@code this#flowLineImage}, incrémentée à chaque dessin des lignes de courant */
+  private volatile long flowLineImageVersion;
+
+  /** Table de couleurs du rendu, voir {@link #getColorMap()} */
+  private ColorMap colorMap;
+
+  /** Dessine le champ de vecteurs dans des images réutilisées */
+  private final VectorFieldRenderer vectorFieldRenderer = new VectorFieldRenderer();
+
+  /** Colore l'image de la simulation par bandes sur le pool de threads du rendu */
+  private final ParallelRasterizer rasterizer = new ParallelRasterizer();
+
+  /** Intègre et dessine les lignes de courant, gardées d'une image à l'autre */
+  private final StreamlineRenderer streamlineRenderer = new StreamlineRenderer();
+
+  /** Texture l'image de la simulation par LIC */
+  private final LicRenderer licRenderer = new LicRenderer();
+
+  /** Masque des obstacles utilisé par les lignes de courant et la texture LIC */
+  private WObstacleMask obstacleMask;
+
+  /** Part de la texture LIC dans l'image de la simulation */
+  private double licBlend = RendererConstants.DEFAULT_LIC_BLEND;
+
+  /** Estimateur de l'intervalle de la table de couleurs par percentiles */
+  private final RangeEstimator rangeEstimator =
+      new RangeEstimator(
+          RendererConstants.AUTO_RANGE_PERCENTILES[0] / 100,
+          RendererConstants.AUTO_RANGE_PERCENTILES[1] / 100,
+          RendererConstants.AUTO_RANGE_SMOOTHING);
+
+  /** Si l'intervalle de la table de couleurs est estimé par {@code this#rangeEstimator} */
+  private boolean autoRange = RendererConstants.DEFAULT_AUTO_RANGE;
+
+  /** Le {@code VisualizationType} des images vues par {@code this#rangeEstimator} */
+  private VisualizationType rangeVisualizationType;
+
+  /**
+   * Si l'image de la simulation est réduite d'un facteur entier à la résolution du canvas lorsque
+   * la simulation est plus grande que son affichage
+   */
+  private boolean displayDownsampling = RendererConstants.DEFAULT_DISPLAY_DOWNSAMPLING;
+
+  /** La cadence et la qualité adaptative du rendu */
+  private final RenderScheduler renderScheduler =
+      new RenderScheduler(
+          RendererConstants.DEFAULT_TARGET_FPS, RendererConstants.DEFAULT_ADAPTIVE_QUALITY);
+
+  /** Si {@code this#colorMap} est en niveaux de gris */
+  private boolean colorMapGreyscale;
+
+  /** Copie du dégradé avec lequel {@code this#colorMap} a été créée */
+  private float[][] colorMapGradient;
+
   /** Taille des pixels */
   private double pixelSize = 1.0;
 
@@ -93,7 +165,6 @@ public class RendererModel extends WModelSaveable implements Runnable, WSceneMem
    */
   public RendererModel(Controller controller) {
     super(controller);
-    timer.setupAutoAveragePrint("updateSimulationFrame", 500);
     setupKeybindSubscriptions();
     properties = new RendererProperties();
     setProperties(properties);
@@ -139,6 +210,21 @@ public class RendererModel extends WModelSaveable implements Runnable, WSceneMem
     return resolution;
   }
 
+  /**
+   * Modifie la resolution du rendu de la simulation. Les images de la simulation, des obstacles et
+   * du champ de vecteurs sont recreees a la nouvelle resolution lors de leur prochain acces.
+   *
+   * @param width La largeur du rendu (px)
+   * @param height La hauteur du rendu (px)
+   */
+  public void setResolution(int width, int height) {
+    resolution = new int[] {width, height};
+
+    simulationImage = null;
+    obstacleImage = null;
+    vectorImage = null;
+  }
+
   /**
    * Getter pour {@code this#canvasResolution}
    *
@@ -149,12 +235,14 @@ public class RendererModel extends WModelSaveable implements Runnable, WSceneMem
   }
 
   /**
-   * Setter pour {@code this#canvasResolution}
+   * Setter pour {@code this#canvasResolution} et la résolution du canvas d'un panneau de rendu
    *
-   * @param canvasResolution La resolution du canvas de la simulation
+   * @param pane Le panneau de rendu
+   * @param canvasResolution La resolution du canvas de la simulation dans ce panneau
    */
-  public void setCanvasResolution(int[] canvasResolution) {
+  public void setCanvasResolution(Object pane, int[] canvasResolution) {
     this.canvasResolution = canvasResolution;
+    paneCanvasResolutions.put(pane, canvasResolution);
   }
 
   /**
@@ -164,12 +252,49 @@ public class RendererModel extends WModelSaveable implements Runnable, WSceneMem
    * @return Le {@code BufferedImage} dans lequel le rendu de la simulation est dessine
    */
   public BufferedImage getSimulationImage() {
-    if (this.simulationImage == null)
-      simulationImage = new BufferedImage(resolution[0], resolution[1], BufferedImage.TYPE_INT_RGB);
+    if (this.simulationImage == null) simulationImage = createSimulationImage();
 
     return simulationImage;
   }
 
+  /**
+   * Crée une image de la simulation à la résolution de la simulation réduite de {@link
+   * #getDownsampleFactor()}
+   *
+   * @return La nouvelle image de la simulation
+   */
+  private BufferedImage createSimulationImage() {
+    int factor = getDownsampleFactor();
+    return new BufferedImage(
+        ParallelRasterizer.getDownsampledLength(resolution[0], factor),
+        ParallelRasterizer.getDownsampledLength(resolution[1], factor),
+        BufferedImage.TYPE_INT_RGB);
+  }
+
+  /**
+   * Retourne le facteur de réduction de l'image de la simulation, soit le nombre entier de cellules
+   * par pixel du plus grand canvas des panneaux de rendu, puisque tous les panneaux dessinent la
+   * même image. La texture LIC, qui dépose son bruit dans chaque cellule, n'est pas réduite.
+   *
+   * @return Le facteur de réduction, {@code 1} si l'image n'est pas réduite
+   */
+  public int getDownsampleFactor() {
+    if (!displayDownsampling
+        || resolution == null
+        || properties.visualizationType == VisualizationType.VELOCITY_LIC) return 1;
+
+    int factor = Integer.MAX_VALUE;
+    synchronized (paneCanvasResolutions) {
+      for (int[] canvas : paneCanvasResolutions.values()) {
+        if (canvas[0] <= 0 || canvas[1] <= 0) return 1;
+
+        factor = Math.min(factor, Math.min(resolution[0] / canvas[0], resolution[1] / canvas[1]));
+      }
+    }
+
+    return factor == Integer.MAX_VALUE ? 1 : Math.max(1, factor);
+  }
+
   /**
    * Getter pour {@code this#obstacleMatrix}
    *
@@ -194,6 +319,44 @@ public class RendererModel extends WModelSaveable implements Runnable, WSceneMem
     return vectorImage;
   }
 
+  /**
+   * Retourne le numéro de la dernière image de la simulation publiée par {@link
+   * #onBufferImageDone()}. Un panneau peut comparer ce numéro à celui de sa dernière composition
+   * pour éviter de recomposer une image inchangée.
+   *
+   * @return Le numéro de la dernière image
+   */
+  public long getFrameId() {
+    return frameId;
+  }
+
+  /**
+   * Retourne la version de l'image du champ de vecteurs
+   *
+   * @return La version, incrémentée à chaque dessin du champ de vecteurs
+   */
+  public long getVectorImageVersion() {
+    return vectorImageVersion;
+  }
+
+  /**
+   * Getter pour {@code this#flowLineImage}
+   *
+   * @return L'image des lignes de courant, {@code null} si elles n'ont pas encore été dessinées
+   */
+  public BufferedImage getFlowLineImage() {
+    return flowLineImage;
+  }
+
+  /**
+   * Retourne la version de l'image des lignes de courant
+   *
+   * @return La version, incrémentée à chaque dessin des lignes de courant
+   */
+  public long getFlowLineImageVersion() {
+    return flowLineImageVersion;
+  }
+
   /**
    * Getter pour {@code this#pixelSize}
    *
@@ -261,6 +424,24 @@ public class RendererModel extends WModelSaveable implements Runnable, WSceneMem
     return isRendering;
   }
 
+  /**
+   * Getter pour le timer du rendu d'une image de la simulation
+   *
+   * @return Le {@code TimerHandle} de {@link #updateSimulationFrame}
+   */
+  public TimerHandle getFrameTimer() {
+    return updateSimulationFrameTimer;
+  }
+
+  /**
+   * Retourne le timer qui mesure le temps d'exécution du rendu
+   *
+   * @return Le timer du rendu
+   */
+  public Timer getTimer() {
+    return timer;
+  }
+
   /** Actualiser la resolution de l'image de la simulation. */
   public void updateResolution() {
     ParticleMatrix particleMatrix =
@@ -283,58 +464,66 @@ public class RendererModel extends WModelSaveable implements Runnable, WSceneMem
       return;
     }
 
+    SimulationData simulationData = getController().getSimulationModel().getSimulationData();
+
+    RenderFrameEvent event = new RenderFrameEvent();
+    if (event.isEnabled()) event.queueDepth = simulationData.getRenderParticleMatrixQueueSize();
+    event.begin();
+
+    long start = System.nanoTime();
+    renderNewFrame(simulationData);
+    renderScheduler.onFrameRendered(start, System.nanoTime());
+
+    event.end();
+    if (event.shouldCommit()) {
+      event.visualizationType = properties.visualizationType.name();
+      event.openGL = RendererConstants.USE_OPENGL;
+      event.qualityLevel = renderScheduler.getQualityLevel();
+      event.commit();
+    }
+  }
+
+  /**
+   * Rendu de la prochaine matrice en attente de rendu
+   *
+   * @param simulationData Les données de la simulation
+   */
+  private void renderNewFrame(SimulationData simulationData) {
     if (RendererConstants.USE_OPENGL) {
       this.isRendering = true;
-      if (this.getController()
-              .getSimulationModel()
-              .getSimulationData()
-              .getRenderParticleMatrixQueueSize()
-          > 1) {
-        for (int i = 0;
-            i
-                < getController()
-                        .getSimulationModel()
-                        .getSimulationData()
-                        .getRenderParticleMatrixQueueSize()
-                    - 1;
-            i++) {
-          // On poll la matrice de particule pis on la remet dans le queue pour s'en débarasser. A
-          // revoir.
-          getController()
-              .getSimulationModel()
-              .getSimulationData()
-              .returnParticleMatrixToPool(
-                  getController()
-                      .getSimulationModel()
-                      .getSimulationData()
-                      .pollRenderParticleMatrix());
-        }
-      }
+      // Seule la matrice la plus récente est dessinée, les autres sont perdues
+      while (simulationData.getRenderParticleMatrixQueueSize() > 1)
+        simulationData.discardRenderParticleMatrix();
       onBufferImageDone();
       this.isRendering = false;
       return;
     }
 
-    ParticleMatrix particleMatrix =
-        getController().getSimulationModel().getSimulationData().pollRenderParticleMatrix();
+    // Avec une fréquence cible, les matrices arrivées pendant l'attente sont regroupées
+    if (renderScheduler.isThrottled())
+      while (simulationData.getRenderParticleMatrixQueueSize() > 1)
+        simulationData.discardRenderParticleMatrix();
+
+    ParticleMatrix particleMatrix = simulationData.pollRenderParticleMatrix();
 
     this.isRendering = true;
 
     drawFluidSimulation(particleMatrix);
 
-    vectorRedrawCounter++;
-    if (getShowVectors() && vectorRedrawCounter % vectorRedrawFrequency == 0) {
-      createVectorField(particleMatrix);
-      vectorRedrawCounter = 0;
+    if (!getOverlaysSuspended()) {
+      vectorRedrawCounter++;
+      if (getShowVectors() && vectorRedrawCounter % vectorRedrawFrequency == 0) {
+        createVectorField(particleMatrix);
+        vectorRedrawCounter = 0;
+      }
+
+      if (getShowFlowLines()) createFlowLines(particleMatrix);
     }
 
     onBufferImageDone();
 
     // On poll la matrice de particule pis on le remet dans le queue. A revoir.
-    getController()
-        .getSimulationModel()
-        .getSimulationData()
-        .returnParticleMatrixToPool(particleMatrix);
+    simulationData.returnParticleMatrixToPool(particleMatrix);
 
     this.isRendering = false;
   }
@@ -364,6 +553,8 @@ public class RendererModel extends WModelSaveable implements Runnable, WSceneMem
       createVectorField(particleMatrix);
     }
 
+    if (getShowFlowLines()) createFlowLines(particleMatrix);
+
     drawFluidSimulation(particleMatrix);
 
     onBufferImageDone();
@@ -373,12 +564,14 @@ public class RendererModel extends WModelSaveable implements Runnable, WSceneMem
 
   /** Methode a invoquer lorsque la simulation est réinitialisée */
   public void setBlankFrame() {
-    simulationImage = new BufferedImage(resolution[0], resolution[1], BufferedImage.TYPE_INT_RGB);
+    simulationImage = createSimulationImage();
+    rangeVisualizationType = null;
     onBufferImageDone();
   }
 
   /** Methode a invoquer lorsque le {@code this#simulationImage} est pret. */
   public void onBufferImageDone() {
+    frameId++;
     getPublisher().publish(Subject.ON_BUFFER_IMAGE_DONE, null);
   }
 
@@ -390,16 +583,47 @@ public class RendererModel extends WModelSaveable implements Runnable, WSceneMem
   private void drawFluidSimulation(ParticleMatrix particleMatrix) {
     if (particleMatrix == null) return;
 
+    double[] minMax = getColorRange(particleMatrix);
     updateSimulationFrame(
         particleMatrix.getParticlesByVisualization(properties.visualizationType),
         particleMatrix.getXandYLength(),
-        particleMatrix.getMinMaxByVisualization(properties.visualizationType),
+        minMax,
         getController().getSimulationModel().getSimulationData().getObstacle());
 
-    getPublisher()
-        .publish(
-            Subject.ON_SIMULATION_MINMAX_CHANGED,
-            particleMatrix.getMinMaxByVisualization(properties.visualizationType));
+    if (properties.visualizationType == VisualizationType.VELOCITY_LIC
+        && simulationImage != null
+        && !getOverlaysSuspended())
+      licRenderer.apply(
+          particleMatrix.getXVelocity().getMatrix(),
+          particleMatrix.getYVelocity().getMatrix(),
+          particleMatrix.getXLength(),
+          particleMatrix.getYLength(),
+          getObstacleMask(),
+          licBlend,
+          getSimulationImage());
+
+    getPublisher().publish(Subject.ON_SIMULATION_MINMAX_CHANGED, minMax);
+  }
+
+  /**
+   * Retourne l'intervalle de la table de couleurs de la visualisation actuelle : les percentiles
+   * lissés de {@code this#rangeEstimator} si {@code this#autoRange}, sinon le minimum et le maximum
+   * calculés par la simulation
+   *
+   * @param particleMatrix La matrice de particules
+   * @return Le minimum et le maximum de la table de couleurs
+   */
+  private double[] getColorRange(ParticleMatrix particleMatrix) {
+    VisualizationType type = properties.visualizationType;
+    if (!autoRange) return particleMatrix.getMinMaxByVisualization(type);
+
+    if (type != rangeVisualizationType) {
+      rangeEstimator.reset();
+      rangeVisualizationType = type;
+    }
+
+    return rangeEstimator.estimate(
+        particleMatrix.getParticlesByVisualization(type), getObstacleMask());
   }
 
   /**
@@ -425,33 +649,63 @@ public class RendererModel extends WModelSaveable implements Runnable, WSceneMem
    * @param sizeY Taille en y de la matrice
    * @param min Valeur minimale
    * @param max Valeur maximale
-   * @param obstacles Tableau contenant les obstacles
+   * @param obstacles Tableau contenant les obstacles, dessinés avec {@link
+   *     RendererConstants#OBSTACLE_COLOR}
    */
   public void updateSimulationFrame(
       double[] mat, int sizeX, int sizeY, double min, double max, WObstacleCellMatrix obstacles) {
 
     if (this.simulationImage == null) return;
 
-    this.timer.start("updateSimulationFrame");
-    int index;
-    for (int i = 0; i < sizeX; i++) {
-      for (int j = 0; j < sizeY; j++) {
-        index = j * sizeX + i;
-        getSimulationImage()
-            .setRGB(
-                i,
-                j,
-                properties.greyscale
-                    ? WColor.interpolateGrayscaleFromMinMax(mat[index], min, max)
-                    : WColor.interpolateHSBColorFromMinMax(
-                        properties.gradientHSBColors[1],
-                        properties.gradientHSBColors[0],
-                        mat[index],
-                        min,
-                        max));
-      }
+    int step =
+        renderScheduler.getQualityLevel() >= RenderScheduler.QUALITY_COARSE
+            ? RenderScheduler.COARSE_STEP
+            : 1;
+
+    // L'image suit la taille du canvas, les panneaux la mettent à l'échelle selon sa taille
+    int factor = getDownsampleFactor();
+    int width = ParallelRasterizer.getDownsampledLength(sizeX, factor);
+    int height = ParallelRasterizer.getDownsampledLength(sizeY, factor);
+    BufferedImage image = getSimulationImage();
+    if (image.getWidth() != width || image.getHeight() != height)
+      simulationImage = image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+    long start = updateSimulationFrameTimer.start();
+    rasterizer.rasterizeDownsampled(
+        mat,
+        sizeX,
+        sizeY,
+        min,
+        max,
+        getColorMap(),
+        obstacles,
+        RendererConstants.OBSTACLE_COLOR,
+        factor,
+        RendererConstants.DOWNSAMPLING_BOX_FILTER,
+        step,
+        image);
+    updateSimulationFrameTimer.stop(start);
+  }
+
+  /**
+   * Retourne la table de couleurs du rendu, recréée si le dégradé ou les niveaux de gris ont changé
+   * depuis sa création
+   *
+   * @return La table de couleurs
+   */
+  public ColorMap getColorMap() {
+    boolean greyscale = properties.greyscale;
+    float[][] gradient = properties.gradientHSBColors;
+
+    if (colorMap == null
+        || colorMapGreyscale != greyscale
+        || (!greyscale && !Arrays.deepEquals(colorMapGradient, gradient))) {
+      colorMap = ColorMap.of(greyscale, gradient);
+      colorMapGreyscale = greyscale;
+      colorMapGradient = new float[][] {gradient[0].clone(), gradient[1].clone()};
     }
-    timer.stop("updateSimulationFrame");
+
+    return colorMap;
   }
 
   /**
@@ -460,111 +714,98 @@ public class RendererModel extends WModelSaveable implements Runnable, WSceneMem
    * @param matrix La matrice de particules
    */
   private void createVectorField(ParticleMatrix matrix) {
-    if (matrix == null) return;
-
-    vectorFieldLinesPath = new Path2D.Double();
+    if (matrix == null || canvasResolution == null) return;
 
-    double[] xMinMax = new double[2];
-    double[] yMinMax = new double[2];
-    double[][] xyValues = new double[2][];
-    xyValues[0] = new double[matrix.getXLength() * matrix.getYLength()];
-    xyValues[1] = new double[matrix.getXLength() * matrix.getYLength()];
+    double[] xMinMax = null;
+    double[] yMinMax = null;
+    double[] xValues = null;
+    double[] yValues = null;
 
     // Attributions des valeurs en fonction du type de visualisation
     switch (properties.visualizationType) {
-      case DENSITY:
-        // La densité n'a pas de vecteurs
-        return;
       case VELOCITY:
         xMinMax = matrix.getXVelocityMinMax();
         yMinMax = matrix.getYVelocityMinMax();
-        xyValues[0] = matrix.getXVelocity().getMatrix();
-        xyValues[1] = matrix.getYVelocity().getMatrix();
+        xValues = matrix.getXVelocity().getMatrix();
+        yValues = matrix.getYVelocity().getMatrix();
         break;
       case VELOCITY_X:
         xMinMax = matrix.getXVelocityMinMax();
-        yMinMax[0] = 0;
-        yMinMax[1] = 0;
-        xyValues[0] = matrix.getXVelocity().getMatrix();
+        xValues = matrix.getXVelocity().getMatrix();
         break;
       case VELOCITY_Y:
-        xMinMax[0] = 0;
-        xMinMax[1] = 0;
         yMinMax = matrix.getYVelocityMinMax();
-        xyValues[1] = matrix.getYVelocity().getMatrix();
+        yValues = matrix.getYVelocity().getMatrix();
         break;
       case PRESSURE:
         xMinMax = matrix.getXPressureGradientMinMax();
         yMinMax = matrix.getYPressureGradientMinMax();
-        xyValues[0] = matrix.getXPressureGradient().getMatrix();
-        xyValues[1] = matrix.getYPressureGradient().getMatrix();
+        xValues = matrix.getXPressureGradient().getMatrix();
+        yValues = matrix.getYPressureGradient().getMatrix();
         break;
       case PRESSURE_X:
         xMinMax = matrix.getXPressureGradientMinMax();
-        yMinMax[0] = 0;
-        yMinMax[1] = 0;
-        xyValues[0] = matrix.getXPressureGradient().getMatrix();
+        xValues = matrix.getXPressureGradient().getMatrix();
         break;
       case PRESSURE_Y:
-        xMinMax[0] = 0;
-        xMinMax[1] = 0;
         yMinMax = matrix.getYPressureGradientMinMax();
-        xyValues[1] = matrix.getYPressureGradient().getMatrix();
+        yValues = matrix.getYPressureGradient().getMatrix();
         break;
       default:
+        // La densité n'a pas de vecteurs
         return;
     }
 
-    double xMax = Math.max(Math.abs(xMinMax[0]), Math.abs(xMinMax[1]));
-    double yMax = Math.max(Math.abs(yMinMax[0]), Math.abs(yMinMax[1]));
-    double max = Math.max(xMax, yMax);
-
-    for (int i = this.vectorFieldLinesStep - 1;
-        i < matrix.getXLength();
-        i += this.vectorFieldLinesStep) {
-      for (int j = this.vectorFieldLinesStep - 1;
-          j < matrix.getYLength();
-          j += this.vectorFieldLinesStep) {
-        int index = matrix.getPos(i, j);
-        if (getController().getSimulationModel().getSimulationData().isCellObstructed(index))
-          continue;
-        WVector2D direction = new WVector2D(xyValues[0][index], xyValues[1][index]);
-        double ratio = direction.modulus() / max;
-        direction = direction.normalize();
-        direction = direction.multiply(ratio);
-        this.vectorFieldLinesPath.moveTo(i, j);
-        this.vectorFieldLinesPath.lineTo(
-            i + (direction.getX() * (vectorFieldLinesStep / 2)),
-            j + (direction.getY() * (vectorFieldLinesStep / 2)));
-      }
-    }
+    double xMax = xMinMax == null ? 0 : Math.max(Math.abs(xMinMax[0]), Math.abs(xMinMax[1]));
+    double yMax = yMinMax == null ? 0 : Math.max(Math.abs(yMinMax[0]), Math.abs(yMinMax[1]));
 
     vectorImage =
-        new BufferedImage(canvasResolution[0], canvasResolution[1], BufferedImage.TYPE_INT_ARGB);
-
-    Graphics2D g2d = vectorImage.createGraphics();
-
-    g2d.setColor(Color.BLACK);
-
-    g2d.setColor(Color.black);
-    double circleDiam = 2.0f * this.pixelSize;
-    int step = vectorFieldLinesStep;
-    for (int i = step - 1; i < this.resolution[0] - step; i += step) {
-      for (int j = step - 1; j < this.resolution[1] - step; j += step) {
-        g2d.fill(
-            new Ellipse2D.Double(
-                i * this.pixelSize - circleDiam / 2,
-                j * this.pixelSize - circleDiam / 2,
-                circleDiam,
-                circleDiam));
-      }
-    }
-    // C'est beau mais si lent haha
-    g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-    g2d.setStroke(
-        new BasicStroke((int) (pixelSize), BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        vectorFieldRenderer.render(
+            xValues,
+            yValues,
+            Math.max(xMax, yMax),
+            matrix.getXLength(),
+            matrix.getYLength(),
+            getController().getSimulationModel().getSimulationData().getObstacle().getMatrix(),
+            vectorFieldLinesStep,
+            pixelSize,
+            canvasResolution[0],
+            canvasResolution[1]);
+    vectorFieldLinesPath = vectorFieldRenderer.getPath();
+    vectorImageVersion++;
+  }
+
+  /**
+   * Retourne le masque des obstacles de la simulation, recopié seulement si les obstacles ont
+   * changé depuis la dernière copie
+   *
+   * @return Le masque des obstacles
+   */
+  private WObstacleMask getObstacleMask() {
+    WObstacleCellMatrix obstacles =
+        getController().getSimulationModel().getSimulationData().getObstacle();
+    if (obstacleMask == null || !obstacleMask.isUpToDate(obstacles))
+      obstacleMask = WObstacleMask.of(obstacles);
+
+    return obstacleMask;
+  }
 
-    g2d.draw(this.matScale.createTransformedShape(vectorFieldLinesPath));
+  /**
+   * Methode a invoquer pour mettre a jour et dessiner les lignes de courant de la vélocité
+   *
+   * @param matrix La matrice de particules
+   */
+  private void createFlowLines(ParticleMatrix matrix) {
+    if (matrix == null || canvasResolution == null) return;
+
+    streamlineRenderer.update(
+        matrix.getXVelocity().getMatrix(),
+        matrix.getYVelocity().getMatrix(),
+        matrix.getXLength(),
+        matrix.getYLength(),
+        getObstacleMask());
+    flowLineImage = streamlineRenderer.render(pixelSize, canvasResolution[0], canvasResolution[1]);
+    flowLineImageVersion++;
   }
 
   // =======
@@ -598,6 +839,70 @@ public class RendererModel extends WModelSaveable implements Runnable, WSceneMem
     return properties.showGrid;
   }
 
+  /**
+   * Getter pour {@code this#licBlend}
+   *
+   * @return La part de la texture LIC, de {@code 0} (table de couleurs seule) a {@code 1}
+   */
+  public double getLicBlend() {
+    return licBlend;
+  }
+
+  /**
+   * Getter pour {@code this#autoRange}
+   *
+   * @return Si l'intervalle de la table de couleurs est estimé par percentiles
+   */
+  public boolean getAutoRange() {
+    return autoRange;
+  }
+
+  /**
+   * Retourne si les superpositions (vecteurs, lignes de courant, texture LIC) sont suspendues par
+   * la qualité adaptative du rendu
+   *
+   * @return {@code true} si les superpositions ne doivent pas être dessinées
+   */
+  public boolean getOverlaysSuspended() {
+    return renderScheduler.getQualityLevel() >= RenderScheduler.QUALITY_NO_OVERLAYS;
+  }
+
+  /**
+   * Getter pour {@code this#displayDownsampling}
+   *
+   * @return Si l'image de la simulation est réduite à la résolution du canvas
+   */
+  public boolean getDisplayDownsampling() {
+    return displayDownsampling;
+  }
+
+  /**
+   * Getter pour {@code this#renderScheduler}
+   *
+   * @return La cadence et la qualité adaptative du rendu
+   */
+  public RenderScheduler getRenderScheduler() {
+    return renderScheduler;
+  }
+
+  /**
+   * Getter pour {@code targetFps}
+   *
+   * @return La fréquence d'affichage cible (images/s), {@code 0} si chaque image est rendue
+   */
+  public int getTargetFps() {
+    return properties.targetFps;
+  }
+
+  /**
+   * Getter pour {@code adaptiveQuality}
+   *
+   * @return Si la qualité du rendu s'adapte au temps de rendu
+   */
+  public boolean getAdaptiveQuality() {
+    return properties.adaptiveQuality;
+  }
+
   /**
    * Getter pour {@code showFlowLines}
    *
@@ -657,6 +962,56 @@ public class RendererModel extends WModelSaveable implements Runnable, WSceneMem
     properties.showGrid = show;
   }
 
+  /**
+   * Setter pour {@code this#licBlend}
+   *
+   * @param licBlend La part de la texture LIC, de {@code 0} (table de couleurs seule) a {@code 1}
+   */
+  public void setLicBlend(double licBlend) {
+    this.licBlend = Math.max(0, Math.min(1, licBlend));
+  }
+
+  /**
+   * Setter pour {@code this#autoRange}
+   *
+   * @param autoRange Si l'intervalle de la table de couleurs est estimé par percentiles plutôt que
+   *     par le minimum et le maximum
+   */
+  public void setAutoRange(boolean autoRange) {
+    this.autoRange = autoRange;
+    rangeVisualizationType = null;
+  }
+
+  /**
+   * Setter pour {@code this#displayDownsampling}
+   *
+   * @param displayDownsampling Si l'image de la simulation est réduite à la résolution du canvas
+   *     lorsque la simulation est plus grande que son affichage
+   */
+  public void setDisplayDownsampling(boolean displayDownsampling) {
+    this.displayDownsampling = displayDownsampling;
+  }
+
+  /**
+   * Setter pour {@code targetFps}
+   *
+   * @param targetFps La fréquence d'affichage cible (images/s), {@code 0} pour rendre chaque image
+   */
+  public void setTargetFps(int targetFps) {
+    properties.targetFps = Math.max(0, targetFps);
+    renderScheduler.setTargetFps(properties.targetFps);
+  }
+
+  /**
+   * Setter pour {@code adaptiveQuality}
+   *
+   * @param adaptiveQuality Si la qualité du rendu s'adapte au temps de rendu
+   */
+  public void setAdaptiveQuality(boolean adaptiveQuality) {
+    properties.adaptiveQuality = adaptiveQuality;
+    renderScheduler.setAdaptive(adaptiveQuality);
+  }
+
   /**
    * Setter pour {@code showFlowLines}
    *
@@ -716,6 +1071,8 @@ public class RendererModel extends WModelSaveable implements Runnable, WSceneMem
     updateResolution();
 
     properties.visualizationType = RendererConstants.DEFAULT_VISUALIZATION_TYPE;
+    rangeVisualizationType = null;
+    renderScheduler.reset();
 
     properties.showGrid = false;
     properties.greyscale = false;
@@ -729,21 +1086,22 @@ public class RendererModel extends WModelSaveable implements Runnable, WSceneMem
   @Override
   public void run() {
     while (isRunning) {
-      int length =
-          getController()
-              .getSimulationModel()
-              .getSimulationData()
-              .getRenderParticleMatrixQueueSize();
+      int length = getRenderQueueSize();
 
-      if (length > 0) {
+      long delay = length > 0 ? renderScheduler.getDelayNanos(System.nanoTime()) : 0;
+
+      if (length > 0 && delay == 0) {
         handleNewFrame();
         continue;
       }
 
-      // Block le thread jusqu'à ce qu'une nouvelle frame soit prête
+      // Block le thread jusqu'à ce qu'une nouvelle frame soit prête ou que la cadence le permette.
+      // La file est relue sous le verrou de newFrameReady() : une frame publiée depuis la lecture
+      // précédente n'est pas manquée.
       synchronized (this) {
         try {
-          wait();
+          if (delay > 0) wait(delay / 1_000_000, (int) (delay % 1_000_000));
+          else if (isRunning && getRenderQueueSize() == 0) wait();
         } catch (InterruptedException e) {
           e.printStackTrace();
         }
@@ -751,9 +1109,24 @@ public class RendererModel extends WModelSaveable implements Runnable, WSceneMem
     }
   }
 
+  /**
+   * Retourne le nombre de matrices de particules en attente de rendu
+   *
+   * @return La taille de la file de rendu de la simulation
+   */
+  private int getRenderQueueSize() {
+    return getController()
+        .getSimulationModel()
+        .getSimulationData()
+        .getRenderParticleMatrixQueueSize();
+  }
+
   /** {@inheritDoc} */
   @Override
-  protected void onPropertiesChanged() {}
+  protected void onPropertiesChanged() {
+    renderScheduler.setTargetFps(properties.targetFps);
+    renderScheduler.setAdaptive(properties.adaptiveQuality);
+  }
 
   /** {@inheritDoc} */
   @Override
@@ -44,6 +44,12 @@ public class RendererProperties extends WProperties implements WStandardProperti
   /** Si la simulation devrait etre visualisee en nuances de gris */
   protected boolean greyscale = RendererConstants.DEFAULT_GRAYSCALE_VISUALISATION;
 
+  /** La frequence d'affichage cible (images/s), {@code 0} pour rendre chaque image */
+  protected int targetFps = RendererConstants.DEFAULT_TARGET_FPS;
+
+  /** Si la qualite du rendu s'adapte au temps de rendu */
+  protected boolean adaptiveQuality = RendererConstants.DEFAULT_ADAPTIVE_QUALITY;
+
   /**
    * Construction d'un {@code RendererProperties}
    *
@@ -198,6 +204,86 @@ public class RendererProperties extends WProperties implements WStandardProperti
     }
   }
 
+  // ========== RENDER POLICY ========== //
+
+  /**
+   * Methode permettant de lire la valeur de {@code targetFps} avec le {@code PropertiesManager} de
+   * cette instance
+   *
+   * @return La valeur de {@code targetFps}, ou la valeur actuelle en cas d'erreur
+   */
+  private int readTargetFps() {
+    try {
+      return RendererProperties.readTargetFps(getPropertiesManager());
+    } catch (Exception e) {
+      e.printStackTrace();
+      return targetFps;
+    }
+  }
+
+  /**
+   * Methode permettant de lire la valeur de {@code targetFps}
+   *
+   * @param manager Le {@code PropertiesManager} avec lequel lire
+   * @return La valeur pour {@code targetFps}
+   */
+  public static int readTargetFps(PropertiesManager manager) {
+    return (int) WPropertyKey.RENDERER_TARGET_FPS.read(manager);
+  }
+
+  /**
+   * Methode permettant d'ecrire la valeur de {@code targetFps}
+   *
+   * @return {@code true} si l'ecriture a ete effectuee avec succes
+   */
+  private boolean writeTargetFps() {
+    try {
+      return WPropertyKey.RENDERER_TARGET_FPS.write(targetFps, getSaveState());
+    } catch (Exception e) {
+      e.printStackTrace();
+      return false;
+    }
+  }
+
+  /**
+   * Methode permettant de lire la valeur de {@code adaptiveQuality} avec le {@code
+   * PropertiesManager} de cette instance
+   *
+   * @return La valeur de {@code adaptiveQuality}, ou la valeur actuelle en cas d'erreur
+   */
+  private boolean readAdaptiveQuality() {
+    try {
+      return RendererProperties.readAdaptiveQuality(getPropertiesManager());
+    } catch (Exception e) {
+      e.printStackTrace();
+      return adaptiveQuality;
+    }
+  }
+
+  /**
+   * Methode permettant de lire la valeur de {@code adaptiveQuality}
+   *
+   * @param manager Le {@code PropertiesManager} avec lequel lire
+   * @return La valeur pour {@code adaptiveQuality}
+   */
+  public static boolean readAdaptiveQuality(PropertiesManager manager) {
+    return (boolean) WPropertyKey.RENDERER_ADAPTIVE_QUALITY.read(manager);
+  }
+
+  /**
+   * Methode permettant d'ecrire la valeur de {@code adaptiveQuality}
+   *
+   * @return {@code true} si l'ecriture a ete effectuee avec succes
+   */
+  private boolean writeAdaptiveQuality() {
+    try {
+      return WPropertyKey.RENDERER_ADAPTIVE_QUALITY.write(adaptiveQuality, getSaveState());
+    } catch (Exception e) {
+      e.printStackTrace();
+      return false;
+    }
+  }
+
   // ========== MISC ========== //
 
   /**
@@ -273,12 +359,94 @@ public class RendererProperties extends WProperties implements WStandardProperti
     return (boolean) WPropertyKey.RENDERER_OPENGL.read(manager);
   }
 
+  /**
+   * Methode permettant de lire la valeur de {@code renderThreads}
+   *
+   * @param manager Le {@code PropertiesManager} avec lequel lire
+   * @return La valeur pour {@code renderThreads}, {@code 0} pour le nombre par défaut
+   */
+  public static int readRenderThreads(PropertiesManager manager) {
+    return (int) WPropertyKey.RENDERER_THREADS.read(manager);
+  }
+
+  /**
+   * Methode permettant de lire la valeur de {@code obstacleColor}
+   *
+   * @param manager Le {@code PropertiesManager} avec lequel lire
+   * @return La valeur pour {@code obstacleColor}
+   */
+  public static Color readObstacleColor(PropertiesManager manager) {
+    return (Color) WPropertyKey.RENDERER_OBSTACLE_COLOR.read(manager);
+  }
+
+  /**
+   * Methode permettant de lire la valeur de {@code licBlend}
+   *
+   * @param manager Le {@code PropertiesManager} avec lequel lire
+   * @return La valeur pour {@code licBlend}
+   */
+  public static double readLicBlend(PropertiesManager manager) {
+    return (double) WPropertyKey.RENDERER_LIC_BLEND.read(manager);
+  }
+
+  /**
+   * Methode permettant de lire la valeur de {@code autoRange}
+   *
+   * @param manager Le {@code PropertiesManager} avec lequel lire
+   * @return La valeur pour {@code autoRange}
+   */
+  public static boolean readAutoRange(PropertiesManager manager) {
+    return (boolean) WPropertyKey.RENDERER_AUTO_RANGE.read(manager);
+  }
+
+  /**
+   * Methode permettant de lire la valeur de {@code autoRangePercentiles}
+   *
+   * @param manager Le {@code PropertiesManager} avec lequel lire
+   * @return La valeur pour {@code autoRangePercentiles}, les percentiles bas et haut en %
+   */
+  public static double[] readAutoRangePercentiles(PropertiesManager manager) {
+    return (double[]) WPropertyKey.RENDERER_AUTO_RANGE_PERCENTILES.read(manager);
+  }
+
+  /**
+   * Methode permettant de lire la valeur de {@code autoRangeSmoothing}
+   *
+   * @param manager Le {@code PropertiesManager} avec lequel lire
+   * @return La valeur pour {@code autoRangeSmoothing}
+   */
+  public static double readAutoRangeSmoothing(PropertiesManager manager) {
+    return (double) WPropertyKey.RENDERER_AUTO_RANGE_SMOOTHING.read(manager);
+  }
+
+  /**
+   * Methode permettant de lire la valeur de {@code displayDownsampling}
+   *
+   * @param manager Le {@code PropertiesManager} avec lequel lire
+   * @return La valeur pour {@code displayDownsampling}
+   */
+  public static boolean readDisplayDownsampling(PropertiesManager manager) {
+    return (boolean) WPropertyKey.RENDERER_DISPLAY_DOWNSAMPLING.read(manager);
+  }
+
+  /**
+   * Methode permettant de lire la valeur de {@code downsamplingBoxFilter}
+   *
+   * @param manager Le {@code PropertiesManager} avec lequel lire
+   * @return La valeur pour {@code downsamplingBoxFilter}
+   */
+  public static boolean readDownsamplingBoxFilter(PropertiesManager manager) {
+    return (boolean) WPropertyKey.RENDERER_DOWNSAMPLING_BOX_FILTER.read(manager);
+  }
+
   /** {@inheritDoc} */
   @Override
   public void readProperties() {
     visualizationType = readVisualizationType();
     showVectors = readShowVectors();
     greyscale = readGreyscale();
+    targetFps = readTargetFps();
+    adaptiveQuality = readAdaptiveQuality();
   }
 
   /** {@inheritDoc} */
@@ -294,6 +462,8 @@ public class RendererProperties extends WProperties implements WStandardProperti
     writeGreyscale();
     writeShowVectors();
     writeVisualizationType();
+    writeTargetFps();
+    writeAdaptiveQuality();
   }
 
   /** {@inheritDoc} */
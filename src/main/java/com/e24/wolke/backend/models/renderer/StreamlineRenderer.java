@@ -0,0 +1,481 @@
+package com.e24.wolke.backend.models.renderer;
+
+import com.e24.wolke.backend.models.obstacles.WObstacleMask;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * StreamlineRenderer.java
+ *
+ * <p>Calcule et dessine les lignes de courant du champ de vitesse. Chaque ligne part d'un germe
+ * placé sur une grille perturbée aléatoirement, puis est intégrée par un {@link FlowField} jusqu'au
+ * bord de la simulation, à un obstacle du {@link WObstacleMask} ou à une zone sans vitesse. Les
+ * lignes sont intégrées en parallèle sur le pool de threads du rendu.
+ *
+ * <p>Les lignes sont gardées d'une image à l'autre. Tant que la vitesse aux germes de la grille
+ * change de moins de {@link #CHANGE_THRESHOLD} depuis le dernier calcul complet, chaque germe est
+ * advecté le long de sa propre ligne : les premiers points sont retirés et seule la fin de la ligne
+ * est intégrée dans le nouveau champ. Une ligne trop courte ou trop vieille repart de son germe de
+ * la grille, ce qui garde les lignes réparties sur toute la simulation.
+ *
+ * @author Nilon123456789
+ */
+public class StreamlineRenderer {
+
+  /** Écart par défaut entre les germes de la grille (px de la simulation) */
+  public static final int DEFAULT_SPACING = 12;
+
+  /** Nombre de points par défaut d'une ligne */
+  public static final int DEFAULT_MAX_POINTS = 48;
+
+  /** Distance entre deux points d'une ligne (px de la simulation) */
+  public static final double STEP_LENGTH = 0.75;
+
+  /** Nombre de points dont un germe avance à chaque mise à jour incrémentale */
+  public static final int ADVECTION_STEPS = 1;
+
+  /** Variation relative de la vitesse aux germes au-delà de laquelle tout est recalculé */
+  public static final double CHANGE_THRESHOLD = 0.1;
+
+  /** Nombre de lignes sous lequel une tâche n'est plus divisée */
+  public static final int MIN_PARALLEL_LINES = 128;
+
+  /** Couleur des lignes */
+  private static final Color LINE_COLOR = new Color(255, 255, 255, 180);
+
+  /** Graine de la perturbation de la grille, pour les mêmes germes à chaque exécution */
+  private static final long JITTER_SEED = 0x5EEDL;
+
+  /** Le pool de threads qui intègre les lignes */
+  private final ForkJoinPool forkJoinPool;
+
+  /** Écart entre les germes de la grille */
+  private final int spacing;
+
+  /** Nombre maximal de points d'une ligne */
+  private final int maxPoints;
+
+  /** Nombre de points réservés par ligne dans {@code this#xs} et {@code this#ys} */
+  private final int capacity;
+
+  /** Nombre de mises à jour incrémentales avant qu'une ligne reparte de son germe */
+  private final int maxAge;
+
+  /** Largeur de la simulation des lignes */
+  private int xLength = -1;
+
+  /** Hauteur de la simulation des lignes */
+  private int yLength = -1;
+
+  /** Nombre de lignes */
+  private int lineCount;
+
+  /** Position en x des germes de la grille */
+  private float[] homeX = new float[0];
+
+  /** Position en y des germes de la grille */
+  private float[] homeY = new float[0];
+
+  /** Vitesse en x aux germes lors du dernier calcul complet, {@code null} avant le premier */
+  private double[] referenceX;
+
+  /** Vitesse en y aux germes lors du dernier calcul complet */
+  private double[] referenceY;
+
+  /** Vitesse en x aux germes de la mise à jour en cours */
+  private double[] sampleX;
+
+  /** Vitesse en y aux germes de la mise à jour en cours */
+  private double[] sampleY;
+
+  /** Position du premier point de chaque ligne dans son bloc de {@code this#xs} */
+  private int[] start = new int[0];
+
+  /** Nombre de points de chaque ligne */
+  private int[] count = new int[0];
+
+  /** Nombre de mises à jour incrémentales de chaque ligne depuis son germe */
+  private int[] age = new int[0];
+
+  /** Position en x des points, par blocs de {@code this#capacity} points par ligne */
+  private float[] xs = new float[0];
+
+  /** Position en y des points, par blocs de {@code this#capacity} points par ligne */
+  private float[] ys = new float[0];
+
+  /** Masque des obstacles de la dernière mise à jour */
+  private WObstacleMask mask;
+
+  /** Si la dernière mise à jour était incrémentale */
+  private boolean incremental;
+
+  /** Vitesse en x de la mise à jour en cours */
+  private double[] xVelocity;
+
+  /** Vitesse en y de la mise à jour en cours */
+  private double[] yVelocity;
+
+  /** Image affichée */
+  private BufferedImage frontImage;
+
+  /** Image du prochain rendu */
+  private BufferedImage backImage;
+
+  /** Chemin réutilisé des lignes */
+  private final Path2D.Float path = new Path2D.Float();
+
+  /** Constructeur de la classe StreamlineRenderer, avec les paramètres par défaut */
+  public StreamlineRenderer() {
+    this(RendererConstants.RENDER_FORK_JOIN_POOL, DEFAULT_SPACING, DEFAULT_MAX_POINTS);
+  }
+
+  /**
+   * Constructeur de la classe StreamlineRenderer
+   *
+   * @param forkJoinPool Le pool de threads qui intègre les lignes
+   * @param spacing L'écart entre les germes de la grille (px de la simulation)
+   * @param maxPoints Le nombre maximal de points d'une ligne
+   * @throws IllegalArgumentException Si l'écart n'est pas positif ou si une ligne ne peut pas
+   *     avancer d'au moins {@link #ADVECTION_STEPS} points
+   */
+  public StreamlineRenderer(ForkJoinPool forkJoinPool, int spacing, int maxPoints) {
+    if (spacing <= 0) throw new IllegalArgumentException("Spacing must be positive: " + spacing);
+    if (maxPoints <= ADVECTION_STEPS + 1)
+      throw new IllegalArgumentException("Too few points per line: " + maxPoints);
+
+    this.forkJoinPool = forkJoinPool;
+    this.spacing = spacing;
+    this.maxPoints = maxPoints;
+    this.capacity = maxPoints * 2;
+    this.maxAge = maxPoints / ADVECTION_STEPS;
+  }
+
+  /**
+   * Met à jour les lignes dans un nouveau champ de vitesse. Tout est recalculé si la taille de la
+   * simulation ou le masque des obstacles a changé, ou si la vitesse aux germes a trop changé.
+   *
+   * @param xVelocity La vitesse en x, rangée ligne par ligne
+   * @param yVelocity La vitesse en y, rangée ligne par ligne
+   * @param xLength La largeur de la simulation
+   * @param yLength La hauteur de la simulation
+   * @param mask Le masque des obstacles, de la taille de la simulation
+   * @return {@code true} si la mise à jour était incrémentale
+   */
+  public boolean update(
+      double[] xVelocity, double[] yVelocity, int xLength, int yLength, WObstacleMask mask) {
+    if (xLength < 2 || yLength < 2) throw new IllegalArgumentException("Field too small");
+
+    boolean full = xLength != this.xLength || yLength != this.yLength || mask != this.mask;
+    if (xLength != this.xLength || yLength != this.yLength) createSeeds(xLength, yLength);
+
+    this.mask = mask;
+    this.xVelocity = xVelocity;
+    this.yVelocity = yVelocity;
+
+    try {
+      if (!full) full = getFieldChange(createField()) > CHANGE_THRESHOLD;
+      else getFieldChange(createField());
+
+      if (full) {
+        double[] swap = referenceX;
+        referenceX = sampleX;
+        sampleX = swap;
+        swap = referenceY;
+        referenceY = sampleY;
+        sampleY = swap;
+      }
+
+      LineTask task = new LineTask(0, lineCount, full);
+      if (lineCount > MIN_PARALLEL_LINES) forkJoinPool.invoke(task);
+      else task.compute();
+    } finally {
+      this.xVelocity = null;
+      this.yVelocity = null;
+    }
+
+    incremental = !full;
+    return incremental;
+  }
+
+  /**
+   * Dessine les lignes de la dernière mise à jour
+   *
+   * @param pixelSize La taille d'un pixel de la simulation dans le canvas
+   * @param width La largeur du canvas
+   * @param height La hauteur du canvas
+   * @return L'image des lignes, qui n'est redessinée que deux rendus plus tard
+   */
+  public BufferedImage render(double pixelSize, int width, int height) {
+    if (backImage == null || backImage.getWidth() != width || backImage.getHeight() != height)
+      backImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    else Arrays.fill(((DataBufferInt) backImage.getRaster().getDataBuffer()).getData(), 0);
+
+    path.reset();
+    for (int line = 0; line < lineCount; line++) {
+      if (count[line] < 2) continue;
+
+      int first = line * capacity + start[line];
+      path.moveTo(xs[first], ys[first]);
+      for (int point = first + 1; point < first + count[line]; point++)
+        path.lineTo(xs[point], ys[point]);
+    }
+
+    Graphics2D g2d = backImage.createGraphics();
+    g2d.setColor(LINE_COLOR);
+    g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    g2d.scale(pixelSize, pixelSize);
+    // Un trait d'un pixel du canvas, quelle que soit l'échelle
+    g2d.setStroke(
+        new BasicStroke((float) (1 / pixelSize), BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+    g2d.draw(path);
+    g2d.dispose();
+
+    BufferedImage image = backImage;
+    backImage = frontImage;
+    frontImage = image;
+
+    return frontImage;
+  }
+
+  /**
+   * Place les germes sur une grille perturbée aléatoirement et réinitialise les lignes
+   *
+   * @param xLength La largeur de la simulation
+   * @param yLength La hauteur de la simulation
+   */
+  private void createSeeds(int xLength, int yLength) {
+    int columns = Math.max(1, xLength / spacing);
+    int rows = Math.max(1, yLength / spacing);
+    Random random = new Random(JITTER_SEED);
+
+    this.xLength = xLength;
+    this.yLength = yLength;
+    lineCount = columns * rows;
+    homeX = new float[lineCount];
+    homeY = new float[lineCount];
+    start = new int[lineCount];
+    count = new int[lineCount];
+    age = new int[lineCount];
+    xs = new float[lineCount * capacity];
+    ys = new float[lineCount * capacity];
+    referenceX = new double[lineCount];
+    referenceY = new double[lineCount];
+    sampleX = new double[lineCount];
+    sampleY = new double[lineCount];
+
+    for (int line = 0; line < lineCount; line++) {
+      int column = line % columns;
+      int row = line / columns;
+      homeX[line] = (float) Math.min(xLength - 1, (column + random.nextDouble()) * spacing);
+      homeY[line] = (float) Math.min(yLength - 1, (row + random.nextDouble()) * spacing);
+
+      // Les âges sont décalés pour que les lignes ne repartent pas toutes en même temps
+      age[line] = random.nextInt(maxAge);
+    }
+  }
+
+  /**
+   * Échantillonne la vitesse aux germes dans {@code this#sampleX} et {@code this#sampleY}, et
+   * retourne sa variation relative depuis le dernier calcul complet
+   *
+   * @param field Le champ de la mise à jour en cours
+   * @return La somme des écarts divisée par la somme des vitesses de référence
+   */
+  private double getFieldChange(FlowField field) {
+    double difference = 0;
+    double norm = 0;
+
+    for (int line = 0; line < lineCount; line++) {
+      sampleX[line] = field.sampleX(homeX[line], homeY[line]);
+      sampleY[line] = field.sampleY(homeX[line], homeY[line]);
+      difference +=
+          Math.abs(sampleX[line] - referenceX[line]) + Math.abs(sampleY[line] - referenceY[line]);
+      norm += Math.abs(referenceX[line]) + Math.abs(referenceY[line]);
+    }
+
+    if (norm > 0) return difference / norm;
+    return difference > 0 ? Double.POSITIVE_INFINITY : 0;
+  }
+
+  /**
+   * Crée le champ de la mise à jour en cours, à utiliser par un seul thread
+   *
+   * @return Le champ de vitesse
+   */
+  private FlowField createField() {
+    return new FlowField(xVelocity, yVelocity, xLength, yLength, mask);
+  }
+
+  /**
+   * Ajoute des points à la fin d'une ligne en intégrant avec Runge-Kutta d'ordre 4
+   *
+   * @param line La ligne
+   * @param points Le nombre maximal de points ajoutés
+   * @param field Le champ du thread courant
+   */
+  private void extend(int line, int points, FlowField field) {
+    int block = line * capacity;
+
+    // Les points sont ramenés au début du bloc s'il n'y a plus de place à la fin
+    if (start[line] + count[line] + points > capacity) {
+      System.arraycopy(xs, block + start[line], xs, block, count[line]);
+      System.arraycopy(ys, block + start[line], ys, block, count[line]);
+      start[line] = 0;
+    }
+
+    int last = block + start[line] + count[line] - 1;
+    double x = xs[last];
+    double y = ys[last];
+
+    for (int i = 0; i < points; i++) {
+      if (!field.advance(x, y, STEP_LENGTH)) return;
+      x = field.getX();
+      y = field.getY();
+
+      last++;
+      xs[last] = (float) x;
+      ys[last] = (float) y;
+      count[line]++;
+    }
+  }
+
+  /**
+   * Recalcule une ligne à partir de son germe de la grille
+   *
+   * @param line La ligne
+   * @param field Le champ du thread courant
+   */
+  private void trace(int line, FlowField field) {
+    start[line] = 0;
+    count[line] = 0;
+    if (!field.isFree(homeX[line], homeY[line])) return;
+
+    xs[line * capacity] = homeX[line];
+    ys[line * capacity] = homeY[line];
+    count[line] = 1;
+    extend(line, maxPoints - 1, field);
+  }
+
+  /**
+   * Retourne le nombre de lignes
+   *
+   * @return Le nombre de lignes
+   */
+  public int getLineCount() {
+    return lineCount;
+  }
+
+  /**
+   * Retourne le nombre de points d'une ligne
+   *
+   * @param line La ligne
+   * @return Le nombre de points, {@code 0} si le germe est sur un obstacle
+   */
+  public int getPointCount(int line) {
+    return count[line];
+  }
+
+  /**
+   * Retourne la position en x d'un point d'une ligne
+   *
+   * @param line La ligne
+   * @param point Le point, de {@code 0} à {@link #getPointCount(int)} exclus
+   * @return La position en x (px de la simulation)
+   */
+  public float getPointX(int line, int point) {
+    return xs[line * capacity + start[line] + point];
+  }
+
+  /**
+   * Retourne la position en y d'un point d'une ligne
+   *
+   * @param line La ligne
+   * @param point Le point, de {@code 0} à {@link #getPointCount(int)} exclus
+   * @return La position en y (px de la simulation)
+   */
+  public float getPointY(int line, int point) {
+    return ys[line * capacity + start[line] + point];
+  }
+
+  /**
+   * Retourne si la dernière mise à jour était incrémentale
+   *
+   * @return {@code true} si les germes ont été advectés plutôt que recalculés
+   */
+  public boolean isIncremental() {
+    return incremental;
+  }
+
+  /**
+   * Met à jour les lignes {@code [startLine, endLine[}, divisées en deux tant qu'il y en a plus que
+   * {@link #MIN_PARALLEL_LINES}
+   *
+   * @author Nilon123456789
+   */
+  private class LineTask extends RecursiveAction {
+
+    /** Sérialisation de la classe */
+    private static final long serialVersionUID = 1L;
+
+    /** La première ligne */
+    private final int startLine;
+
+    /** La ligne suivant la dernière ligne */
+    private final int endLine;
+
+    /** Si les lignes sont recalculées à partir de leur germe */
+    private final boolean full;
+
+    /**
+     * Constructeur de la classe LineTask
+     *
+     * @param startLine La première ligne
+     * @param endLine La ligne suivant la dernière ligne
+     * @param full Si les lignes sont recalculées à partir de leur germe
+     */
+    private LineTask(int startLine, int endLine, boolean full) {
+      this.startLine = startLine;
+      this.endLine = endLine;
+      this.full = full;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void compute() {
+      if (endLine - startLine > MIN_PARALLEL_LINES) {
+        int middle = startLine + (endLine - startLine) / 2;
+        invokeAll(new LineTask(startLine, middle, full), new LineTask(middle, endLine, full));
+        return;
+      }
+
+      FlowField field = createField();
+      for (int line = startLine; line < endLine; line++) {
+        if (full) {
+          trace(line, field);
+          continue;
+        }
+
+        age[line]++;
+        if (age[line] >= maxAge || count[line] <= ADVECTION_STEPS + 1) {
+          age[line] = 0;
+          trace(line, field);
+          continue;
+        }
+
+        // Le germe avance le long de sa ligne, puis la fin est intégrée dans le nouveau champ
+        start[line] += ADVECTION_STEPS;
+        count[line] -= ADVECTION_STEPS;
+        extend(line, maxPoints - count[line], field);
+      }
+    }
+  }
+}
@@ -0,0 +1,382 @@
+package com.e24.wolke.backend.models.renderer;
+
+import com.e24.wolke.backend.models.obstacles.WObstacleCell;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * VectorFieldRenderer.java
+ *
+ * <p>Dessine le champ de vecteurs par dessus la simulation, sans allocation par flèche ni par
+ * image. Les extrémités des flèches sont calculées sans objet intermédiaire dans un tableau
+ * réutilisé, éventuellement en parallèle sur le pool de threads du rendu. La grille de points, qui
+ * ne dépend que de la taille du canvas et de l'écart entre les flèches, est dessinée une seule fois
+ * dans une couche copiée au début de chaque rendu.
+ *
+ * <p>Deux images et deux chemins sont utilisés en alternance : le rendu suivant est dessiné dans
+ * l'image qui n'est pas affichée, puis les deux sont échangées.
+ *
+ * @author Nilon123456789
+ */
+public class VectorFieldRenderer {
+
+  /** Nombre de flèches sous lequel une tâche n'est plus divisée */
+  public static final int MIN_PARALLEL_ARROWS = 2048;
+
+  /** Le pool de threads qui calcule les flèches */
+  private final ForkJoinPool forkJoinPool;
+
+  /** Si les flèches sont calculées en parallèle */
+  private volatile boolean parallel = true;
+
+  /** Extrémités des flèches (x0, y0, x1, y1), {@code NaN} pour une flèche masquée */
+  private float[] segments = new float[0];
+
+  /** Image affichée */
+  private BufferedImage frontImage;
+
+  /** Image du prochain rendu */
+  private BufferedImage backImage;
+
+  /** Chemin des flèches de l'image affichée, en pixels de la simulation */
+  private Path2D.Double frontPath = new Path2D.Double();
+
+  /** Chemin des flèches du prochain rendu */
+  private Path2D.Double backPath = new Path2D.Double();
+
+  /** Trait des flèches */
+  private BasicStroke stroke;
+
+  /** Taille des pixels de {@code this#stroke} */
+  private double strokePixelSize;
+
+  /** Couche de la grille de points, à la taille du canvas */
+  private BufferedImage dotLayer;
+
+  /** Écart entre les points de {@code this#dotLayer} */
+  private int dotLayerStep;
+
+  /** Taille des pixels de {@code this#dotLayer} */
+  private double dotLayerPixelSize;
+
+  /** Taille de la simulation de {@code this#dotLayer} */
+  private int dotLayerXLength;
+
+  /** Taille de la simulation de {@code this#dotLayer} */
+  private int dotLayerYLength;
+
+  /** Valeurs en x du rendu en cours, {@code null} si elles sont nulles */
+  private double[] xValues;
+
+  /** Valeurs en y du rendu en cours, {@code null} si elles sont nulles */
+  private double[] yValues;
+
+  /** Obstacles du rendu en cours, {@code null} s'il n'y en a pas */
+  private WObstacleCell[] obstacles;
+
+  /** Largeur de la simulation du rendu en cours */
+  private int xLength;
+
+  /** Écart entre les flèches du rendu en cours */
+  private int step;
+
+  /** Nombre de colonnes de flèches du rendu en cours */
+  private int columns;
+
+  /** Facteur entre une valeur et la longueur de sa flèche (px) du rendu en cours */
+  private double lengthScale;
+
+  /** Constructeur de la classe VectorFieldRenderer, qui utilise le pool de threads du rendu */
+  public VectorFieldRenderer() {
+    this(RendererConstants.RENDER_FORK_JOIN_POOL);
+  }
+
+  /**
+   * Constructeur de la classe VectorFieldRenderer
+   *
+   * @param forkJoinPool Le pool de threads qui calcule les flèches
+   */
+  public VectorFieldRenderer(ForkJoinPool forkJoinPool) {
+    this.forkJoinPool = forkJoinPool;
+  }
+
+  /**
+   * Dessine le champ de vecteurs. Une flèche part de chaque point de la grille qui n'est pas un
+   * obstacle, et sa longueur vaut la moitié de l'écart pour la valeur {@code max}.
+   *
+   * @param xValues Les valeurs en x, {@code null} si elles sont nulles
+   * @param yValues Les valeurs en y, {@code null} si elles sont nulles
+   * @param max La norme maximale des valeurs
+   * @param xLength La largeur de la simulation
+   * @param yLength La hauteur de la simulation
+   * @param obstacles Les obstacles, {@code null} s'il n'y en a pas
+   * @param step L'écart entre les flèches (px de la simulation)
+   * @param pixelSize La taille d'un pixel de la simulation dans le canvas
+   * @param width La largeur du canvas
+   * @param height La hauteur du canvas
+   * @return L'image du champ de vecteurs, qui n'est redessinée que deux rendus plus tard
+   */
+  public BufferedImage render(
+      double[] xValues,
+      double[] yValues,
+      double max,
+      int xLength,
+      int yLength,
+      WObstacleCell[] obstacles,
+      int step,
+      double pixelSize,
+      int width,
+      int height) {
+    if (backImage == null || backImage.getWidth() != width || backImage.getHeight() != height)
+      backImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+
+    // La grille de points remplace aussi le contenu précédent de l'image
+    int[] dots = getDotLayer(xLength, yLength, step, pixelSize, width, height);
+    System.arraycopy(dots, 0, getPixels(backImage), 0, dots.length);
+
+    computeSegments(xValues, yValues, max, xLength, yLength, obstacles, step);
+
+    backPath.reset();
+    for (int i = 0; i < segments.length; i += 4) {
+      if (Float.isNaN(segments[i])) continue;
+      backPath.moveTo(segments[i], segments[i + 1]);
+      backPath.lineTo(segments[i + 2], segments[i + 3]);
+    }
+
+    Graphics2D g2d = backImage.createGraphics();
+    g2d.setColor(Color.BLACK);
+    g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    g2d.scale(pixelSize, pixelSize);
+    g2d.setStroke(getStroke(pixelSize));
+    g2d.draw(backPath);
+    g2d.dispose();
+
+    BufferedImage image = backImage;
+    backImage = frontImage;
+    frontImage = image;
+
+    Path2D.Double path = backPath;
+    backPath = frontPath;
+    frontPath = path;
+
+    return frontImage;
+  }
+
+  /**
+   * Calcule les extrémités des flèches dans {@code this#segments}
+   *
+   * @param xValues Les valeurs en x, {@code null} si elles sont nulles
+   * @param yValues Les valeurs en y, {@code null} si elles sont nulles
+   * @param max La norme maximale des valeurs
+   * @param xLength La largeur de la simulation
+   * @param yLength La hauteur de la simulation
+   * @param obstacles Les obstacles, {@code null} s'il n'y en a pas
+   * @param step L'écart entre les flèches
+   */
+  private void computeSegments(
+      double[] xValues,
+      double[] yValues,
+      double max,
+      int xLength,
+      int yLength,
+      WObstacleCell[] obstacles,
+      int step) {
+    int columns = xLength >= step ? (xLength - step) / step + 1 : 0;
+    int rows = yLength >= step ? (yLength - step) / step + 1 : 0;
+
+    // Un champ nul n'a pas de direction, aucune flèche n'est dessinée
+    if (!(max > 0) || max == Double.POSITIVE_INFINITY) columns = rows = 0;
+
+    int count = columns * rows;
+    if (segments.length != count * 4) segments = new float[count * 4];
+    if (count == 0) return;
+
+    this.xValues = xValues;
+    this.yValues = yValues;
+    this.obstacles = obstacles != null && obstacles.length == xLength * yLength ? obstacles : null;
+    this.xLength = xLength;
+    this.step = step;
+    this.columns = columns;
+    this.lengthScale = (step / 2) / max;
+
+    try {
+      ArrowTask task = new ArrowTask(0, count);
+      if (parallel && count > MIN_PARALLEL_ARROWS) forkJoinPool.invoke(task);
+      else task.compute();
+    } finally {
+      this.xValues = null;
+      this.yValues = null;
+      this.obstacles = null;
+    }
+  }
+
+  /**
+   * Retourne le trait des flèches, dont l'épaisseur est divisée par l'échelle pour valoir {@code
+   * (int) pixelSize} dans le canvas
+   *
+   * @param pixelSize La taille d'un pixel de la simulation dans le canvas
+   * @return Le trait des flèches
+   */
+  private BasicStroke getStroke(double pixelSize) {
+    if (stroke == null || strokePixelSize != pixelSize) {
+      stroke =
+          new BasicStroke(
+              (float) ((int) pixelSize / pixelSize),
+              BasicStroke.CAP_ROUND,
+              BasicStroke.JOIN_ROUND);
+      strokePixelSize = pixelSize;
+    }
+
+    return stroke;
+  }
+
+  /**
+   * Retourne les pixels de la grille de points, redessinée si la taille du canvas, la taille de la
+   * simulation, la taille des pixels ou l'écart entre les points a changé
+   *
+   * @param xLength La largeur de la simulation
+   * @param yLength La hauteur de la simulation
+   * @param step L'écart entre les points
+   * @param pixelSize La taille d'un pixel de la simulation dans le canvas
+   * @param width La largeur du canvas
+   * @param height La hauteur du canvas
+   * @return Les pixels ARGB de la grille de points
+   */
+  private int[] getDotLayer(
+      int xLength, int yLength, int step, double pixelSize, int width, int height) {
+    if (dotLayer != null
+        && dotLayer.getWidth() == width
+        && dotLayer.getHeight() == height
+        && dotLayerStep == step
+        && dotLayerPixelSize == pixelSize
+        && dotLayerXLength == xLength
+        && dotLayerYLength == yLength) return getPixels(dotLayer);
+
+    dotLayer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    dotLayerStep = step;
+    dotLayerPixelSize = pixelSize;
+    dotLayerXLength = xLength;
+    dotLayerYLength = yLength;
+
+    Graphics2D g2d = dotLayer.createGraphics();
+    g2d.setColor(Color.BLACK);
+
+    double circleDiam = 2.0f * pixelSize;
+    Ellipse2D.Double dot = new Ellipse2D.Double();
+    for (int i = step - 1; i < xLength - step; i += step) {
+      for (int j = step - 1; j < yLength - step; j += step) {
+        dot.setFrame(
+            i * pixelSize - circleDiam / 2, j * pixelSize - circleDiam / 2, circleDiam, circleDiam);
+        g2d.fill(dot);
+      }
+    }
+    g2d.dispose();
+
+    return getPixels(dotLayer);
+  }
+
+  /**
+   * Retourne le tableau de pixels d'une image
+   *
+   * @param image L'image, de type {@code TYPE_INT_ARGB}
+   * @return Les pixels ARGB
+   */
+  private static int[] getPixels(BufferedImage image) {
+    return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+  }
+
+  /**
+   * Retourne le chemin des flèches de la dernière image, en pixels de la simulation
+   *
+   * @return Le chemin des flèches
+   */
+  public Path2D.Double getPath() {
+    return frontPath;
+  }
+
+  /**
+   * Retourne si les flèches sont calculées en parallèle
+   *
+   * @return {@code true} si les flèches sont calculées sur le pool de threads
+   */
+  public boolean isParallel() {
+    return parallel;
+  }
+
+  /**
+   * Active ou désactive le calcul des flèches en parallèle. Seuls les champs de plus de {@link
+   * #MIN_PARALLEL_ARROWS} flèches sont divisés.
+   *
+   * @param parallel {@code true} pour calculer les flèches sur le pool de threads
+   */
+  public void setParallel(boolean parallel) {
+    this.parallel = parallel;
+  }
+
+  /**
+   * Calcule les flèches {@code [start, end[} de la grille, divisées en deux tant qu'il y en a plus
+   * que {@link #MIN_PARALLEL_ARROWS}
+   *
+   * @author Nilon123456789
+   */
+  private class ArrowTask extends RecursiveAction {
+
+    /** Sérialisation de la classe */
+    private static final long serialVersionUID = 1L;
+
+    /** La première flèche calculée */
+    private final int start;
+
+    /** La flèche suivant la dernière flèche calculée */
+    private final int end;
+
+    /**
+     * Constructeur de la classe ArrowTask
+     *
+     * @param start La première flèche calculée
+     * @param end La flèche suivant la dernière flèche calculée
+     */
+    private ArrowTask(int start, int end) {
+      this.start = start;
+      this.end = end;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void compute() {
+      if (end - start > MIN_PARALLEL_ARROWS) {
+        int middle = start + (end - start) / 2;
+        invokeAll(new ArrowTask(start, middle), new ArrowTask(middle, end));
+        return;
+      }
+
+      for (int arrow = start; arrow < end; arrow++) {
+        int i = step - 1 + (arrow % columns) * step;
+        int j = step - 1 + (arrow / columns) * step;
+        int index = j * xLength + i;
+        int offset = arrow * 4;
+
+        if (obstacles != null && obstacles[index] != null) {
+          segments[offset] = Float.NaN;
+          continue;
+        }
+
+        double x = xValues == null ? 0 : xValues[index];
+        double y = yValues == null ? 0 : yValues[index];
+
+        segments[offset] = i;
+        segments[offset + 1] = j;
+        segments[offset + 2] = (float) (i + x * lengthScale);
+        segments[offset + 3] = (float) (j + y * lengthScale);
+      }
+    }
+  }
+}
@@ -0,0 +1,229 @@
+package com.e24.wolke.backend.models.simulation;
+
+import com.e24.wolke.backend.simulation.physics.SimulationData;
+import com.e24.wolke.backend.simulation.physics.engine.PhysicsEngine;
+import com.e24.wolke.utils.Timer;
+import com.e24.wolke.utils.TimerHandle;
+import java.util.List;
+
+/**
+ * PerformanceSnapshot.java
+ *
+ * <p>Relevé des compteurs de performance de la simulation à un instant donné. Les compteurs sont
+ * cumulatifs et lus directement sur les {@link TimerHandle}, la piscine de matrices et les données
+ * de la simulation, sans journalisation ni verrou. Les débits et les moyennes sur un intervalle sont
+ * obtenus en comparant deux relevés successifs.
+ *
+ * @author Nilon123456789
+ */
+public class PerformanceSnapshot {
+
+  /** Nombre de nanosecondes dans une milliseconde */
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  /** Nombre de nanosecondes dans une seconde */
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  /** Instant du relevé (ns, voir {@link System#nanoTime()}) */
+  private final long timeNanos;
+
+  /** Nombre de pas de simulation effectués */
+  private final long stepCount;
+
+  /** Nombre d'exécutions de chaque étape, dans l'ordre de {@link PhysicsEngine#STEP_STAGES} */
+  private final long[] stageCounts;
+
+  /** Temps total de chaque étape (ns), dans l'ordre de {@link PhysicsEngine#STEP_STAGES} */
+  private final long[] stageTotalNanos;
+
+  /** Nombre d'images de la simulation dessinées */
+  private final long frameCount;
+
+  /** Temps total du dessin des images de la simulation (ns) */
+  private final long frameTotalNanos;
+
+  /** Nombre d'itérations de la dernière résolution de la pression */
+  private final int solverIterations;
+
+  /** Nombre de matrices de particules empruntées à la piscine */
+  private final long poolBorrowCount;
+
+  /** Nombre de matrices de particules empruntées sans création */
+  private final long poolHitCount;
+
+  /** Nombre d'images perdues */
+  private final long droppedFrameCount;
+
+  /**
+   * Constructeur de la classe PerformanceSnapshot, voir {@link #capture(PhysicsEngine,
+   * SimulationData, TimerHandle)}
+   *
+   * @param timeNanos Instant du relevé (ns)
+   * @param stepCount Nombre de pas de simulation effectués
+   * @param stageCounts Nombre d'exécutions de chaque étape
+   * @param stageTotalNanos Temps total de chaque étape (ns)
+   * @param frameCount Nombre d'images dessinées
+   * @param frameTotalNanos Temps total du dessin des images (ns)
+   * @param solverIterations Nombre d'itérations de la dernière résolution de la pression
+   * @param poolBorrowCount Nombre de matrices empruntées à la piscine
+   * @param poolHitCount Nombre de matrices empruntées sans création
+   * @param droppedFrameCount Nombre d'images perdues
+   */
+  private PerformanceSnapshot(
+      long timeNanos,
+      long stepCount,
+      long[] stageCounts,
+      long[] stageTotalNanos,
+      long frameCount,
+      long frameTotalNanos,
+      int solverIterations,
+      long poolBorrowCount,
+      long poolHitCount,
+      long droppedFrameCount) {
+    this.timeNanos = timeNanos;
+    this.stepCount = stepCount;
+    this.stageCounts = stageCounts;
+    this.stageTotalNanos = stageTotalNanos;
+    this.frameCount = frameCount;
+    this.frameTotalNanos = frameTotalNanos;
+    this.solverIterations = solverIterations;
+    this.poolBorrowCount = poolBorrowCount;
+    this.poolHitCount = poolHitCount;
+    this.droppedFrameCount = droppedFrameCount;
+  }
+
+  /**
+   * Relève les compteurs de performance de la simulation
+   *
+   * @param engine Le moteur physique
+   * @param simulationData Les données de la simulation
+   * @param frameTimer Le timer du dessin des images, {@code null} s'il n'y en a pas
+   * @return Le relevé
+   */
+  public static PerformanceSnapshot capture(
+      PhysicsEngine engine, SimulationData simulationData, TimerHandle frameTimer) {
+    Timer timer = engine.getTimer();
+    List<String> stages = PhysicsEngine.STEP_STAGES;
+
+    long[] stageCounts = new long[stages.size()];
+    long[] stageTotalNanos = new long[stages.size()];
+    for (int i = 0; i < stages.size(); i++) {
+      TimerHandle handle = timer.getHandle(stages.get(i));
+      if (handle == null) continue;
+
+      stageCounts[i] = handle.getCount();
+      stageTotalNanos[i] = handle.getHistogram().getTotal();
+    }
+
+    TimerHandle stepTimer = timer.getHandle(PhysicsEngine.STEP_TIMER);
+
+    return new PerformanceSnapshot(
+        System.nanoTime(),
+        stepTimer == null ? 0 : stepTimer.getCount(),
+        stageCounts,
+        stageTotalNanos,
+        frameTimer == null ? 0 : frameTimer.getCount(),
+        frameTimer == null ? 0 : frameTimer.getHistogram().getTotal(),
+        engine.getLastPressureSolverIterations(),
+        simulationData.getParticleMatrixPool().getBorrowCount(),
+        simulationData.getParticleMatrixPool().getHitCount(),
+        simulationData.getDroppedFrameCount());
+  }
+
+  /**
+   * Retourne la durée écoulée depuis un relevé précédent
+   *
+   * @param previous Le relevé précédent
+   * @return La durée écoulée (s)
+   */
+  public double getSecondsSince(PerformanceSnapshot previous) {
+    return (timeNanos - previous.timeNanos) / NANOS_PER_SECOND;
+  }
+
+  /**
+   * Retourne le nombre de pas de simulation par seconde depuis un relevé précédent
+   *
+   * @param previous Le relevé précédent
+   * @return Le débit de la simulation (pas/s)
+   */
+  public double getStepsPerSecond(PerformanceSnapshot previous) {
+    return rate(stepCount - previous.stepCount, previous);
+  }
+
+  /**
+   * Retourne le temps moyen du dessin d'une image depuis un relevé précédent
+   *
+   * @param previous Le relevé précédent
+   * @return Le temps moyen (ms), {@code 0} si aucune image n'a été dessinée
+   */
+  public double getFrameMillis(PerformanceSnapshot previous) {
+    return mean(frameTotalNanos - previous.frameTotalNanos, frameCount - previous.frameCount);
+  }
+
+  /**
+   * Retourne le temps moyen d'une étape de la simulation depuis un relevé précédent
+   *
+   * @param previous Le relevé précédent
+   * @param stage L'index de l'étape dans {@link PhysicsEngine#STEP_STAGES}
+   * @return Le temps moyen (ms), {@code 0} si l'étape n'a pas été exécutée
+   */
+  public double getStageMillis(PerformanceSnapshot previous, int stage) {
+    return mean(
+        stageTotalNanos[stage] - previous.stageTotalNanos[stage],
+        stageCounts[stage] - previous.stageCounts[stage]);
+  }
+
+  /**
+   * Retourne le nombre d'itérations de la dernière résolution de la pression
+   *
+   * @return Le nombre d'itérations
+   */
+  public int getSolverIterations() {
+    return solverIterations;
+  }
+
+  /**
+   * Retourne la proportion des emprunts à la piscine de matrices qui n'ont pas nécessité de
+   * création depuis un relevé précédent
+   *
+   * @param previous Le relevé précédent
+   * @return La proportion, entre {@code 0} et {@code 1}, {@code 1} si aucun emprunt
+   */
+  public double getPoolHitRate(PerformanceSnapshot previous) {
+    long borrows = poolBorrowCount - previous.poolBorrowCount;
+    return borrows <= 0 ? 1 : (double) (poolHitCount - previous.poolHitCount) / borrows;
+  }
+
+  /**
+   * Retourne le nombre d'images perdues par seconde depuis un relevé précédent
+   *
+   * @param previous Le relevé précédent
+   * @return Le nombre d'images perdues par seconde
+   */
+  public double getDroppedFramesPerSecond(PerformanceSnapshot previous) {
+    return rate(droppedFrameCount - previous.droppedFrameCount, previous);
+  }
+
+  /**
+   * Calcule un débit depuis un relevé précédent
+   *
+   * @param delta La variation du compteur
+   * @param previous Le relevé précédent
+   * @return Le débit (/s), {@code 0} si aucune durée ne sépare les relevés
+   */
+  private double rate(long delta, PerformanceSnapshot previous) {
+    double seconds = getSecondsSince(previous);
+    return seconds <= 0 || delta < 0 ? 0 : delta / seconds;
+  }
+
+  /**
+   * Calcule une durée moyenne
+   *
+   * @param totalNanos La durée totale (ns)
+   * @param count Le nombre de mesures
+   * @return La durée moyenne (ms), {@code 0} si aucune mesure
+   */
+  private static double mean(long totalNanos, long count) {
+    return count <= 0 || totalNanos < 0 ? 0 : totalNanos / (double) count / NANOS_PER_MILLI;
+  }
+}
@@ -109,6 +109,27 @@ public final class SimulationConstants {
   public static final boolean DEFAULT_MULTITHREADED =
       SimulationProperties.readMultiThreaded(SimulationConstants.PROPERTIES_MANAGER);
 
+  /**
+   * Si le moteur multi-threaded divise toujours les matrices aux mêmes positions afin que ses
+   * résultats soient identiques quel que soit le nombre de threads
+   */
+  public static final boolean DETERMINISTIC_EXECUTION =
+      SimulationProperties.readDeterministic(SimulationConstants.PROPERTIES_MANAGER);
+
+  /**
+   * Nombre d'itérations entre deux points de reprise automatiques de la simulation, {@code 0} pour
+   * les désactiver
+   */
+  public static final int CHECKPOINT_INTERVAL =
+      SimulationProperties.readCheckpointInterval(SimulationConstants.PROPERTIES_MANAGER);
+
+  /**
+   * Si la taille des sous-tâches et le nombre de threads du moteur multi-threaded sont choisis par
+   * des mesures pour chaque résolution. Le moteur reste choisi par {@link #DEFAULT_MULTITHREADED}.
+   */
+  public static final boolean AUTO_TUNE_ENGINE =
+      SimulationProperties.readAutoTune(SimulationConstants.PROPERTIES_MANAGER);
+
   /** Facteur minimal de confinement des vortex */
   public static final double VORTEX_CONFINEMENT_MIN_FACTOR = 0.0;
 
@@ -140,6 +161,81 @@ public final class SimulationConstants {
   public static final int CFL_CHECK_FREQUENCY =
       SimulationProperties.readCFLCheckFrequency(SimulationConstants.PROPERTIES_MANAGER);
 
+  /**
+   * Si la préparation du rendu (min/max et transmission au rendu) d'un pas est executée en parallèle
+   * du pas suivant lorsque la simulation est en cours d'exécution
+   */
+  public static final boolean PIPELINED_EXECUTION =
+      SimulationProperties.readPipelined(SimulationConstants.PROPERTIES_MANAGER);
+
+  /** Mode de cadencement de la boucle de simulation, par defaut */
+  public static final PACING_MODE DEFAULT_PACING_MODE =
+      SimulationProperties.readPacingMode(SimulationConstants.PROPERTIES_MANAGER);
+
+  /** Nombre de pas par seconde visé en mode {@code PACING_MODE#STEPS_PER_SECOND}, par defaut */
+  public static final double DEFAULT_TARGET_STEPS_PER_SECOND =
+      SimulationProperties.readTargetStepsPerSecond(SimulationConstants.PROPERTIES_MANAGER);
+
+  /**
+   * Nombre de secondes simulées par seconde réelle visé en mode {@code PACING_MODE#TIME_SCALE},
+   * par defaut
+   */
+  public static final double DEFAULT_TARGET_TIME_SCALE =
+      SimulationProperties.readTargetTimeScale(SimulationConstants.PROPERTIES_MANAGER);
+
+  /**
+   * Les états du cycle de vie de la boucle de simulation
+   *
+   * <p>[STOPPED, RUNNING, STOPPING]
+   *
+   * @author Nilon123456789
+   */
+  public enum ENGINE_STATE {
+    /** La boucle de simulation est arrêtée, des pas peuvent être effectués un à la fois */
+    STOPPED,
+
+    /** La boucle de simulation est en cours d'exécution */
+    RUNNING,
+
+    /** La boucle de simulation termine son dernier pas avant de s'arrêter */
+    STOPPING
+  }
+
+  /**
+   * Les modes de cadencement de la boucle de simulation
+   *
+   * <p>[AS_FAST_AS_POSSIBLE, STEPS_PER_SECOND, TIME_SCALE]
+   *
+   * @author Nilon123456789
+   */
+  public enum PACING_MODE {
+    /** Les pas s'enchaînent sans attente, seul le temps de sleep de la simulation les sépare */
+    AS_FAST_AS_POSSIBLE,
+
+    /** Les pas sont cadencés pour atteindre un nombre de pas par seconde */
+    STEPS_PER_SECOND,
+
+    /**
+     * Les pas sont cadencés pour qu'une seconde réelle corresponde à un nombre de secondes simulées
+     */
+    TIME_SCALE;
+
+    /**
+     * Retourne l'element de {@code PACING_MODE} correspondant à l'index
+     *
+     * @param index L'index de l'element
+     * @return L'element de {@code PACING_MODE} correspondant à l'index ou {@code
+     *     PACING_MODE.AS_FAST_AS_POSSIBLE} si l'index est invalide
+     */
+    public static PACING_MODE getPacingMode(int index) {
+      for (PACING_MODE pacingMode : PACING_MODE.values()) {
+        if (pacingMode.ordinal() != index) continue;
+        return pacingMode;
+      }
+      return PACING_MODE.AS_FAST_AS_POSSIBLE;
+    }
+  }
+
   /**
    * Les types d'obstacles
    *
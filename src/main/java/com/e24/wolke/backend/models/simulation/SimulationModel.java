@@ -5,9 +5,13 @@ import com.e24.wolke.backend.models.WModelSaveable;
 import com.e24.wolke.backend.models.simulation.SimulationConstants.BORDER_TYPE;
 import com.e24.wolke.backend.models.simulation.SimulationConstants.Fluid;
 import com.e24.wolke.backend.models.simulation.SimulationConstants.FluidState;
+import com.e24.wolke.backend.simulation.checkpoint.AutoCheckpointer;
 import com.e24.wolke.backend.simulation.physics.SimulationData;
+import com.e24.wolke.backend.simulation.physics.engine.EngineAutoTuner;
+import com.e24.wolke.backend.simulation.physics.engine.EngineTuning;
 import com.e24.wolke.backend.simulation.physics.engine.PhysicsEngine;
 import com.e24.wolke.backend.simulation.physics.engine.PhysicsEngineMultiThreaded;
+import com.e24.wolke.backend.simulation.physics.engine.StepListener;
 import com.e24.wolke.eventsystem.Subject;
 import com.e24.wolke.filesystem.scenes.WSceneMember;
 import java.util.Properties;
@@ -67,12 +71,59 @@ public class SimulationModel extends WModelSaveable implements WSceneMember<Prop
             properties.sleepTime,
             properties.borderType);
 
-    physicsEngine =
-        properties.multiThreaded ? new PhysicsEngineMultiThreaded(this) : new PhysicsEngine(this);
+    physicsEngine = createPhysicsEngine();
+
+    if (SimulationConstants.CHECKPOINT_INTERVAL > 0) {
+      physicsEngine.addStepListener(
+          new AutoCheckpointer(
+              AutoCheckpointer.DEFAULT_DIRECTORY, SimulationConstants.CHECKPOINT_INTERVAL));
+    }
 
     return true;
   }
 
+  /**
+   * Crée le moteur physique choisi par {@code simulation.multiThreaded}. Si la configuration du
+   * moteur multi-threaded est choisie par des mesures ({@link
+   * SimulationConstants#AUTO_TUNE_ENGINE}), la taille des sous-tâches et le nombre de threads
+   * conservés pour la résolution lui sont appliqués. Sans configuration conservée, les mesures sont lancées en arrière-plan et leur
+   * résultat est appliqué au moteur entre deux pas.
+   *
+   * @return Le moteur physique
+   */
+  private PhysicsEngine createPhysicsEngine() {
+    if (!properties.multiThreaded) return new PhysicsEngine(this);
+
+    PhysicsEngineMultiThreaded engine = new PhysicsEngineMultiThreaded(this);
+    if (!SimulationConstants.AUTO_TUNE_ENGINE) return engine;
+
+    EngineTuning tuning = EngineAutoTuner.getCachedTuning(properties.xLength, properties.yLength);
+    if (tuning != null) tuning.apply(engine);
+    else
+      EngineAutoTuner.tuneInBackground(
+          properties.xLength, properties.yLength, result -> applyAfterStep(engine, result));
+
+    return engine;
+  }
+
+  /**
+   * Applique une configuration au moteur à la fin de son prochain pas, sur le thread du moteur, de
+   * sorte qu'elle ne change pas pendant un pas
+   *
+   * @param engine Le moteur multi-threaded
+   * @param tuning La configuration mesurée
+   */
+  private static void applyAfterStep(PhysicsEngineMultiThreaded engine, EngineTuning tuning) {
+    engine.addStepListener(
+        new StepListener() {
+          @Override
+          public void stepCompleted(PhysicsEngine stepEngine, int iteration) {
+            stepEngine.removeStepListener(this);
+            tuning.apply(engine);
+          }
+        });
+  }
+
   // ==================
   // SIMULATION GETTERS
   // ==================
@@ -86,6 +137,15 @@ public class SimulationModel extends WModelSaveable implements WSceneMember<Prop
     return simulationData;
   }
 
+  /**
+   * Getter pour le {@code PhysicsEngine} de cette instance
+   *
+   * @return Le {@code PhysicsEngine} de cette instance
+   */
+  public PhysicsEngine getPhysicsEngine() {
+    return physicsEngine;
+  }
+
   /**
    * Getter pour la valeur de la viscosite du {@code SimulationData} de cette instance
    *
@@ -5,6 +5,8 @@ import com.e24.wolke.backend.models.application.ApplicationProperties;
 import com.e24.wolke.backend.models.application.LocaleManager;
 import com.e24.wolke.backend.models.simulation.SimulationConstants.BORDER_TYPE;
 import com.e24.wolke.backend.models.simulation.SimulationConstants.Fluid;
+import com.e24.wolke.backend.models.simulation.SimulationConstants.PACING_MODE;
+import com.e24.wolke.backend.simulation.physics.SimulationData;
 import com.e24.wolke.filesystem.properties.PropertiesManager;
 import com.e24.wolke.filesystem.properties.WPropertyKey;
 import com.e24.wolke.filesystem.properties.WStandardPropertiesProcessor;
@@ -116,6 +118,41 @@ public class SimulationProperties extends WProperties implements WStandardProper
     super();
   }
 
+  /**
+   * Methode permettant de creer un {@code SimulationData} a partir des proprietes de cette instance,
+   * a une resolution donnee
+   *
+   * @param xLength La taille en x de la matrice de particules (px)
+   * @param yLength La taille en y de la matrice de particules (px)
+   * @return Le {@code SimulationData} cree
+   */
+  public SimulationData createSimulationData(int xLength, int yLength) {
+    SimulationData data =
+        new SimulationData(
+            xLength,
+            yLength,
+            physicalXLength,
+            physicalYLength,
+            viscosity,
+            volumeDensity,
+            initialVelocity,
+            timeStep,
+            sleepTime,
+            borderType);
+    data.setFluidType(fluid);
+
+    return data;
+  }
+
+  /**
+   * Getter pour {@code this#multiThreaded}
+   *
+   * @return {@code true} si la simulation est multithreaded
+   */
+  public boolean isMultiThreaded() {
+    return multiThreaded;
+  }
+
   // ========== PHYSICAL LENGTH ========== //
 
   /**
@@ -679,6 +716,79 @@ public class SimulationProperties extends WProperties implements WStandardProper
     return (int) WPropertyKey.SIMULATION_CFL_FREQUENCY.read(manager);
   }
 
+  /**
+   * Methode permettant de lire si le moteur multi-threaded produit des resultats identiques quel
+   * que soit le nombre de threads
+   *
+   * @param manager Le {@code PropertiesManager} avec lequel lire
+   * @return {@code true} si le mode deterministe est active
+   */
+  public static boolean readDeterministic(PropertiesManager manager) {
+    return (boolean) WPropertyKey.SIMULATION_DETERMINISTIC.read(manager);
+  }
+
+  /**
+   * Methode permettant de lire le nombre d'iterations entre deux points de reprise automatiques
+   *
+   * @param manager Le {@code PropertiesManager} avec lequel lire
+   * @return L'intervalle, {@code 0} si les points de reprise automatiques sont desactives
+   */
+  public static int readCheckpointInterval(PropertiesManager manager) {
+    return (int) WPropertyKey.SIMULATION_CHECKPOINT_INTERVAL.read(manager);
+  }
+
+  /**
+   * Methode permettant de lire si la configuration du moteur physique est choisie par des mesures
+   *
+   * @param manager Le {@code PropertiesManager} avec lequel lire
+   * @return {@code true} si la taille des sous-tâches et le nombre de threads du moteur
+   *     multi-threaded sont choisis par {@code EngineAutoTuner}
+   */
+  public static boolean readAutoTune(PropertiesManager manager) {
+    return (boolean) WPropertyKey.SIMULATION_AUTO_TUNE.read(manager);
+  }
+
+  /**
+   * Methode permettant de lire si l'execution de la simulation est pipelinée
+   *
+   * @param manager Le {@code PropertiesManager} avec lequel lire
+   * @return {@code true} si la préparation du rendu se fait en parallèle du pas suivant
+   */
+  public static boolean readPipelined(PropertiesManager manager) {
+    return (boolean) WPropertyKey.SIMULATION_PIPELINED.read(manager);
+  }
+
+  /**
+   * Methode permettant de lire le mode de cadencement de la boucle de simulation
+   *
+   * @param manager Le {@code PropertiesManager} avec lequel lire
+   * @return Le {@code PACING_MODE} de la boucle de simulation
+   */
+  public static PACING_MODE readPacingMode(PropertiesManager manager) {
+    return PACING_MODE.getPacingMode((int) WPropertyKey.SIMULATION_PACING_MODE.read(manager));
+  }
+
+  /**
+   * Methode permettant de lire le nombre de pas par seconde visé par la boucle de simulation
+   *
+   * @param manager Le {@code PropertiesManager} avec lequel lire
+   * @return Le nombre de pas par seconde visé
+   */
+  public static double readTargetStepsPerSecond(PropertiesManager manager) {
+    return (double) WPropertyKey.SIMULATION_PACING_STEPS_PER_SECOND.read(manager);
+  }
+
+  /**
+   * Methode permettant de lire le nombre de secondes simulées par seconde réelle visé par la
+   * boucle de simulation
+   *
+   * @param manager Le {@code PropertiesManager} avec lequel lire
+   * @return Le rapport entre le temps simulé et le temps réel visé
+   */
+  public static double readTargetTimeScale(PropertiesManager manager) {
+    return (double) WPropertyKey.SIMULATION_PACING_TIME_SCALE.read(manager);
+  }
+
   /** {@inheritDoc} */
   @Override
   public void readProperties() {
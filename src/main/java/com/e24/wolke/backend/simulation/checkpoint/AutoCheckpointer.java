@@ -0,0 +1,131 @@
+package com.e24.wolke.backend.simulation.checkpoint;
+
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.simulation.physics.engine.PhysicsEngine;
+import com.e24.wolke.backend.simulation.physics.engine.StepListener;
+import com.e24.wolke.filesystem.WFileSystemConstant;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * AutoCheckpointer.java
+ *
+ * <p>Écrit un point de reprise de la simulation toutes les {@code interval} itérations. Les points
+ * de reprise sont écrits en alternance dans deux fichiers, de sorte qu'une interruption pendant
+ * l'écriture laisse toujours le point de reprise précédent intact. {@link #findLatest(Path)}
+ * retourne le plus récent des deux.
+ *
+ * @author Nilon123456789
+ */
+public class AutoCheckpointer implements StepListener {
+
+  /** Dossier par défaut des points de reprise automatiques */
+  public static final Path DEFAULT_DIRECTORY = Path.of(WFileSystemConstant.SAVE_PATH, "checkpoints");
+
+  /** Préfixe des fichiers des points de reprise automatiques */
+  public static final String FILE_PREFIX = "autosave-";
+
+  /** Nombre de fichiers utilisés en alternance */
+  private static final int SLOTS = 2;
+
+  /** Nombre de nanosecondes dans une milliseconde */
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  /** Logger de la classe */
+  private static final Logger LOGGER = LogManager.getLogger(AutoCheckpointer.class.getSimpleName());
+
+  /** Dossier des points de reprise */
+  private final Path directory;
+
+  /** Nombre d'itérations entre deux points de reprise */
+  private final int interval;
+
+  /** Fichier du prochain point de reprise */
+  private int slot;
+
+  /**
+   * Constructeur de la classe AutoCheckpointer
+   *
+   * @param directory Dossier des points de reprise
+   * @param interval Nombre d'itérations entre deux points de reprise
+   * @throws IllegalArgumentException Si l'intervalle n'est pas positif
+   */
+  public AutoCheckpointer(Path directory, int interval) {
+    if (interval <= 0)
+      throw new IllegalArgumentException("Checkpoint interval must be positive: " + interval);
+
+    this.directory = directory;
+    this.interval = interval;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void stepCompleted(PhysicsEngine engine, int iteration) {
+    if (iteration % interval != 0) return;
+
+    Path file = getFile(directory, slot);
+    long start = System.nanoTime();
+    try {
+      engine.writeCheckpoint(file);
+    } catch (IOException e) {
+      LOGGER.warn(
+          LocaleManager.getLocaleResourceBundle().getString("log.autoCheckpointer.failed"),
+          file,
+          e.getMessage());
+      return;
+    }
+
+    slot = (slot + 1) % SLOTS;
+
+    LOGGER.info(
+        LocaleManager.getLocaleResourceBundle().getString("log.autoCheckpointer.saved"),
+        iteration,
+        file,
+        String.format("%.1f", (System.nanoTime() - start) / NANOS_PER_MILLI));
+  }
+
+  /**
+   * Retourne le point de reprise automatique complet le plus récent d'un dossier
+   *
+   * @param directory Le dossier des points de reprise
+   * @return Le point de reprise de la plus grande itération, {@code null} si aucun n'est lisible
+   */
+  public static SimulationCheckpoint findLatest(Path directory) {
+    SimulationCheckpoint latest = null;
+
+    for (int slot = 0; slot < SLOTS; slot++) {
+      SimulationCheckpoint checkpoint;
+      try {
+        checkpoint = SimulationCheckpoint.read(getFile(directory, slot));
+      } catch (IOException e) {
+        continue;
+      }
+
+      if (latest == null || checkpoint.getIteration() > latest.getIteration()) latest = checkpoint;
+    }
+
+    return latest;
+  }
+
+  /**
+   * Retourne le fichier d'un point de reprise automatique
+   *
+   * @param directory Le dossier des points de reprise
+   * @param slot Le numéro du fichier
+   * @return Le fichier
+   */
+  private static Path getFile(Path directory, int slot) {
+    return directory.resolve(FILE_PREFIX + slot + SimulationCheckpoint.EXTENSION);
+  }
+
+  /**
+   * Retourne le nombre d'itérations entre deux points de reprise
+   *
+   * @return L'intervalle
+   */
+  public int getInterval() {
+    return interval;
+  }
+}
@@ -0,0 +1,558 @@
+package com.e24.wolke.backend.simulation.checkpoint;
+
+import com.e24.wolke.backend.models.obstacles.WObstacleCell;
+import com.e24.wolke.backend.models.obstacles.WObstacleCellMatrix;
+import com.e24.wolke.backend.models.simulation.SimulationConstants.BORDER_TYPE;
+import com.e24.wolke.backend.models.simulation.SimulationConstants.OBSTACLE_TYPE;
+import com.e24.wolke.backend.simulation.physics.ParticleMatrix;
+import com.e24.wolke.backend.simulation.physics.SimulationData;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * SimulationCheckpoint.java
+ *
+ * <p>Point de reprise binaire de l'état complet d'une simulation : les matrices de particules
+ * actuelle et précédente (tous les champs et leurs min/max), les obstacles, l'itération, le temps
+ * et les paramètres de la simulation. Une simulation peut ainsi reprendre là où elle s'était
+ * arrêtée au lieu de recommencer à zéro.
+ *
+ * <p>Le fichier est écrit et lu par des {@link MappedByteBuffer}, en ordre little-endian. Les
+ * données suivent un en-tête de {@value #HEADER_SIZE} octets et sont écrites sur le disque en une
+ * seule fois. L'en-tête contient un indicateur de fin d'écriture, qui n'est activé qu'une fois
+ * toutes les données sur le disque : un fichier interrompu pendant l'écriture est refusé à la
+ * lecture.
+ *
+ * <p>Un {@code SimulationCheckpoint} lu avec {@link #read(Path)} ne contient que l'en-tête, les
+ * matrices sont lues par {@link #restore(SimulationData)}.
+ *
+ * @author Nilon123456789
+ */
+public class SimulationCheckpoint {
+
+  /** Extension des fichiers de points de reprise */
+  public static final String EXTENSION = ".wckp";
+
+  /** Taille de l'en-tête (octets) */
+  public static final int HEADER_SIZE = 256;
+
+  /** Identifiant des fichiers de points de reprise ("WCKP") */
+  private static final int MAGIC = 0x57434B50;
+
+  /** Version du format, un fichier d'une autre version est refusé */
+  private static final int VERSION = 1;
+
+  /** Position de l'indicateur de fin d'écriture dans l'en-tête */
+  private static final int COMPLETE_OFFSET = 8;
+
+  /** Nombre de champs d'une matrice de particules */
+  private static final int FIELD_COUNT = 10;
+
+  /** Nombre de tableaux de min/max d'une matrice de particules */
+  private static final int MIN_MAX_COUNT = 9;
+
+  /** Taille d'un tableau de min/max [min, max, sumMin, sumMax] */
+  private static final int MIN_MAX_LENGTH = 4;
+
+  /**
+   * Indicateur de l'en-tête : la matrice d'obstacles a une bordure. Informatif seulement, la
+   * restauration conserve la matrice d'obstacles existante.
+   */
+  private static final int FLAG_HAS_BORDER = 1;
+
+  /** Indicateur de l'en-tête : la matrice précédente est la matrice actuelle */
+  private static final int FLAG_PREVIOUS_IS_CURRENT = 1 << 1;
+
+  /** Bit du type d'obstacle indiquant que les voisins diagonaux sont acceptés */
+  private static final int DIAGONAL_BIT = 0x80;
+
+  /** Fichier du point de reprise */
+  private final Path file;
+
+  /** Largeur de la simulation (px) */
+  private final int xLength;
+
+  /** Hauteur de la simulation (px) */
+  private final int yLength;
+
+  /** Itération de la simulation */
+  private final int iteration;
+
+  /** Temps de la simulation */
+  private final double time;
+
+  /** Taille physique en x (m) */
+  private final double physicalXLength;
+
+  /** Taille physique en y (m) */
+  private final double physicalYLength;
+
+  /** Viscosité dynamique (Pa*s) */
+  private final double dynamicViscosity;
+
+  /** Masse volumique (kg/m^3) */
+  private final double volumeDensity;
+
+  /** Vitesse initiale (m/s) */
+  private final double initialVelocity;
+
+  /** Pas de temps */
+  private final double timeStep;
+
+  /** Temps de pause entre deux pas (ms) */
+  private final double sleepTime;
+
+  /** Facteur de confinement des vortex */
+  private final double vortexConfinementFactor;
+
+  /** Type de bordure */
+  private final BORDER_TYPE borderType;
+
+  /** Indicateurs {@link #FLAG_HAS_BORDER} et {@link #FLAG_PREVIOUS_IS_CURRENT} */
+  private final int flags;
+
+  /**
+   * Constructeur de la classe SimulationCheckpoint, à partir d'un en-tête lu
+   *
+   * @param file Fichier du point de reprise
+   * @param header L'en-tête, positionné après l'indicateur de fin d'écriture
+   * @throws IOException Si l'en-tête est invalide
+   */
+  private SimulationCheckpoint(Path file, ByteBuffer header) throws IOException {
+    this.file = file;
+    xLength = header.getInt();
+    yLength = header.getInt();
+    iteration = header.getInt();
+    time = header.getDouble();
+    physicalXLength = header.getDouble();
+    physicalYLength = header.getDouble();
+    dynamicViscosity = header.getDouble();
+    volumeDensity = header.getDouble();
+    initialVelocity = header.getDouble();
+    timeStep = header.getDouble();
+    sleepTime = header.getDouble();
+    vortexConfinementFactor = header.getDouble();
+
+    int border = header.getInt();
+    flags = header.getInt();
+    int fieldCount = header.getInt();
+    int minMaxCount = header.getInt();
+
+    if (xLength <= 0
+        || yLength <= 0
+        || iteration < 0
+        || border < 0
+        || border >= BORDER_TYPE.values().length
+        || fieldCount != FIELD_COUNT
+        || minMaxCount != MIN_MAX_COUNT)
+      throw new IOException("Invalid checkpoint header: " + file);
+
+    borderType = BORDER_TYPE.values()[border];
+  }
+
+  /**
+   * Écrit un point de reprise de l'état d'une simulation. L'appelant doit s'assurer qu'aucun pas
+   * n'est effectué pendant l'écriture, voir {@code PhysicsEngine#writeCheckpoint(Path)}.
+   *
+   * @param file Le fichier du point de reprise, remplacé s'il existe
+   * @param simulationData Les données de la simulation
+   * @param iteration L'itération de la simulation
+   * @param time Le temps de la simulation
+   * @throws IOException En cas d'erreur d'écriture
+   */
+  public static void write(Path file, SimulationData simulationData, int iteration, double time)
+      throws IOException {
+    ParticleMatrix current = simulationData.getCurrentParticleMatrix();
+    ParticleMatrix previous = simulationData.getPreviousParticleMatrix();
+    WObstacleCellMatrix obstacles = simulationData.getObstacle();
+    int size = current.getSize();
+
+    int flags = 0;
+    if (obstacles.hasBorder()) flags |= FLAG_HAS_BORDER;
+    if (previous == current) flags |= FLAG_PREVIOUS_IS_CURRENT;
+
+    if (file.getParent() != null) Files.createDirectories(file.getParent());
+
+    try (FileChannel channel =
+        FileChannel.open(
+            file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      long fileSize = getFileSize(size);
+      if (channel.size() > fileSize) channel.truncate(fileSize);
+
+      MappedByteBuffer header = map(channel, MapMode.READ_WRITE, 0, HEADER_SIZE);
+      header
+          .putInt(MAGIC)
+          .putInt(VERSION)
+          .putInt(0)
+          .putInt(current.getXLength())
+          .putInt(current.getYLength())
+          .putInt(iteration)
+          .putDouble(time)
+          .putDouble(simulationData.getPhysicalXLength())
+          .putDouble(simulationData.getPhysicalYLength())
+          .putDouble(simulationData.getDynamicViscosity())
+          .putDouble(simulationData.getVolumeDensity())
+          .putDouble(simulationData.getInitialVelocity())
+          .putDouble(simulationData.getTimeStep())
+          .putDouble(simulationData.getSleepTime())
+          .putDouble(simulationData.getVortexConfinementFactor())
+          .putInt(simulationData.getBorderType().ordinal())
+          .putInt(flags)
+          .putInt(FIELD_COUNT)
+          .putInt(MIN_MAX_COUNT);
+      // Un fichier remplacé est marqué incomplet avant que ses données ne changent
+      header.force();
+
+      MappedByteBuffer data = map(channel, MapMode.READ_WRITE, HEADER_SIZE, fileSize - HEADER_SIZE);
+      writeMatrix(data, current);
+      writeMatrix(data, previous);
+      writeObstacles(data, obstacles);
+
+      // L'indicateur n'est activé qu'une fois les données sur le disque
+      data.force();
+      header.putInt(COMPLETE_OFFSET, 1);
+      header.force();
+    }
+  }
+
+  /**
+   * Lit l'en-tête d'un point de reprise
+   *
+   * @param file Le fichier du point de reprise
+   * @return Le point de reprise
+   * @throws IOException En cas d'erreur de lecture, ou si le fichier n'est pas un point de reprise
+   *     complet de cette version
+   */
+  public static SimulationCheckpoint read(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_SIZE) throw new IOException("Not a checkpoint: " + file);
+
+      MappedByteBuffer header = map(channel, MapMode.READ_ONLY, 0, HEADER_SIZE);
+      if (header.getInt() != MAGIC) throw new IOException("Not a checkpoint: " + file);
+      if (header.getInt() != VERSION)
+        throw new IOException("Unsupported checkpoint version: " + file);
+      if (header.getInt() != 1) throw new IOException("Incomplete checkpoint: " + file);
+
+      SimulationCheckpoint checkpoint = new SimulationCheckpoint(file, header);
+      if (channel.size() < getFileSize(checkpoint.xLength * checkpoint.yLength))
+        throw new IOException("Truncated checkpoint: " + file);
+
+      return checkpoint;
+    }
+  }
+
+  /**
+   * Restaure l'état de la simulation du point de reprise dans des données de simulation de même
+   * résolution : les paramètres et de nouvelles matrices de particules actuelle et précédente. Les
+   * obstacles sont copiés dans la matrice d'obstacles existante, partagée avec l'éditeur.
+   * L'itération et le temps sont restaurés par {@code
+   * PhysicsEngine#restoreCheckpoint(SimulationCheckpoint)}.
+   *
+   * @param simulationData Les données de la simulation à remplacer
+   * @throws IOException En cas d'erreur de lecture
+   * @throws IllegalArgumentException Si la résolution ne correspond pas au point de reprise
+   */
+  public void restore(SimulationData simulationData) throws IOException {
+    ParticleMatrix currentMatrix = simulationData.getCurrentParticleMatrix();
+    if (currentMatrix.getXLength() != xLength || currentMatrix.getYLength() != yLength)
+      throw new IllegalArgumentException(
+          "Checkpoint resolution "
+              + xLength
+              + "x"
+              + yLength
+              + " does not match simulation "
+              + currentMatrix.getXLength()
+              + "x"
+              + currentMatrix.getYLength());
+
+    ParticleMatrix current = new ParticleMatrix(xLength, yLength);
+    ParticleMatrix previous =
+        (flags & FLAG_PREVIOUS_IS_CURRENT) != 0 ? current : new ParticleMatrix(xLength, yLength);
+    WObstacleCell[] cells = new WObstacleCell[xLength * yLength];
+    double[] averageNormals = new double[cells.length];
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long offset = HEADER_SIZE;
+      offset = readMatrix(channel, offset, current);
+      offset = readMatrix(channel, offset, previous);
+      readObstacles(channel, offset, cells, averageNormals);
+    }
+
+    simulationData.setPhysicalXLength(physicalXLength);
+    simulationData.setPhysicalYLength(physicalYLength);
+    simulationData.setVolumeDensity(volumeDensity);
+    simulationData.setDynamicViscosity(dynamicViscosity);
+    simulationData.setInitialVelocity(initialVelocity);
+    simulationData.setTimeStep(timeStep);
+    simulationData.setSleepTime(sleepTime);
+    simulationData.setVortexConfinementFactor(vortexConfinementFactor);
+    simulationData.setBorderType(borderType);
+    restoreObstacles(simulationData.getObstacle(), cells, averageNormals);
+    simulationData.setCurrentParticleMatrix(current);
+    simulationData.setPreviousParticleMatrix(previous);
+  }
+
+  /**
+   * Écrit les champs et les min/max d'une matrice de particules
+   *
+   * @param buffer Le fichier projeté, positionné au début de la matrice
+   * @param matrix La matrice de particules
+   */
+  private static void writeMatrix(MappedByteBuffer buffer, ParticleMatrix matrix) {
+    DoubleBuffer doubleBuffer = buffer.asDoubleBuffer();
+    for (double[] field : getFields(matrix)) doubleBuffer.put(field);
+    for (double[] minMax : getMinMax(matrix)) doubleBuffer.put(minMax);
+
+    buffer.position(buffer.position() + doubleBuffer.position() * 8);
+  }
+
+  /**
+   * Lit les champs et les min/max d'une matrice de particules
+   *
+   * @param channel Le fichier
+   * @param offset La position de la matrice dans le fichier
+   * @param matrix La matrice de particules à remplir
+   * @return La position suivant la matrice
+   * @throws IOException En cas d'erreur de lecture
+   */
+  private static long readMatrix(FileChannel channel, long offset, ParticleMatrix matrix)
+      throws IOException {
+    for (double[] field : getFields(matrix)) {
+      map(channel, MapMode.READ_ONLY, offset, field.length * 8L).asDoubleBuffer().get(field);
+      offset += field.length * 8L;
+    }
+
+    DoubleBuffer minMaxBuffer =
+        map(channel, MapMode.READ_ONLY, offset, getMinMaxSize()).asDoubleBuffer();
+    for (double[] minMax : getMinMax(matrix)) minMaxBuffer.get(minMax);
+
+    return offset + getMinMaxSize();
+  }
+
+  /**
+   * Écrit le type et la normale moyenne de chaque cellule d'obstacle
+   *
+   * @param buffer Le fichier projeté, positionné au début des obstacles
+   * @param obstacles La matrice d'obstacles
+   */
+  private static void writeObstacles(MappedByteBuffer buffer, WObstacleCellMatrix obstacles) {
+    int size = obstacles.getSize();
+
+    for (int i = 0; i < size; i++) {
+      WObstacleCell cell = obstacles.getElementAt(i);
+      buffer.put(cell == null ? 0 : (byte) encodeCell(cell));
+    }
+    for (int i = 0; i < size; i++) {
+      WObstacleCell cell = obstacles.getElementAt(i);
+      buffer.putDouble(cell == null ? Double.NaN : cell.getAverageNormal());
+    }
+  }
+
+  /**
+   * Lit les cellules d'obstacles et leur normale moyenne
+   *
+   * @param channel Le fichier
+   * @param offset La position des obstacles dans le fichier
+   * @param cells Les cellules à remplir, {@code null} là où il n'y a pas d'obstacle
+   * @param averageNormals Les normales moyennes à remplir
+   * @throws IOException En cas d'erreur de lecture ou si un type d'obstacle est invalide
+   */
+  private static void readObstacles(
+      FileChannel channel, long offset, WObstacleCell[] cells, double[] averageNormals)
+      throws IOException {
+    MappedByteBuffer buffer = map(channel, MapMode.READ_ONLY, offset, cells.length * 9L);
+    OBSTACLE_TYPE[] types = OBSTACLE_TYPE.values();
+
+    for (int i = 0; i < cells.length; i++) {
+      int code = buffer.get() & 0xFF;
+      if (code == 0) continue;
+
+      int type = (code & ~DIAGONAL_BIT) - 1;
+      if (type < 0 || type >= types.length) throw new IOException("Invalid obstacle type: " + code);
+
+      cells[i] = new WObstacleCell(types[type], (code & DIAGONAL_BIT) != 0);
+    }
+
+    buffer.asDoubleBuffer().get(averageNormals);
+  }
+
+  /**
+   * Remplace les cellules d'une matrice d'obstacles, puis génère les normales
+   *
+   * @param obstacles La matrice d'obstacles à modifier
+   * @param cells Les cellules lues
+   * @param averageNormals Les normales moyennes lues
+   */
+  private static void restoreObstacles(
+      WObstacleCellMatrix obstacles, WObstacleCell[] cells, double[] averageNormals) {
+    for (int i = 0; i < cells.length; i++) obstacles.setElementAt(cells[i], i);
+
+    obstacles.generateNormalMatrix();
+    obstacles.generateAverageNormalMatrix();
+
+    // Les normales moyennes enregistrées remplacent celles générées, qui peuvent en différer
+    for (int i = 0; i < cells.length; i++)
+      if (cells[i] != null) cells[i].setAverageNormal(averageNormals[i]);
+  }
+
+  /**
+   * Encode le type d'une cellule d'obstacle et si elle accepte les voisins diagonaux
+   *
+   * @param cell La cellule d'obstacle
+   * @return Le code de la cellule, jamais {@code 0}
+   */
+  private static int encodeCell(WObstacleCell cell) {
+    int code = cell.getObstacleType().ordinal() + 1;
+    if (cell.getAcceptDiagonalNeighbors()) code |= DIAGONAL_BIT;
+    return code;
+  }
+
+  /**
+   * Retourne les champs d'une matrice de particules, dans l'ordre du fichier
+   *
+   * @param matrix La matrice de particules
+   * @return Les tableaux des champs
+   */
+  private static double[][] getFields(ParticleMatrix matrix) {
+    return new double[][] {
+      matrix.getXVelocity().getMatrix(),
+      matrix.getYVelocity().getMatrix(),
+      matrix.getVelocity().getMatrix(),
+      matrix.getPressure().getMatrix(),
+      matrix.getTemperature().getMatrix(),
+      matrix.getAreaDensity().getMatrix(),
+      matrix.getVelocityDivergence().getMatrix(),
+      matrix.getXPressureGradient().getMatrix(),
+      matrix.getYPressureGradient().getMatrix(),
+      matrix.getVelocityCurl().getMatrix()
+    };
+  }
+
+  /**
+   * Retourne les tableaux de min/max d'une matrice de particules, dans l'ordre du fichier
+   *
+   * @param matrix La matrice de particules
+   * @return Les tableaux de min/max
+   */
+  private static double[][] getMinMax(ParticleMatrix matrix) {
+    return new double[][] {
+      matrix.getXVelocityMinMax(),
+      matrix.getYVelocityMinMax(),
+      matrix.getVelocityMinMax(),
+      matrix.getPressureMinMax(),
+      matrix.getTemperatureMinMax(),
+      matrix.getVelocityDivergenceMinMax(),
+      matrix.getXPressureGradientMinMax(),
+      matrix.getYPressureGradientMinMax(),
+      matrix.getVelocityCurlMinMax()
+    };
+  }
+
+  /**
+   * Retourne la taille des min/max d'une matrice de particules
+   *
+   * @return La taille (octets)
+   */
+  private static long getMinMaxSize() {
+    return MIN_MAX_COUNT * MIN_MAX_LENGTH * 8L;
+  }
+
+  /**
+   * Retourne la taille d'un point de reprise
+   *
+   * @param size Le nombre de cellules de la simulation
+   * @return La taille du fichier (octets)
+   */
+  private static long getFileSize(int size) {
+    long matrixSize = FIELD_COUNT * size * 8L + getMinMaxSize();
+    return HEADER_SIZE + 2 * matrixSize + size * 9L;
+  }
+
+  /**
+   * Projette une région du fichier en mémoire, en ordre little-endian
+   *
+   * @param channel Le fichier
+   * @param mode Le mode de projection
+   * @param offset La position de la région
+   * @param length La taille de la région (octets)
+   * @return La région projetée
+   * @throws IOException En cas d'erreur de projection
+   */
+  private static MappedByteBuffer map(FileChannel channel, MapMode mode, long offset, long length)
+      throws IOException {
+    MappedByteBuffer buffer = channel.map(mode, offset, length);
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    return buffer;
+  }
+
+  /**
+   * Retourne le fichier du point de reprise
+   *
+   * @return Le fichier
+   */
+  public Path getFile() {
+    return file;
+  }
+
+  /**
+   * Retourne la largeur de la simulation
+   *
+   * @return La largeur (px)
+   */
+  public int getXLength() {
+    return xLength;
+  }
+
+  /**
+   * Retourne la hauteur de la simulation
+   *
+   * @return La hauteur (px)
+   */
+  public int getYLength() {
+    return yLength;
+  }
+
+  /**
+   * Retourne l'itération de la simulation au point de reprise
+   *
+   * @return L'itération
+   */
+  public int getIteration() {
+    return iteration;
+  }
+
+  /**
+   * Retourne le temps de la simulation au point de reprise
+   *
+   * @return Le temps
+   */
+  public double getTime() {
+    return time;
+  }
+
+  /**
+   * Retourne le pas de temps de la simulation
+   *
+   * @return Le pas de temps
+   */
+  public double getTimeStep() {
+    return timeStep;
+  }
+
+  /**
+   * Retourne le type de bordure de la simulation
+   *
+   * @return Le type de bordure
+   */
+  public BORDER_TYPE getBorderType() {
+    return borderType;
+  }
+}
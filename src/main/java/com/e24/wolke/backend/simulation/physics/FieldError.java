@@ -0,0 +1,145 @@
+package com.e24.wolke.backend.simulation.physics;
+
+import java.util.Locale;
+
+/**
+ * FieldError.java
+ *
+ * <p>Écart entre un champ d'une simulation et le même champ d'une simulation de référence, mesuré
+ * par {@link FieldSnapshot#compare(FieldSnapshot)}. L'écart est donné en norme L2 (moyenne
+ * quadratique des différences) et en norme L∞ (plus grande différence), en valeur absolue et
+ * relativement à la plus grande valeur absolue du champ de référence.
+ *
+ * @author Nilon123456789
+ */
+public class FieldError {
+
+  /** Nom du champ */
+  private final String field;
+
+  /** Moyenne quadratique des différences */
+  private final double l2;
+
+  /** Plus grande différence absolue */
+  private final double lInf;
+
+  /** Plus grande valeur absolue du champ de référence */
+  private final double referenceMax;
+
+  /**
+   * Constructeur de la classe FieldError
+   *
+   * @param field Nom du champ
+   * @param l2 Moyenne quadratique des différences
+   * @param lInf Plus grande différence absolue
+   * @param referenceMax Plus grande valeur absolue du champ de référence
+   */
+  public FieldError(String field, double l2, double lInf, double referenceMax) {
+    this.field = field;
+    this.l2 = l2;
+    this.lInf = lInf;
+    this.referenceMax = referenceMax;
+  }
+
+  /**
+   * Mesure l'écart entre deux champs de même taille. Une valeur {@code NaN} ou infinie qui ne
+   * correspond pas exactement à la valeur de référence donne un écart infini.
+   *
+   * @param field Nom du champ
+   * @param values Les valeurs du champ
+   * @param reference Les valeurs du champ de référence
+   * @return L'écart entre les deux champs
+   * @throws IllegalArgumentException Si les deux champs n'ont pas la même taille
+   */
+  public static FieldError measure(String field, double[] values, double[] reference) {
+    if (values.length != reference.length)
+      throw new IllegalArgumentException(
+          "Field " + field + " size " + values.length + " != " + reference.length);
+
+    double sumSquares = 0;
+    double lInf = 0;
+    double referenceMax = 0;
+
+    for (int i = 0; i < values.length; i++) {
+      double difference = Math.abs(values[i] - reference[i]);
+      if (!Double.isFinite(difference))
+        difference = Double.compare(values[i], reference[i]) == 0 ? 0 : Double.POSITIVE_INFINITY;
+
+      sumSquares += difference * difference;
+      lInf = Math.max(lInf, difference);
+      if (Double.isFinite(reference[i]))
+        referenceMax = Math.max(referenceMax, Math.abs(reference[i]));
+    }
+
+    double l2 = values.length == 0 ? 0 : Math.sqrt(sumSquares / values.length);
+    return new FieldError(field, l2, lInf, referenceMax);
+  }
+
+  /**
+   * Retourne le nom du champ
+   *
+   * @return Le nom du champ
+   */
+  public String getField() {
+    return field;
+  }
+
+  /**
+   * Retourne la moyenne quadratique des différences
+   *
+   * @return L'écart en norme L2
+   */
+  public double getL2() {
+    return l2;
+  }
+
+  /**
+   * Retourne la plus grande différence absolue
+   *
+   * @return L'écart en norme L∞
+   */
+  public double getLInf() {
+    return lInf;
+  }
+
+  /**
+   * Retourne la moyenne quadratique des différences relative au champ de référence
+   *
+   * @return L'écart relatif en norme L2, l'écart absolu si le champ de référence est nul
+   */
+  public double getRelativeL2() {
+    return referenceMax == 0 ? l2 : l2 / referenceMax;
+  }
+
+  /**
+   * Retourne la plus grande différence relative au champ de référence
+   *
+   * @return L'écart relatif en norme L∞, l'écart absolu si le champ de référence est nul
+   */
+  public double getRelativeLInf() {
+    return referenceMax == 0 ? lInf : lInf / referenceMax;
+  }
+
+  /**
+   * Retourne si l'écart relatif en norme L∞ est sous une tolérance
+   *
+   * @param tolerance La tolérance relative
+   * @return {@code true} si l'écart est acceptable
+   */
+  public boolean isWithin(double tolerance) {
+    return getRelativeLInf() <= tolerance;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    return String.format(
+        Locale.ROOT,
+        "%s: L2 %.3e, Linf %.3e (relative L2 %.3e, Linf %.3e)",
+        field,
+        l2,
+        lInf,
+        getRelativeL2(),
+        getRelativeLInf());
+  }
+}
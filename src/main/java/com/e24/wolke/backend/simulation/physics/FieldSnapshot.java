@@ -0,0 +1,211 @@
+package com.e24.wolke.backend.simulation.physics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * FieldSnapshot.java
+ *
+ * <p>Copie des champs d'une {@link ParticleMatrix} à un instant donné, qui peut être enregistrée
+ * dans un fichier et comparée à une copie de référence. Elle permet de vérifier que les différents
+ * moteurs physiques produisent les mêmes résultats.
+ *
+ * @author Nilon123456789
+ */
+public class FieldSnapshot {
+
+  /** Champs copiés par {@link #capture(ParticleMatrix)} */
+  public static final List<String> FIELDS =
+      List.of("xVelocity", "yVelocity", "pressure", "areaDensity", "velocityCurl");
+
+  /** Identifiant des fichiers de copies ("WSNP") */
+  private static final int MAGIC = 0x57534E50;
+
+  /** Version du format des fichiers */
+  private static final int VERSION = 1;
+
+  /** Largeur des champs */
+  private final int xLength;
+
+  /** Hauteur des champs */
+  private final int yLength;
+
+  /** Valeurs des champs par nom, dans l'ordre d'ajout */
+  private final Map<String, double[]> fields = new LinkedHashMap<>();
+
+  /**
+   * Constructeur de la classe FieldSnapshot
+   *
+   * @param xLength Largeur des champs
+   * @param yLength Hauteur des champs
+   */
+  public FieldSnapshot(int xLength, int yLength) {
+    this.xLength = xLength;
+    this.yLength = yLength;
+  }
+
+  /**
+   * Copie les champs {@link #FIELDS} d'une matrice de particules
+   *
+   * @param matrix La matrice de particules
+   * @return La copie des champs
+   */
+  public static FieldSnapshot capture(ParticleMatrix matrix) {
+    FieldSnapshot snapshot = new FieldSnapshot(matrix.getXLength(), matrix.getYLength());
+    snapshot.putField("xVelocity", matrix.getXVelocity().getMatrix().clone());
+    snapshot.putField("yVelocity", matrix.getYVelocity().getMatrix().clone());
+    snapshot.putField("pressure", matrix.getPressure().getMatrix().clone());
+    snapshot.putField("areaDensity", matrix.getAreaDensity().getMatrix().clone());
+    snapshot.putField("velocityCurl", matrix.getVelocityCurl().getMatrix().clone());
+    return snapshot;
+  }
+
+  /**
+   * Ajoute ou remplace un champ
+   *
+   * @param name Le nom du champ
+   * @param values Les valeurs du champ, sans copie
+   * @throws IllegalArgumentException Si la taille du champ ne correspond pas à la copie
+   */
+  public void putField(String name, double[] values) {
+    if (values.length != xLength * yLength)
+      throw new IllegalArgumentException(
+          "Field " + name + " size " + values.length + " != " + xLength * yLength);
+
+    fields.put(name, values);
+  }
+
+  /**
+   * Retourne les valeurs d'un champ
+   *
+   * @param name Le nom du champ
+   * @return Les valeurs du champ, {@code null} s'il est absent
+   */
+  public double[] getField(String name) {
+    return fields.get(name);
+  }
+
+  /**
+   * Retourne les noms des champs, dans l'ordre d'ajout
+   *
+   * @return Les noms des champs
+   */
+  public Set<String> getFieldNames() {
+    return Collections.unmodifiableSet(fields.keySet());
+  }
+
+  /**
+   * Retourne la largeur des champs
+   *
+   * @return La largeur des champs
+   */
+  public int getXLength() {
+    return xLength;
+  }
+
+  /**
+   * Retourne la hauteur des champs
+   *
+   * @return La hauteur des champs
+   */
+  public int getYLength() {
+    return yLength;
+  }
+
+  /**
+   * Mesure l'écart de chaque champ de la copie de référence avec le même champ de cette copie
+   *
+   * @param reference La copie de référence
+   * @return Les écarts, dans l'ordre des champs de la référence
+   * @throws IllegalArgumentException Si les dimensions diffèrent ou si un champ est absent
+   */
+  public List<FieldError> compare(FieldSnapshot reference) {
+    if (xLength != reference.xLength || yLength != reference.yLength)
+      throw new IllegalArgumentException(
+          "Snapshot size "
+              + xLength
+              + "x"
+              + yLength
+              + " != "
+              + reference.xLength
+              + "x"
+              + reference.yLength);
+
+    List<FieldError> errors = new ArrayList<>(reference.fields.size());
+    for (Map.Entry<String, double[]> field : reference.fields.entrySet()) {
+      double[] values = fields.get(field.getKey());
+      if (values == null) throw new IllegalArgumentException("Missing field " + field.getKey());
+
+      errors.add(FieldError.measure(field.getKey(), values, field.getValue()));
+    }
+
+    return errors;
+  }
+
+  /**
+   * Enregistre la copie dans un fichier binaire
+   *
+   * @param file Le fichier
+   * @throws IOException En cas d'erreur d'écriture
+   */
+  public void write(File file) throws IOException {
+    if (file.getParentFile() != null) file.getParentFile().mkdirs();
+
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(xLength);
+      out.writeInt(yLength);
+      out.writeInt(fields.size());
+
+      for (Map.Entry<String, double[]> field : fields.entrySet()) {
+        out.writeUTF(field.getKey());
+        for (double value : field.getValue()) out.writeDouble(value);
+      }
+    }
+  }
+
+  /**
+   * Lit une copie enregistrée avec {@link #write(File)}
+   *
+   * @param file Le fichier
+   * @return La copie lue
+   * @throws IOException En cas d'erreur de lecture ou si le fichier n'est pas une copie valide
+   */
+  public static FieldSnapshot read(File file) throws IOException {
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION)
+        throw new IOException("Not a field snapshot: " + file);
+
+      int xLength = in.readInt();
+      int yLength = in.readInt();
+      int fieldCount = in.readInt();
+      if (xLength <= 0 || yLength <= 0 || fieldCount < 0)
+        throw new IOException("Invalid field snapshot header: " + file);
+
+      FieldSnapshot snapshot = new FieldSnapshot(xLength, yLength);
+      for (int i = 0; i < fieldCount; i++) {
+        String name = in.readUTF();
+        double[] values = new double[xLength * yLength];
+        for (int j = 0; j < values.length; j++) values[j] = in.readDouble();
+        snapshot.putField(name, values);
+      }
+
+      return snapshot;
+    }
+  }
+}
@@ -693,6 +693,7 @@ public class ParticleMatrix {
         return yPressureGradient.getMatrix();
 
       case VELOCITY:
+      case VELOCITY_LIC:
         return velocity.getMatrix();
 
       case VELOCITY_X:
@@ -729,6 +730,7 @@ public class ParticleMatrix {
         return yPressureGradient.getMatrix()[index];
 
       case VELOCITY:
+      case VELOCITY_LIC:
         return velocity.getMatrix()[index];
 
       case VELOCITY_X:
@@ -765,6 +767,7 @@ public class ParticleMatrix {
         return yPressureGradientMinMax;
 
       case VELOCITY:
+      case VELOCITY_LIC:
         return velocityMinMax;
 
       case VELOCITY_X:
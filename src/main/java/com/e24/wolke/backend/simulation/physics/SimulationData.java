@@ -7,6 +7,7 @@ import com.e24.wolke.backend.models.simulation.SimulationConstants.BORDER_TYPE;
 import com.e24.wolke.backend.models.simulation.SimulationConstants.Fluid;
 import com.e24.wolke.utils.interfaces.Reinitializable;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -79,6 +80,9 @@ public class SimulationData implements Reinitializable {
   /** Piscine de matrice de particules */
   private final ParticleMatrixPool particleMatrixPool;
 
+  /** Nombre d'images perdues, voir {@link #getDroppedFrameCount()} */
+  private final AtomicLong droppedFrameCount = new AtomicLong();
+
   /** Logger de la classe */
   protected static final Logger LOGGER = LogManager.getLogger(SimulationData.class.getSimpleName());
 
@@ -625,7 +629,21 @@ public class SimulationData implements Reinitializable {
 
   /** Ajoute la matrice de particule a la queue pour être dessinée */
   public void setNewRenderMatrix() {
-    this.renderParticleMatrixQueue.add(this.previousParticleMatrix);
+    addRenderParticleMatrix(this.previousParticleMatrix);
+
+    this.setPreviousParticleMatrix(this.currentParticleMatrix);
+  }
+
+  /**
+   * Ajoute une matrice de particules a la queue pour être dessinée. La matrice la plus ancienne est
+   * retournée à la piscine si la queue est trop longue.
+   *
+   * <p>Peut être appelée depuis un autre thread que celui de la simulation.
+   *
+   * @param matrix La matrice de particules à dessiner
+   */
+  public void addRenderParticleMatrix(ParticleMatrix matrix) {
+    this.renderParticleMatrixQueue.add(matrix);
 
     if (this.renderParticleMatrixQueue.size()
         > SimulationConstants.MAX_PARTICLE_MATRIX_QUEUE_SIZE) {
@@ -633,10 +651,39 @@ public class SimulationData implements Reinitializable {
           LocaleManager.getLocaleResourceBundle()
               .getString("log.simulationData.renderQueueTooLong"),
           this.renderParticleMatrixQueue.size());
-      returnParticleMatrixToPool(this.renderParticleMatrixQueue.poll());
+      discardRenderParticleMatrix();
     }
+  }
 
-    this.setPreviousParticleMatrix(this.currentParticleMatrix);
+  /**
+   * Retire la matrice de particules la plus ancienne de la queue sans la dessiner et la retourne à
+   * la piscine. Elle est comptée comme une image perdue.
+   */
+  public void discardRenderParticleMatrix() {
+    ParticleMatrix matrix = this.renderParticleMatrixQueue.poll();
+    if (matrix == null) return;
+
+    droppedFrameCount.incrementAndGet();
+    returnParticleMatrixToPool(matrix);
+  }
+
+  /**
+   * Retourne le nombre d'images perdues, c'est-à-dire de matrices de particules retirées de la queue
+   * sans avoir été dessinées
+   *
+   * @return Le nombre d'images perdues
+   */
+  public long getDroppedFrameCount() {
+    return droppedFrameCount.get();
+  }
+
+  /**
+   * Retourne la piscine de matrices de particules
+   *
+   * @return La piscine de matrices de particules
+   */
+  public ParticleMatrixPool getParticleMatrixPool() {
+    return this.particleMatrixPool;
   }
 
   /** Reinisialise la matrice de particules courante */
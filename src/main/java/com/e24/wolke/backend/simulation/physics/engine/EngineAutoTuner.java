@@ -0,0 +1,429 @@
+package com.e24.wolke.backend.simulation.physics.engine;
+
+import com.e24.wolke.backend.models.application.ApplicationConstants;
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.models.simulation.SimulationConstants;
+import com.e24.wolke.backend.simulation.physics.SimulationData;
+import com.e24.wolke.filesystem.WFileSystemConstant;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * EngineAutoTuner.java
+ *
+ * <p>Choisit la configuration du moteur multi-threaded la plus rapide pour une résolution et la
+ * machine actuelle. Pour chaque taille de sous-tâches et nombre de threads essayés, le moteur
+ * effectue quelques pas sur une même simulation. La configuration dont le temps médian d'un pas est
+ * le plus court est retenue. Le choix entre le moteur single-threaded et le
+ * moteur multi-threaded reste celui de {@code simulation.multiThreaded}.
+ *
+ * <p>Le résultat est conservé par résolution dans le fichier {@value #FILE_NAME} du dossier de
+ * l'utilisateur, et n'est mesuré à nouveau que si le nombre de processeurs change. {@link
+ * #tuneInBackground(int, int, Consumer)} effectue les mesures d'une résolution sans configuration
+ * conservée hors du démarrage de la simulation, puis transmet leur résultat.
+ *
+ * <p>Le seul solveur de pression du moteur est la méthode de Jacobi, elle est donc utilisée par
+ * toutes les configurations, avec un nombre d'itérations fixe pour que le travail d'un pas ne
+ * dépende pas de l'état de la simulation.
+ *
+ * @author Nilon123456789
+ */
+public class EngineAutoTuner {
+
+  /** Nom du fichier des configurations conservées */
+  public static final String FILE_NAME = "engine-tuning.properties";
+
+  /** Version du fichier, un fichier d'une autre version est ignoré */
+  private static final String FILE_VERSION = "2";
+
+  /** Clé de la version du fichier */
+  private static final String VERSION_KEY = "version";
+
+  /** Clé du nombre de processeurs de la machine lors des mesures */
+  private static final String PROCESSORS_KEY = "processors";
+
+  /** Nombre de pas effectués avant la mesure de chaque configuration */
+  private static final int WARMUP_STEPS = 2;
+
+  /** Nombre de pas mesurés pour chaque configuration */
+  private static final int MEASURED_STEPS = 5;
+
+  /** Durée maximale des mesures (ns), au-delà les configurations restantes sont ignorées */
+  private static final long TIME_BUDGET_NANOS = 3_000_000_000L;
+
+  /** Plus petite taille de sous-tâches essayée */
+  private static final int MIN_SUBTASK_THRESHOLD = 256;
+
+  /** Écart relatif sous lequel une configuration n'est pas considérée plus rapide */
+  private static final double TOLERANCE = 0.05;
+
+  /** Nombre de nanosecondes dans une milliseconde */
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  /**
+   * Pools de threads des configurations retenues par nombre de threads, partagés par les moteurs.
+   * Les candidats n'ont que deux nombres de threads, dont celui du pool de l'application, il y a
+   * donc au plus un pool dans ce cache.
+   */
+  private static final Map<Integer, ForkJoinPool> FORK_JOIN_POOLS = new ConcurrentHashMap<>();
+
+  /** Verrou des lectures et écritures du fichier des configurations */
+  private static final Object FILE_LOCK = new Object();
+
+  /**
+   * Destinataires des mesures en arrière-plan en attente ou en cours, par préfixe de résolution.
+   * Les accès sont synchronisés sur la table.
+   */
+  private static final Map<String, List<Consumer<EngineTuning>>> PENDING_TUNINGS = new HashMap<>();
+
+  /** Effectue les mesures en arrière-plan, une résolution à la fois */
+  private static final ExecutorService BACKGROUND_EXECUTOR =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, EngineAutoTuner.class.getSimpleName());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+          });
+
+  /** Logger de la classe */
+  private static final Logger LOGGER = LogManager.getLogger(EngineAutoTuner.class.getSimpleName());
+
+  /** Classe non instanciable */
+  private EngineAutoTuner() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  /**
+   * Retourne un pool de threads partagé d'un nombre de threads donné. Le pool de l'application est
+   * retourné s'il a ce nombre de threads.
+   *
+   * @param parallelism Le nombre de threads
+   * @return Le pool de threads
+   */
+  public static ForkJoinPool getForkJoinPool(int parallelism) {
+    if (parallelism == ApplicationConstants.FORK_JOIN_POOL.getParallelism())
+      return ApplicationConstants.FORK_JOIN_POOL;
+
+    return FORK_JOIN_POOLS.computeIfAbsent(parallelism, ForkJoinPool::new);
+  }
+
+  /**
+   * Retourne la configuration conservée pour une résolution, ou la mesure et la conserve si elle
+   * est absente
+   *
+   * @param xLength La largeur de la simulation (px)
+   * @param yLength La hauteur de la simulation (px)
+   * @return La configuration la plus rapide
+   */
+  public static EngineTuning getTuning(int xLength, int yLength) {
+    String prefix = getKeyPrefix(xLength, yLength);
+
+    EngineTuning tuning = getCachedTuning(xLength, yLength);
+    if (tuning != null) {
+      LOGGER.info(
+          LocaleManager.getLocaleResourceBundle().getString("log.engineAutoTuner.cached"),
+          prefix,
+          tuning);
+      return tuning;
+    }
+
+    tuning = tune(xLength, yLength, TIME_BUDGET_NANOS);
+
+    // Le fichier est relu pour conserver les configurations mesurées entre-temps
+    synchronized (FILE_LOCK) {
+      File file = getFile();
+      Properties properties = load(file);
+      tuning.write(properties, prefix);
+      save(file, properties);
+    }
+
+    return tuning;
+  }
+
+  /**
+   * Retourne la configuration conservée pour une résolution, sans effectuer de mesure
+   *
+   * @param xLength La largeur de la simulation (px)
+   * @param yLength La hauteur de la simulation (px)
+   * @return La configuration conservée, {@code null} si elle est absente
+   */
+  public static EngineTuning getCachedTuning(int xLength, int yLength) {
+    synchronized (FILE_LOCK) {
+      return EngineTuning.read(load(getFile()), getKeyPrefix(xLength, yLength));
+    }
+  }
+
+  /**
+   * Mesure et conserve la configuration d'une résolution dans un thread en arrière-plan, de
+   * priorité minimale, puis la transmet à un destinataire. Une résolution déjà en cours de mesure
+   * n'est pas mesurée une seconde fois, le destinataire reçoit le résultat de la mesure en cours.
+   *
+   * @param xLength La largeur de la simulation (px)
+   * @param yLength La hauteur de la simulation (px)
+   * @param listener Reçoit la configuration dans le thread des mesures, n'est pas appelé si les
+   *     mesures échouent
+   */
+  public static void tuneInBackground(int xLength, int yLength, Consumer<EngineTuning> listener) {
+    String prefix = getKeyPrefix(xLength, yLength);
+
+    synchronized (PENDING_TUNINGS) {
+      List<Consumer<EngineTuning>> listeners = PENDING_TUNINGS.get(prefix);
+      if (listeners != null) {
+        listeners.add(listener);
+        return;
+      }
+
+      listeners = new ArrayList<>();
+      listeners.add(listener);
+      PENDING_TUNINGS.put(prefix, listeners);
+    }
+
+    LOGGER.info(
+        LocaleManager.getLocaleResourceBundle().getString("log.engineAutoTuner.background"),
+        prefix);
+
+    BACKGROUND_EXECUTOR.execute(
+        () -> {
+          EngineTuning tuning = null;
+          try {
+            tuning = getTuning(xLength, yLength);
+          } catch (RuntimeException e) {
+            LOGGER.error(
+                LocaleManager.getLocaleResourceBundle().getString("log.engineAutoTuner.failed"),
+                prefix,
+                e.getMessage());
+          }
+
+          List<Consumer<EngineTuning>> listeners;
+          synchronized (PENDING_TUNINGS) {
+            listeners = PENDING_TUNINGS.remove(prefix);
+          }
+
+          if (tuning == null) return;
+          for (Consumer<EngineTuning> pending : listeners) pending.accept(tuning);
+        });
+  }
+
+  /**
+   * Mesure les configurations candidates pour une résolution et retourne la plus rapide. La
+   * configuration par défaut du moteur multi-threaded est toujours mesurée, les autres
+   * configurations seulement tant que le temps alloué n'est pas écoulé. La mesure en cours s'arrête
+   * aussi à la fin du temps alloué, qui n'est donc dépassé que de quelques pas.
+   *
+   * @param xLength La largeur de la simulation (px)
+   * @param yLength La hauteur de la simulation (px)
+   * @param timeBudgetNanos La durée maximale des mesures (ns)
+   * @return La configuration la plus rapide
+   */
+  public static EngineTuning tune(int xLength, int yLength, long timeBudgetNanos) {
+    LOGGER.info(
+        LocaleManager.getLocaleResourceBundle().getString("log.engineAutoTuner.started"),
+        xLength,
+        yLength);
+
+    long start = System.nanoTime();
+
+    SimulationData simulationData =
+        new SimulationData(
+            xLength,
+            yLength,
+            SimulationConstants.DEFAULT_VISCOSITY,
+            SimulationConstants.DEFAULT_VOLUME_DENSITY,
+            SimulationConstants.DEFAULT_TIME_STEP,
+            0);
+
+    PhysicsEngineMultiThreaded engine = new PhysicsEngineMultiThreaded(simulationData);
+    engine.setPipelined(false);
+    engine.setMaxJacobiDiff(0);
+
+    long deadline = start + timeBudgetNanos;
+
+    // Les pools des mesures, hormis celui de l'application, sont arrêtés à la fin des mesures
+    Map<Integer, ForkJoinPool> pools = new HashMap<>();
+
+    EngineTuning best = null;
+    try {
+      for (EngineTuning candidate : getCandidates(xLength * yLength)) {
+        if (best != null && System.nanoTime() - deadline > 0) break;
+
+        engine.setSubtaskThreshold(candidate.getSubtaskThreshold());
+        engine.setForkJoinPool(
+            candidate.getParallelism() == ApplicationConstants.FORK_JOIN_POOL.getParallelism()
+                ? ApplicationConstants.FORK_JOIN_POOL
+                : pools.computeIfAbsent(candidate.getParallelism(), ForkJoinPool::new));
+
+        EngineTuning measured =
+            new EngineTuning(
+                true,
+                candidate.getSubtaskThreshold(),
+                candidate.getParallelism(),
+                measure(engine, deadline));
+
+        if (best == null || measured.getStepMillis() < best.getStepMillis() * (1 - TOLERANCE))
+          best = measured;
+      }
+    } finally {
+      pools.values().forEach(ForkJoinPool::shutdown);
+    }
+
+    LOGGER.info(
+        LocaleManager.getLocaleResourceBundle().getString("log.engineAutoTuner.finished"),
+        best,
+        String.format("%.3f", best.getStepMillis()),
+        String.format("%.0f", (System.nanoTime() - start) / NANOS_PER_MILLI));
+
+    return best;
+  }
+
+  /**
+   * Retourne les configurations candidates du moteur multi-threaded, en commençant par sa
+   * configuration par défaut
+   *
+   * @param size Le nombre de cellules de la simulation
+   * @return Les configurations candidates
+   */
+  static List<EngineTuning> getCandidates(int size) {
+    int defaultThreshold = ApplicationConstants.SUBTASK_THRESHOLD;
+    int processors = ApplicationConstants.FORK_JOIN_POOL.getParallelism();
+
+    List<EngineTuning> candidates = new ArrayList<>();
+    candidates.add(new EngineTuning(true, defaultThreshold, processors, Double.NaN));
+
+    int[] parallelisms = processors > 1 ? new int[] {processors, processors / 2} : new int[] {1};
+
+    for (int parallelism : parallelisms) {
+      int[] thresholds =
+          IntStream.of(
+                  defaultThreshold / 4,
+                  defaultThreshold / 2,
+                  defaultThreshold,
+                  defaultThreshold * 2,
+                  defaultThreshold * 4,
+                  size / (parallelism * 4))
+              .distinct()
+              .toArray();
+
+      for (int threshold : thresholds) {
+        if (threshold < MIN_SUBTASK_THRESHOLD || threshold > size) continue;
+        if (parallelism == processors && threshold == defaultThreshold) continue;
+
+        candidates.add(new EngineTuning(true, threshold, parallelism, Double.NaN));
+      }
+    }
+
+    return candidates;
+  }
+
+  /**
+   * Mesure le temps médian d'un pas d'un moteur. Passé la fin du temps alloué, la mesure s'arrête
+   * après le premier pas mesuré.
+   *
+   * @param engine Le moteur physique
+   * @param deadline La fin du temps alloué ({@link System#nanoTime()})
+   * @return Le temps médian des pas mesurés (ms)
+   */
+  private static double measure(PhysicsEngine engine, long deadline) {
+    for (int i = 0; i < WARMUP_STEPS && System.nanoTime() - deadline <= 0; i++)
+      engine.updateWithoutRender();
+
+    long[] durations = new long[MEASURED_STEPS];
+    int count = 0;
+    do {
+      long stepStart = System.nanoTime();
+      engine.updateWithoutRender();
+      durations[count++] = System.nanoTime() - stepStart;
+    } while (count < MEASURED_STEPS && System.nanoTime() - deadline <= 0);
+
+    Arrays.sort(durations, 0, count);
+    return durations[count / 2] / NANOS_PER_MILLI;
+  }
+
+  /**
+   * Retourne le fichier des configurations conservées
+   *
+   * @return Le fichier des configurations
+   */
+  private static File getFile() {
+    return new File(WFileSystemConstant.SAVE_PATH + FILE_NAME);
+  }
+
+  /**
+   * Retourne le préfixe des clés d'une résolution
+   *
+   * @param xLength La largeur de la simulation (px)
+   * @param yLength La hauteur de la simulation (px)
+   * @return Le préfixe des clés
+   */
+  private static String getKeyPrefix(int xLength, int yLength) {
+    return xLength + "x" + yLength;
+  }
+
+  /**
+   * Lit les configurations conservées. Un fichier absent, illisible, d'une autre version ou mesuré
+   * avec un autre nombre de processeurs donne des propriétés vides.
+   *
+   * @param file Le fichier des configurations
+   * @return Les propriétés lues
+   */
+  private static Properties load(File file) {
+    Properties properties = new Properties();
+    if (!file.isFile()) return properties;
+
+    try (InputStream in = new FileInputStream(file)) {
+      properties.load(in);
+    } catch (IOException e) {
+      LOGGER.warn(
+          LocaleManager.getLocaleResourceBundle().getString("log.engineAutoTuner.loadFailed"),
+          file.getPath(),
+          e.getMessage());
+      return new Properties();
+    }
+
+    String processors = Integer.toString(Runtime.getRuntime().availableProcessors());
+    if (!FILE_VERSION.equals(properties.getProperty(VERSION_KEY))
+        || !processors.equals(properties.getProperty(PROCESSORS_KEY))) return new Properties();
+
+    return properties;
+  }
+
+  /**
+   * Écrit les configurations conservées
+   *
+   * @param file Le fichier des configurations
+   * @param properties Les propriétés à écrire
+   */
+  private static void save(File file, Properties properties) {
+    properties.setProperty(VERSION_KEY, FILE_VERSION);
+    properties.setProperty(
+        PROCESSORS_KEY, Integer.toString(Runtime.getRuntime().availableProcessors()));
+
+    file.getParentFile().mkdirs();
+    try (OutputStream out = new FileOutputStream(file)) {
+      properties.store(out, "Wolke engine auto-tuning results, delete this file to measure again");
+    } catch (IOException e) {
+      LOGGER.warn(
+          LocaleManager.getLocaleResourceBundle().getString("log.engineAutoTuner.saveFailed"),
+          file.getPath(),
+          e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package com.e24.wolke.backend.simulation.physics.engine;
+
+import com.e24.wolke.backend.models.simulation.SimulationModel;
+import java.util.Properties;
+
+/**
+ * EngineTuning.java
+ *
+ * <p>Configuration du moteur physique choisie par {@link EngineAutoTuner} pour une résolution : le
+ * moteur (single-threaded ou multi-threaded), la taille sous laquelle les tâches ne sont plus
+ * divisées et le nombre de threads. La configuration peut être écrite dans des {@link Properties}
+ * et relue, afin d'être conservée entre deux exécutions de l'application.
+ *
+ * @author Nilon123456789
+ */
+public class EngineTuning {
+
+  /** Suffixe de la clé du moteur */
+  private static final String MULTI_THREADED_KEY = ".multiThreaded";
+
+  /** Suffixe de la clé de la taille des sous-tâches */
+  private static final String SUBTASK_THRESHOLD_KEY = ".subtaskSize";
+
+  /** Suffixe de la clé du nombre de threads */
+  private static final String PARALLELISM_KEY = ".parallelism";
+
+  /** Suffixe de la clé du temps d'un pas */
+  private static final String STEP_MILLIS_KEY = ".stepMillis";
+
+  /** Si le moteur multi-threaded est utilisé */
+  private final boolean multiThreaded;
+
+  /** Taille sous laquelle une tâche n'est plus divisée en sous-tâches */
+  private final int subtaskThreshold;
+
+  /** Nombre de threads du moteur multi-threaded */
+  private final int parallelism;
+
+  /** Temps médian d'un pas mesuré avec cette configuration (ms) */
+  private final double stepMillis;
+
+  /**
+   * Constructeur de la classe EngineTuning
+   *
+   * @param multiThreaded Si le moteur multi-threaded est utilisé
+   * @param subtaskThreshold Taille sous laquelle une tâche n'est plus divisée en sous-tâches
+   * @param parallelism Nombre de threads du moteur multi-threaded
+   * @param stepMillis Temps médian d'un pas mesuré avec cette configuration (ms)
+   * @throws IllegalArgumentException Si la taille des sous-tâches ou le nombre de threads n'est pas
+   *     positif
+   */
+  public EngineTuning(
+      boolean multiThreaded, int subtaskThreshold, int parallelism, double stepMillis) {
+    if (subtaskThreshold <= 0)
+      throw new IllegalArgumentException("Subtask threshold must be positive: " + subtaskThreshold);
+    if (parallelism <= 0)
+      throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+
+    this.multiThreaded = multiThreaded;
+    this.subtaskThreshold = subtaskThreshold;
+    this.parallelism = parallelism;
+    this.stepMillis = stepMillis;
+  }
+
+  /**
+   * Crée un moteur physique selon cette configuration
+   *
+   * @param simulationModel Le modèle de la simulation
+   * @return Le moteur physique
+   */
+  public PhysicsEngine createEngine(SimulationModel simulationModel) {
+    if (!multiThreaded) return new PhysicsEngine(simulationModel);
+
+    PhysicsEngineMultiThreaded engine = new PhysicsEngineMultiThreaded(simulationModel);
+    apply(engine);
+    return engine;
+  }
+
+  /**
+   * Applique la taille des sous-tâches et le nombre de threads à un moteur multi-threaded
+   *
+   * @param engine Le moteur multi-threaded
+   */
+  public void apply(PhysicsEngineMultiThreaded engine) {
+    engine.setSubtaskThreshold(subtaskThreshold);
+    engine.setForkJoinPool(EngineAutoTuner.getForkJoinPool(parallelism));
+  }
+
+  /**
+   * Écrit cette configuration
+   *
+   * @param properties La destination
+   * @param prefix Le préfixe des clés
+   */
+  public void write(Properties properties, String prefix) {
+    properties.setProperty(prefix + MULTI_THREADED_KEY, Boolean.toString(multiThreaded));
+    properties.setProperty(prefix + SUBTASK_THRESHOLD_KEY, Integer.toString(subtaskThreshold));
+    properties.setProperty(prefix + PARALLELISM_KEY, Integer.toString(parallelism));
+    properties.setProperty(prefix + STEP_MILLIS_KEY, Double.toString(stepMillis));
+  }
+
+  /**
+   * Lit une configuration écrite avec {@link #write(Properties, String)}
+   *
+   * @param properties La source
+   * @param prefix Le préfixe des clés
+   * @return La configuration, {@code null} si elle est absente ou invalide
+   */
+  public static EngineTuning read(Properties properties, String prefix) {
+    String multiThreaded = properties.getProperty(prefix + MULTI_THREADED_KEY);
+    String subtaskThreshold = properties.getProperty(prefix + SUBTASK_THRESHOLD_KEY);
+    String parallelism = properties.getProperty(prefix + PARALLELISM_KEY);
+    String stepMillis = properties.getProperty(prefix + STEP_MILLIS_KEY);
+
+    if (multiThreaded == null || subtaskThreshold == null || parallelism == null) return null;
+
+    try {
+      return new EngineTuning(
+          Boolean.parseBoolean(multiThreaded.trim()),
+          Integer.parseInt(subtaskThreshold.trim()),
+          Integer.parseInt(parallelism.trim()),
+          stepMillis == null ? Double.NaN : Double.parseDouble(stepMillis.trim()));
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Retourne si le moteur multi-threaded est utilisé
+   *
+   * @return {@code true} si le moteur multi-threaded est utilisé
+   */
+  public boolean isMultiThreaded() {
+    return multiThreaded;
+  }
+
+  /**
+   * Retourne la taille sous laquelle une tâche n'est plus divisée en sous-tâches
+   *
+   * @return La taille des sous-tâches
+   */
+  public int getSubtaskThreshold() {
+    return subtaskThreshold;
+  }
+
+  /**
+   * Retourne le nombre de threads du moteur multi-threaded
+   *
+   * @return Le nombre de threads
+   */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Retourne le temps médian d'un pas mesuré avec cette configuration
+   *
+   * @return Le temps d'un pas (ms), {@code NaN} s'il est inconnu
+   */
+  public double getStepMillis() {
+    return stepMillis;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    return multiThreaded
+        ? "multi-threaded (subtask size " + subtaskThreshold + ", " + parallelism + " threads)"
+        : "single-threaded";
+  }
+}
@@ -6,16 +6,34 @@ import com.e24.wolke.backend.models.obstacles.WObstacleCell;
 import com.e24.wolke.backend.models.obstacles.WObstacleCellMatrix;
 import com.e24.wolke.backend.models.simulation.SimulationConstants;
 import com.e24.wolke.backend.models.simulation.SimulationConstants.BORDER_TYPE;
+import com.e24.wolke.backend.models.simulation.SimulationConstants.ENGINE_STATE;
 import com.e24.wolke.backend.models.simulation.SimulationConstants.OBSTACLE_TYPE;
 import com.e24.wolke.backend.models.simulation.SimulationModel;
+import com.e24.wolke.backend.simulation.checkpoint.SimulationCheckpoint;
 import com.e24.wolke.backend.simulation.physics.ParticleMatrix;
 import com.e24.wolke.backend.simulation.physics.SimulationData;
 import com.e24.wolke.eventsystem.Subject;
 import com.e24.wolke.utils.Timer;
+import com.e24.wolke.utils.TimerHandle;
 import com.e24.wolke.utils.interfaces.Reinitializable;
+import com.e24.wolke.utils.jfr.SimulationStepEvent;
 import com.e24.wolke.utils.math.WDoubleMatrix;
 import com.e24.wolke.utils.math.WMath;
 import com.e24.wolke.utils.pool.DoubleMatrixPool;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -38,11 +56,21 @@ public class PhysicsEngine implements Runnable, Reinitializable {
   /** Modèle de la simulation */
   private WModel simulationModel;
 
-  /** Statut d thread la simulation */
-  private boolean isRunning;
+  /** État du cycle de vie de la boucle de simulation */
+  private final AtomicReference<ENGINE_STATE> state =
+      new AtomicReference<ENGINE_STATE>(ENGINE_STATE.STOPPED);
 
   /** Statut du calcule de la simulaiton */
-  private boolean isCalculating;
+  private final AtomicBoolean isCalculating = new AtomicBoolean(false);
+
+  /** Thread qui effectue le pas en cours, {@code null} si aucun */
+  private volatile Thread calculatingThread;
+
+  /** Verrou associé à {@link #stepDone} */
+  private final ReentrantLock stepLock = new ReentrantLock();
+
+  /** Condition signalée à la fin de chaque pas de simulation */
+  private final Condition stepDone = stepLock.newCondition();
 
   /** Temps actuel de la simulation */
   private double currentTime;
@@ -56,9 +84,103 @@ public class PhysicsEngine implements Runnable, Reinitializable {
   /** Timer pour mesurer le temps d'execution */
   protected final Timer timer = new Timer("Simulation", LOGGER);
 
+  /**
+   * Noms des timers des étapes d'un pas de simulation, dans l'ordre d'exécution. Le timer {@code
+   * ApplyBoundaryConditions} est inclus dans celui de {@code PressureSolver}.
+   */
+  public static final List<String> STEP_STAGES =
+      List.of(
+          "Advection",
+          "VorticityConfinement",
+          "Diffusion",
+          "AddForce",
+          "VelocityDivergence",
+          "PressureSolver",
+          "ApplyBoundaryConditions",
+          "PressureGradient",
+          "SubstractPressureGradient",
+          "FindMinMax");
+
+  /** Nom du timer d'un pas de simulation complet */
+  public static final String STEP_TIMER = "Update";
+
+  /** Timer d'un pas de simulation complet */
+  protected final TimerHandle stepTimer = timer.register(STEP_TIMER);
+
+  /** Timer de l'advection */
+  protected final TimerHandle advectionTimer = timer.register("Advection");
+
+  /** Timer du confinement de la vorticité */
+  protected final TimerHandle vorticityConfinementTimer = timer.register("VorticityConfinement");
+
+  /** Timer de la diffusion */
+  protected final TimerHandle diffusionTimer = timer.register("Diffusion");
+
+  /** Timer de l'ajout des forces */
+  protected final TimerHandle addForceTimer = timer.register("AddForce");
+
+  /** Timer du calcul de la divergence de la vitesse */
+  protected final TimerHandle velocityDivergenceTimer = timer.register("VelocityDivergence");
+
+  /** Timer de la résolution de la pression */
+  protected final TimerHandle pressureSolverTimer = timer.register("PressureSolver");
+
+  /** Timer de l'application des conditions aux frontières */
+  protected final TimerHandle applyBoundaryConditionsTimer =
+      timer.register("ApplyBoundaryConditions");
+
+  /** Timer du calcul du gradient de pression */
+  protected final TimerHandle pressureGradientTimer = timer.register("PressureGradient");
+
+  /** Timer de la soustraction du gradient de pression */
+  protected final TimerHandle substractPressureGradientTimer =
+      timer.register("SubstractPressureGradient");
+
+  /** Timer du calcul du min/max */
+  protected final TimerHandle findMinMaxTimer = timer.register("FindMinMax");
+
+  /** Nombre maximum d'itérations de la méthode de Jacobi */
+  protected volatile int maxJacobiIterations = SimulationConstants.MAX_JACOBI_ITERATIONS;
+
+  /** Différence entre deux itérations sous laquelle la méthode de Jacobi est considérée résolue */
+  protected volatile double maxJacobiDiff = SimulationConstants.MAX_JACOBI_DIFF;
+
+  /** Nombre d'itérations de la méthode de Jacobi lors de la dernière résolution de la pression */
+  private volatile int lastPressureSolverIterations;
+
+  /** Cadenceur de la boucle de simulation */
+  private final StepScheduler stepScheduler = new StepScheduler();
+
+  /** Thread de la boucle de simulation, {@code null} si la simulation n'est pas démarrée */
+  private volatile Thread simulationThread;
+
   /** Piscine de double array de la taille de la matrice */
   protected DoubleMatrixPool matriceArrayPool;
 
+  /**
+   * Si la préparation du rendu d'un pas (min/max et transmission au rendu) est executée en parallèle
+   * du pas suivant lorsque la simulation est en cours d'exécution
+   */
+  private boolean pipelined = SimulationConstants.PIPELINED_EXECUTION;
+
+  /**
+   * Exécuteur de l'étage de préparation du rendu. Son unique thread est libéré lorsqu'il est
+   * inactif.
+   */
+  private final ThreadPoolExecutor renderStageExecutor;
+
+  /** Préparation du rendu en cours d'exécution, {@code null} si aucune */
+  private volatile Future<?> renderStage;
+
+  /**
+   * Dernière matrice de particules dont le min/max a été calculé, qui sert de référence pour la
+   * moyenne mobile du min/max de la matrice suivante
+   */
+  private volatile ParticleMatrix minMaxParticleMatrix;
+
+  /** Objets informés de la fin de chaque pas */
+  private final List<StepListener> stepListeners = new CopyOnWriteArrayList<>();
+
   /**
    * Constructeur de la classe PhysicsEngine
    *
@@ -66,8 +188,20 @@ public class PhysicsEngine implements Runnable, Reinitializable {
    */
   public PhysicsEngine(SimulationData simulationData) {
     this.simulationData = simulationData;
-    this.isRunning = false;
-    this.isCalculating = false;
+
+    renderStageExecutor =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            1,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(),
+            runnable -> {
+              Thread thread = new Thread(runnable, getClass().getSimpleName() + " Render Stage");
+              thread.setDaemon(true);
+              return thread;
+            });
+    renderStageExecutor.allowCoreThreadTimeOut(true);
 
     matriceArrayPool =
         new DoubleMatrixPool(
@@ -100,14 +234,22 @@ public class PhysicsEngine implements Runnable, Reinitializable {
    *
    * @param newSimulationData Les nouvelles données de la simulation
    */
-  public void setSimulationData(SimulationData newSimulationData) {
-    simulationData = newSimulationData;
-
-    if (matriceArrayPool.getSize() != newSimulationData.getCurrentParticleMatrix().getSize())
-      matriceArrayPool =
-          new DoubleMatrixPool(
-              this.simulationData.getCurrentParticleMatrix().getXLength(),
-              this.simulationData.getCurrentParticleMatrix().getYLength());
+  public synchronized void setSimulationData(SimulationData newSimulationData) {
+    acquireCalculation();
+    try {
+      awaitRenderStage();
+      minMaxParticleMatrix = null;
+
+      simulationData = newSimulationData;
+
+      if (matriceArrayPool.getSize() != newSimulationData.getCurrentParticleMatrix().getSize())
+        matriceArrayPool =
+            new DoubleMatrixPool(
+                this.simulationData.getCurrentParticleMatrix().getXLength(),
+                this.simulationData.getCurrentParticleMatrix().getYLength());
+    } finally {
+      signalStepDone();
+    }
   }
 
   /**
@@ -116,7 +258,16 @@ public class PhysicsEngine implements Runnable, Reinitializable {
    * @return Le statut du thread la simulation
    */
   public boolean isRunning() {
-    return isRunning;
+    return state.get() == ENGINE_STATE.RUNNING;
+  }
+
+  /**
+   * Retourne l'état du cycle de vie de la boucle de simulation
+   *
+   * @return L'état de la boucle de simulation
+   */
+  public ENGINE_STATE getState() {
+    return state.get();
   }
 
   /**
@@ -125,7 +276,175 @@ public class PhysicsEngine implements Runnable, Reinitializable {
    * @return Le statut du calcul de la simulation
    */
   public boolean isCalculating() {
-    return isCalculating;
+    return isCalculating.get();
+  }
+
+  /**
+   * Retourne le cadenceur de la boucle de simulation, qui permet de modifier le rythme visé et de
+   * lire le rythme atteint
+   *
+   * @return Le cadenceur de la boucle de simulation
+   */
+  public StepScheduler getStepScheduler() {
+    return stepScheduler;
+  }
+
+  /**
+   * Retourne le timer qui mesure le temps d'exécution des étapes de la simulation
+   *
+   * @return Le timer de la simulation
+   * @see #STEP_STAGES
+   */
+  public Timer getTimer() {
+    return timer;
+  }
+
+  /**
+   * Retourne le nombre maximum d'itérations de la méthode de Jacobi
+   *
+   * @return Le nombre maximum d'itérations
+   */
+  public int getMaxJacobiIterations() {
+    return maxJacobiIterations;
+  }
+
+  /**
+   * Modifie le nombre maximum d'itérations de la méthode de Jacobi
+   *
+   * @param maxJacobiIterations Le nombre maximum d'itérations, doit être positif
+   */
+  public void setMaxJacobiIterations(int maxJacobiIterations) {
+    if (maxJacobiIterations <= 0)
+      throw new IllegalArgumentException("Le nombre d'itérations doit être positif");
+
+    this.maxJacobiIterations = maxJacobiIterations;
+  }
+
+  /**
+   * Retourne le nombre d'itérations de la méthode de Jacobi lors de la dernière résolution de la
+   * pression
+   *
+   * @return Le nombre d'itérations, {@code 0} si aucun pas n'a été effectué
+   */
+  public int getLastPressureSolverIterations() {
+    return lastPressureSolverIterations;
+  }
+
+  /**
+   * Retourne la tolérance de la méthode de Jacobi
+   *
+   * @return La différence maximale entre deux itérations pour que la matrice soit résolue (1 ==
+   *     100%)
+   */
+  public double getMaxJacobiDiff() {
+    return maxJacobiDiff;
+  }
+
+  /**
+   * Modifie la tolérance de la méthode de Jacobi
+   *
+   * @param maxJacobiDiff La différence maximale entre deux itérations pour que la matrice soit
+   *     résolue (1 == 100%), ne doit pas être négative
+   */
+  public void setMaxJacobiDiff(double maxJacobiDiff) {
+    if (maxJacobiDiff < 0) throw new IllegalArgumentException("La tolérance doit être positive");
+
+    this.maxJacobiDiff = maxJacobiDiff;
+  }
+
+  /**
+   * Retourne si la préparation du rendu est pipelinée avec le pas suivant
+   *
+   * @return {@code true} si la préparation du rendu est pipelinée lorsque la simulation tourne
+   */
+  public boolean isPipelined() {
+    return pipelined;
+  }
+
+  /**
+   * Active ou désactive la préparation du rendu en parallèle du pas suivant. N'a d'effet que
+   * lorsque la simulation tourne, un pas effectué avec {@link #update(double)} hors de la boucle
+   * de simulation est toujours séquentiel.
+   *
+   * @param pipelined {@code true} pour pipeliner la préparation du rendu
+   */
+  public void setPipelined(boolean pipelined) {
+    this.pipelined = pipelined;
+  }
+
+  /**
+   * Ajoute un objet informé de la fin de chaque pas
+   *
+   * @param listener L'objet à informer
+   */
+  public void addStepListener(StepListener listener) {
+    stepListeners.add(listener);
+  }
+
+  /**
+   * Retire un objet informé de la fin de chaque pas
+   *
+   * @param listener L'objet à retirer
+   */
+  public void removeStepListener(StepListener listener) {
+    stepListeners.remove(listener);
+  }
+
+  /**
+   * Écrit un point de reprise de l'état complet de la simulation. Attend la fin du pas en cours,
+   * sauf si l'appel est fait par le thread qui effectue le pas, par exemple depuis un {@link
+   * StepListener}. La préparation du rendu pipelinée est terminée avant l'écriture, afin que les
+   * min/max des deux matrices soient complets.
+   *
+   * @param file Le fichier du point de reprise, remplacé s'il existe
+   * @throws IOException En cas d'erreur d'écriture
+   */
+  public void writeCheckpoint(Path file) throws IOException {
+    if (Thread.currentThread() == calculatingThread) {
+      flushRenderStage();
+      SimulationCheckpoint.write(file, simulationData, currentIteration, currentTime);
+      return;
+    }
+
+    acquireCalculation();
+    try {
+      flushRenderStage();
+      SimulationCheckpoint.write(file, simulationData, currentIteration, currentTime);
+    } finally {
+      signalStepDone();
+    }
+  }
+
+  /**
+   * Restaure l'état complet de la simulation à partir d'un point de reprise de même résolution. La
+   * simulation est arrêtée pendant la restauration, puis redémarrée si elle tournait.
+   *
+   * @param checkpoint Le point de reprise
+   * @throws IOException En cas d'erreur de lecture
+   * @throws IllegalArgumentException Si la résolution ne correspond pas au point de reprise
+   */
+  public synchronized void restoreCheckpoint(SimulationCheckpoint checkpoint) throws IOException {
+    boolean isRunning = this.isRunning();
+    if (isRunning) stop();
+
+    acquireCalculation();
+    try {
+      awaitRenderStage();
+      minMaxParticleMatrix = null;
+
+      checkpoint.restore(simulationData);
+      currentTime = checkpoint.getTime();
+      currentIteration = checkpoint.getIteration();
+    } finally {
+      signalStepDone();
+    }
+
+    if (isRunning) start();
+
+    PhysicsEngine.LOGGER.info(
+        LocaleManager.getLocaleResourceBundle().getString("log.physicsEngine.checkpointRestored"),
+        checkpoint.getFile(),
+        checkpoint.getIteration());
   }
 
   /**
@@ -134,10 +453,96 @@ public class PhysicsEngine implements Runnable, Reinitializable {
    * @param deltaTime Le temps écoulé depuis la dernière mise à jour
    */
   public void update(double deltaTime) {
-    if (isCalculating) return;
-    isCalculating = true;
+    if (!isCalculating.compareAndSet(false, true)) return;
+    calculatingThread = Thread.currentThread();
+
+    SimulationStepEvent event = new SimulationStepEvent();
+    event.begin();
+
+    double time;
+    try {
+      time = step(deltaTime);
+
+      for (StepListener listener : stepListeners) listener.stepCompleted(this, currentIteration);
+    } finally {
+      signalStepDone();
+    }
+
+    event.end();
+    if (event.shouldCommit()) commitStepEvent(event, deltaTime);
+
+    if (!isRunning()) {
+      PhysicsEngine.LOGGER.info(
+          LocaleManager.getLocaleResourceBundle().getString("log.physicsEngine.updated"),
+          String.format("%.3f", time));
+
+      // Vérifie si la simulation est instable
+      checkCFL();
+
+      return;
+    }
 
-    this.timer.start("Update");
+    if (this.currentIteration % SimulationConstants.CFL_CHECK_FREQUENCY != 0) return;
+
+    // Affiche le temps d'execution toutes les CFL_CHECK_FREQUENCY itérations
+    PhysicsEngine.LOGGER.info(
+        LocaleManager.getLocaleResourceBundle().getString("log.physicsEngine.updatedOnAvrage"),
+        String.format("%.3f", stepTimer.getMeanMillis()));
+
+    if (stepScheduler.getAchievedStepsPerSecond() > 0)
+      PhysicsEngine.LOGGER.info(
+          LocaleManager.getLocaleResourceBundle().getString("log.physicsEngine.pacing"),
+          String.format("%.2f", stepScheduler.getAchievedStepsPerSecond()),
+          String.format("%.2f", stepScheduler.getTargetStepsPerSecond(deltaTime)),
+          String.format("%.3f", stepScheduler.getAchievedTimeScale()),
+          stepScheduler.getMode());
+
+    // Vérifie si la simulation est instable
+    checkCFL();
+  }
+
+  /**
+   * Effectue un pas de simulation de {@link SimulationData#getTimeStep()} et retourne la matrice
+   * produite au pool, puisqu'aucun rendu ne la consomme
+   */
+  public void updateWithoutRender() {
+    update(simulationData.getTimeStep());
+    simulationData.returnParticleMatrixToPool(simulationData.pollRenderParticleMatrix());
+  }
+
+  /**
+   * Remplit et enregistre l'événement JFR d'un pas de simulation. N'est appelé que si un
+   * enregistrement JFR est en cours, le calcul du nombre de courant n'est donc fait que dans ce cas.
+   *
+   * @param event L'événement du pas qui vient d'être effectué
+   * @param deltaTime Le pas de temps du pas
+   */
+  private void commitStepEvent(SimulationStepEvent event, double deltaTime) {
+    event.iteration = currentIteration;
+    event.deltaTime = deltaTime;
+    event.advection = advectionTimer.getLastNanos();
+    event.vorticityConfinement = vorticityConfinementTimer.getLastNanos();
+    event.diffusion = diffusionTimer.getLastNanos();
+    event.addForce = addForceTimer.getLastNanos();
+    event.velocityDivergence = velocityDivergenceTimer.getLastNanos();
+    event.pressureSolver = pressureSolverTimer.getLastNanos();
+    event.pressureGradient = pressureGradientTimer.getLastNanos();
+    event.substractPressureGradient = substractPressureGradientTimer.getLastNanos();
+    event.findMinMax = findMinMaxTimer.getLastNanos();
+    event.solverIterations = lastPressureSolverIterations;
+    event.cfl = calculateCFL();
+    event.commit();
+  }
+
+  /**
+   * Effectue un pas de simulation. Ne doit être appelé que par le thread qui a acquis le statut de
+   * calcul.
+   *
+   * @param deltaTime Le temps écoulé depuis la dernière mise à jour
+   * @return Le temps d'execution du pas (ms)
+   */
+  private double step(double deltaTime) {
+    long stepStart = stepTimer.start();
 
     currentTime += deltaTime;
     currentIteration++;
@@ -149,77 +554,100 @@ public class PhysicsEngine implements Runnable, Reinitializable {
     if (this.currentIteration == 1)
       simulationData.setPreviousParticleMatrix(simulationData.getCurrentParticleMatrix());
 
-    this.timer.start("Advection");
+    long advectionStart = advectionTimer.start();
     advect(deltaTime);
-    this.timer.stop("Advection");
+    advectionTimer.stop(advectionStart);
 
-    this.timer.start("VorticityConfinement");
+    // Après l'advection, la matrice précédente n'est plus modifiée, sa préparation au rendu peut
+    // donc se faire pendant le reste du pas
+    boolean pipelineStep = pipelined && isRunning();
+    if (pipelineStep)
+      submitRenderStage(simulationData.getPreviousParticleMatrix(), currentIteration - 1);
+
+    long vorticityConfinementStart = vorticityConfinementTimer.start();
     vorticityConfinement();
-    this.timer.stop("VorticityConfinement");
+    vorticityConfinementTimer.stop(vorticityConfinementStart);
 
-    this.timer.start("Diffusion");
+    long diffusionStart = diffusionTimer.start();
     diffusion(deltaTime);
-    this.timer.stop("Diffusion");
+    diffusionTimer.stop(diffusionStart);
 
-    this.timer.start("AddForce");
+    long addForceStart = addForceTimer.start();
     addForce(0, 0);
-    this.timer.stop("AddForce");
+    addForceTimer.stop(addForceStart);
 
     // Début projection
 
-    this.timer.start("VelocityDivergence");
+    long velocityDivergenceStart = velocityDivergenceTimer.start();
     velocityDivergence();
-    this.timer.stop("VelocityDivergence");
+    velocityDivergenceTimer.stop(velocityDivergenceStart);
 
-    this.timer.start("PressureSolver");
+    long pressureSolverStart = pressureSolverTimer.start();
     pressureSolver();
-    this.timer.stop("PressureSolver");
+    pressureSolverTimer.stop(pressureSolverStart);
 
-    this.timer.start("PressureGradient");
+    long pressureGradientStart = pressureGradientTimer.start();
     pressureGradient();
-    this.timer.stop("PressureGradient");
+    pressureGradientTimer.stop(pressureGradientStart);
 
-    this.timer.start("SubstractPressureGradient");
+    long substractPressureGradientStart = substractPressureGradientTimer.start();
     substractPressureGradient();
-    this.timer.stop("SubstractPressureGradient");
+    substractPressureGradientTimer.stop(substractPressureGradientStart);
 
     // Fin projection
 
-    this.timer.start("FindMinMax");
-    findMinMax();
-    this.timer.stop("FindMinMax");
+    if (pipelineStep) {
+      // La matrice actuelle sera préparée pendant le prochain pas
+      simulationData.setPreviousParticleMatrix(simulationData.getCurrentParticleMatrix());
+    } else {
+      // Si le pas précédent était pipeliné, sa matrice n'a pas encore été préparée
+      catchUpRenderStage();
 
-    // Publie le rendue finit
-    simulationData.setNewRenderMatrix();
+      long findMinMaxStart = findMinMaxTimer.start();
+      findMinMax();
+      findMinMaxTimer.stop(findMinMaxStart);
 
-    if (this.simulationModel != null) {
-      simulationModel.getController().getRendererModel().newFrameReady();
-      simulationModel.getPublisher().publish(Subject.ON_RENDERING_DONE, null);
+      // Publie le rendue finit
+      simulationData.setNewRenderMatrix();
+      publishNewFrame();
     }
 
-    double time = timer.stop("Update");
-
-    isCalculating = false;
-
-    if (!isRunning) {
-      PhysicsEngine.LOGGER.info(
-          LocaleManager.getLocaleResourceBundle().getString("log.physicsEngine.updated"), time);
-
-      // Vérifie si la simulation est instable
-      checkCFL();
+    return stepTimer.stop(stepStart) / 1_000_000.0;
+  }
 
-      return;
+  /**
+   * Attend la fin du pas en cours puis acquiert le statut de calcul, de sorte qu'aucun pas ne peut
+   * être effectué avant l'appel de {@link #signalStepDone()}
+   */
+  private void acquireCalculation() {
+    boolean interrupted = false;
+    stepLock.lock();
+    try {
+      while (!isCalculating.compareAndSet(false, true)) {
+        try {
+          stepDone.await();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      calculatingThread = Thread.currentThread();
+    } finally {
+      stepLock.unlock();
     }
 
-    if (this.currentIteration % SimulationConstants.CFL_CHECK_FREQUENCY != 0) return;
-
-    // Affiche le temps d'execution toutes les CFL_CHECK_FREQUENCY itérations
-    PhysicsEngine.LOGGER.info(
-        LocaleManager.getLocaleResourceBundle().getString("log.physicsEngine.updatedOnAvrage"),
-        this.timer.getAverage("Update"));
+    if (interrupted) Thread.currentThread().interrupt();
+  }
 
-    // Vérifie si la simulation est instable
-    checkCFL();
+  /** Libère le statut de calcul et réveille les threads qui attendent la fin du pas */
+  private void signalStepDone() {
+    stepLock.lock();
+    try {
+      calculatingThread = null;
+      isCalculating.set(false);
+      stepDone.signalAll();
+    } finally {
+      stepLock.unlock();
+    }
   }
 
   /**
@@ -229,22 +657,22 @@ public class PhysicsEngine implements Runnable, Reinitializable {
    */
   @Override
   public void run() {
-    while (isRunning) {
+    stepScheduler.reset();
+
+    while (isRunning() && !Thread.currentThread().isInterrupted()) {
+      double deltaTime = simulationData.getTimeStep();
 
       // Mise à jour de la simulation
-      update(simulationData.getTimeStep());
+      update(deltaTime);
 
-      try {
-        Thread.sleep((int) (this.simulationData.getSleepTime()));
-      } catch (InterruptedException e) {
-        e.printStackTrace();
-      }
+      // Attente jusqu'à l'échéance du prochain pas
+      stepScheduler.awaitNextStep(deltaTime, simulationData.getSleepTime(), this::isRunning);
     }
   }
 
   /** Démarrer une boucle de simulation */
-  public void start() {
-    if (isRunning) {
+  public synchronized void start() {
+    if (!state.compareAndSet(ENGINE_STATE.STOPPED, ENGINE_STATE.RUNNING)) {
       PhysicsEngine.LOGGER.warn(
           LocaleManager.getLocaleResourceBundle().getString("log.physicsEngine.alreadyRunning"));
       return;
@@ -253,34 +681,211 @@ public class PhysicsEngine implements Runnable, Reinitializable {
     Thread proc = new Thread(this);
     proc.setName(getClass().getSimpleName() + " Thread");
     proc.setPriority(7);
+    simulationThread = proc;
     proc.start();
-    isRunning = true;
 
     PhysicsEngine.LOGGER.info(
         LocaleManager.getLocaleResourceBundle().getString("log.physicsEngine.started"));
   }
 
-  /** Arrêter la boucle de simulation */
-  public void stop() {
-    if (!this.isRunning) {
+  /**
+   * Arrêter la boucle de simulation. Le thread de la simulation est réveillé ({@link
+   * LockSupport#unpark(Thread)}) s'il attend le prochain pas, sans être interrompu afin de ne pas
+   * perturber les écritures des {@link StepListener}, et la méthode ne retourne qu'une fois la
+   * boucle terminée, de sorte qu'un {@link #start()} subséquent ne peut pas créer une seconde
+   * boucle.
+   */
+  public synchronized void stop() {
+    if (!state.compareAndSet(ENGINE_STATE.RUNNING, ENGINE_STATE.STOPPING)) {
       PhysicsEngine.LOGGER.warn(
           LocaleManager.getLocaleResourceBundle().getString("log.physicsEngine.alreadyStopped"));
       return;
     }
 
-    isRunning = false;
+    Thread thread = simulationThread;
+    simulationThread = null;
+    if (thread != null && thread != Thread.currentThread()) {
+      LockSupport.unpark(thread);
+      joinUninterruptibly(thread);
+    }
 
     waitForCalculation();
+    flushRenderStage();
+
+    state.set(ENGINE_STATE.STOPPED);
 
     PhysicsEngine.LOGGER.info(
         LocaleManager.getLocaleResourceBundle().getString("log.physicsEngine.stopped"));
   }
 
-  /** Bloque le thread jusqu'à ce que le calcule soit fini */
+  /**
+   * Soumet la préparation au rendu d'une matrice de particules à l'étage de rendu. Attend la fin de
+   * la préparation précédente, de sorte qu'au plus une matrice est préparée pendant qu'une autre
+   * est simulée.
+   *
+   * @param particleMatrix La matrice de particules à préparer, qui ne doit plus être modifiée
+   * @param iteration L'itération de la matrice de particules
+   */
+  private void submitRenderStage(ParticleMatrix particleMatrix, int iteration) {
+    awaitRenderStage();
+
+    renderStage = renderStageExecutor.submit(() -> prepareRender(particleMatrix, iteration));
+  }
+
+  /**
+   * Calcule le min/max d'une matrice de particules, si nécessaire, puis la transmet au rendu
+   *
+   * @param particleMatrix La matrice de particules à préparer
+   * @param iteration L'itération de la matrice de particules
+   */
+  private void prepareRender(ParticleMatrix particleMatrix, int iteration) {
+    if (particleMatrix != minMaxParticleMatrix) {
+      // La matrice initiale n'a pas de min/max, elle sert seulement de référence
+      if (iteration > 0) {
+        long findMinMaxStart = findMinMaxTimer.start();
+        findMinMax(particleMatrix, getMinMaxReference(particleMatrix), iteration);
+        findMinMaxTimer.stop(findMinMaxStart);
+      }
+
+      minMaxParticleMatrix = particleMatrix;
+    }
+
+    simulationData.addRenderParticleMatrix(particleMatrix);
+    publishNewFrame();
+  }
+
+  /**
+   * Bloque le thread jusqu'à ce que la préparation du rendu en cours soit finie. L'attente n'est pas
+   * interrompue, afin que deux préparations ne se chevauchent jamais, mais le statut
+   * d'interruption du thread est restauré. Si la préparation a échoué, le min/max est oublié pour
+   * être calculé à nouveau par {@link #catchUpRenderStage()}.
+   */
+  private void awaitRenderStage() {
+    Future<?> stage = renderStage;
+    if (stage == null) return;
+
+    boolean interrupted = false;
+    while (true) {
+      try {
+        stage.get();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      } catch (ExecutionException e) {
+        PhysicsEngine.LOGGER.error(
+            LocaleManager.getLocaleResourceBundle()
+                .getString("log.physicsEngine.renderStageFailed"),
+            e.getCause());
+        minMaxParticleMatrix = null;
+        break;
+      }
+    }
+
+    renderStage = null;
+    if (interrupted) Thread.currentThread().interrupt();
+  }
+
+  /**
+   * Termine la préparation du rendu en cours et calcule le min/max de la matrice précédente si elle
+   * n'a pas été préparée, ce qui arrive lorsque le pas précédent était pipeliné. La matrice
+   * précédente sert alors de référence au min/max de la matrice actuelle.
+   */
+  private void catchUpRenderStage() {
+    awaitRenderStage();
+
+    ParticleMatrix particleMatrix = simulationData.getPreviousParticleMatrix();
+    if (currentIteration <= 1 || particleMatrix == minMaxParticleMatrix) return;
+
+    findMinMax(particleMatrix, getMinMaxReference(particleMatrix), currentIteration - 1);
+    minMaxParticleMatrix = particleMatrix;
+  }
+
+  /**
+   * Termine la préparation du rendu en cours et calcule le min/max de la matrice actuelle, de sorte
+   * que l'état soit le même qu'après un pas séquentiel
+   */
+  private void flushRenderStage() {
+    awaitRenderStage();
+
+    ParticleMatrix particleMatrix = simulationData.getCurrentParticleMatrix();
+    if (currentIteration == 0 || particleMatrix == minMaxParticleMatrix) return;
+
+    findMinMax(particleMatrix, getMinMaxReference(particleMatrix), currentIteration);
+    minMaxParticleMatrix = particleMatrix;
+  }
+
+  /**
+   * Retourne la matrice de référence pour la moyenne mobile du min/max
+   *
+   * @param particleMatrix La matrice dont le min/max sera calculé
+   * @return La dernière matrice dont le min/max a été calculé, ou {@code particleMatrix} si aucune
+   */
+  private ParticleMatrix getMinMaxReference(ParticleMatrix particleMatrix) {
+    ParticleMatrix reference = minMaxParticleMatrix;
+    return reference != null ? reference : particleMatrix;
+  }
+
+  /**
+   * Retourne la matrice de particules la plus récente dont le min/max est calculé
+   *
+   * @return La matrice de particules dont le min/max est à jour
+   */
+  private ParticleMatrix getMinMaxParticleMatrix() {
+    ParticleMatrix particleMatrix = minMaxParticleMatrix;
+    return particleMatrix != null ? particleMatrix : simulationData.getCurrentParticleMatrix();
+  }
+
+  /** Informe le rendu qu'une nouvelle matrice de particules est prête à être dessinée */
+  private void publishNewFrame() {
+    if (this.simulationModel == null) return;
+
+    simulationModel.getController().getRendererModel().newFrameReady();
+    simulationModel.getPublisher().publish(Subject.ON_RENDERING_DONE, null);
+  }
+
+  /**
+   * Bloque le thread jusqu'à ce que le calcule soit fini. Le thread est suspendu sur une {@link
+   * Condition} signalée à la fin du pas, il n'occupe donc pas de processeur pendant l'attente.
+   * L'appel est sans effet depuis le thread qui effectue le calcul.
+   */
   public void waitForCalculation() {
-    while (isCalculating) {
-      Thread.yield();
+    if (Thread.currentThread() == calculatingThread) return;
+
+    boolean interrupted = false;
+    stepLock.lock();
+    try {
+      while (isCalculating.get()) {
+        try {
+          stepDone.await();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    } finally {
+      stepLock.unlock();
     }
+
+    if (interrupted) Thread.currentThread().interrupt();
+  }
+
+  /**
+   * Attend la fin d'un thread sans être interrompu. Le statut d'interruption du thread appelant est
+   * restauré une fois l'attente terminée.
+   *
+   * @param thread Le thread à attendre
+   */
+  private static void joinUninterruptibly(Thread thread) {
+    boolean interrupted = false;
+    while (true) {
+      try {
+        thread.join();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+
+    if (interrupted) Thread.currentThread().interrupt();
   }
 
   /**
@@ -308,8 +913,8 @@ public class PhysicsEngine implements Runnable, Reinitializable {
    * @see <a href="https://www.simscale.com/blog/cfl-condition/">CFL condition</a>
    */
   public double calculateCFL() {
-    double maxXVelocity = simulationData.getCurrentParticleMatrix().getXVelocityMinMax()[1];
-    double maxYVelocity = simulationData.getCurrentParticleMatrix().getYVelocityMinMax()[1];
+    double maxXVelocity = getMinMaxParticleMatrix().getXVelocityMinMax()[1];
+    double maxYVelocity = getMinMaxParticleMatrix().getYVelocityMinMax()[1];
 
     if (WMath.nearlyZero(maxXVelocity)
         || WMath.nearlyZero(
@@ -334,8 +939,8 @@ public class PhysicsEngine implements Runnable, Reinitializable {
    * @see <a href="https://www.simscale.com/blog/cfl-condition/">CFL condition</a>
    */
   public void checkCFL() {
-    double maxXVelocity = simulationData.getCurrentParticleMatrix().getXVelocityMinMax()[1];
-    double maxYVelocity = simulationData.getCurrentParticleMatrix().getYVelocityMinMax()[1];
+    double maxXVelocity = getMinMaxParticleMatrix().getXVelocityMinMax()[1];
+    double maxYVelocity = getMinMaxParticleMatrix().getYVelocityMinMax()[1];
 
     // On ignore le yPixelByMeter car il est toujours égal à xPixelByMeter
     double xMeterByPixel = simulationData.xMeterByPixel();
@@ -526,8 +1131,9 @@ public class PhysicsEngine implements Runnable, Reinitializable {
    * @param alpha le coefficient alpha
    * @param rBeta la reciproque du coefficient beta (1/beta )
    * @param b la matrice b (matrice doit être de la même taille que x)
+   * @return Le nombre d'itérations effectuées
    */
-  protected void jacobiSolver(
+  protected int jacobiSolver(
       WDoubleMatrix x, int xLength, int yLength, double alpha, double rBeta, WDoubleMatrix b) {
 
     int size = x.getSize();
@@ -542,7 +1148,9 @@ public class PhysicsEngine implements Runnable, Reinitializable {
     WDoubleMatrix xNewMatrix = matriceArrayPool.borrowObject();
     double[] xNew = xNewMatrix.getMatrix();
 
-    for (int iter = 0; iter < SimulationConstants.MAX_JACOBI_ITERATIONS; iter++) {
+    int iter = 0;
+    while (iter < maxJacobiIterations) {
+      iter++;
 
       applyBoundaryConditions();
 
@@ -582,11 +1190,13 @@ public class PhysicsEngine implements Runnable, Reinitializable {
       System.arraycopy(xNew, 0, x.getMatrix(), 0, size);
 
       // On verifie si la difference entre deux itérations est inférieur à maxDif
-      if (curentDiff < SimulationConstants.MAX_JACOBI_DIFF) break;
+      if (curentDiff < maxJacobiDiff) break;
     }
 
     // On retourne la matrice x_new a la piscine
     matriceArrayPool.returnObject(xNewMatrix);
+
+    return iter;
   }
 
   /**
@@ -594,7 +1204,7 @@ public class PhysicsEngine implements Runnable, Reinitializable {
    *
    * @param timeStep Le pas de la simulation (en ms)
    */
-  private void diffusion(double timeStep) {
+  protected void diffusion(double timeStep) {
     ParticleMatrix particleMatrix = simulationData.getCurrentParticleMatrix();
 
     int xLength = particleMatrix.getXLength();
@@ -624,7 +1234,7 @@ public class PhysicsEngine implements Runnable, Reinitializable {
   }
 
   /** Calcule la divergence de la matrice de vélocité */
-  private void velocityDivergence() {
+  protected void velocityDivergence() {
     ParticleMatrix particleMatrix = simulationData.getCurrentParticleMatrix();
 
     int xLength = particleMatrix.getXLength();
@@ -662,7 +1272,7 @@ public class PhysicsEngine implements Runnable, Reinitializable {
    *
    * <p>p_{i,j}=\frac{ p_{i+1,j} + p_{i-1,j} + p_{i,j+1} + p_{i,j-1} - 4p_{i,j}}{(\delta x)^2}
    */
-  private void pressureSolver() {
+  protected void pressureSolver() {
     ParticleMatrix particleMatrix = simulationData.getCurrentParticleMatrix();
 
     int xLength = particleMatrix.getXLength();
@@ -677,11 +1287,12 @@ public class PhysicsEngine implements Runnable, Reinitializable {
     // particleMatrix.pressure = new double[xLength * yLength]; // Plus rapide sans
 
     // On résout l'équation de poisson pour la pression
-    jacobiSolver(pressure, xLength, yLength, alpha, rBeta, velocityDivergence);
+    lastPressureSolverIterations =
+        jacobiSolver(pressure, xLength, yLength, alpha, rBeta, velocityDivergence);
   }
 
   /** Calcule le gradient de la matrice de pression */
-  private void pressureGradient() {
+  protected void pressureGradient() {
     ParticleMatrix particleMatrix = simulationData.getCurrentParticleMatrix();
 
     int xLength = particleMatrix.getXLength();
@@ -717,7 +1328,7 @@ public class PhysicsEngine implements Runnable, Reinitializable {
   }
 
   /** Soustrait le gradient de pression a la vélocité */
-  private void substractPressureGradient() {
+  protected void substractPressureGradient() {
     ParticleMatrix particleMatrix = simulationData.getCurrentParticleMatrix();
 
     double[] xVelocity = particleMatrix.getXVelocity().getMatrix();
@@ -746,7 +1357,7 @@ public class PhysicsEngine implements Runnable, Reinitializable {
    * @param xForce La force en x
    * @param yForce La force en y
    */
-  private void addForce(double xForce, double yForce) {
+  protected void addForce(double xForce, double yForce) {
     if (xForce == 0 && yForce == 0) return;
 
     ParticleMatrix particleMatrix = simulationData.getCurrentParticleMatrix();
@@ -822,8 +1433,21 @@ public class PhysicsEngine implements Runnable, Reinitializable {
   /** Calcule le minimum et le maximum de la matrice de particules */
   public void findMinMax() {
     ParticleMatrix particleMatrix = simulationData.getCurrentParticleMatrix();
-    ParticleMatrix previousMatrix = simulationData.getPreviousParticleMatrix();
 
+    findMinMax(particleMatrix, simulationData.getPreviousParticleMatrix(), currentIteration);
+    minMaxParticleMatrix = particleMatrix;
+  }
+
+  /**
+   * Calcule le minimum et le maximum d'une matrice de particules
+   *
+   * @param particleMatrix La matrice de particules
+   * @param previousMatrix La matrice de particules précédente, dont les min/max servent à la
+   *     moyenne mobile
+   * @param iteration L'itération de la matrice de particules
+   */
+  protected void findMinMax(
+      ParticleMatrix particleMatrix, ParticleMatrix previousMatrix, int iteration) {
     // On récupère les valeurs min et max de la matrice précédente
     particleMatrix.setMinMax(previousMatrix);
 
@@ -895,15 +1519,15 @@ public class PhysicsEngine implements Runnable, Reinitializable {
       pressureYGradMax = Math.max(pressureYGradMax, yPressureGradient[pos]);
     }
 
-    particleMatrix.setXVelocityMinMax(velXmin, velXmax, currentIteration);
-    particleMatrix.setYVelocityMinMax(velYmin, velYmax, currentIteration);
-    particleMatrix.setVelocityMinMax(velMin, velMax, currentIteration);
-    particleMatrix.setTemperatureMinMax(tempMin, tempMax, currentIteration);
-    particleMatrix.setVelocityCurlMinMax(velCurlMin, velCurlMax, currentIteration);
-    particleMatrix.setPressureMinMax(presMin, presMax, currentIteration);
-    particleMatrix.setVelocityDivergenceMinMax(velDivMin, velDivMax, currentIteration);
-    particleMatrix.setXPressureGradientMinMax(pressureXGradMin, pressureXGradMax, currentIteration);
-    particleMatrix.setYPressureGradientMinMax(pressureYGradMin, pressureYGradMax, currentIteration);
+    particleMatrix.setXVelocityMinMax(velXmin, velXmax, iteration);
+    particleMatrix.setYVelocityMinMax(velYmin, velYmax, iteration);
+    particleMatrix.setVelocityMinMax(velMin, velMax, iteration);
+    particleMatrix.setTemperatureMinMax(tempMin, tempMax, iteration);
+    particleMatrix.setVelocityCurlMinMax(velCurlMin, velCurlMax, iteration);
+    particleMatrix.setPressureMinMax(presMin, presMax, iteration);
+    particleMatrix.setVelocityDivergenceMinMax(velDivMin, velDivMax, iteration);
+    particleMatrix.setXPressureGradientMinMax(pressureXGradMin, pressureXGradMax, iteration);
+    particleMatrix.setYPressureGradientMinMax(pressureYGradMin, pressureYGradMax, iteration);
   }
 
   /**
@@ -948,7 +1572,7 @@ public class PhysicsEngine implements Runnable, Reinitializable {
 
   /** Applique les conditions sur les frontière (obstacles et bordures) */
   protected void applyBoundaryConditions() {
-    timer.start("ApplyBoundaryConditions");
+    long applyBoundaryConditionsStart = applyBoundaryConditionsTimer.start();
 
     ParticleMatrix particleMatrix = simulationData.getCurrentParticleMatrix();
     int xLength = particleMatrix.getXLength();
@@ -1040,7 +1664,7 @@ public class PhysicsEngine implements Runnable, Reinitializable {
       }
     }
 
-    timer.stop("ApplyBoundaryConditions");
+    applyBoundaryConditionsTimer.stop(applyBoundaryConditionsStart);
   }
 
   /**
@@ -1048,72 +1672,53 @@ public class PhysicsEngine implements Runnable, Reinitializable {
    *
    * @return Le temp d'execution moyen (en ms)
    */
-  public long getAverageStepExecutionTime() {
-    long advectionAverage = timer.getAverage("Advection");
-    long vortexConfinementAverage = timer.getAverage("VorticityConfinement");
-    long diffusionAverage = timer.getAverage("Diffusion");
-    long velocityDivergenceAverage = timer.getAverage("VelocityDivergence");
-    long pressureSolverAverage = timer.getAverage("PressureSolver");
-    long pressureGradientAverage = timer.getAverage("PressureGradient");
-    long substractPressureGradientAverage = timer.getAverage("SubstractPressureGradient");
-    long addForceAverage = timer.getAverage("AddForce");
-    return advectionAverage
-        + vortexConfinementAverage
-        + diffusionAverage
-        + velocityDivergenceAverage
-        + pressureSolverAverage
-        + pressureGradientAverage
-        + substractPressureGradientAverage
-        + addForceAverage;
+  public double getAverageStepExecutionTime() {
+    return advectionTimer.getMeanMillis()
+        + vorticityConfinementTimer.getMeanMillis()
+        + diffusionTimer.getMeanMillis()
+        + velocityDivergenceTimer.getMeanMillis()
+        + pressureSolverTimer.getMeanMillis()
+        + pressureGradientTimer.getMeanMillis()
+        + substractPressureGradientTimer.getMeanMillis()
+        + addForceTimer.getMeanMillis();
   }
 
-  /** Afficher la moyenne de temps d'execution de la simulation */
+  /** Afficher le temps d'execution de chaque étape de la simulation (moyenne et percentiles) */
   public void printAverageTime() {
-    long advectionAverage = timer.getAverage("Advection");
-    long vortexConfinementAverage = timer.getAverage("VorticityConfinement");
-    long diffusionAverage = timer.getAverage("Diffusion");
-    long velocityDivergenceAverage = timer.getAverage("VelocityDivergence");
-    long pressureSolverAverage = timer.getAverage("PressureSolver");
-    long pressureGradientAverage = timer.getAverage("PressureGradient");
-    long substractPressureGradientAverage = timer.getAverage("SubstractPressureGradient");
-    long addForceAverage = timer.getAverage("AddForce");
-    long applyBoundaryConditionsAverage = timer.getAverage("ApplyBoundaryConditions");
-    long totalAverage =
-        advectionAverage
-            + vortexConfinementAverage
-            + diffusionAverage
-            + velocityDivergenceAverage
-            + pressureSolverAverage
-            + pressureGradientAverage
-            + substractPressureGradientAverage
-            + addForceAverage;
-
     System.out.println(
-        "Moyenne de temps d'execution de la simulation (" + getClass().getSimpleName() + ")");
-
-    System.out.println("Advection : " + advectionAverage + " ms");
-    System.out.println("VorticityConfinement : " + vortexConfinementAverage + " ms");
-    System.out.println("Diffusion : " + diffusionAverage + " ms");
-    System.out.println("AddForce : " + addForceAverage + " ms");
-    System.out.println("VelocityDivergence : " + velocityDivergenceAverage + " ms");
-    System.out.println("PressureSolver : " + pressureSolverAverage + " ms");
-    System.out.println("PressureGradient : " + pressureGradientAverage + " ms");
-    System.out.println("SubstractPressureGradient : " + substractPressureGradientAverage + " ms");
-    System.out.println("ApplyBoundaryConditions : " + applyBoundaryConditionsAverage + " ms");
-    System.out.println("Total : " + totalAverage + " ms");
+        "Temps d'execution de la simulation (" + getClass().getSimpleName() + ")");
+
+    for (TimerHandle handle : timer.getHandles())
+      System.out.println(
+          String.format(
+              "%s : %.3f ms (p50 %.3f ms, p95 %.3f ms, p99 %.3f ms, max %.3f ms)",
+              handle.getName(),
+              handle.getMeanMillis(),
+              handle.getPercentileMillis(50),
+              handle.getPercentileMillis(95),
+              handle.getPercentileMillis(99),
+              handle.getMaxMillis()));
   }
 
   /** {@inheritDoc} */
   @Override
-  public void reinitialize() {
+  public synchronized void reinitialize() {
     boolean isRunning = this.isRunning();
     if (isRunning) stop();
-    else waitForCalculation();
 
-    simulationData.resetParticleMatrix();
-    currentTime = 0;
-    currentIteration = 0;
-    timer.reinitialize();
+    // Empêche un pas effectué par un autre thread pendant la réinitialisation
+    acquireCalculation();
+    try {
+      awaitRenderStage();
+      minMaxParticleMatrix = null;
+
+      simulationData.resetParticleMatrix();
+      currentTime = 0;
+      currentIteration = 0;
+      timer.reinitialize();
+    } finally {
+      signalStepDone();
+    }
 
     if (isRunning) start();
 
@@ -10,6 +10,7 @@ import com.e24.wolke.backend.simulation.physics.ParticleMatrix;
 import com.e24.wolke.backend.simulation.physics.SimulationData;
 import com.e24.wolke.utils.math.WDoubleMatrix;
 import com.e24.wolke.utils.math.WMath;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.RecursiveTask;
 import org.apache.logging.log4j.LogManager;
@@ -25,6 +26,11 @@ import org.apache.logging.log4j.Logger;
  * Simulation on the GPU (<a
  * href="https://fileadmin.cs.lth.se/cs/Education/EDAN35/projects/13SoderlingStrandberg_Fluid.pdf">...</a>)
  *
+ * <p>En mode déterministe (voir {@link #setDeterministic(boolean)}), les matrices sont toujours
+ * divisées aux mêmes positions et aucune étape ne lit une valeur modifiée par une autre tâche du
+ * même passage. Le contenu des matrices de particules est alors identique d'une exécution à
+ * l'autre, quel que soit le nombre de threads.
+ *
  * @author Nilon123456789
  */
 public class PhysicsEngineMultiThreaded extends PhysicsEngine {
@@ -33,6 +39,18 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
   protected static final Logger LOGGER =
       LogManager.getLogger(PhysicsEngineMultiThreaded.class.getSimpleName());
 
+  /** Taille des sous-tâches en mode déterministe, indépendante de la machine */
+  public static final int DETERMINISTIC_SUBTASK_THRESHOLD = 2048;
+
+  /** Taille sous laquelle une tâche n'est plus divisée en sous-tâches */
+  private volatile int subtaskThreshold = ApplicationConstants.SUBTASK_THRESHOLD;
+
+  /** Le pool de threads qui exécute les tâches */
+  private volatile ForkJoinPool forkJoinPool = ApplicationConstants.FORK_JOIN_POOL;
+
+  /** Si les résultats doivent être identiques quel que soit le nombre de threads */
+  private volatile boolean deterministic = SimulationConstants.DETERMINISTIC_EXECUTION;
+
   /**
    * Constructeur de la classe PhysicsEngine
    *
@@ -51,6 +69,79 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
     super(simulationModel);
   }
 
+  /**
+   * Retourne la taille sous laquelle une tâche n'est plus divisée en sous-tâches
+   *
+   * @return Le nombre de cellules sous lequel une tâche est résolue par un seul thread
+   */
+  public int getSubtaskThreshold() {
+    return subtaskThreshold;
+  }
+
+  /**
+   * Modifie la taille sous laquelle une tâche n'est plus divisée en sous-tâches
+   *
+   * @param subtaskThreshold Le nombre de cellules sous lequel une tâche est résolue par un seul
+   *     thread, doit être positif
+   */
+  public void setSubtaskThreshold(int subtaskThreshold) {
+    if (subtaskThreshold <= 0)
+      throw new IllegalArgumentException("Le seuil des sous-tâches doit être positif");
+
+    this.subtaskThreshold = subtaskThreshold;
+  }
+
+  /**
+   * Retourne le pool de threads qui exécute les tâches
+   *
+   * @return Le pool de threads
+   */
+  public ForkJoinPool getForkJoinPool() {
+    return forkJoinPool;
+  }
+
+  /**
+   * Modifie le pool de threads qui exécute les tâches, et donc le nombre de threads utilisés. Ne
+   * doit pas être modifié pendant un pas de simulation.
+   *
+   * @param forkJoinPool Le pool de threads
+   */
+  public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+    this.forkJoinPool = forkJoinPool;
+  }
+
+  /**
+   * Retourne si les résultats sont identiques quel que soit le nombre de threads
+   *
+   * @return {@code true} si le mode déterministe est activé
+   */
+  public boolean isDeterministic() {
+    return deterministic;
+  }
+
+  /**
+   * Active ou désactive le mode déterministe. En mode déterministe, les tâches sont divisées selon
+   * {@link #DETERMINISTIC_SUBTASK_THRESHOLD} plutôt que selon la taille des sous-tâches, et le
+   * confinement de vorticité calcule le curl de toute la matrice avant d'appliquer les forces. Ne
+   * doit pas être modifié pendant un pas de simulation.
+   *
+   * @param deterministic {@code true} pour des résultats identiques quel que soit le nombre de
+   *     threads
+   */
+  public void setDeterministic(boolean deterministic) {
+    this.deterministic = deterministic;
+  }
+
+  /**
+   * Retourne la taille sous laquelle les tâches ne sont plus divisées
+   *
+   * @return {@link #DETERMINISTIC_SUBTASK_THRESHOLD} en mode déterministe, la taille des
+   *     sous-tâches sinon
+   */
+  private int getSplitThreshold() {
+    return deterministic ? DETERMINISTIC_SUBTASK_THRESHOLD : subtaskThreshold;
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -61,28 +152,25 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
     ParticleMatrix particleMatrix = simulationData.getPreviousParticleMatrix();
     ParticleMatrix particleMatrixNew = simulationData.borrowParticleMatrixFromPool();
 
-    AdvectPartSolver.setGlobalVariables(
-        particleMatrix.getXLength(),
-        particleMatrix.getYLength(),
-        simulationData.xPixelByMeter(),
-        simulationData.yPixelByMeter(),
-        timeStep,
-        particleMatrix.getXVelocity().getMatrix(),
-        particleMatrix.getYVelocity().getMatrix(),
-        particleMatrix.getTemperature().getMatrix(),
-        particleMatrix.getAreaDensity().getMatrix(),
-        particleMatrix.getPressure().getMatrix(),
-        particleMatrixNew.getXVelocity().getMatrix(),
-        particleMatrixNew.getYVelocity().getMatrix(),
-        particleMatrixNew.getTemperature().getMatrix(),
-        particleMatrixNew.getAreaDensity().getMatrix(),
-        particleMatrixNew.getPressure().getMatrix());
-
-    AdvectPartSolver advectPartSolverTask = new AdvectPartSolver(0, particleMatrix.getSize());
-
-    ApplicationConstants.FORK_JOIN_POOL.invoke(advectPartSolverTask);
-
-    AdvectPartSolver.resetGlobalVariables();
+    AdvectFrame frame =
+        new AdvectFrame(
+            particleMatrix.getXLength(),
+            particleMatrix.getYLength(),
+            simulationData.xPixelByMeter(),
+            simulationData.yPixelByMeter(),
+            timeStep,
+            particleMatrix.getXVelocity().getMatrix(),
+            particleMatrix.getYVelocity().getMatrix(),
+            particleMatrix.getTemperature().getMatrix(),
+            particleMatrix.getAreaDensity().getMatrix(),
+            particleMatrix.getPressure().getMatrix(),
+            particleMatrixNew.getXVelocity().getMatrix(),
+            particleMatrixNew.getYVelocity().getMatrix(),
+            particleMatrixNew.getTemperature().getMatrix(),
+            particleMatrixNew.getAreaDensity().getMatrix(),
+            particleMatrixNew.getPressure().getMatrix());
+
+    forkJoinPool.invoke(new AdvectPartSolver(frame, 0, particleMatrix.getSize()));
 
     simulationData.setCurrentParticleMatrix(particleMatrixNew);
 
@@ -90,71 +178,60 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
   }
 
   /**
-   * Résout l'advection pour une portion de la matrice
+   * Paramètres d'une advection partagés par toutes ses portions de la matrice. Chaque appel a ses
+   * propres paramètres, de sorte que plusieurs moteurs peuvent calculer en même temps.
    *
    * @author Nilon123456789
    */
-  private class AdvectPartSolver extends RecursiveAction {
-
-    /** Sérialisation de la classe */
-    private static final long serialVersionUID = 1L;
+  private static class AdvectFrame {
 
     /** Longeure en x */
-    private static int xLength;
+    private final int xLength;
 
     /** Longeure en y */
-    private static int yLength;
+    private final int yLength;
 
     /** taille d'un mettre x en pixel */
-    private static double xMeterByPixel;
+    private final double xMeterByPixel;
 
     /** taille d'un mettre y en pixel */
-    private static double yMeterByPixel;
+    private final double yMeterByPixel;
 
     /** pas de temps */
-    private static double timeStep;
+    private final double timeStep;
 
     /** vitesses en x */
-    private static double[] xVelocity;
+    private final double[] xVelocity;
 
     /** vitesses en y */
-    private static double[] yVelocity;
+    private final double[] yVelocity;
 
     /** temperature */
-    private static double[] temperature;
+    private final double[] temperature;
 
     /** densité de zone */
-    private static double[] areaDensity;
+    private final double[] areaDensity;
 
     /** pression */
-    private static double[] pressure;
+    private final double[] pressure;
 
     /** nouvelle vitesse en x */
-    private static double[] xVelocityNew;
+    private final double[] xVelocityNew;
 
     /** nouvelle vitesse en y */
-    private static double[] yVelocityNew;
+    private final double[] yVelocityNew;
 
     /** nouvelle temperature */
-    private static double[] temperatureNew;
+    private final double[] temperatureNew;
 
     /** nouvelle densité de zone */
-    private static double[] areaDensityNew;
+    private final double[] areaDensityNew;
 
     /** nouvelle pression */
-    private static double[] pressureNew;
-
-    /** Si les variables global on été définie */
-    private static boolean isSetuped = false;
-
-    /** Point de départ */
-    private final int start;
-
-    /** Point de fin */
-    private final int end;
+    private final double[] pressureNew;
 
     /**
-     * Initialise les variables globales.
+     * Constructeur de la classe AdvectFrame
      *
      * @param xLength Longeure en x
      * @param yLength Longeure en y
@@ -172,7 +249,7 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
      * @param areaDensityNew nouvelle densité de zone
      * @param pressureNew nouvelle pression
      */
-    public static void setGlobalVariables(
+    private AdvectFrame(
         int xLength,
         int yLength,
         double xMeterByPixel,
@@ -188,39 +265,54 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
         double[] temperatureNew,
         double[] areaDensityNew,
         double[] pressureNew) {
-      AdvectPartSolver.xLength = xLength;
-      AdvectPartSolver.yLength = yLength;
-      AdvectPartSolver.xMeterByPixel = xMeterByPixel;
-      AdvectPartSolver.yMeterByPixel = yMeterByPixel;
-      AdvectPartSolver.timeStep = timeStep;
-
-      AdvectPartSolver.xVelocity = xVelocity;
-      AdvectPartSolver.yVelocity = yVelocity;
-      AdvectPartSolver.temperature = temperature;
-      AdvectPartSolver.areaDensity = areaDensity;
-      AdvectPartSolver.pressure = pressure;
-
-      AdvectPartSolver.xVelocityNew = xVelocityNew;
-      AdvectPartSolver.yVelocityNew = yVelocityNew;
-      AdvectPartSolver.temperatureNew = temperatureNew;
-      AdvectPartSolver.areaDensityNew = areaDensityNew;
-      AdvectPartSolver.pressureNew = pressureNew;
-
-      AdvectPartSolver.isSetuped = true;
+      this.xLength = xLength;
+      this.yLength = yLength;
+      this.xMeterByPixel = xMeterByPixel;
+      this.yMeterByPixel = yMeterByPixel;
+      this.timeStep = timeStep;
+
+      this.xVelocity = xVelocity;
+      this.yVelocity = yVelocity;
+      this.temperature = temperature;
+      this.areaDensity = areaDensity;
+      this.pressure = pressure;
+
+      this.xVelocityNew = xVelocityNew;
+      this.yVelocityNew = yVelocityNew;
+      this.temperatureNew = temperatureNew;
+      this.areaDensityNew = areaDensityNew;
+      this.pressureNew = pressureNew;
     }
+  }
 
-    /** Remet les variables globales à leur valeur par défaut (null) */
-    public static void resetGlobalVariables() {
-      AdvectPartSolver.isSetuped = false;
-    }
+  /**
+   * Résout l'advection pour une portion de la matrice
+   *
+   * @author Nilon123456789
+   */
+  private class AdvectPartSolver extends RecursiveAction {
+
+    /** Sérialisation de la classe */
+    private static final long serialVersionUID = 1L;
+
+    /** Les paramètres de l'advection */
+    private final transient AdvectFrame frame;
+
+    /** Point de départ */
+    private final int start;
+
+    /** Point de fin */
+    private final int end;
 
     /**
      * Constructeur de la classe AdvectPartSolver
      *
+     * @param frame Les paramètres de l'advection
      * @param start La position de départ de la résolution
      * @param end La position de fin de la résolution
      */
-    public AdvectPartSolver(int start, int end) {
+    public AdvectPartSolver(AdvectFrame frame, int start, int end) {
+      this.frame = frame;
       this.start = start;
       this.end = end;
     }
@@ -228,21 +320,34 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
     /** Applique l'advection pour une portion de la matrice */
     @Override
     public void compute() {
-      if (!isSetuped)
-        throw new IllegalStateException("Les variables globales n'ont pas été définies");
-
-      if (end - start < ApplicationConstants.SUBTASK_THRESHOLD) {
+      if (end - start < getSplitThreshold()) {
         solve();
         return;
       }
 
       int mid = (int) ((this.start + this.end) * 0.5);
 
-      invokeAll(new AdvectPartSolver(start, mid), new AdvectPartSolver(mid, end));
+      invokeAll(new AdvectPartSolver(frame, start, mid), new AdvectPartSolver(frame, mid, end));
     }
 
     /** Applique l'advection pour une portion de la matrice */
     private void solve() {
+      int xLength = frame.xLength;
+      int yLength = frame.yLength;
+      double xMeterByPixel = frame.xMeterByPixel;
+      double yMeterByPixel = frame.yMeterByPixel;
+      double timeStep = frame.timeStep;
+      double[] xVelocity = frame.xVelocity;
+      double[] yVelocity = frame.yVelocity;
+      double[] temperature = frame.temperature;
+      double[] areaDensity = frame.areaDensity;
+      double[] pressure = frame.pressure;
+      double[] xVelocityNew = frame.xVelocityNew;
+      double[] yVelocityNew = frame.yVelocityNew;
+      double[] temperatureNew = frame.temperatureNew;
+      double[] areaDensityNew = frame.areaDensityNew;
+      double[] pressureNew = frame.pressureNew;
+
       int x, y, previousXWhole, previousYWhole, pos00, pos01, pos10, pos11;
       double prevX, prevY, previousXFraction, previousYFraction, p00, p10, p01, p11;
 
@@ -320,7 +425,7 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
    * <p><i> Version multi-threaded </i>
    */
   @Override
-  protected void jacobiSolver(
+  protected int jacobiSolver(
       WDoubleMatrix x, int xLength, int yLength, double alpha, double rBeta, WDoubleMatrix b) {
 
     int size = x.getSize();
@@ -334,92 +439,69 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
 
     double[] temp;
 
-    JacobiPartSolver.setGlobalVariables(
-        x.getMatrix(), xLength, yLength, alpha, rBeta, b.getMatrix(), xNew.getMatrix());
-
     double curentDiff;
 
-    for (int iter = 0; iter < SimulationConstants.MAX_JACOBI_ITERATIONS; iter++) {
+    int iter = 0;
+    while (iter < maxJacobiIterations) {
+      iter++;
 
       applyBoundaryConditions();
 
       // On crée une nouvelle tâche pour résoudre la matrice
-      jacobiSolverTask = new JacobiPartSolver(0, size);
+      jacobiSolverTask =
+          new JacobiPartSolver(
+              new JacobiFrame(
+                  x.getMatrix(), xLength, yLength, alpha, rBeta, b.getMatrix(), xNew.getMatrix()),
+              0,
+              size);
 
       // On résout la matrice et on récupère la différence entre les deux itérations
-      curentDiff =
-          ApplicationConstants.FORK_JOIN_POOL.<Double>invoke(jacobiSolverTask).doubleValue();
+      curentDiff = forkJoinPool.<Double>invoke(jacobiSolverTask).doubleValue();
 
       // On échange les matrices
       temp = x.getMatrix();
       x.setMatrix(xNew.getMatrix());
       xNew.setMatrix(temp);
 
-      JacobiPartSolver.setGlobalVariables(
-          x.getMatrix(), xLength, yLength, alpha, rBeta, b.getMatrix(), xNew.getMatrix());
-
-      if (curentDiff < SimulationConstants.MAX_JACOBI_DIFF) break;
+      if (curentDiff < maxJacobiDiff) break;
     }
 
-    JacobiPartSolver.resetGlobalVariables();
-
     matriceArrayPool.returnObject(xNew);
+
+    return iter;
   }
 
   /**
-   * Utilise la méthode de Jacobi itérative pour résoudre des equations de poisson Equation de
-   * poisson : x_{i,j}^{(k+1)}=\frac{x_{i-1,j}^{k}+x_{i+1,j}^{k}+x_{i,j-1}^{k}+x_{i,j+1}^{k}+\alpha
-   * b_{i,j}}{\beta}
+   * Paramètres d'une itération de la méthode de Jacobi partagés par toutes ses portions de la
+   * matrice
    *
    * @author Nilon123456789
    */
-  private class JacobiPartSolver extends RecursiveTask<Double> {
-    /** Sérialisation de la classe */
-    private static final long serialVersionUID = 1L;
+  private static class JacobiFrame {
 
     /** La matrice a résoudre */
-    private static double[] x;
+    private final double[] x;
 
     /** La taille en x de la matrice */
-    private static int xLength;
+    private final int xLength;
 
     /** La taille en y de la matrice */
-    private static int yLength;
+    private final int yLength;
 
     /** le coefficient alpha */
-    private static double alpha;
+    private final double alpha;
 
     /** la reciproque du coefficient beta (1/beta ) */
-    private static double rBeta;
+    private final double rBeta;
 
     /** La matrice b (matrice doit être de la même taille que x) */
-    private static double[] b;
+    private final double[] b;
 
     /** La matrice de destination */
-    private static double[] xNew;
-
-    /** Indique si les variables globales ont été définies */
-    private static boolean isSetuped = false;
-
-    /** Point de départ */
-    private final int start;
-
-    /** Point de fin */
-    private final int end;
+    private final double[] xNew;
 
     /**
-     * Constructeur de la classe JacobiPartSolver qui résoud une portion de la matrice
-     *
-     * @param start La position de départ de la résolution
-     * @param end La position de fin de la résolution
-     */
-    public JacobiPartSolver(int start, int end) {
-      this.start = start;
-      this.end = end;
-    }
-
-    /**
-     * Définit les variables globales
+     * Constructeur de la classe JacobiFrame
      *
      * @param x La matrice a résoudre
      * @param xLength La taille en x de la matrice
@@ -429,7 +511,7 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
      * @param b la matrice b (matrice doit être de la même taille que x)
      * @param xNew La matrice de destination
      */
-    public static void setGlobalVariables(
+    private JacobiFrame(
         double[] x,
         int xLength,
         int yLength,
@@ -437,20 +519,47 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
         double rBeta,
         double[] b,
         double[] xNew) {
-      JacobiPartSolver.x = x;
-      JacobiPartSolver.xLength = xLength;
-      JacobiPartSolver.yLength = yLength;
-      JacobiPartSolver.alpha = alpha;
-      JacobiPartSolver.rBeta = rBeta;
-      JacobiPartSolver.b = b;
-      JacobiPartSolver.xNew = xNew;
-
-      JacobiPartSolver.isSetuped = true;
+      this.x = x;
+      this.xLength = xLength;
+      this.yLength = yLength;
+      this.alpha = alpha;
+      this.rBeta = rBeta;
+      this.b = b;
+      this.xNew = xNew;
     }
+  }
 
-    /** Remet les variables globales à leur valeur par défaut (null) */
-    public static void resetGlobalVariables() {
-      JacobiPartSolver.isSetuped = false;
+  /**
+   * Utilise la méthode de Jacobi itérative pour résoudre des equations de poisson Equation de
+   * poisson : x_{i,j}^{(k+1)}=\frac{x_{i-1,j}^{k}+x_{i+1,j}^{k}+x_{i,j-1}^{k}+x_{i,j+1}^{k}+\alpha
+   * b_{i,j}}{\beta}
+   *
+   * @author Nilon123456789
+   */
+  private class JacobiPartSolver extends RecursiveTask<Double> {
+    /** Sérialisation de la classe */
+    private static final long serialVersionUID = 1L;
+
+    /** Les paramètres de l'itération */
+    private final transient JacobiFrame frame;
+
+    /** Point de départ */
+    private final int start;
+
+    /** Point de fin */
+    private final int end;
+
+    /**
+     * Constructeur de la classe JacobiPartSolver qui résoud une portion de la matrice
+     *
+     * @param frame Les paramètres de l'itération
+     * @param start La position de départ de la résolution
+     * @param end La position de fin de la résolution
+     */
+    public JacobiPartSolver(JacobiFrame frame, int start, int end) {
+      this.frame = frame;
+      this.start = start;
+      this.end = end;
     }
 
     /**
@@ -460,16 +569,13 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
      */
     @Override
     public Double compute() {
-      if (!isSetuped)
-        throw new IllegalStateException("Les variables globales n'ont pas été définies");
-
-      if (end - start < ApplicationConstants.SUBTASK_THRESHOLD) {
+      if (end - start < getSplitThreshold()) {
         return solve();
       }
 
       int mid = (int) ((this.start + this.end) * 0.5);
-      JacobiPartSolver left = new JacobiPartSolver(start, mid);
-      JacobiPartSolver right = new JacobiPartSolver(mid, end);
+      JacobiPartSolver left = new JacobiPartSolver(frame, start, mid);
+      JacobiPartSolver right = new JacobiPartSolver(frame, mid, end);
 
       left.fork();
       return Math.min(right.compute().doubleValue(), left.join().doubleValue());
@@ -481,6 +587,14 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
      * @return La différence entre les deux itérations
      */
     private double solve() {
+      double[] x = frame.x;
+      int xLength = frame.xLength;
+      int yLength = frame.yLength;
+      double alpha = frame.alpha;
+      double rBeta = frame.rBeta;
+      double[] b = frame.b;
+      double[] xNew = frame.xNew;
+
       double xL,
           xR,
           xB,
@@ -537,79 +651,85 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
 
     if (vorticityFactor == 0) return;
 
-    ParticleMatrix particleMatrix = simulationData.getCurrentParticleMatrix();
-
-    int xLength = particleMatrix.getXLength();
-    int yLength = particleMatrix.getYLength();
-    int size = xLength * yLength;
-
-    double xMeterByPixel = simulationData.xMeterByPixel();
-    double yMeterByPixel = simulationData.yMeterByPixel();
-
-    VortexConfinementPart.setGlobalVariables(
-        xLength,
-        yLength,
-        xMeterByPixel,
-        yMeterByPixel,
-        vorticityFactor,
-        particleMatrix.getXVelocity().getMatrix(),
-        particleMatrix.getYVelocity().getMatrix(),
-        particleMatrix.getVelocityCurl().getMatrix());
-
-    VortexConfinementPart vortexConfinementTask = new VortexConfinementPart(0, size);
+    // En mode déterministe, le curl de toute la matrice est calculé avant d'appliquer les forces,
+    // sinon une tâche peut lire les vitesses déjà modifiées par une tâche voisine
+    if (deterministic) {
+      invokeVortexConfinement(vorticityFactor, true, false);
+      invokeVortexConfinement(vorticityFactor, false, true);
+    } else {
+      invokeVortexConfinement(vorticityFactor, true, true);
+    }
 
-    ApplicationConstants.FORK_JOIN_POOL.invoke(vortexConfinementTask);
+    applyBoundaryConditions();
+  }
 
-    VortexConfinementPart.resetGlobalVariables();
+  /**
+   * Effectue un passage du confinement de vorticité sur toute la matrice
+   *
+   * @param vorticityFactor Facteur de vorticité
+   * @param computeCurl Si le curl de la vitesse est calculé
+   * @param applyForce Si les forces de confinement sont appliquées aux vitesses
+   */
+  private void invokeVortexConfinement(
+      double vorticityFactor, boolean computeCurl, boolean applyForce) {
+    ParticleMatrix particleMatrix = simulationData.getCurrentParticleMatrix();
 
-    applyBoundaryConditions();
+    VortexConfinementFrame frame =
+        new VortexConfinementFrame(
+            particleMatrix.getXLength(),
+            particleMatrix.getYLength(),
+            simulationData.xMeterByPixel(),
+            simulationData.yMeterByPixel(),
+            vorticityFactor,
+            particleMatrix.getXVelocity().getMatrix(),
+            particleMatrix.getYVelocity().getMatrix(),
+            particleMatrix.getVelocityCurl().getMatrix(),
+            computeCurl,
+            applyForce);
+
+    forkJoinPool.invoke(new VortexConfinementPart(frame, 0, particleMatrix.getSize()));
   }
 
   /**
-   * Calcule le confinement de vorticité pour une portion de la matrice
+   * Paramètres d'un passage du confinement de vorticité partagés par toutes ses portions de la
+   * matrice
    *
    * @author Nilon123456789
    */
-  private class VortexConfinementPart extends RecursiveAction {
-
-    /** Sérialisation de la classe */
-    private static final long serialVersionUID = 1L;
+  private static class VortexConfinementFrame {
 
     /** La longueur en X de la matrice */
-    private static int xLength;
+    private final int xLength;
 
     /** La longueur en Y de la matrice */
-    private static int yLength;
+    private final int yLength;
 
     /** Nombre de mètres par pixel en X */
-    private static double xMeterByPixel;
+    private final double xMeterByPixel;
 
     /** Nombre de mètres par pixel en Y */
-    private static double yMeterByPixel;
+    private final double yMeterByPixel;
 
     /** Facteur de vorticité */
-    private static double vorticityFactor;
+    private final double vorticityFactor;
 
     /** La matrice de vitesse x */
-    private static double[] xVelocity;
+    private final double[] xVelocity;
 
     /** La matrice de vitesse y */
-    private static double[] yVelocity;
+    private final double[] yVelocity;
 
     /** La matrice de curl de la vitesse */
-    private static double[] velocityCurl;
+    private final double[] velocityCurl;
 
-    /** Si les valeurs on été définies */
-    private static boolean isSetuped = false;
+    /** Si le curl de la vitesse est calculé */
+    private final boolean computeCurl;
 
-    /** Point de départ */
-    private final int start;
-
-    /** Point de fin */
-    private final int end;
+    /** Si les forces de confinement sont appliquées aux vitesses */
+    private final boolean applyForce;
 
     /**
-     * Définit les variables globales
+     * Constructeur de la classe VortexConfinementFrame
      *
      * @param xLength La longueur en X de la matrice
      * @param yLength La longueur en Y de la matrice
@@ -619,8 +739,10 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
      * @param xVelocity La matrice de vitesse x
      * @param yVelocity La matrice de vitesse y
      * @param velocityCurl La matrice de curl de la vitesse
+     * @param computeCurl Si le curl de la vitesse est calculé
+     * @param applyForce Si les forces de confinement sont appliquées aux vitesses
      */
-    public static void setGlobalVariables(
+    private VortexConfinementFrame(
         int xLength,
         int yLength,
         double xMeterByPixel,
@@ -628,31 +750,50 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
         double vorticityFactor,
         double[] xVelocity,
         double[] yVelocity,
-        double[] velocityCurl) {
-      VortexConfinementPart.xLength = xLength;
-      VortexConfinementPart.yLength = yLength;
-      VortexConfinementPart.xMeterByPixel = xMeterByPixel;
-      VortexConfinementPart.yMeterByPixel = yMeterByPixel;
-      VortexConfinementPart.vorticityFactor = vorticityFactor;
-      VortexConfinementPart.xVelocity = xVelocity;
-      VortexConfinementPart.yVelocity = yVelocity;
-      VortexConfinementPart.velocityCurl = velocityCurl;
-
-      VortexConfinementPart.isSetuped = true;
+        double[] velocityCurl,
+        boolean computeCurl,
+        boolean applyForce) {
+      this.xLength = xLength;
+      this.yLength = yLength;
+      this.xMeterByPixel = xMeterByPixel;
+      this.yMeterByPixel = yMeterByPixel;
+      this.vorticityFactor = vorticityFactor;
+      this.xVelocity = xVelocity;
+      this.yVelocity = yVelocity;
+      this.velocityCurl = velocityCurl;
+      this.computeCurl = computeCurl;
+      this.applyForce = applyForce;
     }
+  }
 
-    /** Remet les variables globales à leur valeur par défaut (null) */
-    public static void resetGlobalVariables() {
-      VortexConfinementPart.isSetuped = false;
-    }
+  /**
+   * Calcule le confinement de vorticité pour une portion de la matrice
+   *
+   * @author Nilon123456789
+   */
+  private class VortexConfinementPart extends RecursiveAction {
+
+    /** Sérialisation de la classe */
+    private static final long serialVersionUID = 1L;
+
+    /** Les paramètres du passage */
+    private final transient VortexConfinementFrame frame;
+
+    /** Point de départ */
+    private final int start;
+
+    /** Point de fin */
+    private final int end;
 
     /**
      * Constructeur de la classe VortexConfinementPart
      *
+     * @param frame Les paramètres du passage
      * @param start La position de départ de la résolution
      * @param end La position de fin de la résolution
      */
-    public VortexConfinementPart(int start, int end) {
+    public VortexConfinementPart(VortexConfinementFrame frame, int start, int end) {
+      this.frame = frame;
       this.start = start;
       this.end = end;
     }
@@ -660,21 +801,30 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
     /** Calcule le confinement de vorticité pour une portion de la matrice */
     @Override
     public void compute() {
-      if (!isSetuped)
-        throw new IllegalStateException("Les variables globales n'ont pas été définies");
-
-      if (end - start < ApplicationConstants.SUBTASK_THRESHOLD) {
+      if (end - start < getSplitThreshold()) {
         solve();
         return;
       }
 
       int mid = (int) ((this.start + this.end) * 0.5);
 
-      invokeAll(new VortexConfinementPart(start, mid), new VortexConfinementPart(mid, end));
+      invokeAll(
+          new VortexConfinementPart(frame, start, mid), new VortexConfinementPart(frame, mid, end));
     }
 
     /** Calcule le confinement de vorticité pour une portion de la matrice */
     private void solve() {
+      int xLength = frame.xLength;
+      int yLength = frame.yLength;
+      double xMeterByPixel = frame.xMeterByPixel;
+      double yMeterByPixel = frame.yMeterByPixel;
+      double vorticityFactor = frame.vorticityFactor;
+      double[] xVelocity = frame.xVelocity;
+      double[] yVelocity = frame.yVelocity;
+      double[] velocityCurl = frame.velocityCurl;
+      boolean computeCurl = frame.computeCurl;
+      boolean applyForce = frame.applyForce;
+
       int xTPos, xBPos, yLPos, yRPos;
       double gradX, gradY, grad, fx, fy, fac, velCurl;
 
@@ -686,11 +836,13 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
         yLPos = getPosAtOffset(pos, xLength, yLength, -1, 0); // y_{i-1,j}
         yRPos = getPosAtOffset(pos, xLength, yLength, 1, 0); // y_{i+1, j}
 
-        velCurl =
-            velocityCurl[pos] =
-                0.5
-                    * ((yVelocity[yRPos] - yVelocity[yLPos])
-                        - (xVelocity[xTPos] - xVelocity[xBPos]));
+        if (computeCurl)
+          velocityCurl[pos] =
+              0.5 * ((yVelocity[yRPos] - yVelocity[yLPos]) - (xVelocity[xTPos] - xVelocity[xBPos]));
+
+        if (!applyForce) continue;
+
+        velCurl = velocityCurl[pos];
 
         gradX = 0.5 * (Math.abs(velocityCurl[yRPos]) - Math.abs(velocityCurl[yLPos]));
         gradY = 0.5 * (Math.abs(velocityCurl[xTPos]) - Math.abs(velocityCurl[xBPos]));
@@ -716,74 +868,54 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
    */
   @Override
   protected void applyBoundaryConditions() {
-    timer.start("ApplyBoundaryConditions");
+    long applyBoundaryConditionsStart = applyBoundaryConditionsTimer.start();
     ParticleMatrix particleMatrix = simulationData.getCurrentParticleMatrix();
 
-    ApplyBoundaryConditionsPart.setGlobalVariables(
-        particleMatrix.getXLength(),
-        particleMatrix.getYLength(),
-        simulationData.getObstacle(),
-        particleMatrix.getXVelocity().getMatrix(),
-        particleMatrix.getYVelocity().getMatrix(),
-        particleMatrix.getPressure().getMatrix(),
-        particleMatrix.getAreaDensity().getMatrix());
-
-    ApplyBoundaryConditionsPart applyBoundaryConditionsTask =
-        new ApplyBoundaryConditionsPart(0, particleMatrix.getSize());
-
-    ApplicationConstants.FORK_JOIN_POOL.invoke(applyBoundaryConditionsTask);
+    BoundaryConditionsFrame frame =
+        new BoundaryConditionsFrame(
+            particleMatrix.getXLength(),
+            particleMatrix.getYLength(),
+            simulationData.getObstacle(),
+            particleMatrix.getXVelocity().getMatrix(),
+            particleMatrix.getYVelocity().getMatrix(),
+            particleMatrix.getPressure().getMatrix(),
+            particleMatrix.getAreaDensity().getMatrix());
 
-    ApplyBoundaryConditionsPart.resetGlobalVariables();
+    forkJoinPool.invoke(new ApplyBoundaryConditionsPart(frame, 0, particleMatrix.getSize()));
 
-    timer.stop("ApplyBoundaryConditions");
+    applyBoundaryConditionsTimer.stop(applyBoundaryConditionsStart);
   }
 
   /**
-   * Applique les conditions aux bords de la simulation pour une portion de la matrice
-   *
-   * <p>TODO : L'implémentation n'est pas encore forcément 100% thread-safe
-   *
-   * <p>L'utilisation d'une matrice de particules temporaire pourrait être une solution
+   * Paramètres des conditions aux bords partagés par toutes leurs portions de la matrice
    *
    * @author Nilon123456789
    */
-  private class ApplyBoundaryConditionsPart extends RecursiveAction {
-
-    /** Sérialisation de la classe */
-    private static final long serialVersionUID = 1L;
+  private static class BoundaryConditionsFrame {
 
     /** La longueur en X de la matrice */
-    private static int xLength;
+    private final int xLength;
 
     /** La longueur en Y de la matrice */
-    private static int yLength;
+    private final int yLength;
 
     /** La matrice d'obstacle */
-    private static WObstacleCellMatrix obstacleMatrix;
+    private final WObstacleCellMatrix obstacleMatrix;
 
     /** La matrice de vitesse x */
-    private static double[] xVelocity;
+    private final double[] xVelocity;
 
     /** La matrice de vitesse y */
-    private static double[] yVelocity;
+    private final double[] yVelocity;
 
     /** La matrice de pression */
-    private static double[] pressure;
+    private final double[] pressure;
 
     /** La matrice de densité de zone */
-    private static double[] areaDensity;
-
-    /** Si les valeurs on été définies */
-    private static boolean isSetuped = false;
-
-    /** Point de départ */
-    private final int start;
-
-    /** Point de fin */
-    private final int end;
+    private final double[] areaDensity;
 
     /**
-     * Définit les variables globales
+     * Constructeur de la classe BoundaryConditionsFrame
      *
      * @param xLength La longueur en X de la matrice
      * @param yLength La longueur en Y de la matrice
@@ -793,7 +925,7 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
      * @param pressure La matrice de pression
      * @param areaDensity La matrice de densité de zone
      */
-    public static void setGlobalVariables(
+    private BoundaryConditionsFrame(
         int xLength,
         int yLength,
         WObstacleCellMatrix obstacleMatrix,
@@ -801,29 +933,48 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
         double[] yVelocity,
         double[] pressure,
         double[] areaDensity) {
-      ApplyBoundaryConditionsPart.xLength = xLength;
-      ApplyBoundaryConditionsPart.yLength = yLength;
-      ApplyBoundaryConditionsPart.obstacleMatrix = obstacleMatrix;
-      ApplyBoundaryConditionsPart.xVelocity = xVelocity;
-      ApplyBoundaryConditionsPart.yVelocity = yVelocity;
-      ApplyBoundaryConditionsPart.pressure = pressure;
-      ApplyBoundaryConditionsPart.areaDensity = areaDensity;
-
-      ApplyBoundaryConditionsPart.isSetuped = true;
+      this.xLength = xLength;
+      this.yLength = yLength;
+      this.obstacleMatrix = obstacleMatrix;
+      this.xVelocity = xVelocity;
+      this.yVelocity = yVelocity;
+      this.pressure = pressure;
+      this.areaDensity = areaDensity;
     }
+  }
 
-    /** Remet les variables globales à leur valeur par défaut (null) */
-    public static void resetGlobalVariables() {
-      ApplyBoundaryConditionsPart.isSetuped = false;
-    }
+  /**
+   * Applique les conditions aux bords de la simulation pour une portion de la matrice
+   *
+   * <p>TODO : L'implémentation n'est pas encore forcément 100% thread-safe
+   *
+   * <p>L'utilisation d'une matrice de particules temporaire pourrait être une solution
+   *
+   * @author Nilon123456789
+   */
+  private class ApplyBoundaryConditionsPart extends RecursiveAction {
+
+    /** Sérialisation de la classe */
+    private static final long serialVersionUID = 1L;
+
+    /** Les paramètres des conditions aux bords */
+    private final transient BoundaryConditionsFrame frame;
+
+    /** Point de départ */
+    private final int start;
+
+    /** Point de fin */
+    private final int end;
 
     /**
      * Constructeur de la classe ApplyBoundaryConditionsPart
      *
+     * @param frame Les paramètres des conditions aux bords
      * @param start La position de départ de la résolution
      * @param end La position de fin de la résolution
      */
-    public ApplyBoundaryConditionsPart(int start, int end) {
+    public ApplyBoundaryConditionsPart(BoundaryConditionsFrame frame, int start, int end) {
+      this.frame = frame;
       this.start = start;
       this.end = end;
     }
@@ -831,10 +982,7 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
     /** Applique les conditions aux bords de la simulation pour une portion de la matrice */
     @Override
     public void compute() {
-      if (!isSetuped)
-        throw new IllegalStateException("Les variables globales n'ont pas été définies");
-
-      if (end - start < ApplicationConstants.SUBTASK_THRESHOLD) {
+      if (end - start < getSplitThreshold()) {
         solve();
         return;
       }
@@ -842,11 +990,20 @@ public class PhysicsEngineMultiThreaded extends PhysicsEngine {
       int mid = (int) ((this.start + this.end) * 0.5);
 
       invokeAll(
-          new ApplyBoundaryConditionsPart(start, mid), new ApplyBoundaryConditionsPart(mid, end));
+          new ApplyBoundaryConditionsPart(frame, start, mid),
+          new ApplyBoundaryConditionsPart(frame, mid, end));
     }
 
     /** Applique les conditions aux bords de la simulation pour une portion de la matrice */
     private void solve() {
+      int xLength = frame.xLength;
+      int yLength = frame.yLength;
+      WObstacleCellMatrix obstacleMatrix = frame.obstacleMatrix;
+      double[] xVelocity = frame.xVelocity;
+      double[] yVelocity = frame.yVelocity;
+      double[] pressure = frame.pressure;
+      double[] areaDensity = frame.areaDensity;
+
       WObstacleCell obstacleCell;
       OBSTACLE_TYPE obstacle;
 
@@ -0,0 +1,22 @@
+package com.e24.wolke.backend.simulation.physics.engine;
+
+/**
+ * StepListener.java
+ *
+ * <p>Interface des objets informés de la fin de chaque pas d'un {@link PhysicsEngine}. La méthode
+ * est appelée par le thread qui a effectué le pas, avant qu'un autre pas puisse commencer : l'état
+ * de la simulation ne change donc pas pendant l'appel, mais chaque appel retarde le pas suivant.
+ *
+ * @author Nilon123456789
+ */
+@FunctionalInterface
+public interface StepListener {
+
+  /**
+   * Appelée à la fin d'un pas de simulation
+   *
+   * @param engine Le moteur physique qui a effectué le pas
+   * @param iteration L'itération atteinte par la simulation
+   */
+  void stepCompleted(PhysicsEngine engine, int iteration);
+}
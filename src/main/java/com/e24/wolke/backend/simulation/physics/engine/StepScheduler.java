@@ -0,0 +1,274 @@
+package com.e24.wolke.backend.simulation.physics.engine;
+
+import com.e24.wolke.backend.models.simulation.SimulationConstants;
+import com.e24.wolke.backend.models.simulation.SimulationConstants.PACING_MODE;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * StepScheduler.java
+ *
+ * <p>Cette classe cadence la boucle de simulation. Chaque pas se voit attribuer une échéance, et le
+ * thread de simulation est parqué ({@link LockSupport#parkNanos(Object, long)}) jusqu'à celle-ci.
+ * L'échéance suivante est calculée à partir de l'échéance précédente, et non de la fin du pas, de
+ * sorte que le temps de calcul d'un pas et l'imprécision du réveil ne s'accumulent pas.
+ *
+ * <p>Le cadenceur mesure aussi le nombre de pas par seconde et le nombre de secondes simulées par
+ * seconde réelle effectivement atteints, sur des fenêtres de {@link #MEASUREMENT_WINDOW_NANOS}.
+ *
+ * @author Nilon123456789
+ */
+public class StepScheduler {
+
+  /** Durée d'une fenêtre de mesure du cadencement atteint (ns) */
+  public static final long MEASUREMENT_WINDOW_NANOS = 1_000_000_000L;
+
+  /**
+   * Retard maximal, en nombre de périodes, que le cadenceur tente de rattraper. Au-delà, les
+   * échéances manquées sont abandonnées plutôt que d'enchaîner les pas en rafale.
+   */
+  private static final int MAX_CATCH_UP_PERIODS = 1;
+
+  /** Nombre de nanosecondes dans une milliseconde */
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  /** Nombre de nanosecondes dans une seconde */
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  /** Mode de cadencement */
+  private volatile PACING_MODE mode;
+
+  /** Nombre de pas par seconde visé en mode {@code STEPS_PER_SECOND} */
+  private volatile double targetStepsPerSecond;
+
+  /** Nombre de secondes simulées par seconde réelle visé en mode {@code TIME_SCALE} */
+  private volatile double targetTimeScale;
+
+  /** Échéance du prochain pas ({@link System#nanoTime()}), {@code 0} si aucune */
+  private long deadline;
+
+  /** Début de la fenêtre de mesure actuelle ({@link System#nanoTime()}) */
+  private long windowStart;
+
+  /** Nombre de pas effectués dans la fenêtre de mesure actuelle */
+  private int windowSteps;
+
+  /** Temps simulé dans la fenêtre de mesure actuelle (s) */
+  private double windowSimulatedTime;
+
+  /** Nombre de pas par seconde atteint lors de la dernière fenêtre de mesure */
+  private volatile double achievedStepsPerSecond;
+
+  /** Nombre de secondes simulées par seconde réelle atteint lors de la dernière fenêtre de mesure */
+  private volatile double achievedTimeScale;
+
+  /** Constructeur de la classe StepScheduler avec les valeurs par défaut de la configuration */
+  public StepScheduler() {
+    this(
+        SimulationConstants.DEFAULT_PACING_MODE,
+        SimulationConstants.DEFAULT_TARGET_STEPS_PER_SECOND,
+        SimulationConstants.DEFAULT_TARGET_TIME_SCALE);
+  }
+
+  /**
+   * Constructeur de la classe StepScheduler
+   *
+   * @param mode Le mode de cadencement
+   * @param targetStepsPerSecond Le nombre de pas par seconde visé en mode {@code STEPS_PER_SECOND}
+   * @param targetTimeScale Le nombre de secondes simulées par seconde réelle visé en mode {@code
+   *     TIME_SCALE}
+   */
+  public StepScheduler(PACING_MODE mode, double targetStepsPerSecond, double targetTimeScale) {
+    setMode(mode);
+    setTargetStepsPerSecond(targetStepsPerSecond);
+    setTargetTimeScale(targetTimeScale);
+  }
+
+  /**
+   * Réinitialise les échéances et la mesure du cadencement. Doit être appelé par le thread de
+   * simulation avant le premier pas d'une boucle.
+   */
+  public void reset() {
+    deadline = 0;
+    windowStart = System.nanoTime();
+    windowSteps = 0;
+    windowSimulatedTime = 0;
+    achievedStepsPerSecond = 0;
+    achievedTimeScale = 0;
+  }
+
+  /**
+   * Enregistre un pas de simulation puis bloque le thread jusqu'à l'échéance du pas suivant. Le
+   * thread se réveille plus tôt si {@code keepWaiting} devient faux, ce qui permet d'arrêter la
+   * simulation sans attendre la fin de la période ({@link LockSupport#unpark(Thread)}).
+   *
+   * @param deltaTime Le temps simulé par le pas qui vient d'être effectué (s)
+   * @param minimumPauseMs La pause minimale entre deux pas (ms), seule pause en mode {@code
+   *     AS_FAST_AS_POSSIBLE}
+   * @param keepWaiting La condition à laquelle l'attente se poursuit
+   */
+  public void awaitNextStep(double deltaTime, double minimumPauseMs, BooleanSupplier keepWaiting) {
+    long now = System.nanoTime();
+    measure(now, deltaTime);
+
+    long period = getPeriodNanos(deltaTime);
+    long minimumPause = (long) (Math.max(0, minimumPauseMs) * NANOS_PER_MILLI);
+
+    if (period <= 0) {
+      deadline = 0;
+      if (minimumPause > 0) parkUntil(now + minimumPause, keepWaiting);
+      return;
+    }
+
+    // L'échéance suivante découle de la précédente pour compenser le temps de calcul du pas
+    deadline = deadline == 0 ? now + period : deadline + period;
+
+    // Si le retard est trop important, on abandonne les échéances manquées
+    if (now - deadline > MAX_CATCH_UP_PERIODS * period) deadline = now;
+
+    parkUntil(Math.max(deadline, now + minimumPause), keepWaiting);
+  }
+
+  /**
+   * Parque le thread jusqu'à une échéance, en reprenant l'attente après un réveil prématuré
+   *
+   * @param wakeUpTime L'échéance ({@link System#nanoTime()})
+   * @param keepWaiting La condition à laquelle l'attente se poursuit
+   */
+  private void parkUntil(long wakeUpTime, BooleanSupplier keepWaiting) {
+    long remaining;
+    while ((remaining = wakeUpTime - System.nanoTime()) > 0 && keepWaiting.getAsBoolean()) {
+      LockSupport.parkNanos(this, remaining);
+      if (Thread.currentThread().isInterrupted()) return;
+    }
+  }
+
+  /**
+   * Ajoute un pas à la fenêtre de mesure et met à jour le cadencement atteint lorsque la fenêtre
+   * est écoulée
+   *
+   * @param now Le temps actuel ({@link System#nanoTime()})
+   * @param deltaTime Le temps simulé par le pas (s)
+   */
+  private void measure(long now, double deltaTime) {
+    windowSteps++;
+    windowSimulatedTime += deltaTime;
+
+    long elapsed = now - windowStart;
+    if (elapsed < MEASUREMENT_WINDOW_NANOS) return;
+
+    double seconds = elapsed / NANOS_PER_SECOND;
+    achievedStepsPerSecond = windowSteps / seconds;
+    achievedTimeScale = windowSimulatedTime / seconds;
+
+    windowStart = now;
+    windowSteps = 0;
+    windowSimulatedTime = 0;
+  }
+
+  /**
+   * Retourne la période visée entre le début de deux pas
+   *
+   * @param deltaTime Le temps simulé par un pas (s)
+   * @return La période (ns), {@code 0} si les pas ne sont pas cadencés
+   */
+  private long getPeriodNanos(double deltaTime) {
+    switch (mode) {
+      case STEPS_PER_SECOND:
+        return targetStepsPerSecond > 0 ? (long) (NANOS_PER_SECOND / targetStepsPerSecond) : 0;
+      case TIME_SCALE:
+        return targetTimeScale > 0 && deltaTime > 0
+            ? (long) (deltaTime / targetTimeScale * NANOS_PER_SECOND)
+            : 0;
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * Retourne le nombre de pas par seconde visé, selon le mode de cadencement
+   *
+   * @param deltaTime Le temps simulé par un pas (s)
+   * @return Le nombre de pas par seconde visé, {@code 0} en mode {@code AS_FAST_AS_POSSIBLE}
+   */
+  public double getTargetStepsPerSecond(double deltaTime) {
+    long period = getPeriodNanos(deltaTime);
+    return period > 0 ? NANOS_PER_SECOND / period : 0;
+  }
+
+  /**
+   * Retourne le mode de cadencement
+   *
+   * @return Le mode de cadencement
+   */
+  public PACING_MODE getMode() {
+    return mode;
+  }
+
+  /**
+   * Modifie le mode de cadencement. La modification prend effet au prochain pas.
+   *
+   * @param mode Le nouveau mode de cadencement, {@code AS_FAST_AS_POSSIBLE} si {@code null}
+   */
+  public void setMode(PACING_MODE mode) {
+    this.mode = mode == null ? PACING_MODE.AS_FAST_AS_POSSIBLE : mode;
+  }
+
+  /**
+   * Retourne le nombre de pas par seconde visé en mode {@code STEPS_PER_SECOND}
+   *
+   * @return Le nombre de pas par seconde visé
+   */
+  public double getTargetStepsPerSecond() {
+    return targetStepsPerSecond;
+  }
+
+  /**
+   * Modifie le nombre de pas par seconde visé en mode {@code STEPS_PER_SECOND}
+   *
+   * @param targetStepsPerSecond Le nombre de pas par seconde visé, une valeur négative ou nulle
+   *     retire le cadencement
+   */
+  public void setTargetStepsPerSecond(double targetStepsPerSecond) {
+    this.targetStepsPerSecond = Math.max(0, targetStepsPerSecond);
+  }
+
+  /**
+   * Retourne le nombre de secondes simulées par seconde réelle visé en mode {@code TIME_SCALE}
+   *
+   * @return Le rapport entre le temps simulé et le temps réel visé
+   */
+  public double getTargetTimeScale() {
+    return targetTimeScale;
+  }
+
+  /**
+   * Modifie le nombre de secondes simulées par seconde réelle visé en mode {@code TIME_SCALE}
+   *
+   * @param targetTimeScale Le rapport entre le temps simulé et le temps réel visé, une valeur
+   *     négative ou nulle retire le cadencement
+   */
+  public void setTargetTimeScale(double targetTimeScale) {
+    this.targetTimeScale = Math.max(0, targetTimeScale);
+  }
+
+  /**
+   * Retourne le nombre de pas par seconde atteint lors de la dernière fenêtre de mesure
+   *
+   * @return Le nombre de pas par seconde atteint, {@code 0} si aucune mesure n'est disponible
+   */
+  public double getAchievedStepsPerSecond() {
+    return achievedStepsPerSecond;
+  }
+
+  /**
+   * Retourne le nombre de secondes simulées par seconde réelle atteint lors de la dernière fenêtre
+   * de mesure
+   *
+   * @return Le rapport entre le temps simulé et le temps réel atteint, {@code 0} si aucune mesure
+   *     n'est disponible
+   */
+  public double getAchievedTimeScale() {
+    return achievedTimeScale;
+  }
+}
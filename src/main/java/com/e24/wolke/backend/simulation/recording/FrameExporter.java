@@ -0,0 +1,370 @@
+package com.e24.wolke.backend.simulation.recording;
+
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.models.obstacles.WObstacleCellMatrix;
+import com.e24.wolke.backend.models.renderer.OffscreenRenderer;
+import com.e24.wolke.backend.simulation.physics.ParticleMatrix;
+import com.e24.wolke.backend.simulation.physics.SimulationData;
+import com.e24.wolke.backend.simulation.physics.engine.PhysicsEngine;
+import com.e24.wolke.backend.simulation.physics.engine.StepListener;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.imageio.ImageIO;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * FrameExporter.java
+ *
+ * <p>Exporte une séquence d'images de la simulation sur le disque, toutes les {@code decimation}
+ * itérations, pour en faire des vidéos ou des figures. Les images sont rendues par un {@link
+ * OffscreenRenderer} et numérotées sans trou ({@code frame-000000.png}, {@code frame-000001.png},
+ * ...), quelle que soit la décimation.
+ *
+ * <p>À la fin d'un pas, le thread du moteur rend l'image dans un tampon libre puis la confie au
+ * pool d'écriture, dont les threads encodent et écrivent les images en parallèle. Contrairement à
+ * {@link FrameRecorder}, aucune image n'est abandonnée : s'il n'y a plus de tampon libre parce que
+ * l'écriture prend du retard, le moteur attend qu'un tampon se libère. La mémoire utilisée reste
+ * donc bornée à {@value #IMAGES_PER_WRITER} images par thread d'écriture.
+ *
+ * <p>Le format {@link ImageFormat#PPM} écrit les pixels sans compression, bien plus vite que
+ * {@link ImageFormat#PNG} mais avec des fichiers plus gros.
+ *
+ * @author Nilon123456789
+ */
+public class FrameExporter implements StepListener, AutoCloseable {
+
+  /**
+   * Les formats des images exportées
+   *
+   * <p>[PNG, PPM]
+   *
+   * @author Nilon123456789
+   */
+  public enum ImageFormat {
+    /** PNG, compressé sans perte */
+    PNG("png"),
+
+    /** PPM binaire (P6), sans compression */
+    PPM("ppm");
+
+    /** L'extension des fichiers */
+    private final String extension;
+
+    /**
+     * Construction d'un element de {@code ImageFormat}
+     *
+     * @param extension L'extension des fichiers
+     */
+    ImageFormat(String extension) {
+      this.extension = extension;
+    }
+
+    /**
+     * Getter pour {@code this#extension}
+     *
+     * @return L'extension des fichiers, sans le point
+     */
+    public String getExtension() {
+      return extension;
+    }
+  }
+
+  /** Préfixe des fichiers des images */
+  public static final String FILE_PREFIX = "frame-";
+
+  /** Nombre de threads d'écriture par défaut, la moitié des processeurs */
+  public static final int DEFAULT_WRITER_THREADS =
+      Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+  /** Nombre de tampons d'images par thread d'écriture */
+  static final int IMAGES_PER_WRITER = 2;
+
+  /** Logger de la classe */
+  private static final Logger LOGGER = LogManager.getLogger(FrameExporter.class.getSimpleName());
+
+  /** Dossier des images */
+  private final Path directory;
+
+  /** Rend les images */
+  private final OffscreenRenderer renderer;
+
+  /** Format des images */
+  private final ImageFormat format;
+
+  /** Nombre d'itérations entre deux images exportées */
+  private final int decimation;
+
+  /** Tampons libres, remplis par le thread du moteur */
+  private final BlockingQueue<BufferedImage> freeImages;
+
+  /** Pool des threads d'écriture */
+  private final ExecutorService writers;
+
+  /** Numéro de la prochaine image, n'est modifié que par le thread du moteur */
+  private long nextSequence;
+
+  /** Nombre d'images écrites */
+  private final AtomicLong exportedFrames = new AtomicLong();
+
+  /** Première erreur d'écriture, {@code null} s'il n'y en a pas eu */
+  private volatile IOException failure;
+
+  /** Si l'exportation est fermée */
+  private volatile boolean closed;
+
+  /**
+   * Constructeur de la classe FrameExporter, avec {@link #DEFAULT_WRITER_THREADS} threads
+   * d'écriture
+   *
+   * @param directory Dossier des images, les images existantes sont remplacées
+   * @param renderer Rend les images
+   * @param format Format des images
+   * @param xLength Largeur de la simulation (px)
+   * @param yLength Hauteur de la simulation (px)
+   * @param decimation Nombre d'itérations entre deux images exportées
+   * @throws IOException En cas d'erreur de création du dossier
+   */
+  public FrameExporter(
+      Path directory,
+      OffscreenRenderer renderer,
+      ImageFormat format,
+      int xLength,
+      int yLength,
+      int decimation)
+      throws IOException {
+    this(directory, renderer, format, xLength, yLength, decimation, DEFAULT_WRITER_THREADS);
+  }
+
+  /**
+   * Constructeur de la classe FrameExporter
+   *
+   * @param directory Dossier des images, les images existantes sont remplacées
+   * @param renderer Rend les images
+   * @param format Format des images
+   * @param xLength Largeur de la simulation (px)
+   * @param yLength Hauteur de la simulation (px)
+   * @param decimation Nombre d'itérations entre deux images exportées
+   * @param writerThreads Nombre de threads d'écriture
+   * @throws IOException En cas d'erreur de création du dossier
+   * @throws IllegalArgumentException Si un paramètre est invalide
+   */
+  public FrameExporter(
+      Path directory,
+      OffscreenRenderer renderer,
+      ImageFormat format,
+      int xLength,
+      int yLength,
+      int decimation,
+      int writerThreads)
+      throws IOException {
+    if (decimation <= 0)
+      throw new IllegalArgumentException("Decimation must be positive: " + decimation);
+    if (writerThreads <= 0)
+      throw new IllegalArgumentException("Writer threads must be positive: " + writerThreads);
+
+    this.directory = directory;
+    this.renderer = renderer;
+    this.format = format;
+    this.decimation = decimation;
+
+    Files.createDirectories(directory);
+
+    int imageCount = writerThreads * IMAGES_PER_WRITER;
+    freeImages = new ArrayBlockingQueue<>(imageCount);
+    for (int i = 0; i < imageCount; i++) freeImages.add(renderer.createImage(xLength, yLength));
+
+    AtomicInteger threadCount = new AtomicInteger();
+    writers =
+        Executors.newFixedThreadPool(
+            writerThreads,
+            runnable -> {
+              Thread thread =
+                  new Thread(
+                      runnable, getClass().getSimpleName() + "-" + threadCount.getAndIncrement());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Exporte l'image de la matrice actuelle
+   *
+   * @param engine Le moteur physique
+   * @param iteration L'itération qui vient d'être calculée
+   */
+  @Override
+  public void stepCompleted(PhysicsEngine engine, int iteration) {
+    if (iteration % decimation != 0) return;
+
+    SimulationData simulationData = engine.getSimulationData();
+    exportFrame(simulationData.getCurrentParticleMatrix(), simulationData.getObstacle());
+  }
+
+  /**
+   * Rend une image dans un tampon libre et la confie au pool d'écriture. Attend qu'un tampon se
+   * libère si tous sont en cours d'écriture.
+   *
+   * @param matrix La matrice de particules
+   * @param obstacles Les obstacles, {@code null} s'il n'y en a pas
+   * @return {@code true} si l'image a été confiée au pool d'écriture, {@code false} si
+   *     l'exportation est fermée, a échoué ou si le thread a été interrompu
+   */
+  public boolean exportFrame(ParticleMatrix matrix, WObstacleCellMatrix obstacles) {
+    if (closed || failure != null) return false;
+
+    BufferedImage image;
+    try {
+      image = freeImages.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+
+    renderer.render(matrix, obstacles, image);
+
+    Path file = getFrameFile(directory, nextSequence++, format);
+    writers.execute(() -> writeFrame(image, file));
+    return true;
+  }
+
+  /**
+   * Écrit une image puis rend son tampon. Seule la première erreur est conservée, les images
+   * suivantes ne sont plus écrites.
+   *
+   * @param image L'image
+   * @param file Le fichier de l'image
+   */
+  private void writeFrame(BufferedImage image, Path file) {
+    try {
+      if (failure == null) {
+        write(image, file, format);
+        exportedFrames.incrementAndGet();
+      }
+    } catch (IOException | RuntimeException e) {
+      synchronized (this) {
+        if (failure == null) {
+          failure = e instanceof IOException ? (IOException) e : new IOException(e);
+          LOGGER.warn(
+              LocaleManager.getLocaleResourceBundle().getString("log.frameExporter.failed"),
+              directory,
+              e.getMessage());
+        }
+      }
+    } finally {
+      freeImages.add(image);
+    }
+  }
+
+  /**
+   * Arrête l'exportation : attend l'écriture des images en attente
+   *
+   * @throws IOException Si une image n'a pas pu être écrite
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) return;
+    closed = true;
+
+    writers.shutdown();
+    boolean interrupted = false;
+    while (!writers.isTerminated()) {
+      try {
+        writers.awaitTermination(1, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+
+    LOGGER.info(
+        LocaleManager.getLocaleResourceBundle().getString("log.frameExporter.closed"),
+        exportedFrames.get(),
+        directory);
+
+    if (interrupted) Thread.currentThread().interrupt();
+    if (failure != null) throw failure;
+  }
+
+  /**
+   * Écrit une image dans un fichier
+   *
+   * @param image L'image {@code TYPE_INT_RGB}
+   * @param file Le fichier, remplacé s'il existe
+   * @param format Le format de l'image
+   * @throws IOException En cas d'erreur d'écriture
+   */
+  public static void write(BufferedImage image, Path file, ImageFormat format) throws IOException {
+    switch (format) {
+      case PPM:
+        writePpm(image, file);
+        break;
+      default:
+        if (!ImageIO.write(image, format.getExtension(), file.toFile()))
+          throw new IOException("No image writer for " + format);
+    }
+  }
+
+  /**
+   * Écrit une image en PPM binaire (P6) : un en-tête texte, puis les composantes rouge, verte et
+   * bleue de chaque pixel, ligne par ligne
+   *
+   * @param image L'image {@code TYPE_INT_RGB}
+   * @param file Le fichier, remplacé s'il existe
+   * @throws IOException En cas d'erreur d'écriture
+   */
+  private static void writePpm(BufferedImage image, Path file) throws IOException {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    byte[] row = new byte[width * 3];
+
+    try (OutputStream out = Files.newOutputStream(file)) {
+      out.write(("P6\n" + width + " " + height + "\n255\n").getBytes(StandardCharsets.US_ASCII));
+
+      for (int y = 0; y < height; y++) {
+        for (int x = 0; x < width; x++) {
+          int rgb = pixels[y * width + x];
+          row[3 * x] = (byte) (rgb >> 16);
+          row[3 * x + 1] = (byte) (rgb >> 8);
+          row[3 * x + 2] = (byte) rgb;
+        }
+        out.write(row);
+      }
+    }
+  }
+
+  /**
+   * Retourne le fichier d'une image
+   *
+   * @param directory Le dossier des images
+   * @param sequence Le numéro de l'image
+   * @param format Le format de l'image
+   * @return Le fichier de l'image
+   */
+  public static Path getFrameFile(Path directory, long sequence, ImageFormat format) {
+    return directory.resolve(
+        String.format(Locale.ROOT, "%s%06d.%s", FILE_PREFIX, sequence, format.getExtension()));
+  }
+
+  /**
+   * Retourne le nombre d'images écrites
+   *
+   * @return Le nombre d'images écrites
+   */
+  public long getExportedFrames() {
+    return exportedFrames.get();
+  }
+}
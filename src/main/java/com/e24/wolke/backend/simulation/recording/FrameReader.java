@@ -0,0 +1,283 @@
+package com.e24.wolke.backend.simulation.recording;
+
+import com.e24.wolke.backend.simulation.physics.FieldSnapshot;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * FrameReader.java
+ *
+ * <p>Relit les images enregistrées par un {@link FrameRecorder}, de la plus ancienne à la plus
+ * récente encore présente dans l'anneau. Les segments sont projetés en mémoire en lecture seule et
+ * les champs ne sont copiés qu'à la demande.
+ *
+ * @author Nilon123456789
+ */
+public class FrameReader {
+
+  /** Largeur de la simulation (px) */
+  private final int xLength;
+
+  /** Hauteur de la simulation (px) */
+  private final int yLength;
+
+  /** Champs enregistrés */
+  private final EnumSet<RecordedField> fields;
+
+  /** Nombre d'itérations entre deux images enregistrées */
+  private final int decimation;
+
+  /** Images lues, par numéro croissant */
+  private final List<FrameLocation> frames = new ArrayList<>();
+
+  /**
+   * Constructeur de la classe FrameReader
+   *
+   * @param directory Le dossier des segments d'un enregistrement
+   * @throws IOException En cas d'erreur de lecture, ou si le dossier ne contient pas un
+   *     enregistrement valide
+   */
+  public FrameReader(Path directory) throws IOException {
+    MappedByteBuffer first = map(FrameRecorder.getSegmentFile(directory, 0));
+    xLength = first.getInt(8);
+    yLength = first.getInt(12);
+    fields = RecordedField.fromMask(first.getInt(16));
+    decimation = first.getInt(32);
+    int framesPerSegment = first.getInt(20);
+    int segmentCount = first.getInt(28);
+
+    if (xLength <= 0 || yLength <= 0 || fields.isEmpty() || framesPerSegment <= 0)
+      throw new IOException("Invalid recording header: " + directory);
+
+    int frameSize = FrameRecorder.FRAME_HEADER_SIZE + fields.size() * getSize() * Double.BYTES;
+
+    for (int i = 0; i < segmentCount; i++) {
+      MappedByteBuffer segment = i == 0 ? first : map(FrameRecorder.getSegmentFile(directory, i));
+      if (segment.getInt(0) != FrameRecorder.MAGIC
+          || segment.getInt(16) != first.getInt(16)
+          || segment.getInt(24) != i
+          || segment.capacity()
+              < FrameRecorder.SEGMENT_HEADER_SIZE + (long) frameSize * framesPerSegment)
+        throw new IOException("Segment " + i + " does not belong to the recording: " + directory);
+
+      for (int slot = 0; slot < framesPerSegment; slot++) {
+        int offset = FrameRecorder.SEGMENT_HEADER_SIZE + slot * frameSize;
+        long sequence = segment.getLong(offset);
+        if (sequence != 0) frames.add(new FrameLocation(sequence - 1, segment, offset));
+      }
+    }
+
+    frames.sort(Comparator.comparingLong(frame -> frame.sequence));
+  }
+
+  /**
+   * Projette un segment en mémoire en lecture seule et vérifie sa version
+   *
+   * @param file Le fichier du segment
+   * @return Le segment projeté
+   * @throws IOException En cas d'erreur de lecture ou si le fichier n'est pas un segment
+   */
+  private static MappedByteBuffer map(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() < FrameRecorder.SEGMENT_HEADER_SIZE)
+        throw new IOException("Not a recording segment: " + file);
+
+      MappedByteBuffer segment = channel.map(MapMode.READ_ONLY, 0, channel.size());
+      segment.order(ByteOrder.LITTLE_ENDIAN);
+
+      if (segment.getInt(0) != FrameRecorder.MAGIC)
+        throw new IOException("Not a recording segment: " + file);
+      if (segment.getInt(4) != FrameRecorder.VERSION)
+        throw new IOException("Unsupported recording version: " + file);
+
+      return segment;
+    }
+  }
+
+  /**
+   * Retourne le nombre d'images lisibles
+   *
+   * @return Le nombre d'images
+   */
+  public int getFrameCount() {
+    return frames.size();
+  }
+
+  /**
+   * Retourne le numéro d'une image depuis le début de l'enregistrement. Les numéros ne se suivent
+   * pas si des images ont été remplacées dans l'anneau.
+   *
+   * @param frame La position de l'image, de {@code 0} à {@link #getFrameCount()} exclus
+   * @return Le numéro de l'image
+   */
+  public long getSequence(int frame) {
+    return frames.get(frame).sequence;
+  }
+
+  /**
+   * Retourne l'itération de la simulation d'une image
+   *
+   * @param frame La position de l'image
+   * @return L'itération
+   */
+  public int getIteration(int frame) {
+    FrameLocation location = frames.get(frame);
+    return location.segment.getInt(location.offset + Long.BYTES);
+  }
+
+  /**
+   * Retourne le temps de la simulation d'une image
+   *
+   * @param frame La position de l'image
+   * @return Le temps
+   */
+  public double getTime(int frame) {
+    FrameLocation location = frames.get(frame);
+    return location.segment.getDouble(location.offset + Long.BYTES + Long.BYTES);
+  }
+
+  /**
+   * Copie les valeurs d'un champ d'une image
+   *
+   * @param frame La position de l'image
+   * @param field Le champ
+   * @param values Le tableau à remplir, de taille {@code xLength * yLength}
+   * @throws IllegalArgumentException Si le champ n'a pas été enregistré ou si la taille du tableau
+   *     est incorrecte
+   */
+  public void readField(int frame, RecordedField field, double[] values) {
+    if (!fields.contains(field))
+      throw new IllegalArgumentException("Field not recorded: " + field.getFieldName());
+    if (values.length != getSize())
+      throw new IllegalArgumentException("Array size " + values.length + " != " + getSize());
+
+    // Les champs sont rangés dans l'ordre de RecordedField
+    int index = 0;
+    for (RecordedField recorded : fields) {
+      if (recorded == field) break;
+      index++;
+    }
+
+    FrameLocation location = frames.get(frame);
+    int offset =
+        location.offset + FrameRecorder.FRAME_HEADER_SIZE + index * getSize() * Double.BYTES;
+    location
+        .segment
+        .slice(offset, getSize() * Double.BYTES)
+        .order(ByteOrder.LITTLE_ENDIAN)
+        .asDoubleBuffer()
+        .get(values);
+  }
+
+  /**
+   * Copie les valeurs d'un champ d'une image dans un nouveau tableau
+   *
+   * @param frame La position de l'image
+   * @param field Le champ
+   * @return Les valeurs du champ
+   */
+  public double[] readField(int frame, RecordedField field) {
+    double[] values = new double[getSize()];
+    readField(frame, field, values);
+    return values;
+  }
+
+  /**
+   * Copie tous les champs d'une image, pour la comparer avec {@link FieldSnapshot#compare}
+   *
+   * @param frame La position de l'image
+   * @return La copie des champs
+   */
+  public FieldSnapshot readSnapshot(int frame) {
+    FieldSnapshot snapshot = new FieldSnapshot(xLength, yLength);
+    for (RecordedField field : fields)
+      snapshot.putField(field.getFieldName(), readField(frame, field));
+    return snapshot;
+  }
+
+  /**
+   * Retourne la largeur de la simulation
+   *
+   * @return La largeur (px)
+   */
+  public int getXLength() {
+    return xLength;
+  }
+
+  /**
+   * Retourne la hauteur de la simulation
+   *
+   * @return La hauteur (px)
+   */
+  public int getYLength() {
+    return yLength;
+  }
+
+  /**
+   * Retourne les champs enregistrés
+   *
+   * @return Les champs
+   */
+  public Set<RecordedField> getFields() {
+    return Collections.unmodifiableSet(fields);
+  }
+
+  /**
+   * Retourne le nombre d'itérations entre deux images enregistrées
+   *
+   * @return La décimation
+   */
+  public int getDecimation() {
+    return decimation;
+  }
+
+  /**
+   * Retourne le nombre de cellules d'un champ
+   *
+   * @return Le nombre de cellules
+   */
+  private int getSize() {
+    return xLength * yLength;
+  }
+
+  /**
+   * Position d'une image dans un segment
+   *
+   * @author Nilon123456789
+   */
+  private static class FrameLocation {
+
+    /** Numéro de l'image */
+    private final long sequence;
+
+    /** Segment contenant l'image */
+    private final MappedByteBuffer segment;
+
+    /** Position de l'image dans le segment */
+    private final int offset;
+
+    /**
+     * Constructeur de la classe FrameLocation
+     *
+     * @param sequence Numéro de l'image
+     * @param segment Segment contenant l'image
+     * @param offset Position de l'image dans le segment
+     */
+    private FrameLocation(long sequence, MappedByteBuffer segment, int offset) {
+      this.sequence = sequence;
+      this.segment = segment;
+      this.offset = offset;
+    }
+  }
+}
@@ -0,0 +1,440 @@
+package com.e24.wolke.backend.simulation.recording;
+
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.simulation.physics.ParticleMatrix;
+import com.e24.wolke.backend.simulation.physics.engine.PhysicsEngine;
+import com.e24.wolke.backend.simulation.physics.engine.StepListener;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * FrameRecorder.java
+ *
+ * <p>Enregistre les champs choisis de la simulation sur le disque, toutes les {@code decimation}
+ * itérations, sans ralentir le moteur physique. Les images sont écrites dans un anneau de fichiers
+ * de segments projetés en mémoire et alloués à l'ouverture : une fois l'anneau plein, les images
+ * les plus anciennes sont remplacées, de sorte que l'espace disque utilisé est borné.
+ *
+ * <p>À la fin d'un pas, le thread du moteur copie les champs dans un tampon libre puis le confie
+ * au thread d'écriture, qui l'écrit dans les segments. Si aucun tampon n'est libre parce que
+ * l'écriture prend du retard, l'image est abandonnée plutôt que de bloquer le moteur, voir {@link
+ * #getDroppedFrames()}.
+ *
+ * <p>Format d'un segment : un en-tête de {@value #SEGMENT_HEADER_SIZE} octets, puis {@code
+ * framesPerSegment} emplacements d'images. Un emplacement commence par un en-tête de {@value
+ * #FRAME_HEADER_SIZE} octets (numéro de l'image + 1, itération, temps), suivi des champs dans
+ * l'ordre de {@link RecordedField}, en ordre little-endian. Un numéro nul indique un emplacement
+ * vide ou en cours d'écriture. Les images sont relues par {@link FrameReader}.
+ *
+ * @author Nilon123456789
+ */
+public class FrameRecorder implements StepListener, AutoCloseable {
+
+  /** Extension des fichiers de segments */
+  public static final String EXTENSION = ".wrec";
+
+  /** Préfixe des fichiers de segments */
+  public static final String FILE_PREFIX = "segment-";
+
+  /** Nombre de segments de l'anneau par défaut */
+  public static final int DEFAULT_SEGMENT_COUNT = 4;
+
+  /** Taille maximale d'un segment par défaut (octets) */
+  public static final long DEFAULT_SEGMENT_SIZE = 256L * 1024 * 1024;
+
+  /** Identifiant des fichiers de segments ("WREC") */
+  static final int MAGIC = 0x57524543;
+
+  /** Version du format des segments */
+  static final int VERSION = 1;
+
+  /** Taille de l'en-tête d'un segment (octets) */
+  static final int SEGMENT_HEADER_SIZE = 64;
+
+  /** Taille de l'en-tête d'une image (octets) */
+  static final int FRAME_HEADER_SIZE = 24;
+
+  /** Nombre de tampons entre le moteur et le thread d'écriture */
+  private static final int STAGING_BUFFERS = 3;
+
+  /** Logger de la classe */
+  private static final Logger LOGGER = LogManager.getLogger(FrameRecorder.class.getSimpleName());
+
+  /** Image d'arrêt du thread d'écriture */
+  private static final Frame CLOSE = new Frame(0);
+
+  /** Dossier des segments */
+  private final Path directory;
+
+  /** Champs enregistrés */
+  private final RecordedField[] fields;
+
+  /** Nombre de cellules d'un champ */
+  private final int size;
+
+  /** Nombre d'itérations entre deux images enregistrées */
+  private final int decimation;
+
+  /** Nombre d'images par segment */
+  private final int framesPerSegment;
+
+  /** Taille d'un emplacement d'image (octets) */
+  private final int frameSize;
+
+  /** Segments projetés en mémoire */
+  private final MappedByteBuffer[] segments;
+
+  /** Tampons libres, remplis par le thread du moteur */
+  private final BlockingQueue<Frame> freeFrames;
+
+  /** Tampons remplis, en attente d'écriture */
+  private final BlockingQueue<Frame> pendingFrames;
+
+  /** Thread d'écriture */
+  private final Thread writerThread;
+
+  /** Numéro de la prochaine image, n'est modifié que par le thread du moteur */
+  private long nextSequence;
+
+  /** Nombre d'images écrites */
+  private final AtomicLong recordedFrames = new AtomicLong();
+
+  /** Nombre d'images abandonnées */
+  private final AtomicLong droppedFrames = new AtomicLong();
+
+  /** Si une erreur d'écriture a arrêté l'enregistrement */
+  private volatile boolean failed;
+
+  /** Si l'enregistrement est fermé */
+  private volatile boolean closed;
+
+  /**
+   * Constructeur de la classe FrameRecorder, avec l'anneau par défaut
+   *
+   * @param directory Dossier des segments, les segments existants sont remplacés
+   * @param xLength Largeur de la simulation (px)
+   * @param yLength Hauteur de la simulation (px)
+   * @param fields Champs enregistrés
+   * @param decimation Nombre d'itérations entre deux images enregistrées
+   * @throws IOException En cas d'erreur de création des segments
+   */
+  public FrameRecorder(
+      Path directory, int xLength, int yLength, EnumSet<RecordedField> fields, int decimation)
+      throws IOException {
+    this(
+        directory,
+        xLength,
+        yLength,
+        fields,
+        decimation,
+        DEFAULT_SEGMENT_COUNT,
+        getFramesPerSegment(xLength * yLength, fields.size(), DEFAULT_SEGMENT_SIZE));
+  }
+
+  /**
+   * Constructeur de la classe FrameRecorder
+   *
+   * @param directory Dossier des segments, les segments existants sont remplacés
+   * @param xLength Largeur de la simulation (px)
+   * @param yLength Hauteur de la simulation (px)
+   * @param fields Champs enregistrés
+   * @param decimation Nombre d'itérations entre deux images enregistrées
+   * @param segmentCount Nombre de segments de l'anneau
+   * @param framesPerSegment Nombre d'images par segment
+   * @throws IOException En cas d'erreur de création des segments
+   * @throws IllegalArgumentException Si un paramètre est invalide ou si un segment dépasse 2 Go
+   */
+  public FrameRecorder(
+      Path directory,
+      int xLength,
+      int yLength,
+      EnumSet<RecordedField> fields,
+      int decimation,
+      int segmentCount,
+      int framesPerSegment)
+      throws IOException {
+    if (fields.isEmpty()) throw new IllegalArgumentException("No field to record");
+    if (decimation <= 0)
+      throw new IllegalArgumentException("Decimation must be positive: " + decimation);
+    if (segmentCount <= 0 || framesPerSegment <= 0)
+      throw new IllegalArgumentException("Segment count and size must be positive");
+
+    this.directory = directory;
+    this.fields = fields.toArray(new RecordedField[0]);
+    this.size = xLength * yLength;
+    this.decimation = decimation;
+    this.framesPerSegment = framesPerSegment;
+
+    long frameBytes = FRAME_HEADER_SIZE + (long) this.fields.length * size * Double.BYTES;
+    long segmentBytes = SEGMENT_HEADER_SIZE + frameBytes * framesPerSegment;
+    if (segmentBytes > Integer.MAX_VALUE)
+      throw new IllegalArgumentException("Segment too large: " + segmentBytes + " bytes");
+    this.frameSize = (int) frameBytes;
+
+    Files.createDirectories(directory);
+    segments = new MappedByteBuffer[segmentCount];
+    for (int i = 0; i < segmentCount; i++)
+      segments[i] =
+          createSegment(
+              getSegmentFile(directory, i),
+              segmentBytes,
+              xLength,
+              yLength,
+              RecordedField.toMask(fields),
+              i);
+
+    freeFrames = new ArrayBlockingQueue<>(STAGING_BUFFERS);
+    pendingFrames = new ArrayBlockingQueue<>(STAGING_BUFFERS + 1);
+    for (int i = 0; i < STAGING_BUFFERS; i++) freeFrames.add(new Frame(this.fields.length * size));
+
+    writerThread = new Thread(this::writeFrames, getClass().getSimpleName());
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  /**
+   * Copie les champs de la matrice actuelle dans un tampon libre, ou abandonne l'image si aucun
+   * tampon n'est libre
+   *
+   * @param engine Le moteur physique
+   * @param iteration L'itération qui vient d'être calculée
+   */
+  @Override
+  public void stepCompleted(PhysicsEngine engine, int iteration) {
+    if (iteration % decimation != 0 || closed || failed) return;
+
+    Frame frame = freeFrames.poll();
+    if (frame == null) {
+      droppedFrames.incrementAndGet();
+      return;
+    }
+
+    ParticleMatrix matrix = engine.getSimulationData().getCurrentParticleMatrix();
+    for (int i = 0; i < fields.length; i++)
+      System.arraycopy(fields[i].getValues(matrix), 0, frame.data, i * size, size);
+
+    frame.sequence = nextSequence++;
+    frame.iteration = iteration;
+    frame.time = engine.getCurrentTime();
+    pendingFrames.add(frame);
+  }
+
+  /** Boucle du thread d'écriture : écrit les images en attente jusqu'à la fermeture */
+  private void writeFrames() {
+    while (true) {
+      Frame frame;
+      try {
+        frame = pendingFrames.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+
+      if (frame == CLOSE) return;
+
+      if (!failed) {
+        try {
+          writeFrame(frame);
+          recordedFrames.incrementAndGet();
+        } catch (RuntimeException | InternalError e) {
+          // Une erreur d'entrée/sortie sur une région projetée (disque plein, fichier supprimé)
+          // arrête l'enregistrement sans arrêter le moteur
+          failed = true;
+          LOGGER.warn(
+              LocaleManager.getLocaleResourceBundle().getString("log.frameRecorder.failed"),
+              directory,
+              e.getMessage());
+        }
+      }
+
+      freeFrames.add(frame);
+    }
+  }
+
+  /**
+   * Écrit une image dans son emplacement de l'anneau. Le numéro de l'image n'est écrit qu'en
+   * dernier, de sorte qu'un emplacement à moitié écrit est ignoré par {@link FrameReader}.
+   *
+   * @param frame L'image
+   */
+  private void writeFrame(Frame frame) {
+    long slot = frame.sequence % ((long) segments.length * framesPerSegment);
+    MappedByteBuffer segment = segments[(int) (slot / framesPerSegment)];
+    int offset = SEGMENT_HEADER_SIZE + (int) (slot % framesPerSegment) * frameSize;
+
+    segment.putLong(offset, 0);
+    segment.putInt(offset + Long.BYTES, frame.iteration);
+    segment.putDouble(offset + Long.BYTES + Long.BYTES, frame.time);
+
+    segment
+        .slice(offset + FRAME_HEADER_SIZE, frame.data.length * Double.BYTES)
+        .order(ByteOrder.LITTLE_ENDIAN)
+        .asDoubleBuffer()
+        .put(frame.data);
+
+    segment.putLong(offset, frame.sequence + 1);
+  }
+
+  /**
+   * Arrête l'enregistrement : attend l'écriture des images en attente, puis écrit les segments sur
+   * le disque
+   */
+  @Override
+  public void close() {
+    if (closed) return;
+    closed = true;
+
+    pendingFrames.add(CLOSE);
+    boolean interrupted = false;
+    while (writerThread.isAlive()) {
+      try {
+        writerThread.join();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+
+    for (MappedByteBuffer segment : segments) segment.force();
+
+    LOGGER.info(
+        LocaleManager.getLocaleResourceBundle().getString("log.frameRecorder.closed"),
+        recordedFrames.get(),
+        droppedFrames.get(),
+        directory);
+
+    if (interrupted) Thread.currentThread().interrupt();
+  }
+
+  /**
+   * Crée un segment vide et écrit son en-tête. Les emplacements d'images sont remplis de zéros,
+   * donc vides.
+   *
+   * @param file Le fichier du segment, remplacé s'il existe
+   * @param segmentBytes La taille du segment (octets)
+   * @param xLength Largeur de la simulation (px)
+   * @param yLength Hauteur de la simulation (px)
+   * @param fieldMask Masque des champs enregistrés
+   * @param index Position du segment dans l'anneau
+   * @return Le segment projeté en mémoire
+   * @throws IOException En cas d'erreur de création
+   */
+  private MappedByteBuffer createSegment(
+      Path file, long segmentBytes, int xLength, int yLength, int fieldMask, int index)
+      throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      // La projection reste valide après la fermeture du fichier
+      MappedByteBuffer segment = channel.map(MapMode.READ_WRITE, 0, segmentBytes);
+      segment.order(ByteOrder.LITTLE_ENDIAN);
+      segment
+          .putInt(MAGIC)
+          .putInt(VERSION)
+          .putInt(xLength)
+          .putInt(yLength)
+          .putInt(fieldMask)
+          .putInt(framesPerSegment)
+          .putInt(index)
+          .putInt(segments.length)
+          .putInt(decimation);
+      return segment;
+    }
+  }
+
+  /**
+   * Retourne le nombre d'images d'un segment pour qu'il ne dépasse pas une taille donnée
+   *
+   * @param size Nombre de cellules d'un champ
+   * @param fieldCount Nombre de champs enregistrés
+   * @param segmentSize Taille maximale d'un segment (octets)
+   * @return Le nombre d'images par segment, au moins 1
+   */
+  public static int getFramesPerSegment(int size, int fieldCount, long segmentSize) {
+    long frameBytes = FRAME_HEADER_SIZE + (long) fieldCount * size * Double.BYTES;
+    long frames = (segmentSize - SEGMENT_HEADER_SIZE) / frameBytes;
+    return (int) Math.max(1, Math.min(Integer.MAX_VALUE, frames));
+  }
+
+  /**
+   * Retourne le fichier d'un segment
+   *
+   * @param directory Le dossier des segments
+   * @param index La position du segment dans l'anneau
+   * @return Le fichier du segment
+   */
+  static Path getSegmentFile(Path directory, int index) {
+    return directory.resolve(FILE_PREFIX + index + EXTENSION);
+  }
+
+  /**
+   * Retourne le nombre d'images écrites
+   *
+   * @return Le nombre d'images écrites
+   */
+  public long getRecordedFrames() {
+    return recordedFrames.get();
+  }
+
+  /**
+   * Retourne le nombre d'images abandonnées parce que l'écriture prenait du retard
+   *
+   * @return Le nombre d'images abandonnées
+   */
+  public long getDroppedFrames() {
+    return droppedFrames.get();
+  }
+
+  /**
+   * Retourne le nombre d'images que l'anneau peut contenir
+   *
+   * @return La capacité de l'anneau
+   */
+  public int getCapacity() {
+    return segments.length * framesPerSegment;
+  }
+
+  /**
+   * Tampon d'une image entre le thread du moteur et le thread d'écriture
+   *
+   * @author Nilon123456789
+   */
+  private static class Frame {
+
+    /** Valeurs des champs, les uns à la suite des autres */
+    private final double[] data;
+
+    /** Numéro de l'image */
+    private long sequence;
+
+    /** Itération de la simulation */
+    private int iteration;
+
+    /** Temps de la simulation */
+    private double time;
+
+    /**
+     * Constructeur de la classe Frame
+     *
+     * @param length Nombre total de valeurs des champs
+     */
+    private Frame(int length) {
+      data = new double[length];
+    }
+  }
+}
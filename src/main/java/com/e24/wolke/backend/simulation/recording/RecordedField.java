@@ -0,0 +1,128 @@
+package com.e24.wolke.backend.simulation.recording;
+
+import com.e24.wolke.backend.simulation.physics.ParticleMatrix;
+import com.e24.wolke.utils.math.WDoubleMatrix;
+import java.util.EnumSet;
+import java.util.function.Function;
+
+/**
+ * Enum regroupant les champs d'une {@link ParticleMatrix} qui peuvent être enregistrés par un
+ * {@link FrameRecorder}. Les noms correspondent à ceux de {@code FieldSnapshot}.
+ *
+ * @author Nilon123456789
+ */
+public enum RecordedField {
+  /** Vitesse en x */
+  X_VELOCITY("xVelocity", ParticleMatrix::getXVelocity),
+  /** Vitesse en y */
+  Y_VELOCITY("yVelocity", ParticleMatrix::getYVelocity),
+  /** Norme de la vitesse */
+  VELOCITY("velocity", ParticleMatrix::getVelocity),
+  /** Pression */
+  PRESSURE("pressure", ParticleMatrix::getPressure),
+  /** Température */
+  TEMPERATURE("temperature", ParticleMatrix::getTemperature),
+  /** Densité de surface */
+  AREA_DENSITY("areaDensity", ParticleMatrix::getAreaDensity),
+  /** Divergence de la vitesse */
+  VELOCITY_DIVERGENCE("velocityDivergence", ParticleMatrix::getVelocityDivergence),
+  /** Rotationnel de la vitesse */
+  VELOCITY_CURL("velocityCurl", ParticleMatrix::getVelocityCurl);
+
+  /** Le nom du champ */
+  private final String fieldName;
+
+  /** Retourne la matrice du champ d'une matrice de particules */
+  private final Function<ParticleMatrix, WDoubleMatrix> accessor;
+
+  /**
+   * Construction d'un element de {@code RecordedField}
+   *
+   * @param fieldName Le nom du champ
+   * @param accessor Retourne la matrice du champ d'une matrice de particules
+   */
+  RecordedField(String fieldName, Function<ParticleMatrix, WDoubleMatrix> accessor) {
+    this.fieldName = fieldName;
+    this.accessor = accessor;
+  }
+
+  /**
+   * Retourne le nom du champ
+   *
+   * @return Le nom du champ
+   */
+  public String getFieldName() {
+    return fieldName;
+  }
+
+  /**
+   * Retourne les valeurs du champ d'une matrice de particules, sans copie
+   *
+   * @param matrix La matrice de particules
+   * @return Les valeurs du champ
+   */
+  public double[] getValues(ParticleMatrix matrix) {
+    return accessor.apply(matrix).getMatrix();
+  }
+
+  /**
+   * Retourne le champ correspondant à un nom, sans tenir compte de la casse. Le nom de l'enum et
+   * le nom du champ sont acceptés.
+   *
+   * @param name Le nom du champ
+   * @return Le champ
+   * @throws IllegalArgumentException Si aucun champ ne correspond
+   */
+  public static RecordedField fromName(String name) {
+    for (RecordedField field : RecordedField.values())
+      if (field.fieldName.equalsIgnoreCase(name) || field.name().equalsIgnoreCase(name))
+        return field;
+
+    throw new IllegalArgumentException("Unknown field: " + name);
+  }
+
+  /**
+   * Lit une liste de champs séparés par des virgules
+   *
+   * @param names Les noms des champs, par exemple {@code "xVelocity,pressure"}
+   * @return Les champs
+   * @throws IllegalArgumentException Si un champ est inconnu ou si la liste est vide
+   */
+  public static EnumSet<RecordedField> parseList(String names) {
+    EnumSet<RecordedField> fields = EnumSet.noneOf(RecordedField.class);
+    for (String name : names.split(",")) {
+      if (name.isBlank()) continue;
+      fields.add(fromName(name.trim()));
+    }
+
+    if (fields.isEmpty()) throw new IllegalArgumentException("No field in: " + names);
+
+    return fields;
+  }
+
+  /**
+   * Encode des champs en masque de bits, selon leur ordinal
+   *
+   * @param fields Les champs
+   * @return Le masque
+   */
+  public static int toMask(EnumSet<RecordedField> fields) {
+    int mask = 0;
+    for (RecordedField field : fields) mask |= 1 << field.ordinal();
+    return mask;
+  }
+
+  /**
+   * Décode un masque de bits de champs
+   *
+   * @param mask Le masque
+   * @return Les champs
+   */
+  public static EnumSet<RecordedField> fromMask(int mask) {
+    EnumSet<RecordedField> fields = EnumSet.noneOf(RecordedField.class);
+    for (RecordedField field : RecordedField.values())
+      if ((mask & (1 << field.ordinal())) != 0) fields.add(field);
+
+    return fields;
+  }
+}
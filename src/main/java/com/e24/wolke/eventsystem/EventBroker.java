@@ -2,8 +2,8 @@ package com.e24.wolke.eventsystem;
 
 import com.e24.wolke.utils.interfaces.Reinitializable;
 import java.util.ArrayList;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Consumer;
 
 /**
@@ -14,8 +14,12 @@ import java.util.function.Consumer;
  */
 public class EventBroker implements Reinitializable {
 
-  /** Arbre binaire contenant les {@code Subscription} */
-  private TreeSet<Subscription> subscriptions;
+  /**
+   * Tableau contenant les {@code Subscription}, indexé par {@link Subject#ordinal()}. La taille est
+   * fixée au nombre de {@code Subject}, de sorte que la recherche d'un {@code Subscription} se fait
+   * en temps constant et sans allocation lors d'une diffusion.
+   */
+  private final AtomicReferenceArray<Subscription> subscriptions;
 
   /**
    * Le {@code ConcurrentHashMap} permettant de memoriser les {@code Consumer} avec un identifiant
@@ -25,7 +29,7 @@ public class EventBroker implements Reinitializable {
 
   /** Construction d'un {@code EventBroker}. */
   public EventBroker() {
-    subscriptions = new TreeSet<Subscription>();
+    subscriptions = new AtomicReferenceArray<Subscription>(Subject.values().length);
     callbackIDMap = new ConcurrentHashMap<Integer, ArrayList<Consumer<Object>>>();
   }
 
@@ -48,7 +52,7 @@ public class EventBroker implements Reinitializable {
    */
   protected boolean subscribe(Subject subject, Consumer<Object> callback) {
     add(subject);
-    return get(subject).subscribe(callback);
+    return subscriptions.get(subject.ordinal()).subscribe(callback);
   }
 
   /**
@@ -67,9 +71,10 @@ public class EventBroker implements Reinitializable {
    *     {@code Subscription}.
    */
   protected boolean unsubscribe(Subject subject, Consumer<Object> callback) {
-    if (!contains(subject)) return false;
+    Subscription subscription = get(subject);
+    if (subscription == null) return false;
 
-    return get(subject).unsubscribe(callback);
+    return subscription.unsubscribe(callback);
   }
 
   /**
@@ -90,9 +95,10 @@ public class EventBroker implements Reinitializable {
    * @return {@code true} si la diffusion du message a ete effectuée avec succès
    */
   protected boolean publish(Subject subject, Object message) {
-    if (!contains(subject)) return false;
+    Subscription subscription = subscriptions.get(subject.ordinal());
+    if (subscription == null) return false;
 
-    return get(subject).invokeCallbacks(message);
+    return subscription.invokeCallbacks(message);
   }
 
   // =================
@@ -109,7 +115,7 @@ public class EventBroker implements Reinitializable {
    *     Subscription} associé au {@code subject}
    */
   private boolean contains(Subject subject) {
-    return subscriptions.contains(new Subscription(subject));
+    return subscriptions.get(subject.ordinal()) != null;
   }
 
   /**
@@ -140,11 +146,12 @@ public class EventBroker implements Reinitializable {
    *     {@code Subject} ou l'identifiant ne sont pas presents
    */
   protected boolean unsubscribeWithID(Subject subject, int id) {
-    if (!contains(subject)) return false;
+    Subscription subscription = get(subject);
+    if (subscription == null) return false;
 
     if (!callbackIDMap.containsKey(id)) return false;
 
-    return get(subject).unsubscribeAll(callbackIDMap.get(id));
+    return subscription.unsubscribeAll(callbackIDMap.get(id));
   }
 
   /**
@@ -160,8 +167,11 @@ public class EventBroker implements Reinitializable {
 
     if (!callbackIDMap.containsKey(id)) return false;
 
-    for (Subscription subscription : subscriptions) {
-      if (subscription.unsubscribeAll(callbackIDMap.get(id))) success = true;
+    ArrayList<Consumer<Object>> callbacks = callbackIDMap.get(id);
+
+    for (int i = 0; i < subscriptions.length(); i++) {
+      Subscription subscription = subscriptions.get(i);
+      if (subscription != null && subscription.unsubscribeAll(callbacks)) success = true;
     }
 
     clearID(id);
@@ -191,9 +201,7 @@ public class EventBroker implements Reinitializable {
    *     Subscription} ne contient pas un {@code Subscription} associé au {@code Subject}
    */
   private Subscription get(Subject subject) {
-    if (!contains(subject)) return null;
-
-    return subscriptions.stream().filter(sub -> sub.equals(subject)).findAny().get();
+    return subscriptions.get(subject.ordinal());
   }
 
   /**
@@ -206,13 +214,15 @@ public class EventBroker implements Reinitializable {
    *     deja le {@code Subscription}
    */
   private boolean add(Subject subject) {
-    return subscriptions.add(new Subscription(subject));
+    if (contains(subject)) return false;
+
+    return subscriptions.compareAndSet(subject.ordinal(), null, new Subscription(subject));
   }
 
   /** {@inheritDoc} La liste de {@code Subscription} de cette instance est videe. */
   @Override
   public void reinitialize() {
-    subscriptions.removeIf(o -> true);
+    for (int i = 0; i < subscriptions.length(); i++) subscriptions.set(i, null);
     callbackIDMap.clear();
   }
 }
@@ -112,6 +112,12 @@ public enum Subject {
    */
   ON_APP_INSPECTOR_VISIBILITY_CHANGED(Boolean.class),
 
+  /**
+   * Sujet a diffuser pour avertir que la visibilité du panneau de performance a ete modifiee. Le
+   * type du message est {@code Boolean}.
+   */
+  ON_APP_PERFORMANCE_PANE_VISIBILITY_CHANGED(Boolean.class),
+
   /**
    * Sujet a diffuser pour avertir qu'une scène vient d'être chargée. Le type du message est {@code
    * null}.
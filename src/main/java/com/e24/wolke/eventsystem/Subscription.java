@@ -1,7 +1,7 @@
 package com.e24.wolke.eventsystem;
 
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Consumer;
 
 /**
@@ -15,11 +15,19 @@ public class Subscription implements Comparable<Subscription> {
   /** Le {@code Subject} associé à cette instance */
   private final Subject subject;
 
+  /** Tableau vide partagé utilisé lorsqu'aucun {@code Consumer} n'est abonné */
+  @SuppressWarnings("unchecked")
+  private static final Consumer<Object>[] EMPTY_CALLBACKS = new Consumer[0];
+
   /**
-   * Liste contenant la reference des {@code Consumer} a invoquer lors de la diffusion du {@code
-   * Subject} de cette instance
+   * Tableau contenant la reference des {@code Consumer} a invoquer lors de la diffusion du {@code
+   * Subject} de cette instance.
+   *
+   * <p>Le tableau est copié a chaque modification (copy-on-write), de sorte que la diffusion lit un
+   * instantané sans verrou ni allocation. Les abonnements étant beaucoup plus rares que les
+   * diffusions, le coût de la copie est négligeable.
    */
-  private ConcurrentLinkedQueue<Consumer<Object>> callbacks;
+  private volatile Consumer<Object>[] callbacks;
 
   /**
    * Construction d'un {@code Subscription} associé au {@code Subject} passé en paramètre.
@@ -28,7 +36,7 @@ public class Subscription implements Comparable<Subscription> {
    */
   protected Subscription(Subject subject) {
     this.subject = subject;
-    callbacks = new ConcurrentLinkedQueue<Consumer<Object>>();
+    callbacks = EMPTY_CALLBACKS;
   }
 
   /**
@@ -47,7 +55,9 @@ public class Subscription implements Comparable<Subscription> {
   protected boolean invokeCallbacks(Object message) {
     if (!subject.isValidMessage(message)) return false;
 
-    callbacks.forEach(callback -> callback.accept(message));
+    Consumer<Object>[] snapshot = callbacks;
+    for (int i = 0; i < snapshot.length; i++) snapshot[i].accept(message);
+
     return true;
   }
 
@@ -62,8 +72,12 @@ public class Subscription implements Comparable<Subscription> {
    *     succès
    * @see #invokeCallbacks(Object)
    */
-  protected boolean subscribe(Consumer<Object> callback) {
-    return callbacks.add(callback);
+  protected synchronized boolean subscribe(Consumer<Object> callback) {
+    Consumer<Object>[] newCallbacks = Arrays.copyOf(callbacks, callbacks.length + 1);
+    newCallbacks[callbacks.length] = callback;
+    callbacks = newCallbacks;
+
+    return true;
   }
 
   /**
@@ -76,8 +90,19 @@ public class Subscription implements Comparable<Subscription> {
    *     succès
    * @see #invokeCallbacks(Object)
    */
-  protected boolean unsubscribe(Consumer<Object> callback) {
-    return callbacks.remove(callback);
+  protected synchronized boolean unsubscribe(Consumer<Object> callback) {
+    Consumer<Object>[] current = callbacks;
+
+    for (int i = 0; i < current.length; i++) {
+      if (!current[i].equals(callback)) continue;
+
+      Consumer<Object>[] newCallbacks = Arrays.copyOf(current, current.length - 1);
+      System.arraycopy(current, i + 1, newCallbacks, i, current.length - i - 1);
+      callbacks = newCallbacks.length == 0 ? EMPTY_CALLBACKS : newCallbacks;
+      return true;
+    }
+
+    return false;
   }
 
   /**
@@ -91,8 +116,19 @@ public class Subscription implements Comparable<Subscription> {
    *     callbacks} avec succès
    * @see #invokeCallbacks(Object)
    */
-  protected boolean unsubscribeAll(Collection<Consumer<Object>> callbacks) {
-    return this.callbacks.removeAll(callbacks);
+  protected synchronized boolean unsubscribeAll(Collection<Consumer<Object>> callbacks) {
+    Consumer<Object>[] current = this.callbacks;
+    Consumer<Object>[] newCallbacks = Arrays.copyOf(current, current.length);
+    int size = 0;
+
+    for (int i = 0; i < current.length; i++) {
+      if (!callbacks.contains(current[i])) newCallbacks[size++] = current[i];
+    }
+
+    if (size == current.length) return false;
+
+    this.callbacks = size == 0 ? EMPTY_CALLBACKS : Arrays.copyOf(newCallbacks, size);
+    return true;
   }
 
   /**
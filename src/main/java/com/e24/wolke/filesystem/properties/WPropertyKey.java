@@ -59,6 +59,27 @@ public enum WPropertyKey {
   /** La cle poour {@code SimulationProperties#subtaskSize} */
   SIMULATION_MULTITHREADED_SUBTASK_SIZE("simulation.multiThreaded.subtaskSize", Integer.class),
 
+  /** La cle pour {@code SimulationConstants#DETERMINISTIC_EXECUTION} */
+  SIMULATION_DETERMINISTIC("simulation.deterministic", Boolean.class),
+
+  /** La cle pour {@code SimulationConstants#CHECKPOINT_INTERVAL} */
+  SIMULATION_CHECKPOINT_INTERVAL("simulation.checkpoint.interval", Integer.class),
+
+  /** La cle pour {@code SimulationConstants#AUTO_TUNE_ENGINE} */
+  SIMULATION_AUTO_TUNE("simulation.autoTune", Boolean.class),
+
+  /** La cle pour {@code SimulationConstants#PIPELINED_EXECUTION} */
+  SIMULATION_PIPELINED("simulation.pipelined", Boolean.class),
+
+  /** La cle pour {@code SimulationConstants#DEFAULT_PACING_MODE} */
+  SIMULATION_PACING_MODE("simulation.pacing.mode", Integer.class),
+
+  /** La cle pour {@code SimulationConstants#DEFAULT_TARGET_STEPS_PER_SECOND} */
+  SIMULATION_PACING_STEPS_PER_SECOND("simulation.pacing.stepsPerSecond", Double.class),
+
+  /** La cle pour {@code SimulationConstants#DEFAULT_TARGET_TIME_SCALE} */
+  SIMULATION_PACING_TIME_SCALE("simulation.pacing.timeScale", Double.class),
+
   /** La cle pour {@code SimulationProperties#physicalSize} */
   SIMULATION_PHYSICAL_SIZE("simulation.physicalSize", double[].class),
 
@@ -133,6 +154,36 @@ public enum WPropertyKey {
   /** La cle pour {@code RendererProperties#useOpenGL} */
   RENDERER_OPENGL("renderer.openGL", Boolean.class),
 
+  /** La cle pour {@code RendererConstants#RENDER_THREADS} */
+  RENDERER_THREADS("renderer.threads", Integer.class),
+
+  /** La cle pour {@code RendererConstants#OBSTACLE_COLOR} */
+  RENDERER_OBSTACLE_COLOR("renderer.obstacleColor", Color.class),
+
+  /** La cle pour {@code RendererConstants#DEFAULT_LIC_BLEND} */
+  RENDERER_LIC_BLEND("renderer.licBlend", Double.class),
+
+  /** La cle pour {@code RendererConstants#DEFAULT_AUTO_RANGE} */
+  RENDERER_AUTO_RANGE("renderer.autoRange", Boolean.class),
+
+  /** La cle pour {@code RendererConstants#AUTO_RANGE_PERCENTILES} */
+  RENDERER_AUTO_RANGE_PERCENTILES("renderer.autoRange.percentiles", double[].class),
+
+  /** La cle pour {@code RendererConstants#AUTO_RANGE_SMOOTHING} */
+  RENDERER_AUTO_RANGE_SMOOTHING("renderer.autoRange.smoothing", Double.class),
+
+  /** La cle pour {@code RendererProperties#targetFps} */
+  RENDERER_TARGET_FPS("renderer.targetFps", Integer.class),
+
+  /** La cle pour {@code RendererProperties#adaptiveQuality} */
+  RENDERER_ADAPTIVE_QUALITY("renderer.adaptiveQuality", Boolean.class),
+
+  /** La cle pour {@code RendererConstants#DEFAULT_DISPLAY_DOWNSAMPLING} */
+  RENDERER_DISPLAY_DOWNSAMPLING("renderer.displayDownsampling", Boolean.class),
+
+  /** La cle pour {@code RendererConstants#DOWNSAMPLING_BOX_FILTER} */
+  RENDERER_DOWNSAMPLING_BOX_FILTER("renderer.displayDownsampling.boxFilter", Boolean.class),
+
   // ========== EDITOR PROPERTIES ========== //
 
   /** La cle pour {@code EditorProperties#maxLayers} */
@@ -109,6 +109,9 @@ public class MenuBar extends JMenuBar implements WEventComponent, Reinitializabl
   /** Représente l'élément de menu avec case à cocher "Légende" dans le menu "Affichage". */
   private JCheckBoxMenuItem chckbxmntmLegend;
 
+  /** Représente l'élément de menu avec case à cocher "Performance" dans le menu "Affichage". */
+  private JCheckBoxMenuItem chckbxmntmPerformance;
+
   /** Représente le séparateur d'éléments dans le menu "Affichage" après "Légende". */
   private JSeparator separatorExamples;
 
@@ -254,6 +257,18 @@ public class MenuBar extends JMenuBar implements WEventComponent, Reinitializabl
                 .setLegendVisibility(chckbxmntmLegend.isSelected()));
     mnView.add(chckbxmntmLegend);
 
+    chckbxmntmPerformance =
+        new JCheckBoxMenuItem(
+            LocaleManager.getLocaleResourceBundle().getString("ui.menu_bar.view.performance"));
+    chckbxmntmPerformance.setSelected(
+        controller.getApplicationModel().getPerformancePaneVisibility());
+    chckbxmntmPerformance.addActionListener(
+        e ->
+            this.controller
+                .getApplicationModel()
+                .setPerformancePaneVisibility(chckbxmntmPerformance.isSelected()));
+    mnView.add(chckbxmntmPerformance);
+
     chckbxmntmZenMode =
         new JCheckBoxMenuItem(
             LocaleManager.getLocaleResourceBundle().getString("ui.menu_bar.view.zen_mode"));
@@ -511,6 +526,15 @@ public class MenuBar extends JMenuBar implements WEventComponent, Reinitializabl
               chckbxmntmLegend.setSelected((Boolean) msg);
             },
             subscriptionID);
+    controller
+        .getApplicationModel()
+        .getSubscriber()
+        .subscribeWithID(
+            Subject.ON_APP_PERFORMANCE_PANE_VISIBILITY_CHANGED,
+            msg -> {
+              chckbxmntmPerformance.setSelected((Boolean) msg);
+            },
+            subscriptionID);
     controller
         .getConsoleModel()
         .getSubscriber()
@@ -2,6 +2,7 @@ package com.e24.wolke.frontend.canvas;
 
 import com.e24.wolke.backend.controller.Controller;
 import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.models.renderer.RendererModel;
 import com.e24.wolke.backend.models.simulation.SimulationConstants;
 import com.e24.wolke.eventsystem.Subject;
 import com.e24.wolke.eventsystem.WEventComponent;
@@ -15,6 +16,7 @@ import java.awt.event.ComponentEvent;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Ellipse2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
 import javax.swing.JPanel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -82,6 +84,39 @@ public abstract class AbstractCanvasPane extends JPanel
   /** Contexte graphique du champ de vecteurs */
   private Graphics2D g2dVectorField = null;
 
+  /** Image compositée de la simulation et de l'éditeur, à la taille de l'image de la simulation */
+  private BufferedImage imgComposite = null;
+
+  /** Contexte graphique de l'image compositée */
+  private Graphics2D compositor = null;
+
+  /** Numéro de l'image de la simulation dans {@code this#imgComposite} */
+  private long compositeFrameId = -1;
+
+  /** Version de l'image de l'éditeur dans {@code this#imgComposite} */
+  private long compositeEditorVersion = -1;
+
+  /** Image de la simulation dans {@code this#imgComposite} */
+  private BufferedImage compositeSimulationImage = null;
+
+  /** Image de l'éditeur dans {@code this#imgComposite} */
+  private BufferedImage compositeEditorImage = null;
+
+  /** Image compositée mise à l'échelle du panneau, en mémoire graphique */
+  private VolatileImage imgScreen = null;
+
+  /** Si {@code this#imgScreen} doit être redessinée */
+  private boolean screenDirty = true;
+
+  /** Version du champ de vecteurs dans {@code this#imgScreen}, {@code -1} s'il est masqué */
+  private long screenVectorVersion = -1;
+
+  /** Version des lignes de courant dans {@code this#imgScreen}, {@code -1} si masquées */
+  private long screenFlowLineVersion = -1;
+
+  /** Matrice de transformation avec laquelle {@code this#imgScreen} a été dessinée */
+  private AffineTransform screenTransform = null;
+
   /** Marge gauche du panneau */
   protected double leftPadding = 0;
 
@@ -125,13 +160,13 @@ public abstract class AbstractCanvasPane extends JPanel
           controller.getRendererModel().setPixelSize(this.pixelSize);
           this.fullImageResolution =
               new int[] {(int) (this.pixelSize * simulationResolution[0]), this.panelResolution[1]};
-          this.controller.getRendererModel().setCanvasResolution(this.fullImageResolution);
+          controller.getRendererModel().setCanvasResolution(this, this.fullImageResolution);
         } else { // Le composant est plus haut que la simulation
           this.pixelSize = (double) this.panelResolution[0] / simulationResolution[0];
           controller.getRendererModel().setPixelSize(this.pixelSize);
           this.fullImageResolution =
               new int[] {this.panelResolution[0], (int) (this.pixelSize * simulationResolution[1])};
-          this.controller.getRendererModel().setCanvasResolution(this.fullImageResolution);
+          controller.getRendererModel().setCanvasResolution(this, this.fullImageResolution);
         }
         this.matSimulation = new AffineTransform();
         this.leftPadding = (panelResolution[0] - this.pixelSize * simulationResolution[0]) / 2;
@@ -151,6 +186,154 @@ public abstract class AbstractCanvasPane extends JPanel
     }
   }
 
+  /**
+   * Dessine l'image de la simulation, l'image de l'éditeur et le champ de vecteurs. L'image
+   * compositée n'est recomposée que si le numéro de l'image de la simulation ou la version de
+   * l'image de l'éditeur a changé, et sa mise à l'échelle n'est redessinée que si l'image
+   * compositée, le champ de vecteurs ou la taille du panneau a changé. Un simple repaint de Swing
+   * ne fait donc que copier une {@code VolatileImage} à l'écran.
+   *
+   * @param g2d Contexte graphique du panneau
+   */
+  protected void drawSimulation(Graphics2D g2d) {
+    if (getWidth() <= 0 || getHeight() <= 0) return;
+
+    RendererModel rendererModel = this.controller.getRendererModel();
+    BufferedImage simulationImage = rendererModel.getSimulationImage();
+    BufferedImage editorImage = this.controller.getEditorModel().getEditorImage();
+
+    updateComposite(
+        simulationImage,
+        rendererModel.getFrameId(),
+        editorImage,
+        this.controller.getEditorModel().getEditorImageVersion());
+
+    // Les superpositions suspendues par la qualité adaptative ne sont plus à jour
+    boolean showOverlays = !rendererModel.getOverlaysSuspended();
+    boolean showVectors = showOverlays && rendererModel.getShowVectors();
+    long vectorVersion = showVectors ? rendererModel.getVectorImageVersion() : -1;
+    long flowLineVersion =
+        showOverlays && rendererModel.getShowFlowLines()
+            ? rendererModel.getFlowLineImageVersion()
+            : -1;
+    if (vectorVersion != this.screenVectorVersion
+        || flowLineVersion != this.screenFlowLineVersion
+        || this.screenTransform != this.matSimulation) this.screenDirty = true;
+
+    do {
+      int status =
+          this.imgScreen == null
+              ? VolatileImage.IMAGE_INCOMPATIBLE
+              : this.imgScreen.validate(getGraphicsConfiguration());
+
+      if (status == VolatileImage.IMAGE_INCOMPATIBLE
+          || this.imgScreen.getWidth() != getWidth()
+          || this.imgScreen.getHeight() != getHeight()) {
+        this.imgScreen = createVolatileImage(getWidth(), getHeight());
+        this.screenDirty = true;
+
+        // Le panneau n'est pas affichable, l'image est dessinée directement
+        if (this.imgScreen == null) {
+          drawScreen(g2d, showVectors, flowLineVersion != -1);
+          return;
+        }
+      } else if (status == VolatileImage.IMAGE_RESTORED) this.screenDirty = true;
+
+      if (this.screenDirty) {
+        Graphics2D screen = this.imgScreen.createGraphics();
+        screen.setBackground(getBackground());
+        screen.clearRect(0, 0, getWidth(), getHeight());
+        drawScreen(screen, showVectors, flowLineVersion != -1);
+        screen.dispose();
+
+        this.screenDirty = false;
+        this.screenVectorVersion = vectorVersion;
+        this.screenFlowLineVersion = flowLineVersion;
+        this.screenTransform = this.matSimulation;
+      }
+
+      g2d.drawImage(this.imgScreen, 0, 0, null);
+    } while (this.imgScreen.contentsLost());
+  }
+
+  /**
+   * Recompose l'image de la simulation et l'image de l'éditeur si l'une d'elles a changé
+   *
+   * @param simulationImage L'image de la simulation
+   * @param frameId Le numéro de l'image de la simulation
+   * @param editorImage L'image de l'éditeur
+   * @param editorVersion La version de l'image de l'éditeur
+   */
+  private void updateComposite(
+      BufferedImage simulationImage, long frameId, BufferedImage editorImage, long editorVersion) {
+    if (this.imgComposite == null
+        || this.imgComposite.getWidth() != simulationImage.getWidth()
+        || this.imgComposite.getHeight() != simulationImage.getHeight()) {
+      if (this.compositor != null) this.compositor.dispose();
+      this.imgComposite =
+          new BufferedImage(
+              simulationImage.getWidth(), simulationImage.getHeight(), BufferedImage.TYPE_INT_RGB);
+      this.compositor = this.imgComposite.createGraphics();
+      this.compositeFrameId = -1;
+    }
+
+    if (frameId == this.compositeFrameId
+        && editorVersion == this.compositeEditorVersion
+        && simulationImage == this.compositeSimulationImage
+        && editorImage == this.compositeEditorImage) return;
+
+    // L'image de l'éditeur, à la résolution de la simulation, est réduite à la taille de l'image du
+    // rendu, qui n'est jamais plus petite que le canvas
+    this.compositor.drawImage(simulationImage, null, null);
+    this.compositor.drawImage(
+        editorImage, 0, 0, this.imgComposite.getWidth(), this.imgComposite.getHeight(), null);
+
+    this.compositeFrameId = frameId;
+    this.compositeEditorVersion = editorVersion;
+    this.compositeSimulationImage = simulationImage;
+    this.compositeEditorImage = editorImage;
+    this.screenDirty = true;
+  }
+
+  /**
+   * Dessine l'image compositée à l'échelle du panneau, puis les lignes de courant et le champ de
+   * vecteurs
+   *
+   * @param g2d Contexte graphique de destination
+   * @param showVectors Si le champ de vecteurs doit être dessiné
+   * @param showFlowLines Si les lignes de courant doivent être dessinées
+   */
+  private void drawScreen(Graphics2D g2d, boolean showVectors, boolean showFlowLines) {
+    g2d.drawImage(this.imgComposite, getImageTransform(this.imgComposite), null);
+
+    BufferedImage flowLineImage = this.controller.getRendererModel().getFlowLineImage();
+    if (showFlowLines && flowLineImage != null)
+      g2d.drawImage(flowLineImage, this.matFullImageRes, null);
+
+    if (showVectors)
+      g2d.drawImage(
+          this.controller.getRendererModel().getVectorImage(), this.matFullImageRes, null);
+  }
+
+  /**
+   * Retourne la matrice de transformation d'une image de la simulation, qui peut être plus petite
+   * que la simulation lorsque le rendu est réduit à la résolution du canvas
+   *
+   * @param image L'image de la simulation
+   * @return {@code this#matSimulation}, mise à l'échelle si l'image n'a pas la taille de la
+   *     simulation
+   */
+  protected AffineTransform getImageTransform(BufferedImage image) {
+    if (image.getWidth() == this.simulationResolution[0]
+        && image.getHeight() == this.simulationResolution[1]) return this.matSimulation;
+
+    AffineTransform transform = new AffineTransform(this.matSimulation);
+    transform.scale(
+        (double) this.simulationResolution[0] / image.getWidth(),
+        (double) this.simulationResolution[1] / image.getHeight());
+    return transform;
+  }
+
   /**
    * Dessin du champs de vecteurs
    *
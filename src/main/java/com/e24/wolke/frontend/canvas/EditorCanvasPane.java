@@ -147,8 +147,8 @@ public class EditorCanvasPane extends AbstractCanvasPane {
       initialize();
     }
 
-    g2d.drawImage(
-        this.controller.getRendererModel().getSimulationImage(), this.matSimulation, null);
+    BufferedImage simulationImage = this.controller.getRendererModel().getSimulationImage();
+    g2d.drawImage(simulationImage, getImageTransform(simulationImage), null);
     g2d.drawImage(this.controller.getEditorModel().getEditorImage(), this.matSimulation, null);
   }
 
@@ -8,7 +8,6 @@ import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseMotionAdapter;
-import java.awt.image.BufferedImage;
 
 /**
  * Panneau de la visualisation de la simulation
@@ -21,14 +20,6 @@ public class SimulationCanvasPane extends AbstractCanvasPane {
   /** Sérialisation de la classe */
   private static final long serialVersionUID = 1L;
 
-  /** Image compositée de la simulation */
-  private BufferedImage imgComposite =
-      new BufferedImage(
-          this.simulationResolution[0], this.simulationResolution[1], BufferedImage.TYPE_INT_RGB);
-
-  /** Contexte graphique de l'image compositée */
-  private Graphics2D compositor = this.imgComposite.createGraphics();
-
   /**
    * La fraction de la longueur physique de la simulation pour laquelle on affiche la légende de la
    * taille physique
@@ -88,14 +79,7 @@ public class SimulationCanvasPane extends AbstractCanvasPane {
       initialize();
     }
 
-    this.compositor.drawImage(this.controller.getRendererModel().getSimulationImage(), null, null);
-    this.compositor.drawImage(this.controller.getEditorModel().getEditorImage(), null, null);
-    g2d.drawImage(this.imgComposite, this.matSimulation, null);
-
-    if (this.controller.getRendererModel().getShowVectors()) { // Si on doit afficher les vecteurs
-      g2d.drawImage(
-          this.controller.getRendererModel().getVectorImage(), this.matFullImageRes, null);
-    }
+    drawSimulation(g2d);
 
     g2d.setColor(Color.WHITE);
 
@@ -7,7 +7,6 @@ import java.awt.Graphics2D;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseMotionAdapter;
-import java.awt.image.BufferedImage;
 import javax.swing.SwingUtilities;
 
 /**
@@ -20,14 +19,6 @@ public class ZenModeCanvasPane extends AbstractCanvasPane {
   /** Numéro de version de la classe pour la sérialisation */
   private static final long serialVersionUID = 1L;
 
-  /** Image compositée de la simulation */
-  private BufferedImage imgComposite =
-      new BufferedImage(
-          this.simulationResolution[0], this.simulationResolution[1], BufferedImage.TYPE_INT_RGB);
-
-  /** Contexte graphique de l'image compositée */
-  private Graphics2D compositor = this.imgComposite.createGraphics();
-
   /** Pression à emettre lors d'un clic gauche */
   private final double PRESSURE_LEFT_CLICK = 5.0;
 
@@ -133,14 +124,7 @@ public class ZenModeCanvasPane extends AbstractCanvasPane {
       initialize();
     }
 
-    this.compositor.drawImage(this.controller.getRendererModel().getSimulationImage(), null, null);
-    this.compositor.drawImage(this.controller.getEditorModel().getEditorImage(), null, null);
-    g2d.drawImage(this.imgComposite, this.matSimulation, null);
-
-    if (this.controller.getRendererModel().getShowVectors()) { // Si on doit afficher les vecteurs
-      g2d.drawImage(
-          this.controller.getRendererModel().getVectorImage(), this.matFullImageRes, null);
-    }
+    drawSimulation(g2d);
   }
 
   /** Mettre en place les abonnements aux événements de l'application */
@@ -105,6 +105,9 @@ public class SimulationInputPane extends AbstractInputPane {
   /** Case à cocher pour activer ou non l'affichage des vecteurs */
   private JCheckBox chckbxVectors;
 
+  /** Case à cocher pour activer ou non l'affichage des lignes de courant */
+  private JCheckBox chckbxFlowLines;
+
   /** Petit espace */
   private final int SMALL_GAP = 5;
 
@@ -674,6 +677,30 @@ public class SimulationInputPane extends AbstractInputPane {
         LocaleManager.getLocaleResourceBundle().getString("ui.tooltips.vectors.disable"));
     chckbxVectors.setEnabled(false);
 
+    JPanel panelFlowLines = new JPanel();
+    panelRender.add(panelFlowLines, "newline,grow");
+    panelFlowLines.setLayout(new BoxLayout(panelFlowLines, BoxLayout.X_AXIS));
+    panelFlowLines.setToolTipText(
+        LocaleManager.getLocaleResourceBundle().getString("ui.tooltips.flowlines"));
+
+    JLabel lblFlowLines =
+        new JLabel(
+            LocaleManager.getLocaleResourceBundle()
+                .getString("ui.simulation.visualization.flow_lines.lbl"));
+    panelFlowLines.add(lblFlowLines);
+
+    panelFlowLines.add(Box.createGlue());
+
+    chckbxFlowLines = new JCheckBox();
+    panelFlowLines.add(chckbxFlowLines);
+    if (RendererConstants.USE_OPENGL) {
+      chckbxFlowLines.setEnabled(false);
+    }
+    chckbxFlowLines.setHorizontalTextPosition(SwingConstants.LEFT);
+    chckbxFlowLines.setHorizontalAlignment(SwingConstants.LEFT);
+    chckbxFlowLines.setToolTipText(
+        LocaleManager.getLocaleResourceBundle().getString("ui.tooltips.flowlines"));
+
     return panelRender;
   }
 
@@ -724,6 +751,7 @@ public class SimulationInputPane extends AbstractInputPane {
     btnReinit.addActionListener(this::onReinitialize);
 
     chckbxVectors.addActionListener(this::onCheckShowVectors);
+    chckbxFlowLines.addActionListener(this::onCheckShowFlowLines);
     chckbxGrayscaleVisualisation.addActionListener(this::onCheckGrayscaleVisualisation);
 
     btnAir.addActionListener(this::onFluidPresetSelection);
@@ -763,6 +791,8 @@ public class SimulationInputPane extends AbstractInputPane {
 
     chckbxVectors.setSelected(controller.getRendererModel().getShowVectors());
 
+    chckbxFlowLines.setSelected(controller.getRendererModel().getShowFlowLines());
+
     chckbxGrayscaleVisualisation.setSelected(
         controller.getRendererModel().getGrayscaleVisualisation());
   }
@@ -965,6 +995,16 @@ public class SimulationInputPane extends AbstractInputPane {
     controller.getRendererModel().setShowVectors(chckbxVectors.isSelected());
   }
 
+  /**
+   * Methode a invoquer lors de la selection du CheckBox d'affichage des lignes de courant
+   *
+   * @param e {@code ActionEvent}
+   */
+  private void onCheckShowFlowLines(ActionEvent e) {
+    controller.getRendererModel().setShowFlowLines(chckbxFlowLines.isSelected());
+    controller.getRendererModel().handleCurrentFrame();
+  }
+
   /**
    * Methode a invoquer lors de la selection du CheckBox d'affichage en niveaux de gris.
    *
@@ -198,6 +198,7 @@ public class SimulationLegendPane extends JPanel implements WEventComponent, Rei
                     .getString("ui.simulation.visualization.density.units");
         break;
       case VELOCITY:
+      case VELOCITY_LIC:
       case VELOCITY_X:
       case VELOCITY_Y:
         currentVisualizedTypeWithUnits =
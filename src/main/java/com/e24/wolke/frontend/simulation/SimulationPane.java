@@ -68,6 +68,9 @@ public class SimulationPane extends JPanel implements Reinitializable, WEventCom
   /** Panneau d'inspection de simulation */
   private SimulationInspectPane simulationInspectPane;
 
+  /** Panneau de performance de simulation */
+  private SimulationPerformancePane simulationPerformancePane;
+
   /** Panneau du temps actuel de la simulation */
   private JPanel panelCurrentTime =
       new JPanel() {
@@ -261,6 +264,17 @@ public class SimulationPane extends JPanel implements Reinitializable, WEventCom
     simulationInspectPane.setVisible(controller.getApplicationModel().getInspectorButtonState());
     layeredPane.add(simulationInspectPane);
 
+    simulationPerformancePane = new SimulationPerformancePane(this.controller);
+    layeredPane.setLayer(simulationPerformancePane, JLayeredPane.MODAL_LAYER);
+    simulationPerformancePane.setBounds(
+        GAP + simulationLegendPane.getWidth() + GAP,
+        GAP,
+        simulationPerformancePane.getWidth(),
+        simulationPerformancePane.getHeight());
+    simulationPerformancePane.setVisible(
+        controller.getApplicationModel().getPerformancePaneVisibility());
+    layeredPane.add(simulationPerformancePane);
+
     handleResize();
     handlePickerButton();
     updateInspectPanePosition();
@@ -387,6 +401,13 @@ public class SimulationPane extends JPanel implements Reinitializable, WEventCom
         .getSubscriber()
         .subscribeWithID(
             Subject.ON_APP_INSPECTOR_VISIBILITY_CHANGED, e -> handlePickerButton(), subscriptionID);
+    controller
+        .getApplicationModel()
+        .getSubscriber()
+        .subscribeWithID(
+            Subject.ON_APP_PERFORMANCE_PANE_VISIBILITY_CHANGED,
+            e -> simulationPerformancePane.setVisible((Boolean) e),
+            subscriptionID);
     if (!RendererConstants.USE_OPENGL) {
       controller
           .getApplicationModel()
@@ -402,6 +423,7 @@ public class SimulationPane extends JPanel implements Reinitializable, WEventCom
   @Override
   public void reinitialize() {
     removeSubscribers();
+    simulationPerformancePane.removeSubscribers();
     simulationLegendPane.reinitialize();
     simulationButtonPane.reinitialize();
   }
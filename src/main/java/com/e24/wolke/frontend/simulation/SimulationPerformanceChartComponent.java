@@ -0,0 +1,218 @@
+package com.e24.wolke.frontend.simulation;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Path2D;
+import javax.swing.JComponent;
+import javax.swing.UIManager;
+
+/**
+ * Graphique déroulant d'une ou plusieurs séries de valeurs du panneau de performance. Les dernières
+ * valeurs de chaque série sont conservées dans un tampon circulaire de taille fixe. Les séries
+ * multiples sont empilées, de sorte que la hauteur totale représente leur somme.
+ *
+ * @author Nilon123456789
+ */
+public class SimulationPerformanceChartComponent extends JComponent {
+
+  /** Sérialisation de la classe */
+  private static final long serialVersionUID = 1L;
+
+  /** Couleurs des séries, réutilisées si les séries sont plus nombreuses */
+  private static final Color[] SERIES_COLORS = {
+    new Color(0x4E79A7),
+    new Color(0xF28E2B),
+    new Color(0xE15759),
+    new Color(0x76B7B2),
+    new Color(0x59A14F),
+    new Color(0xEDC948),
+    new Color(0xB07AA1),
+    new Color(0xFF9DA7),
+    new Color(0x9C755F),
+    new Color(0xBAB0AC)
+  };
+
+  /** Hauteur de la zone de tracé */
+  private static final int PLOT_HEIGHT = 40;
+
+  /** Hauteur d'une ligne de légende */
+  private static final int LEGEND_LINE_HEIGHT = 13;
+
+  /** Titre du graphique */
+  private final String title;
+
+  /** Noms des séries */
+  private final String[] seriesNames;
+
+  /** Valeurs des séries, {@code values[série][échantillon]} */
+  private final double[][] values;
+
+  /** Index du prochain échantillon dans le tampon circulaire */
+  private int next;
+
+  /** Nombre d'échantillons dans le tampon circulaire */
+  private int size;
+
+  /** Chemin réutilisé pour le tracé des séries */
+  private final Path2D.Double path = new Path2D.Double();
+
+  /**
+   * Créer un graphique
+   *
+   * @param title Le titre du graphique
+   * @param seriesNames Les noms des séries, affichés en légende s'il y en a plusieurs
+   * @param capacity Le nombre d'échantillons conservés
+   */
+  public SimulationPerformanceChartComponent(String title, String[] seriesNames, int capacity) {
+    this.title = title;
+    this.seriesNames = seriesNames;
+    this.values = new double[seriesNames.length][capacity];
+
+    int legendLines = seriesNames.length > 1 ? seriesNames.length : 0;
+    setPreferredSize(new Dimension(240, 18 + PLOT_HEIGHT + legendLines * LEGEND_LINE_HEIGHT));
+    setOpaque(false);
+  }
+
+  /**
+   * Ajoute un échantillon et redessine le graphique
+   *
+   * @param sample La valeur de chaque série, dans l'ordre des noms des séries
+   */
+  public void addSample(double... sample) {
+    for (int i = 0; i < values.length; i++)
+      values[i][next] = Double.isFinite(sample[i]) ? Math.max(0, sample[i]) : 0;
+
+    next = (next + 1) % values[0].length;
+    size = Math.min(size + 1, values[0].length);
+    repaint();
+  }
+
+  /** Efface tous les échantillons */
+  public void clear() {
+    next = 0;
+    size = 0;
+    repaint();
+  }
+
+  /**
+   * Retourne la valeur d'un échantillon
+   *
+   * @param series L'index de la série
+   * @param age L'âge de l'échantillon, {@code 0} pour le plus récent
+   * @return La valeur de l'échantillon
+   */
+  private double valueAt(int series, int age) {
+    int capacity = values[series].length;
+    return values[series][(next - 1 - age + 2 * capacity) % capacity];
+  }
+
+  /**
+   * Retourne la somme des séries d'un échantillon
+   *
+   * @param age L'âge de l'échantillon, {@code 0} pour le plus récent
+   * @return La somme des séries
+   */
+  private double totalAt(int age) {
+    double total = 0;
+    for (int i = 0; i < values.length; i++) total += valueAt(i, age);
+    return total;
+  }
+
+  /**
+   * Formate une valeur pour l'affichage
+   *
+   * @param value La valeur
+   * @return La valeur formatée
+   */
+  private static String format(double value) {
+    return value >= 100 ? String.format("%.0f", value) : String.format("%.2f", value);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected void paintComponent(Graphics g) {
+    Graphics2D g2d = (Graphics2D) g.create();
+    g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+    Color foreground = UIManager.getColor("Label.foreground");
+    Font font = getFont() != null ? getFont() : UIManager.getFont("Label.font");
+    g2d.setFont(font.deriveFont(11f));
+    FontMetrics metrics = g2d.getFontMetrics();
+
+    int width = getWidth();
+    int plotTop = 16;
+
+    // Titre et valeur actuelle
+    g2d.setColor(foreground);
+    g2d.drawString(title, 0, metrics.getAscent());
+    if (size > 0) {
+      String current = format(totalAt(0));
+      g2d.drawString(current, width - metrics.stringWidth(current), metrics.getAscent());
+    }
+
+    // Cadre de la zone de tracé
+    g2d.setColor(UIManager.getColor("Component.borderColor"));
+    g2d.drawRect(0, plotTop, width - 1, PLOT_HEIGHT);
+
+    if (size > 1) {
+      double max = 0;
+      for (int age = 0; age < size; age++) max = Math.max(max, totalAt(age));
+      max = max <= 0 ? 1 : max * 1.1;
+
+      int capacity = values[0].length;
+      double xStep = (width - 2) / (double) (capacity - 1);
+      double xStart = width - 1;
+
+      // Les séries sont dessinées de la plus haute de la pile à la plus basse
+      for (int series = values.length - 1; series >= 0; series--) {
+        path.reset();
+        for (int age = 0; age < size; age++) {
+          double stacked = 0;
+          for (int i = 0; i <= series; i++) stacked += valueAt(i, age);
+
+          double x = xStart - age * xStep;
+          double y = plotTop + PLOT_HEIGHT - stacked / max * PLOT_HEIGHT;
+          if (age == 0) path.moveTo(x, y);
+          else path.lineTo(x, y);
+        }
+
+        Color color = SERIES_COLORS[series % SERIES_COLORS.length];
+        if (values.length > 1) {
+          path.lineTo(xStart - (size - 1) * xStep, plotTop + PLOT_HEIGHT);
+          path.lineTo(xStart, plotTop + PLOT_HEIGHT);
+          path.closePath();
+          g2d.setColor(color);
+          g2d.fill(path);
+        } else {
+          g2d.setColor(color);
+          g2d.draw(path);
+        }
+      }
+    }
+
+    // Légende des séries empilées
+    if (values.length > 1) {
+      for (int i = 0; i < seriesNames.length; i++) {
+        int y = plotTop + PLOT_HEIGHT + 4 + i * LEGEND_LINE_HEIGHT;
+
+        g2d.setColor(SERIES_COLORS[i % SERIES_COLORS.length]);
+        g2d.fillRect(0, y + 2, 8, 8);
+
+        g2d.setColor(foreground);
+        g2d.drawString(seriesNames[i], 11, y + metrics.getAscent() - 1);
+        if (size > 0) {
+          String current = format(valueAt(i, 0));
+          g2d.drawString(
+              current, width - metrics.stringWidth(current), y + metrics.getAscent() - 1);
+        }
+      }
+    }
+
+    g2d.dispose();
+  }
+}
@@ -0,0 +1,260 @@
+package com.e24.wolke.frontend.simulation;
+
+import com.e24.wolke.backend.controller.Controller;
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.models.simulation.PerformanceSnapshot;
+import com.e24.wolke.backend.models.simulation.SimulationModel;
+import com.e24.wolke.backend.simulation.physics.engine.PhysicsEngine;
+import com.e24.wolke.eventsystem.Subject;
+import com.e24.wolke.eventsystem.WEventComponent;
+import com.formdev.flatlaf.FlatClientProperties;
+import com.formdev.flatlaf.extras.FlatSVGIcon;
+import com.formdev.flatlaf.extras.FlatSVGIcon.ColorFilter;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import javax.swing.Box;
+import javax.swing.BoxLayout;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.UIManager;
+import net.miginfocom.swing.MigLayout;
+
+/**
+ * Panneau de performance de la simulation. Affiche des graphiques déroulants du débit de la
+ * simulation, du temps de rendu, du temps de chaque étape d'un pas, du nombre d'itérations du
+ * solveur de pression, du taux de réutilisation de la piscine de matrices et des images perdues.
+ *
+ * <p>Les graphiques sont mis à jour à intervalle fixe à partir d'un {@link PerformanceSnapshot},
+ * seulement lorsque le panneau est visible. Le panneau peut être déplacé en glissant sa barre de
+ * titre.
+ *
+ * @author Nilon123456789
+ */
+public class SimulationPerformancePane extends JPanel implements WEventComponent {
+
+  /** Sérialisation de la classe */
+  private static final long serialVersionUID = 1L;
+
+  /** Intervalle entre deux mises à jour des graphiques (ms) */
+  private static final int REFRESH_INTERVAL = 500;
+
+  /** Nombre d'échantillons affichés par graphique */
+  private static final int SAMPLE_COUNT = 120;
+
+  /** Taille des boutons */
+  private static final Dimension BUTTON_SIZE = new Dimension(24, 24);
+
+  /** Le {@code Controller} de l'application */
+  private Controller controller;
+
+  /** Minuterie de mise à jour des graphiques */
+  private final Timer refreshTimer = new Timer(REFRESH_INTERVAL, e -> refresh());
+
+  /** Relevé précédent, {@code null} avant le premier relevé */
+  private PerformanceSnapshot previousSnapshot;
+
+  /** Graphique du nombre de pas par seconde */
+  private SimulationPerformanceChartComponent stepsPerSecondChart;
+
+  /** Graphique du temps de rendu d'une image */
+  private SimulationPerformanceChartComponent frameTimeChart;
+
+  /** Graphique du temps de chaque étape d'un pas */
+  private SimulationPerformanceChartComponent stagesChart;
+
+  /** Graphique du nombre d'itérations du solveur de pression */
+  private SimulationPerformanceChartComponent solverIterationsChart;
+
+  /** Graphique du taux de réutilisation de la piscine de matrices */
+  private SimulationPerformanceChartComponent poolHitRateChart;
+
+  /** Graphique du nombre d'images perdues par seconde */
+  private SimulationPerformanceChartComponent droppedFramesChart;
+
+  /** Valeurs de l'échantillon des étapes, réutilisées à chaque mise à jour */
+  private final double[] stageSample = new double[PhysicsEngine.STEP_STAGES.size()];
+
+  /** Position de la souris dans la barre de titre au début du glissement */
+  private final int[] dragOrigin = new int[2];
+
+  /** Identifiant des abonnements */
+  private int subscriptionID;
+
+  /**
+   * Créer le panneau de performance
+   *
+   * @param controller Le {@code Controller} de l'application
+   */
+  public SimulationPerformancePane(Controller controller) {
+    this.controller = controller;
+    this.subscriptionID = hashCode();
+
+    putClientProperty(FlatClientProperties.STYLE_CLASS, "layeredPanel");
+    setLayout(new MigLayout("ins 5, gap 5", "[grow]", ""));
+
+    createTitleBar();
+    createCharts();
+
+    setSize(getPreferredSize());
+
+    setupSubscribers();
+  }
+
+  /** Créer la barre de titre du panneau de performance */
+  private void createTitleBar() {
+    JPanel panelTitle = new JPanel();
+    add(panelTitle, "grow");
+    panelTitle.setLayout(new BoxLayout(panelTitle, BoxLayout.X_AXIS));
+    panelTitle.putClientProperty(FlatClientProperties.STYLE_CLASS, "layeredPanelContents");
+
+    JLabel lblPerformance =
+        new JLabel(LocaleManager.getLocaleResourceBundle().getString("ui.simulation.performance"));
+    lblPerformance.setFont(new Font("Segoe UI Semibold", Font.PLAIN, 16));
+    panelTitle.add(lblPerformance);
+
+    panelTitle.add(Box.createGlue());
+
+    JButton btnClose = new JButton();
+    btnClose.setMinimumSize(BUTTON_SIZE);
+    btnClose.setMaximumSize(BUTTON_SIZE);
+    btnClose.setPreferredSize(BUTTON_SIZE);
+    btnClose.setIcon(
+        new FlatSVGIcon("icons/close.svg", 0.75f)
+            .setColorFilter(new ColorFilter(color -> UIManager.getColor("Button.foreground"))));
+    btnClose.addActionListener(
+        e -> controller.getApplicationModel().setPerformancePaneVisibility(false));
+    panelTitle.add(btnClose);
+
+    // Déplacement du panneau en glissant la barre de titre, sans sortir du panneau parent
+    MouseAdapter dragAdapter =
+        new MouseAdapter() {
+          @Override
+          public void mousePressed(MouseEvent e) {
+            dragOrigin[0] = e.getX();
+            dragOrigin[1] = e.getY();
+          }
+
+          @Override
+          public void mouseDragged(MouseEvent e) {
+            if (getParent() == null) return;
+
+            int x = getX() + e.getX() - dragOrigin[0];
+            int y = getY() + e.getY() - dragOrigin[1];
+            x = Math.max(0, Math.min(x, getParent().getWidth() - getWidth()));
+            y = Math.max(0, Math.min(y, getParent().getHeight() - getHeight()));
+            setLocation(x, y);
+          }
+        };
+    panelTitle.addMouseListener(dragAdapter);
+    panelTitle.addMouseMotionListener(dragAdapter);
+  }
+
+  /** Créer les graphiques du panneau de performance */
+  private void createCharts() {
+    stepsPerSecondChart = createChart("ui.simulation.performance.steps_per_second");
+    frameTimeChart = createChart("ui.simulation.performance.frame_time");
+    stagesChart =
+        new SimulationPerformanceChartComponent(
+            LocaleManager.getLocaleResourceBundle().getString("ui.simulation.performance.stages"),
+            PhysicsEngine.STEP_STAGES.toArray(new String[0]),
+            SAMPLE_COUNT);
+    solverIterationsChart = createChart("ui.simulation.performance.solver_iterations");
+    poolHitRateChart = createChart("ui.simulation.performance.pool_hit_rate");
+    droppedFramesChart = createChart("ui.simulation.performance.dropped_frames");
+
+    add(stepsPerSecondChart, "newline,growx");
+    add(frameTimeChart, "newline,growx");
+    add(stagesChart, "newline,growx");
+    add(solverIterationsChart, "newline,growx");
+    add(poolHitRateChart, "newline,growx");
+    add(droppedFramesChart, "newline,growx");
+  }
+
+  /**
+   * Créer un graphique d'une seule série
+   *
+   * @param titleKey La clé de traduction du titre du graphique
+   * @return Le graphique
+   */
+  private SimulationPerformanceChartComponent createChart(String titleKey) {
+    String title = LocaleManager.getLocaleResourceBundle().getString(titleKey);
+    return new SimulationPerformanceChartComponent(title, new String[] {title}, SAMPLE_COUNT);
+  }
+
+  /**
+   * Affiche ou cache le panneau. Les graphiques ne sont mis à jour que lorsqu'il est visible.
+   *
+   * @param visible {@code true} pour afficher le panneau
+   */
+  @Override
+  public void setVisible(boolean visible) {
+    super.setVisible(visible);
+
+    if (visible) {
+      previousSnapshot = null;
+      refreshTimer.start();
+    } else {
+      refreshTimer.stop();
+    }
+  }
+
+  /** Relève les compteurs de performance et ajoute un échantillon à chaque graphique */
+  private void refresh() {
+    SimulationModel simulationModel = controller.getSimulationModel();
+    PerformanceSnapshot snapshot =
+        PerformanceSnapshot.capture(
+            simulationModel.getPhysicsEngine(),
+            simulationModel.getSimulationData(),
+            controller.getRendererModel().getFrameTimer());
+
+    PerformanceSnapshot previous = previousSnapshot;
+    previousSnapshot = snapshot;
+    if (previous == null) return;
+
+    stepsPerSecondChart.addSample(snapshot.getStepsPerSecond(previous));
+    frameTimeChart.addSample(snapshot.getFrameMillis(previous));
+
+    for (int i = 0; i < stageSample.length; i++)
+      stageSample[i] = snapshot.getStageMillis(previous, i);
+    stagesChart.addSample(stageSample);
+
+    solverIterationsChart.addSample(snapshot.getSolverIterations());
+    poolHitRateChart.addSample(snapshot.getPoolHitRate(previous) * 100);
+    droppedFramesChart.addSample(snapshot.getDroppedFramesPerSecond(previous));
+  }
+
+  /** Efface les graphiques */
+  private void clearCharts() {
+    previousSnapshot = null;
+    stepsPerSecondChart.clear();
+    frameTimeChart.clear();
+    stagesChart.clear();
+    solverIterationsChart.clear();
+    poolHitRateChart.clear();
+    droppedFramesChart.clear();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void setupSubscribers() {
+    controller
+        .getSimulationModel()
+        .getSubscriber()
+        .subscribeWithID(
+            Subject.ON_SIMULATION_RESTARTED,
+            e -> SwingUtilities.invokeLater(this::clearCharts),
+            subscriptionID);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void removeSubscribers() {
+    refreshTimer.stop();
+    controller.getSimulationModel().getSubscriber().unsubscribeAllWithID(subscriptionID);
+  }
+}
@@ -64,8 +64,8 @@ public class Benchmark {
     }
     System.out.println("\n");
 
-    long singleThreadTime = singleThread.getAverageStepExecutionTime();
-    long multiThreadTime = multiThread.getAverageStepExecutionTime();
+    double singleThreadTime = singleThread.getAverageStepExecutionTime();
+    double multiThreadTime = multiThread.getAverageStepExecutionTime();
 
     double time = timer.stop("shouldMultiThread");
     LOGGER.info(
@@ -85,7 +85,7 @@ public class Benchmark {
     // On calcule le pourcentage de différence entre les deux temps voir si ce n'est pas
     // significatif
     double diffPercentage =
-        Math.abs((double) (multiThreadTime - singleThreadTime) / singleThreadTime);
+        Math.abs((multiThreadTime - singleThreadTime) / singleThreadTime);
     if (diffPercentage < TOLERANCE) return false;
 
     return multiThreadTime < singleThreadTime;
@@ -0,0 +1,185 @@
+package com.e24.wolke.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram.java
+ *
+ * <p>Histogramme log-linéaire de durées (ns), inspiré de HdrHistogram. Les valeurs inférieures à
+ * {@code 2^(SUB_BUCKET_BITS + 1)} ns sont comptées exactement. Au-delà, chaque puissance de deux est
+ * divisée en {@code 2^SUB_BUCKET_BITS} classes de même largeur, de sorte que l'erreur relative sur
+ * un percentile ne dépasse jamais {@code 1 / 2^SUB_BUCKET_BITS} (environ 1,6 %).
+ *
+ * <p>L'enregistrement d'une valeur ne fait aucune allocation et peut être effectué par plusieurs
+ * threads en même temps. La lecture pendant l'enregistrement donne une vue approximative, mais
+ * jamais incohérente au point de retourner une valeur hors de l'histogramme.
+ *
+ * @author Nilon123456789
+ */
+public class LatencyHistogram {
+
+  /** Nombre de bits de précision de chaque puissance de deux */
+  private static final int SUB_BUCKET_BITS = 6;
+
+  /** Nombre de classes par puissance de deux */
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+  /** Exposant de la plus grande puissance de deux mesurable (2^40 ns, environ 18 minutes) */
+  private static final int MAX_EXPONENT = 40;
+
+  /** Plus grande valeur mesurable (ns), les valeurs plus grandes sont ramenées à celle-ci */
+  public static final long MAX_TRACKABLE_VALUE = (1L << MAX_EXPONENT) - 1;
+
+  /** Nombre total de classes */
+  private static final int BUCKET_COUNT = getBucketIndex(MAX_TRACKABLE_VALUE) + 1;
+
+  /** Nombre de valeurs de chaque classe */
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+  /** Nombre de valeurs enregistrées */
+  private final AtomicLong count = new AtomicLong();
+
+  /** Somme des valeurs enregistrées (ns) */
+  private final AtomicLong total = new AtomicLong();
+
+  /** Plus grande valeur enregistrée (ns) */
+  private final AtomicLong max = new AtomicLong();
+
+  /** Constructeur de la classe LatencyHistogram */
+  public LatencyHistogram() {}
+
+  /**
+   * Retourne l'index de la classe d'une valeur
+   *
+   * @param value La valeur (ns), entre {@code 0} et {@link #MAX_TRACKABLE_VALUE}
+   * @return L'index de la classe
+   */
+  private static int getBucketIndex(long value) {
+    if (value < (SUB_BUCKET_COUNT << 1)) return (int) value;
+
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+  }
+
+  /**
+   * Retourne la plus grande valeur comptée dans une classe
+   *
+   * @param index L'index de la classe
+   * @return La plus grande valeur de la classe (ns)
+   */
+  private static long getHighestValue(int index) {
+    if (index < (SUB_BUCKET_COUNT << 1)) return index;
+
+    int shift = (index >>> SUB_BUCKET_BITS) - 1;
+    long mantissa = index - ((long) shift << SUB_BUCKET_BITS);
+    return ((mantissa + 1) << shift) - 1;
+  }
+
+  /**
+   * Enregistre une durée
+   *
+   * @param nanos La durée (ns), les valeurs négatives sont ramenées à {@code 0}
+   */
+  public void record(long nanos) {
+    long value = Math.min(Math.max(nanos, 0), MAX_TRACKABLE_VALUE);
+
+    counts.incrementAndGet(getBucketIndex(value));
+    total.addAndGet(value);
+    count.incrementAndGet();
+
+    long currentMax;
+    while (value > (currentMax = max.get()) && !max.compareAndSet(currentMax, value)) {
+      // Un autre thread a modifié le maximum, on réessaie
+    }
+  }
+
+  /**
+   * Retourne le nombre de durées enregistrées
+   *
+   * @return Le nombre de durées enregistrées
+   */
+  public long getCount() {
+    return count.get();
+  }
+
+  /**
+   * Retourne la somme des durées enregistrées
+   *
+   * @return La somme des durées (ns)
+   */
+  public long getTotal() {
+    return total.get();
+  }
+
+  /**
+   * Retourne la moyenne des durées enregistrées
+   *
+   * @return La moyenne des durées (ns), {@code 0} si aucune durée n'est enregistrée
+   */
+  public double getMean() {
+    long n = count.get();
+    return n == 0 ? 0 : (double) total.get() / n;
+  }
+
+  /**
+   * Retourne la plus grande durée enregistrée
+   *
+   * @return La plus grande durée (ns), {@code 0} si aucune durée n'est enregistrée
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Retourne la durée sous laquelle se trouve un pourcentage des durées enregistrées. La valeur
+   * retournée est la plus grande valeur de la classe du percentile, sans dépasser le maximum.
+   *
+   * @param percentile Le percentile, entre {@code 0} et {@code 100}
+   * @return La durée (ns), {@code 0} si aucune durée n'est enregistrée
+   * @throws IllegalArgumentException Si le percentile n'est pas entre {@code 0} et {@code 100}
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (!(percentile >= 0 && percentile <= 100))
+      throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+
+    long n = count.get();
+    if (n == 0) return 0;
+
+    long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+    long cumulative = 0;
+
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      cumulative += counts.get(i);
+      if (cumulative >= target) return Math.min(getHighestValue(i), max.get());
+    }
+
+    return max.get();
+  }
+
+  /**
+   * Retourne le nombre de durées enregistrées inférieures ou égales à une valeur, à la précision
+   * de l'histogramme près : toutes les durées de la classe de la valeur sont comptées.
+   *
+   * @param nanos La valeur (ns)
+   * @return Le nombre de durées enregistrées, au plus {@link #getCount()}
+   */
+  public long getCountAtOrBelow(long nanos) {
+    if (nanos < 0) return 0;
+
+    int last = getBucketIndex(Math.min(nanos, MAX_TRACKABLE_VALUE));
+    long cumulative = 0;
+    for (int i = 0; i <= last; i++) cumulative += counts.get(i);
+
+    return Math.min(cumulative, count.get());
+  }
+
+  /** Efface toutes les durées enregistrées */
+  public void reset() {
+    for (int i = 0; i < BUCKET_COUNT; i++) counts.set(i, 0);
+
+    count.set(0);
+    total.set(0);
+    max.set(0);
+  }
+}
@@ -2,8 +2,11 @@ package com.e24.wolke.utils;
 
 import com.e24.wolke.backend.models.application.LocaleManager;
 import com.e24.wolke.utils.interfaces.Reinitializable;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -15,6 +18,11 @@ import org.apache.logging.log4j.MarkerManager;
  *
  * <p>Cette classe permet de mesurer le temps d'exécution d'une méthode.
  *
+ * <p>Les timers nommés ({@link #start(String)} et {@link #stop(String)}) sont mesurés en
+ * millisecondes. Pour le code appelé souvent, comme les étapes de la simulation, les {@link
+ * TimerHandle} obtenus avec {@link #register(String)} sont mesurés en nanosecondes, sans allocation,
+ * et donnent les percentiles des durées.
+ *
  * @author Nilon123456789
  */
 public class Timer implements Reinitializable {
@@ -103,6 +111,12 @@ public class Timer implements Reinitializable {
    */
   private final ConcurrentHashMap<String, Level> autoAveragePrintLogLevel;
 
+  /** {@code TimerHandle} enregistrés, par nom */
+  private final ConcurrentHashMap<String, TimerHandle> handles;
+
+  /** {@code TimerHandle} enregistrés, dans l'ordre d'enregistrement */
+  private final List<TimerHandle> handleList;
+
   /** Nom de la catégorie du timer */
   private final String categorieName;
 
@@ -131,6 +145,8 @@ public class Timer implements Reinitializable {
     timersResults = new ConcurrentHashMap<String, TimeEntry>();
     autoAveragePrintInterval = new ConcurrentHashMap<String, Integer>();
     autoAveragePrintLogLevel = new ConcurrentHashMap<String, Level>();
+    handles = new ConcurrentHashMap<String, TimerHandle>();
+    handleList = new CopyOnWriteArrayList<TimerHandle>();
   }
 
   /**
@@ -231,11 +247,13 @@ public class Timer implements Reinitializable {
   /**
    * Supprime tout les timer
    *
-   * <p>Ne suprime pas les fréquences d'affichage des moyennes
+   * <p>Ne suprime pas les fréquences d'affichage des moyennes. Les mesures des {@code TimerHandle}
+   * sont effacées, mais ceux-ci restent enregistrés.
    */
   public void deleteAll() {
     timers.clear();
     timersResults.clear();
+    for (TimerHandle handle : handleList) handle.reset();
   }
 
   /**
@@ -260,6 +278,92 @@ public class Timer implements Reinitializable {
     return timersResults.get(timerName).getAverage();
   }
 
+  /**
+   * Enregistre un {@link TimerHandle}, mesuré en nanosecondes et sans recherche par nom. Si un
+   * {@code TimerHandle} du même nom est déjà enregistré, celui-ci est retourné.
+   *
+   * <p>Les {@code TimerHandle} sont indépendants des timers démarrés avec {@link #start(String)},
+   * même s'ils portent le même nom.
+   *
+   * @param timerName Nom du timer
+   * @return Le {@code TimerHandle} enregistré
+   * @throws IllegalArgumentException Si le nom est vide
+   */
+  public TimerHandle register(String timerName) {
+    if (timerName.isEmpty()) {
+      LOGGER.warn(
+          TIMER_MARKER,
+          LocaleManager.getLocaleResourceBundle().getString("timer.emptyName"),
+          categorieName);
+      throw new IllegalArgumentException("Timer name must not be empty");
+    }
+
+    return handles.computeIfAbsent(
+        timerName,
+        name -> {
+          TimerHandle handle = new TimerHandle(this, name);
+          handleList.add(handle);
+          return handle;
+        });
+  }
+
+  /**
+   * Retourne le nom de la catégorie du timer
+   *
+   * @return Le nom de la catégorie
+   */
+  public String getCategorieName() {
+    return categorieName;
+  }
+
+  /**
+   * Retourne un {@link TimerHandle} enregistré
+   *
+   * @param timerName Nom du timer
+   * @return Le {@code TimerHandle}, {@code null} s'il n'est pas enregistré
+   */
+  public TimerHandle getHandle(String timerName) {
+    return handles.get(timerName);
+  }
+
+  /**
+   * Retourne les {@link TimerHandle} enregistrés
+   *
+   * @return La liste non modifiable des {@code TimerHandle}, dans l'ordre d'enregistrement
+   */
+  public List<TimerHandle> getHandles() {
+    return Collections.unmodifiableList(handleList);
+  }
+
+  /**
+   * Affiche le résumé des mesures d'un {@link TimerHandle}
+   *
+   * @param handle Le {@code TimerHandle}
+   */
+  void printSummary(TimerHandle handle) {
+    LOGGER.log(
+        DEFAULT_LOG_LEVEL,
+        TIMER_MARKER,
+        LocaleManager.getLocaleResourceBundle().getString("timer.autoSummaryPrint"),
+        handle.getName(),
+        categorieName,
+        formatMillis(handle.getMeanMillis()),
+        formatMillis(handle.getPercentileMillis(50)),
+        formatMillis(handle.getPercentileMillis(95)),
+        formatMillis(handle.getPercentileMillis(99)),
+        formatMillis(handle.getMaxMillis()));
+  }
+
+  /**
+   * Formate une durée en millisecondes pour l'affichage
+   *
+   * @param millis La durée (ms)
+   * @return La durée formatée
+   */
+  private static String formatMillis(double millis) {
+    return String.format("%.3f", millis);
+  }
+
   /**
    * Crée un timer qui affiche la moyenne des temps d'exécution à intervalle régulier d'arrêt
    *
@@ -351,5 +455,8 @@ public class Timer implements Reinitializable {
     timersResults.clear();
     autoAveragePrintInterval.clear();
     autoAveragePrintLogLevel.clear();
+
+    // Les TimerHandle sont conservés par leurs propriétaires, seules leurs mesures sont effacées
+    for (TimerHandle handle : handleList) handle.reset();
   }
 }
@@ -0,0 +1,189 @@
+package com.e24.wolke.utils;
+
+/**
+ * TimerHandle.java
+ *
+ * <p>Timer enregistré auprès d'un {@link Timer}. Contrairement aux timers nommés du {@code Timer},
+ * une mesure ne fait aucune recherche par nom ni aucune allocation : {@link #start()} retourne le
+ * temps de départ, qui est passé à {@link #stop(long)} par l'appelant. Plusieurs mesures d'un même
+ * timer peuvent donc être en cours en même temps, sur un ou plusieurs threads.
+ *
+ * <pre>{@code
+ * long start = advectionTimer.start();
+ * advect(deltaTime);
+ * advectionTimer.stop(start);
+ * }</pre>
+ *
+ * <p>Les durées sont mesurées avec {@link System#nanoTime()} et conservées dans un {@link
+ * LatencyHistogram}, qui donne la moyenne, les percentiles et le maximum.
+ *
+ * @author Nilon123456789
+ */
+public class TimerHandle {
+
+  /** Nombre de nanosecondes dans une milliseconde */
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  /** Le {@code Timer} auprès duquel ce timer est enregistré */
+  private final Timer owner;
+
+  /** Nom du timer */
+  private final String name;
+
+  /** Histogramme des durées mesurées */
+  private final LatencyHistogram histogram = new LatencyHistogram();
+
+  /** Nombre de mesures entre deux affichages du résumé, {@code 0} pour ne pas l'afficher */
+  private volatile int autoPrintFrequency;
+
+  /** Durée de la dernière mesure (ns) */
+  private volatile long lastNanos;
+
+  /**
+   * Constructeur de la classe TimerHandle, voir {@link Timer#register(String)}
+   *
+   * @param owner Le {@code Timer} auprès duquel ce timer est enregistré
+   * @param name Nom du timer
+   */
+  TimerHandle(Timer owner, String name) {
+    this.owner = owner;
+    this.name = name;
+  }
+
+  /**
+   * Démarre une mesure
+   *
+   * @return Le temps de départ de la mesure, à passer à {@link #stop(long)}
+   */
+  public long start() {
+    return System.nanoTime();
+  }
+
+  /**
+   * Termine une mesure et l'enregistre
+   *
+   * @param startNanos Le temps de départ retourné par {@link #start()}
+   * @return La durée de la mesure (ns)
+   */
+  public long stop(long startNanos) {
+    long elapsed = System.nanoTime() - startNanos;
+    record(elapsed);
+    return elapsed;
+  }
+
+  /**
+   * Enregistre une durée mesurée autrement
+   *
+   * @param nanos La durée (ns)
+   */
+  public void record(long nanos) {
+    histogram.record(nanos);
+    lastNanos = nanos;
+
+    int frequency = autoPrintFrequency;
+    if (frequency > 0 && histogram.getCount() % frequency == 0) owner.printSummary(this);
+  }
+
+  /**
+   * Retourne le nom du timer
+   *
+   * @return Le nom du timer
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Retourne l'histogramme des durées mesurées
+   *
+   * @return L'histogramme des durées mesurées
+   */
+  public LatencyHistogram getHistogram() {
+    return histogram;
+  }
+
+  /**
+   * Retourne le nombre de mesures enregistrées
+   *
+   * @return Le nombre de mesures
+   */
+  public long getCount() {
+    return histogram.getCount();
+  }
+
+  /**
+   * Retourne la durée de la dernière mesure
+   *
+   * @return La durée de la dernière mesure (ns), {@code 0} si aucune mesure
+   */
+  public long getLastNanos() {
+    return lastNanos;
+  }
+
+  /**
+   * Retourne la somme des durées mesurées
+   *
+   * @return La somme des durées (ms)
+   */
+  public double getTotalMillis() {
+    return histogram.getTotal() / NANOS_PER_MILLI;
+  }
+
+  /**
+   * Retourne la moyenne des durées mesurées
+   *
+   * @return La moyenne des durées (ms), {@code 0} si aucune mesure
+   */
+  public double getMeanMillis() {
+    return histogram.getMean() / NANOS_PER_MILLI;
+  }
+
+  /**
+   * Retourne la durée sous laquelle se trouve un pourcentage des mesures
+   *
+   * @param percentile Le percentile, entre {@code 0} et {@code 100}
+   * @return La durée (ms), {@code 0} si aucune mesure
+   */
+  public double getPercentileMillis(double percentile) {
+    return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+  }
+
+  /**
+   * Retourne la plus longue durée mesurée
+   *
+   * @return La plus longue durée (ms), {@code 0} si aucune mesure
+   */
+  public double getMaxMillis() {
+    return histogram.getMax() / NANOS_PER_MILLI;
+  }
+
+  /**
+   * Retourne le nombre de mesures entre deux affichages du résumé
+   *
+   * @return Le nombre de mesures, {@code 0} si le résumé n'est pas affiché
+   */
+  public int getAutoPrintFrequency() {
+    return autoPrintFrequency;
+  }
+
+  /**
+   * Affiche le résumé des mesures (moyenne, percentiles et maximum) toutes les {@code frequency}
+   * mesures
+   *
+   * @param frequency Le nombre de mesures entre deux affichages, {@code 0} pour ne plus l'afficher
+   * @return Cette instance
+   * @throws IllegalArgumentException Si la fréquence est négative
+   */
+  public TimerHandle setAutoPrintFrequency(int frequency) {
+    if (frequency < 0) throw new IllegalArgumentException("Frequency must not be negative");
+
+    this.autoPrintFrequency = frequency;
+    return this;
+  }
+
+  /** Efface les mesures enregistrées */
+  public void reset() {
+    histogram.reset();
+    lastNanos = 0;
+  }
+}
@@ -0,0 +1,34 @@
+package com.e24.wolke.utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR de la fusion des calques de l'éditeur, émis par {@code
+ * WLayerMergeProcessor#update()}. La durée de l'événement comprend la fusion, la conversion en
+ * tableau binaire et la notification des observateurs.
+ *
+ * @author Nilon123456789
+ */
+@Name("com.e24.wolke.LayerMerge")
+@Label("Layer Merge")
+@Category({"Wolke", "Editor"})
+@Description("La fusion des calques de l'éditeur")
+@StackTrace(false)
+public class LayerMergeEvent extends jdk.jfr.Event {
+
+  /** Nombre de calques fusionnés */
+  @Label("Layer Count")
+  public int layerCount;
+
+  /** Largeur des calques (px) */
+  @Label("Width")
+  public int width;
+
+  /** Hauteur des calques (px) */
+  @Label("Height")
+  public int height;
+}
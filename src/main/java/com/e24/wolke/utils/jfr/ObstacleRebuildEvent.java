@@ -0,0 +1,26 @@
+package com.e24.wolke.utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR du nouveau calcul des obstacles, émis par {@code
+ * ObstacleModel#recalculateObstacles()}. La durée de l'événement comprend la fusion des obstacles
+ * et le calcul des normales.
+ *
+ * @author Nilon123456789
+ */
+@Name("com.e24.wolke.ObstacleRebuild")
+@Label("Obstacle Rebuild")
+@Category({"Wolke", "Simulation"})
+@Description("Le nouveau calcul de la matrice d'obstacles")
+@StackTrace(false)
+public class ObstacleRebuildEvent extends jdk.jfr.Event {
+
+  /** Nombre de cellules de la matrice d'obstacles */
+  @Label("Cell Count")
+  public int cellCount;
+}
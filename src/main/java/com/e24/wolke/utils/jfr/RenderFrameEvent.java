@@ -0,0 +1,37 @@
+package com.e24.wolke.utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR du rendu d'une image de la simulation, émis par {@code
+ * RendererModel#handleNewFrame()}. La durée de l'événement est celle du rendu.
+ *
+ * @author Nilon123456789
+ */
+@Name("com.e24.wolke.RenderFrame")
+@Label("Render Frame")
+@Category({"Wolke", "Rendering"})
+@Description("Le rendu d'une image de la simulation")
+@StackTrace(false)
+public class RenderFrameEvent extends jdk.jfr.Event {
+
+  /** Type de visualisation rendu */
+  @Label("Visualization Type")
+  public String visualizationType;
+
+  /** Nombre de matrices en attente de rendu au début du rendu */
+  @Label("Queue Depth")
+  public int queueDepth;
+
+  /** Si le rendu est fait par OpenGL */
+  @Label("OpenGL")
+  public boolean openGL;
+
+  /** Niveau de qualité adaptative du rendu, {@code 0} pour la qualité complète */
+  @Label("Quality Level")
+  public int qualityLevel;
+}
@@ -0,0 +1,83 @@
+package com.e24.wolke.utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Événement JFR d'un pas de simulation, émis par {@code PhysicsEngine#update(double)}. La durée de
+ * l'événement est celle du pas complet, les champs donnent la durée de chacune de ses étapes.
+ *
+ * @author Nilon123456789
+ */
+@Name("com.e24.wolke.SimulationStep")
+@Label("Simulation Step")
+@Category({"Wolke", "Simulation"})
+@Description("Un pas du moteur physique")
+@StackTrace(false)
+public class SimulationStepEvent extends jdk.jfr.Event {
+
+  /** Itération de la simulation à la fin du pas */
+  @Label("Iteration")
+  public long iteration;
+
+  /** Pas de temps de la simulation (s) */
+  @Label("Time Step")
+  public double deltaTime;
+
+  /** Durée de l'advection */
+  @Label("Advection")
+  @Timespan(Timespan.NANOSECONDS)
+  public long advection;
+
+  /** Durée du confinement de la vorticité */
+  @Label("Vorticity Confinement")
+  @Timespan(Timespan.NANOSECONDS)
+  public long vorticityConfinement;
+
+  /** Durée de la diffusion */
+  @Label("Diffusion")
+  @Timespan(Timespan.NANOSECONDS)
+  public long diffusion;
+
+  /** Durée de l'ajout des forces */
+  @Label("Add Force")
+  @Timespan(Timespan.NANOSECONDS)
+  public long addForce;
+
+  /** Durée du calcul de la divergence de la vitesse */
+  @Label("Velocity Divergence")
+  @Timespan(Timespan.NANOSECONDS)
+  public long velocityDivergence;
+
+  /** Durée de la résolution de la pression, conditions aux frontières comprises */
+  @Label("Pressure Solver")
+  @Timespan(Timespan.NANOSECONDS)
+  public long pressureSolver;
+
+  /** Durée du calcul du gradient de pression */
+  @Label("Pressure Gradient")
+  @Timespan(Timespan.NANOSECONDS)
+  public long pressureGradient;
+
+  /** Durée de la soustraction du gradient de pression */
+  @Label("Substract Pressure Gradient")
+  @Timespan(Timespan.NANOSECONDS)
+  public long substractPressureGradient;
+
+  /** Durée du dernier calcul du min/max, fait par l'étape de rendu si le pas est pipeliné */
+  @Label("Find Min Max")
+  @Timespan(Timespan.NANOSECONDS)
+  public long findMinMax;
+
+  /** Nombre d'itérations de la méthode de Jacobi */
+  @Label("Solver Iterations")
+  public int solverIterations;
+
+  /** Nombre de courant après le pas */
+  @Label("CFL")
+  public double cfl;
+}
@@ -0,0 +1,145 @@
+package com.e24.wolke.utils.jfr;
+
+import com.e24.wolke.backend.models.application.LocaleManager;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Démarre un enregistrement JFR (Java Flight Recorder) de l'application, avec la configuration
+ * {@code profile} du JDK et les événements de Wolke. L'enregistrement est écrit dans son fichier à
+ * la fermeture de la JVM.
+ *
+ * <p>Les événements de Wolke ({@link SimulationStepEvent}, {@link RenderFrameEvent}, {@link
+ * LayerMergeEvent}, {@link ObstacleRebuildEvent}) ne coûtent presque rien lorsqu'aucun
+ * enregistrement n'est en cours : ils ne sont remplis que si {@code shouldCommit()} est vrai.
+ *
+ * @author Nilon123456789
+ */
+public class WFlightRecorder {
+
+  /** Option de la ligne de commande, seule ou suivie de {@code =<fichier>} */
+  public static final String OPTION = "--jfr";
+
+  /** Nom de la configuration JFR du JDK utilisée */
+  private static final String CONFIGURATION = "profile";
+
+  /** Format de la date dans le nom du fichier par défaut */
+  private static final DateTimeFormatter FILE_DATE_FORMAT =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+  /** Logger de la classe */
+  private static final Logger LOGGER = LogManager.getLogger(WFlightRecorder.class.getSimpleName());
+
+  /** Enregistrement en cours, {@code null} si aucun */
+  private static Recording recording;
+
+  /** Classe non instanciable */
+  private WFlightRecorder() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  /**
+   * Retire l'option {@value #OPTION} des arguments de la ligne de commande et démarre
+   * l'enregistrement si elle est présente. Sans fichier, l'enregistrement est écrit dans le dossier
+   * courant, voir {@link #defaultDestination()}.
+   *
+   * @param args Les arguments de la ligne de commande
+   * @return Les arguments sans l'option {@value #OPTION}
+   */
+  public static String[] startFromArguments(String[] args) {
+    List<String> remaining = new ArrayList<>(args.length);
+
+    for (String arg : args) {
+      if (arg.equals(OPTION)) start(defaultDestination());
+      else if (arg.startsWith(OPTION + "=")) start(Path.of(arg.substring(OPTION.length() + 1)));
+      else remaining.add(arg);
+    }
+
+    return remaining.toArray(new String[0]);
+  }
+
+  /**
+   * Retourne le fichier par défaut d'un enregistrement, {@code wolke-<date>.jfr} dans le dossier
+   * courant
+   *
+   * @return Le fichier par défaut
+   */
+  public static Path defaultDestination() {
+    return Path.of("wolke-" + LocalDateTime.now().format(FILE_DATE_FORMAT) + ".jfr");
+  }
+
+  /**
+   * Démarre un enregistrement, s'il n'y en a pas déjà un en cours
+   *
+   * @param destination Le fichier dans lequel l'enregistrement est écrit à la fermeture de la JVM
+   * @return {@code true} si l'enregistrement a démarré
+   */
+  public static synchronized boolean start(Path destination) {
+    if (recording != null) return false;
+
+    if (!FlightRecorder.isAvailable()) {
+      LOGGER.warn(
+          LocaleManager.getLocaleResourceBundle().getString("log.flightRecorder.unavailable"));
+      return false;
+    }
+
+    try {
+      Recording newRecording = new Recording(Configuration.getConfiguration(CONFIGURATION));
+      newRecording.setName("Wolke");
+      newRecording.enable(SimulationStepEvent.class);
+      newRecording.enable(RenderFrameEvent.class);
+      newRecording.enable(LayerMergeEvent.class);
+      newRecording.enable(ObstacleRebuildEvent.class);
+      newRecording.setToDisk(true);
+      newRecording.setDumpOnExit(true);
+      newRecording.setDestination(destination.toAbsolutePath());
+      newRecording.start();
+
+      recording = newRecording;
+    } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+      LOGGER.error(
+          LocaleManager.getLocaleResourceBundle().getString("log.flightRecorder.failed"),
+          destination,
+          e.getMessage());
+      return false;
+    }
+
+    LOGGER.info(
+        LocaleManager.getLocaleResourceBundle().getString("log.flightRecorder.started"),
+        destination.toAbsolutePath());
+    return true;
+  }
+
+  /**
+   * Retourne si un enregistrement démarré par cette classe est en cours
+   *
+   * @return {@code true} si un enregistrement est en cours
+   */
+  public static synchronized boolean isRecording() {
+    return recording != null;
+  }
+
+  /**
+   * Arrête l'enregistrement en cours et l'écrit dans son fichier
+   *
+   * @return {@code true} si un enregistrement était en cours
+   */
+  public static synchronized boolean stop() {
+    if (recording == null) return false;
+
+    recording.stop();
+    recording.close();
+    recording = null;
+    return true;
+  }
+}
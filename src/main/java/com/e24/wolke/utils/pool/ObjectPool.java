@@ -5,6 +5,7 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -32,6 +33,12 @@ public abstract class ObjectPool<T> {
   /** Nombre maximal d'objet dans la piscine */
   private final int maxLength;
 
+  /** Nombre d'objets empruntés */
+  private final AtomicLong borrowCount = new AtomicLong();
+
+  /** Nombre d'objets empruntés qui ont dû être créés, la piscine étant vide */
+  private final AtomicLong missCount = new AtomicLong();
+
   /**
    * Constructeur de la classe ObjectPool
    *
@@ -106,12 +113,43 @@ public abstract class ObjectPool<T> {
    */
   public T borrowObject() {
     T object = this.pool.poll();
+    borrowCount.incrementAndGet();
 
-    if (object == null) object = createObject();
+    if (object == null) {
+      missCount.incrementAndGet();
+      object = createObject();
+    }
 
     return object;
   }
 
+  /**
+   * Retourne le nombre d'objets empruntés depuis la création de la piscine
+   *
+   * @return Le nombre d'objets empruntés
+   */
+  public long getBorrowCount() {
+    return borrowCount.get();
+  }
+
+  /**
+   * Retourne le nombre d'objets empruntés qui étaient disponibles dans la piscine
+   *
+   * @return Le nombre d'emprunts sans création d'objet
+   */
+  public long getHitCount() {
+    return borrowCount.get() - missCount.get();
+  }
+
+  /**
+   * Retourne le nombre d'objets disponibles dans la piscine
+   *
+   * @return Le nombre d'objets disponibles
+   */
+  public int getSize() {
+    return pool.size();
+  }
+
   /**
    * Crée un objet
    *
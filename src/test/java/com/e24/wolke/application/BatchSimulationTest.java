@@ -0,0 +1,161 @@
+package com.e24.wolke.application;
+
+import com.e24.wolke.application.BatchSimulationOptions.EngineType;
+import com.e24.wolke.application.BatchSimulationOptions.OutputFormat;
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.models.renderer.RendererConstants.VisualizationType;
+import com.e24.wolke.backend.simulation.physics.engine.PhysicsEngine;
+import com.e24.wolke.backend.simulation.recording.FrameExporter.ImageFormat;
+import java.io.IOException;
+import java.util.Locale;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * BatchSimulationTest.java
+ *
+ * <p>Classe de test pour l'exécution sans interface graphique de la simulation.
+ *
+ * @see BatchSimulation
+ * @see BatchSimulationOptions
+ * @see BatchSimulationReport
+ * @author Nilon123456789
+ */
+public class BatchSimulationTest {
+
+  /** Nombre de pas mesurés par les tests */
+  private static final int STEPS = 5;
+
+  /** Initialisation des tests */
+  @BeforeClass
+  public static void setUp() {
+    LocaleManager.update(Locale.FRENCH);
+  }
+
+  /** Test si les options de la ligne de commande sont lues correctement */
+  @Test
+  public void testParseOptions() {
+    BatchSimulationOptions options =
+        BatchSimulationOptions.parse(
+            new String[] {
+              "--resolution", "80x45",
+              "--engine", "mt",
+              "--steps", "12",
+              "--warmup", "0",
+              "--jacobi-iterations", "20",
+              "--jacobi-tolerance", "1e-4",
+              "--time-step", "0.05",
+              "--format", "json"
+            });
+
+    Assert.assertEquals(80, options.getWidth());
+    Assert.assertEquals(45, options.getHeight());
+    Assert.assertEquals(EngineType.MULTI_THREADED, options.getEngine());
+    Assert.assertEquals(12, options.getSteps());
+    Assert.assertEquals(0, options.getWarmupSteps());
+    Assert.assertEquals(20, options.getJacobiIterations());
+    Assert.assertEquals(1e-4, options.getJacobiTolerance(), 0);
+    Assert.assertEquals(0.05, options.getTimeStep(), 0);
+    Assert.assertEquals(OutputFormat.JSON, options.getFormat());
+    Assert.assertNull(options.getScene());
+    Assert.assertNull(options.getOutput());
+
+    options = BatchSimulationOptions.parse(new String[] {"--resolution", "high"});
+    Assert.assertEquals(1280, options.getWidth());
+    Assert.assertEquals(720, options.getHeight());
+    Assert.assertNull(options.getExportDirectory());
+
+    options =
+        BatchSimulationOptions.parse(
+            new String[] {
+              "--export", "frames",
+              "--export-every", "3",
+              "--export-format", "ppm",
+              "--export-field", "velocity-lic",
+              "--export-legend", "true",
+              "--export-writers", "2"
+            });
+    Assert.assertEquals("frames", options.getExportDirectory().getName());
+    Assert.assertEquals(3, options.getExportDecimation());
+    Assert.assertEquals(ImageFormat.PPM, options.getExportFormat());
+    Assert.assertEquals(VisualizationType.VELOCITY_LIC, options.getExportVisualization());
+    Assert.assertTrue(options.getExportLegend());
+    Assert.assertEquals(2, options.getExportWriters());
+  }
+
+  /** Test si les options invalides sont refusées */
+  @Test
+  public void testInvalidOptions() {
+    String[][] invalidArgs = {
+      {"--steps"},
+      {"--steps", "0"},
+      {"--steps", "abc"},
+      {"--engine", "gpu"},
+      {"--resolution", "2x2"},
+      {"--format", "xml"},
+      {"--export-every", "0"},
+      {"--export-format", "gif"},
+      {"--export-field", "vorticity"},
+      {"--export-legend", "yes"},
+      {"--export-writers", "0"},
+      {"--unknown", "1"},
+      {"scene.wlks"}
+    };
+
+    for (String[] args : invalidArgs) {
+      try {
+        BatchSimulationOptions.parse(args);
+        Assert.fail("Options acceptées : " + String.join(" ", args));
+      } catch (IllegalArgumentException e) {
+        // Attendu
+      }
+    }
+  }
+
+  /**
+   * Test si une exécution mesure toutes les étapes et produit des rapports CSV et JSON cohérents
+   *
+   * @throws IOException En cas d'erreur d'écriture
+   */
+  @Test
+  public void testRunReport() throws IOException {
+    BatchSimulationOptions options = new BatchSimulationOptions();
+    options.setResolution(40, 30);
+    options.setEngine(EngineType.SINGLE_THREADED);
+    options.setSteps(STEPS);
+    options.setWarmupSteps(1);
+    options.setJacobiIterations(10);
+
+    BatchSimulationReport report = BatchSimulation.run(options);
+
+    Assert.assertTrue(report.getStepsPerSecond() > 0);
+    Assert.assertEquals(
+        PhysicsEngine.STEP_TIMER, report.getStages().get(report.getStages().size() - 1).getName());
+    for (BatchSimulationReport.StageTiming stage : report.getStages()) {
+      Assert.assertTrue(stage.getName(), stage.getCount() >= STEPS);
+      Assert.assertTrue(stage.getName(), stage.getTotalMs() >= 0);
+    }
+
+    StringBuilder csv = new StringBuilder();
+    report.writeCsv(csv, true);
+    String[] lines = csv.toString().split("\\R");
+    Assert.assertEquals(BatchSimulationReport.CSV_HEADER, lines[0]);
+    Assert.assertEquals(report.getStages().size() + 1, lines.length);
+
+    int columns = BatchSimulationReport.CSV_HEADER.split(",").length;
+    for (int i = 1; i < lines.length; i++) {
+      Assert.assertEquals(lines[i], columns, lines[i].split(",").length);
+      Assert.assertTrue(lines[i], lines[i].startsWith("default,st,40,30," + STEPS + ","));
+    }
+
+    StringBuilder json = new StringBuilder();
+    report.writeJson(json);
+    String text = json.toString().trim();
+    Assert.assertTrue(text.startsWith("{") && text.endsWith("}"));
+    Assert.assertTrue(text.contains("\"engine\": \"st\""));
+    Assert.assertTrue(text.contains("\"jacobiIterations\": 10"));
+    for (BatchSimulationReport.StageTiming stage : report.getStages())
+      Assert.assertTrue(text.contains("{\"name\": \"" + stage.getName() + "\""));
+  }
+}
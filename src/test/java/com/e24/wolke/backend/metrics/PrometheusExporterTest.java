@@ -0,0 +1,145 @@
+package com.e24.wolke.backend.metrics;
+
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.models.simulation.SimulationConstants;
+import com.e24.wolke.backend.simulation.physics.SimulationData;
+import com.e24.wolke.backend.simulation.physics.engine.PhysicsEngine;
+import com.e24.wolke.utils.Timer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * PrometheusExporterTest.java
+ *
+ * <p>Classe de test pour les classes PrometheusExporter et MetricsServer.
+ *
+ * @see PrometheusExporter
+ * @see MetricsServer
+ * @author Nilon123456789
+ */
+public class PrometheusExporterTest {
+
+  /** Nombre de pas effectués avant la lecture des métriques */
+  private static final int STEPS = 3;
+
+  /** Initialisation des tests */
+  @BeforeClass
+  public static void setUp() {
+    LocaleManager.update(Locale.FRENCH);
+  }
+
+  /**
+   * Créer un moteur physique qui a effectué {@link #STEPS} pas
+   *
+   * @return Le moteur physique
+   */
+  private static PhysicsEngine createEngine() {
+    SimulationData simulationData =
+        new SimulationData(
+            40,
+            30,
+            SimulationConstants.DEFAULT_VISCOSITY,
+            SimulationConstants.DEFAULT_VOLUME_DENSITY,
+            SimulationConstants.DEFAULT_TIME_STEP,
+            0);
+    PhysicsEngine engine = new PhysicsEngine(simulationData);
+    engine.setMaxJacobiIterations(5);
+
+    for (int i = 0; i < STEPS; i++) {
+      engine.update(simulationData.getTimeStep());
+      simulationData.returnParticleMatrixToPool(simulationData.pollRenderParticleMatrix());
+    }
+
+    return engine;
+  }
+
+  /** Test si les métriques du moteur, des timers et de la JVM sont exportées */
+  @Test
+  public void testScrape() {
+    PhysicsEngine engine = createEngine();
+    Timer timer = new Timer("Test");
+    timer.register("Stage").record(2_000_000);
+
+    String metrics = new PrometheusExporter(() -> engine).addTimer(() -> timer).scrape();
+
+    Assert.assertTrue(metrics.contains("# TYPE wolke_simulation_steps_total counter\n"));
+    Assert.assertTrue(metrics.contains("wolke_simulation_steps_total " + STEPS + "\n"));
+    Assert.assertTrue(metrics.contains("wolke_simulation_iteration " + STEPS + "\n"));
+    Assert.assertTrue(metrics.contains("wolke_render_queue_depth 0\n"));
+    Assert.assertTrue(metrics.contains("# TYPE wolke_timer_duration_seconds histogram\n"));
+    Assert.assertTrue(
+        metrics.contains(
+            "wolke_timer_duration_seconds_count{category=\"Simulation\",timer=\"Advection\"} "
+                + STEPS
+                + "\n"));
+    String stageBucket = "wolke_timer_duration_seconds_bucket{category=\"Test\",timer=\"Stage\"";
+    Assert.assertTrue(metrics.contains(stageBucket + ",le=\"0.001\"} 0\n"));
+    Assert.assertTrue(metrics.contains(stageBucket + ",le=\"0.0025\"} 1\n"));
+    Assert.assertTrue(metrics.contains(stageBucket + ",le=\"+Inf\"} 1\n"));
+    Assert.assertTrue(metrics.contains("jvm_memory_used_bytes{area=\"heap\"} "));
+    Assert.assertTrue(metrics.contains("process_uptime_seconds "));
+  }
+
+  /** Test si les sources nulles sont ignorées */
+  @Test
+  public void testScrapeWithoutEngine() {
+    String metrics = new PrometheusExporter(() -> null).addTimer(() -> null).scrape();
+
+    Assert.assertFalse(metrics.contains("wolke_simulation_steps_total"));
+    Assert.assertTrue(metrics.contains("jvm_threads_live "));
+  }
+
+  /**
+   * Test si le serveur répond aux requêtes GET avec les métriques et refuse les autres méthodes
+   *
+   * @throws IOException En cas d'erreur de connexion au serveur
+   */
+  @Test
+  public void testServer() throws IOException {
+    PhysicsEngine engine = createEngine();
+    MetricsServer server = new MetricsServer(new PrometheusExporter(() -> engine), 0);
+
+    Assert.assertTrue(server.start());
+    try {
+      URL url = new URL("http://localhost:" + server.getPort() + MetricsServer.PATH);
+
+      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      Assert.assertEquals(200, connection.getResponseCode());
+      Assert.assertEquals(PrometheusExporter.CONTENT_TYPE, connection.getContentType());
+      try (InputStream in = connection.getInputStream()) {
+        String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        Assert.assertTrue(body.contains("wolke_simulation_steps_total " + STEPS + "\n"));
+      }
+
+      HttpURLConnection post = (HttpURLConnection) url.openConnection();
+      post.setRequestMethod("POST");
+      Assert.assertEquals(405, post.getResponseCode());
+    } finally {
+      server.stop();
+    }
+
+    Assert.assertFalse(server.isRunning());
+  }
+
+  /** Test si l'option --metrics est retirée des arguments et si un port invalide est refusé */
+  @Test
+  public void testArguments() {
+    PrometheusExporter exporter = new PrometheusExporter(() -> null);
+    String[] args = {"scene.wlks"};
+
+    Assert.assertArrayEquals(args, MetricsServer.startFromArguments(args, exporter));
+    Assert.assertThrows(
+        IllegalArgumentException.class,
+        () -> MetricsServer.startFromArguments(new String[] {"--metrics=abc"}, exporter));
+    Assert.assertThrows(
+        IllegalArgumentException.class,
+        () -> MetricsServer.startFromArguments(new String[] {"--metrics=70000"}, exporter));
+  }
+}
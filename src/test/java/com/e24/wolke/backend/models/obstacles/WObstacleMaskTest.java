@@ -0,0 +1,48 @@
+package com.e24.wolke.backend.models.obstacles;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Classe permettant de tester les methodes de {@code WObstacleMask}
+ *
+ * @author Nilon123456789
+ */
+public class WObstacleMaskTest {
+
+  /** Methode permettant de tester {@code WObstacleMask#of(WObstacleCellMatrix)} */
+  @Test
+  public void testOf() {
+    WObstacleCellMatrix matrix = new WObstacleCellMatrix(70, 3, false);
+    matrix.setElementAt(new WObstacleCell(), 1, 0);
+    matrix.setElementAt(new WObstacleCell(), 65, 1);
+
+    WObstacleMask mask = WObstacleMask.of(matrix);
+
+    Assert.assertTrue(mask.isObstructed(1, 0));
+    Assert.assertTrue(mask.isObstructed(65, 1));
+    Assert.assertTrue(mask.isObstructed(70 + 65));
+    Assert.assertFalse(mask.isObstructed(0, 0));
+    Assert.assertFalse(mask.isObstructed(64, 1));
+    Assert.assertFalse(mask.isObstructed(69, 2));
+
+    // Les positions hors de la matrice sont des obstacles
+    Assert.assertTrue(mask.isObstructed(-1, 0));
+    Assert.assertTrue(mask.isObstructed(70, 0));
+    Assert.assertTrue(mask.isObstructed(0, 3));
+  }
+
+  /** Methode permettant de tester {@code WObstacleMask#isUpToDate(WObstacleCellMatrix)} */
+  @Test
+  public void testIsUpToDate() {
+    WObstacleCellMatrix matrix = new WObstacleCellMatrix(4, 4, false);
+    WObstacleMask mask = WObstacleMask.of(matrix);
+
+    Assert.assertTrue(mask.isUpToDate(matrix));
+    Assert.assertFalse(mask.isUpToDate(new WObstacleCellMatrix(4, 4, false)));
+
+    matrix.setElementAt(new WObstacleCell(), 2, 2);
+    Assert.assertFalse(mask.isUpToDate(matrix));
+    Assert.assertTrue(WObstacleMask.of(matrix).isUpToDate(matrix));
+  }
+}
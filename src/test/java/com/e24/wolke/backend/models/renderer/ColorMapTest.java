@@ -0,0 +1,82 @@
+package com.e24.wolke.backend.models.renderer;
+
+import com.e24.wolke.utils.images.WColor;
+import java.awt.image.BufferedImage;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * ColorMapTest.java
+ *
+ * <p>Classe de test pour la classe ColorMap.
+ *
+ * @see ColorMap
+ * @author Nilon123456789
+ */
+public class ColorMapTest {
+
+  /** Couleur HSB du minimum */
+  private static final float[] START = {0.7f, 1f, 1f};
+
+  /** Couleur HSB du maximum */
+  private static final float[] END = {0f, 1f, 1f};
+
+  /** Test si les extrémités de la table correspondent aux couleurs de {@code WColor} */
+  @Test
+  public void testMatchesWColor() {
+    ColorMap colorMap = ColorMap.hsbGradient(START, END, ColorMap.DEFAULT_SIZE);
+    Assert.assertEquals(ColorMap.DEFAULT_SIZE, colorMap.getSize());
+
+    Assert.assertEquals(
+        WColor.interpolateHSBColorFromMinMax(START, END, -2, -2, 6), colorMap.getColor(-2, -2, 6));
+    Assert.assertEquals(
+        WColor.interpolateHSBColorFromMinMax(START, END, 6, -2, 6), colorMap.getColor(6, -2, 6));
+
+    ColorMap grey = ColorMap.greyscale(256);
+    for (int value = 0; value <= 255; value += 15)
+      Assert.assertEquals(
+          WColor.interpolateGrayscaleFromMinMax(value, 0, 255), grey.getColor(value, 0, 255));
+  }
+
+  /** Test si les valeurs hors de l'intervalle, NaN et un intervalle vide sont bornés */
+  @Test
+  public void testClamping() {
+    ColorMap colorMap = ColorMap.greyscale(ColorMap.DEFAULT_SIZE);
+    int black = colorMap.getColor(0, 0, 1);
+    int white = colorMap.getColor(1, 0, 1);
+
+    Assert.assertEquals(black, colorMap.getColor(-10, 0, 1));
+    Assert.assertEquals(white, colorMap.getColor(10, 0, 1));
+    Assert.assertEquals(black, colorMap.getColor(Double.NaN, 0, 1));
+    Assert.assertEquals(black, colorMap.getColor(3, 3, 3));
+    Assert.assertEquals(black, colorMap.getColor(0.5, 0, Double.NaN));
+
+    Assert.assertThrows(IllegalArgumentException.class, () -> ColorMap.greyscale(1));
+  }
+
+  /** Test si l'image est écrite ligne par ligne à la position de chaque valeur */
+  @Test
+  public void testApply() {
+    int width = 5;
+    int height = 3;
+    double[] values = new double[width * height];
+    for (int i = 0; i < values.length; i++) values[i] = i;
+
+    ColorMap colorMap = ColorMap.hsbGradient(START, END, 1024);
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    colorMap.apply(values, width, height, 0, values.length - 1, image);
+
+    for (int y = 0; y < height; y++)
+      for (int x = 0; x < width; x++)
+        Assert.assertEquals(
+            colorMap.getColor(values[y * width + x], 0, values.length - 1) & 0xFFFFFF,
+            image.getRGB(x, y) & 0xFFFFFF);
+
+    // Une image plus petite que la matrice n'est écrite que sur sa surface
+    BufferedImage small = new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB);
+    colorMap.apply(values, width, height, 0, values.length - 1, small);
+    Assert.assertEquals(
+        colorMap.getColor(values[width + 1], 0, values.length - 1) & 0xFFFFFF,
+        small.getRGB(1, 1) & 0xFFFFFF);
+  }
+}
@@ -0,0 +1,143 @@
+package com.e24.wolke.backend.models.renderer;
+
+import com.e24.wolke.backend.models.obstacles.WObstacleCell;
+import com.e24.wolke.backend.models.obstacles.WObstacleCellMatrix;
+import com.e24.wolke.backend.models.obstacles.WObstacleMask;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * LicRendererTest.java
+ *
+ * <p>Classe de test pour la classe LicRenderer.
+ *
+ * @see LicRenderer
+ * @author Nilon123456789
+ */
+public class LicRendererTest {
+
+  /** Couleur grise de départ des images du test */
+  private static final int GREY = 0x808080;
+
+  /** Pool de threads du test */
+  private ForkJoinPool forkJoinPool;
+
+  /** Initialisation du pool de threads */
+  @Before
+  public void setUp() {
+    forkJoinPool = new ForkJoinPool(3);
+  }
+
+  /** Arrêt du pool de threads */
+  @After
+  public void tearDown() {
+    forkJoinPool.shutdownNow();
+  }
+
+  /** Test si la texture d'un champ horizontal forme des stries horizontales */
+  @Test
+  public void testStreaksFollowFlow() {
+    int xLength = 200;
+    int yLength = 150;
+    double[] xVelocity = new double[xLength * yLength];
+    Arrays.fill(xVelocity, 1);
+    double[] yVelocity = new double[xLength * yLength];
+
+    BufferedImage image = createImage(xLength, yLength);
+    new LicRenderer(forkJoinPool).apply(xVelocity, yVelocity, xLength, yLength, null, 1, image);
+
+    int[] pixels = getPixels(image);
+    long alongFlow = 0;
+    long acrossFlow = 0;
+    for (int y = 0; y < yLength - 1; y++) {
+      for (int x = 0; x < xLength - 1; x++) {
+        int blue = pixels[y * xLength + x] & 0xFF;
+        alongFlow += Math.abs(blue - (pixels[y * xLength + x + 1] & 0xFF));
+        acrossFlow += Math.abs(blue - (pixels[(y + 1) * xLength + x] & 0xFF));
+      }
+    }
+
+    Assert.assertTrue(acrossFlow > 0);
+    Assert.assertTrue(alongFlow * 4 < acrossFlow);
+  }
+
+  /** Test si les obstacles et une part nulle de la texture laissent l'image intacte */
+  @Test
+  public void testUntouchedPixels() {
+    int xLength = 40;
+    int yLength = 30;
+    double[] xVelocity = new double[xLength * yLength];
+    Arrays.fill(xVelocity, 1);
+    double[] yVelocity = new double[xLength * yLength];
+
+    WObstacleCellMatrix obstacles = new WObstacleCellMatrix(xLength, yLength, false);
+    obstacles.setElementAt(new WObstacleCell(), 20, 15);
+    WObstacleMask mask = WObstacleMask.of(obstacles);
+    LicRenderer renderer = new LicRenderer(forkJoinPool);
+
+    BufferedImage image = createImage(xLength, yLength);
+    renderer.apply(xVelocity, yVelocity, xLength, yLength, mask, 0, image);
+    for (int pixel : getPixels(image)) Assert.assertEquals(GREY, pixel & 0xFFFFFF);
+
+    renderer.apply(xVelocity, yVelocity, xLength, yLength, mask, 1, image);
+    Assert.assertEquals(GREY, image.getRGB(20, 15) & 0xFFFFFF);
+    Assert.assertNotEquals(GREY, image.getRGB(5, 5) & 0xFFFFFF);
+  }
+
+  /** Test si le calcul en parallèle donne la même texture que le calcul sur un seul thread */
+  @Test
+  public void testParallelMatchesSequential() {
+    int xLength = 320;
+    int yLength = 300;
+    double[] xVelocity = new double[xLength * yLength];
+    double[] yVelocity = new double[xLength * yLength];
+    for (int i = 0; i < xVelocity.length; i++) {
+      xVelocity[i] = Math.sin(i * 0.01);
+      yVelocity[i] = Math.cos(i * 0.003);
+    }
+
+    BufferedImage parallel = createImage(xLength, yLength);
+    new LicRenderer(forkJoinPool)
+        .apply(xVelocity, yVelocity, xLength, yLength, null, 0.7, parallel);
+
+    ForkJoinPool single = new ForkJoinPool(1);
+    try {
+      BufferedImage sequential = createImage(xLength, yLength);
+      new LicRenderer(single).apply(xVelocity, yVelocity, xLength, yLength, null, 0.7, sequential);
+
+      Assert.assertTrue(yLength >= 4 * LicRenderer.MIN_BAND_ROWS);
+      Assert.assertArrayEquals(getPixels(sequential), getPixels(parallel));
+    } finally {
+      single.shutdownNow();
+    }
+  }
+
+  /**
+   * Crée une image grise
+   *
+   * @param width La largeur de l'image
+   * @param height La hauteur de l'image
+   * @return L'image
+   */
+  private static BufferedImage createImage(int width, int height) {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Arrays.fill(getPixels(image), GREY);
+    return image;
+  }
+
+  /**
+   * Retourne les pixels d'une image
+   *
+   * @param image L'image
+   * @return Les pixels
+   */
+  private static int[] getPixels(BufferedImage image) {
+    return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+  }
+}
@@ -0,0 +1,211 @@
+package com.e24.wolke.backend.models.renderer;
+
+import com.e24.wolke.backend.models.obstacles.WObstacleCell;
+import com.e24.wolke.backend.models.obstacles.WObstacleCellMatrix;
+import com.e24.wolke.backend.models.simulation.SimulationConstants.BORDER_TYPE;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * ParallelRasterizerTest.java
+ *
+ * <p>Classe de test pour la classe ParallelRasterizer.
+ *
+ * @see ParallelRasterizer
+ * @author Nilon123456789
+ */
+public class ParallelRasterizerTest {
+
+  /** Largeur de l'image, assez grande pour être divisée en plusieurs bandes (px) */
+  private static final int WIDTH = 640;
+
+  /** Hauteur de l'image (px) */
+  private static final int HEIGHT = 360;
+
+  /** Couleur des obstacles */
+  private static final int OBSTACLE_COLOR = 0x123456;
+
+  /** Pool de threads du test */
+  private ForkJoinPool forkJoinPool;
+
+  /** Initialisation du pool de threads */
+  @Before
+  public void setUp() {
+    forkJoinPool = new ForkJoinPool(3);
+  }
+
+  /** Arrêt du pool de threads */
+  @After
+  public void tearDown() {
+    forkJoinPool.shutdownNow();
+  }
+
+  /** Test si le rendu par bandes est identique au rendu de la table sur un seul thread */
+  @Test
+  public void testMatchesColorMap() {
+    double[] values = createValues();
+    ColorMap colorMap = ColorMap.greyscale(ColorMap.DEFAULT_SIZE);
+
+    BufferedImage expected = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+    colorMap.apply(values, WIDTH, HEIGHT, -1, 1, expected);
+
+    BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+    new ParallelRasterizer(forkJoinPool)
+        .rasterize(values, WIDTH, HEIGHT, -1, 1, colorMap, null, OBSTACLE_COLOR, image);
+
+    assertSameImage(expected, image);
+  }
+
+  /** Test si les obstacles sont dessinés par dessus les valeurs, sauf ceux de la bordure */
+  @Test
+  public void testObstacleOverlay() {
+    double[] values = createValues();
+    ColorMap colorMap = ColorMap.hsbGradient(new float[] {0.7f, 1, 1}, new float[] {0, 1, 1}, 256);
+
+    WObstacleCellMatrix obstacles = new WObstacleCellMatrix(WIDTH, HEIGHT);
+    obstacles.drawBorder(BORDER_TYPE.BOX);
+    obstacles.setElementAt(new WObstacleCell(), 100, 200);
+    obstacles.setElementAt(new WObstacleCell(), 500, 10);
+
+    BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+    new ParallelRasterizer(forkJoinPool)
+        .rasterize(values, WIDTH, HEIGHT, -1, 1, colorMap, obstacles, OBSTACLE_COLOR, image);
+
+    for (int y = 0; y < HEIGHT; y++)
+      for (int x = 0; x < WIDTH; x++) {
+        boolean obstacle = (x == 100 && y == 200) || (x == 500 && y == 10);
+        int expected =
+            obstacle ? OBSTACLE_COLOR : colorMap.getColor(values[y * WIDTH + x], -1, 1);
+        Assert.assertEquals(x + ", " + y, expected & 0xFFFFFF, image.getRGB(x, y) & 0xFFFFFF);
+      }
+
+    // Des obstacles d'une autre taille que la matrice sont ignorés
+    BufferedImage ignored = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+    new ParallelRasterizer(forkJoinPool)
+        .rasterize(
+            values,
+            WIDTH,
+            HEIGHT,
+            -1,
+            1,
+            colorMap,
+            new WObstacleCellMatrix(WIDTH / 2, HEIGHT),
+            OBSTACLE_COLOR,
+            ignored);
+    Assert.assertEquals(
+        colorMap.getColor(values[200 * WIDTH + 100], -1, 1) & 0xFFFFFF,
+        ignored.getRGB(100, 200) & 0xFFFFFF);
+  }
+
+  /** Test si chaque bloc prend la couleur de sa première cellule, même coupé par une bande */
+  @Test
+  public void testBlocks() {
+    double[] values = createValues();
+    ColorMap colorMap = ColorMap.greyscale(ColorMap.DEFAULT_SIZE);
+
+    WObstacleCellMatrix obstacles = new WObstacleCellMatrix(WIDTH, HEIGHT);
+    obstacles.setElementAt(new WObstacleCell(), 100, 200);
+
+    for (int step : new int[] {2, 3}) {
+      BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+      new ParallelRasterizer(forkJoinPool)
+          .rasterize(
+              values, WIDTH, HEIGHT, -1, 1, colorMap, obstacles, OBSTACLE_COLOR, step, image);
+
+      for (int y = 0; y < HEIGHT; y++)
+        for (int x = 0; x < WIDTH; x++) {
+          int cellX = x - x % step;
+          int cellY = y - y % step;
+          int expected =
+              cellX == 100 && cellY == 200
+                  ? OBSTACLE_COLOR
+                  : colorMap.getColor(values[cellY * WIDTH + cellX], -1, 1);
+          Assert.assertEquals(x + ", " + y, expected & 0xFFFFFF, image.getRGB(x, y) & 0xFFFFFF);
+        }
+    }
+  }
+
+  /** Test si l'image réduite prend la moyenne de chaque bloc, ou sa première cellule */
+  @Test
+  public void testDownsampled() {
+    double[] values = createValues();
+    ColorMap colorMap = ColorMap.greyscale(ColorMap.DEFAULT_SIZE);
+    int factor = 3;
+    int width = ParallelRasterizer.getDownsampledLength(WIDTH, factor);
+    int height = ParallelRasterizer.getDownsampledLength(HEIGHT, factor);
+    Assert.assertEquals(214, width);
+
+    // Le bloc du pixel (10, 20) est surtout couvert d'obstacles, celui du pixel (30, 40) un peu
+    WObstacleCellMatrix obstacles = new WObstacleCellMatrix(WIDTH, HEIGHT);
+    for (int i = 0; i < 5; i++) obstacles.setElementAt(new WObstacleCell(), 30 + i % 3, 60 + i / 3);
+    obstacles.setElementAt(new WObstacleCell(), 91, 121);
+
+    BufferedImage filtered = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    BufferedImage sampled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    ParallelRasterizer rasterizer = new ParallelRasterizer(forkJoinPool);
+    for (BufferedImage image : new BufferedImage[] {filtered, sampled})
+      rasterizer.rasterizeDownsampled(
+          values,
+          WIDTH,
+          HEIGHT,
+          -1,
+          1,
+          colorMap,
+          obstacles,
+          OBSTACLE_COLOR,
+          factor,
+          image == filtered,
+          1,
+          image);
+
+    for (int y = 0; y < height; y++)
+      for (int x = 0; x < width; x++) {
+        double sum = 0;
+        int count = 0;
+        for (int cellY = y * factor; cellY < Math.min(HEIGHT, (y + 1) * factor); cellY++)
+          for (int cellX = x * factor; cellX < Math.min(WIDTH, (x + 1) * factor); cellX++)
+            if (obstacles.getMatrix()[cellY * WIDTH + cellX] == null) {
+              sum += values[cellY * WIDTH + cellX];
+              count++;
+            }
+
+        int expected =
+            x == 10 && y == 20 ? OBSTACLE_COLOR : colorMap.getColor(sum / count, -1, 1);
+        Assert.assertEquals(x + ", " + y, expected & 0xFFFFFF, filtered.getRGB(x, y) & 0xFFFFFF);
+
+        int first = y * factor * WIDTH + x * factor;
+        expected =
+            obstacles.getMatrix()[first] != null
+                ? OBSTACLE_COLOR
+                : colorMap.getColor(values[first], -1, 1);
+        Assert.assertEquals(x + ", " + y, expected & 0xFFFFFF, sampled.getRGB(x, y) & 0xFFFFFF);
+      }
+  }
+
+  /**
+   * Crée une matrice de valeurs non uniforme
+   *
+   * @return Les valeurs, entre -1 et 1
+   */
+  private static double[] createValues() {
+    double[] values = new double[WIDTH * HEIGHT];
+    for (int i = 0; i < values.length; i++) values[i] = Math.sin(i * 0.001);
+    return values;
+  }
+
+  /**
+   * Vérifie que deux images ont les mêmes pixels
+   *
+   * @param expected L'image attendue
+   * @param actual L'image obtenue
+   */
+  private static void assertSameImage(BufferedImage expected, BufferedImage actual) {
+    for (int y = 0; y < expected.getHeight(); y++)
+      for (int x = 0; x < expected.getWidth(); x++)
+        Assert.assertEquals(x + ", " + y, expected.getRGB(x, y), actual.getRGB(x, y));
+  }
+}
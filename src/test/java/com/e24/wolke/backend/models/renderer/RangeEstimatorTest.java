@@ -0,0 +1,121 @@
+package com.e24.wolke.backend.models.renderer;
+
+import com.e24.wolke.backend.models.obstacles.WObstacleCell;
+import com.e24.wolke.backend.models.obstacles.WObstacleCellMatrix;
+import com.e24.wolke.backend.models.obstacles.WObstacleMask;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * RangeEstimatorTest.java
+ *
+ * <p>Classe de test pour la classe RangeEstimator.
+ *
+ * @see RangeEstimator
+ * @author Nilon123456789
+ */
+public class RangeEstimatorTest {
+
+  /** Pool de threads du test */
+  private ForkJoinPool forkJoinPool;
+
+  /** Initialisation du pool de threads */
+  @Before
+  public void setUp() {
+    forkJoinPool = new ForkJoinPool(3);
+  }
+
+  /** Arrêt du pool de threads */
+  @After
+  public void tearDown() {
+    forkJoinPool.shutdownNow();
+  }
+
+  /** Test si une valeur extrême isolée n'élargit pas l'intervalle */
+  @Test
+  public void testPercentilesIgnoreOutlier() {
+    double[] values = createRamp(10_000);
+    values[1234] = 1e9;
+
+    double[] range = new RangeEstimator(forkJoinPool, 0.01, 0.99, 1).estimate(values, null);
+
+    Assert.assertEquals(0.01, range[0], 1e-3);
+    Assert.assertEquals(0.99, range[1], 1e-3);
+  }
+
+  /** Test si l'intervalle suit la nouvelle image selon le poids du lissage */
+  @Test
+  public void testSmoothing() {
+    RangeEstimator estimator = new RangeEstimator(forkJoinPool, 0, 1, 0.25);
+    double[] values = createRamp(1_000);
+    estimator.estimate(values, null);
+
+    for (int i = 0; i < values.length; i++) values[i] += 1;
+    double[] range = estimator.estimate(values, null);
+
+    Assert.assertEquals(0.25, range[0], 1e-3);
+    Assert.assertEquals(1.25, range[1], 1e-3);
+
+    estimator.reset();
+    range = estimator.estimate(values, null);
+    Assert.assertEquals(1, range[0], 1e-3);
+    Assert.assertEquals(2, range[1], 1e-3);
+  }
+
+  /** Test si les cellules des obstacles ne sont pas comptées */
+  @Test
+  public void testObstaclesIgnored() {
+    int xLength = 20;
+    int yLength = 10;
+    double[] values = new double[xLength * yLength];
+    values[3 * xLength + 4] = 100;
+    values[5 * xLength + 6] = 1;
+
+    WObstacleCellMatrix obstacles = new WObstacleCellMatrix(xLength, yLength, false);
+    obstacles.setElementAt(new WObstacleCell(), 4, 3);
+
+    double[] range =
+        new RangeEstimator(forkJoinPool, 0, 1, 1).estimate(values, WObstacleMask.of(obstacles));
+
+    Assert.assertEquals(0, range[0], 0);
+    Assert.assertEquals(1, range[1], 1e-9);
+  }
+
+  /** Test si les bandes comptées en parallèle donnent les percentiles des valeurs triées */
+  @Test
+  public void testParallelMatchesSortedPercentiles() {
+    Random random = new Random(47);
+    double[] values = new double[4 * RangeEstimator.MIN_BAND_VALUES + 123];
+    for (int i = 0; i < values.length; i++) values[i] = random.nextGaussian();
+
+    RangeEstimator estimator = new RangeEstimator(forkJoinPool, 0.05, 0.95, 1);
+    estimator.estimate(values, null);
+    for (int i = 0; i < values.length; i++) values[i] += 0.1;
+    double[] range = estimator.estimate(values, null);
+
+    double[] sorted = values.clone();
+    Arrays.sort(sorted);
+    double binWidth = (sorted[sorted.length - 1] - sorted[0]) / RangeEstimator.BIN_COUNT;
+
+    Assert.assertEquals(sorted[(int) (0.05 * sorted.length)], range[0], binWidth);
+    Assert.assertEquals(sorted[(int) (0.95 * sorted.length)], range[1], binWidth);
+  }
+
+  /**
+   * Crée une rampe de valeurs régulièrement espacées de {@code 0} à {@code 1}
+   *
+   * @param length Le nombre de valeurs
+   * @return La rampe
+   */
+  private static double[] createRamp(int length) {
+    double[] values = new double[length];
+    for (int i = 0; i < length; i++) values[i] = i / (length - 1.0);
+
+    return values;
+  }
+}
@@ -0,0 +1,82 @@
+package com.e24.wolke.backend.models.renderer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * RenderSchedulerTest.java
+ *
+ * <p>Classe de test pour la classe RenderScheduler.
+ *
+ * @see RenderScheduler
+ * @author Nilon123456789
+ */
+public class RenderSchedulerTest {
+
+  /** Une milliseconde (ns) */
+  private static final long MILLIS = 1_000_000L;
+
+  /** Test si une image n'est rendue qu'une fois l'intervalle de la fréquence cible écoulé */
+  @Test
+  public void testThrottle() {
+    RenderScheduler scheduler = new RenderScheduler(50, false);
+    Assert.assertTrue(scheduler.isThrottled());
+    Assert.assertEquals(0, scheduler.getDelayNanos(0));
+
+    scheduler.onFrameRendered(100 * MILLIS, 105 * MILLIS);
+    Assert.assertEquals(15 * MILLIS, scheduler.getDelayNanos(105 * MILLIS));
+    Assert.assertEquals(0, scheduler.getDelayNanos(120 * MILLIS));
+    Assert.assertEquals(0, scheduler.getDelayNanos(200 * MILLIS));
+
+    // Sans fréquence cible, chaque image est rendue dès qu'elle arrive
+    scheduler.setTargetFps(0);
+    Assert.assertFalse(scheduler.isThrottled());
+    Assert.assertEquals(0, scheduler.getDelayNanos(105 * MILLIS));
+  }
+
+  /** Test si la qualité baisse quand le rendu est trop lent et remonte quand il est rapide */
+  @Test
+  public void testAdaptiveQuality() {
+    RenderScheduler scheduler = new RenderScheduler(50, true);
+    long time = 0;
+
+    time = render(scheduler, time, 30 * MILLIS, RenderScheduler.ADAPT_FRAMES - 1);
+    Assert.assertEquals(RenderScheduler.QUALITY_FULL, scheduler.getQualityLevel());
+
+    time = render(scheduler, time, 30 * MILLIS, 1);
+    Assert.assertEquals(RenderScheduler.QUALITY_NO_OVERLAYS, scheduler.getQualityLevel());
+
+    time = render(scheduler, time, 30 * MILLIS, 2 * RenderScheduler.ADAPT_FRAMES);
+    Assert.assertEquals(RenderScheduler.QUALITY_COARSE, scheduler.getQualityLevel());
+
+    // Entre la moitié et la totalité de l'intervalle, la qualité ne change pas
+    time = render(scheduler, time, 15 * MILLIS, 3 * RenderScheduler.ADAPT_FRAMES);
+    Assert.assertEquals(RenderScheduler.QUALITY_COARSE, scheduler.getQualityLevel());
+
+    time = render(scheduler, time, 2 * MILLIS, 3 * RenderScheduler.ADAPT_FRAMES);
+    Assert.assertEquals(RenderScheduler.QUALITY_FULL, scheduler.getQualityLevel());
+
+    render(scheduler, time, 30 * MILLIS, 3 * RenderScheduler.ADAPT_FRAMES);
+    scheduler.setAdaptive(false);
+    Assert.assertEquals(RenderScheduler.QUALITY_FULL, scheduler.getQualityLevel());
+  }
+
+  /**
+   * Simule le rendu d'images de durée constante
+   *
+   * @param scheduler Le {@code RenderScheduler}
+   * @param time Le début de la première image (ns)
+   * @param frameNanos La durée d'une image (ns)
+   * @param frames Le nombre d'images
+   * @return Le temps après la dernière image (ns)
+   */
+  private static long render(RenderScheduler scheduler, long time, long frameNanos, int frames) {
+    for (int i = 0; i < frames; i++) {
+      time += scheduler.getDelayNanos(time);
+      scheduler.onFrameRendered(time, time + frameNanos);
+      time += frameNanos;
+    }
+
+    return time;
+  }
+}
@@ -0,0 +1,211 @@
+package com.e24.wolke.backend.models.renderer;
+
+import com.e24.wolke.backend.models.obstacles.WObstacleCell;
+import com.e24.wolke.backend.models.obstacles.WObstacleCellMatrix;
+import com.e24.wolke.backend.models.obstacles.WObstacleMask;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * StreamlineRendererTest.java
+ *
+ * <p>Classe de test pour la classe StreamlineRenderer.
+ *
+ * @see StreamlineRenderer
+ * @author Nilon123456789
+ */
+public class StreamlineRendererTest {
+
+  /** Pool de threads du test */
+  private ForkJoinPool forkJoinPool;
+
+  /** Initialisation du pool de threads */
+  @Before
+  public void setUp() {
+    forkJoinPool = new ForkJoinPool(3);
+  }
+
+  /** Arrêt du pool de threads */
+  @After
+  public void tearDown() {
+    forkJoinPool.shutdownNow();
+  }
+
+  /** Test si les lignes d'un champ uniforme sont droites et de la longueur attendue */
+  @Test
+  public void testUniformField() {
+    int xLength = 200;
+    int yLength = 40;
+    double[] xVelocity = new double[xLength * yLength];
+    Arrays.fill(xVelocity, 2);
+    double[] yVelocity = new double[xLength * yLength];
+    WObstacleMask mask = WObstacleMask.of(new WObstacleCellMatrix(xLength, yLength, false));
+
+    StreamlineRenderer renderer = new StreamlineRenderer(forkJoinPool, 10, 20);
+    Assert.assertFalse(renderer.update(xVelocity, yVelocity, xLength, yLength, mask));
+    Assert.assertEquals(20 * 4, renderer.getLineCount());
+
+    // La première ligne de la grille est assez loin du bord droit pour être complète
+    Assert.assertEquals(20, renderer.getPointCount(0));
+    float y = renderer.getPointY(0, 0);
+    for (int point = 1; point < 20; point++) {
+      Assert.assertEquals(y, renderer.getPointY(0, point), 1e-4);
+      Assert.assertEquals(
+          StreamlineRenderer.STEP_LENGTH,
+          renderer.getPointX(0, point) - renderer.getPointX(0, point - 1),
+          1e-4);
+    }
+
+    // Toutes les lignes restent dans la simulation
+    for (int line = 0; line < renderer.getLineCount(); line++) {
+      int count = renderer.getPointCount(line);
+      Assert.assertTrue(count >= 1);
+      Assert.assertTrue(renderer.getPointX(line, count - 1) <= xLength - 1);
+    }
+  }
+
+  /** Test si une ligne s'arrête devant un obstacle */
+  @Test
+  public void testStopsAtObstacle() {
+    int xLength = 40;
+    int yLength = 12;
+    double[] xVelocity = new double[xLength * yLength];
+    Arrays.fill(xVelocity, 1);
+    double[] yVelocity = new double[xLength * yLength];
+
+    WObstacleCellMatrix obstacles = new WObstacleCellMatrix(xLength, yLength, false);
+    for (int y = 0; y < yLength; y++) obstacles.setElementAt(new WObstacleCell(), 20, y);
+
+    StreamlineRenderer renderer = new StreamlineRenderer(forkJoinPool, 12, 40);
+    renderer.update(xVelocity, yVelocity, xLength, yLength, WObstacleMask.of(obstacles));
+
+    Assert.assertEquals(3, renderer.getLineCount());
+    int count = renderer.getPointCount(0);
+    Assert.assertTrue(count > 1);
+    Assert.assertTrue(count < 40);
+    Assert.assertTrue(renderer.getPointX(0, count - 1) < 19.5);
+    Assert.assertTrue(renderer.getPointX(0, count - 1) > 19.5 - 2 * StreamlineRenderer.STEP_LENGTH);
+  }
+
+  /** Test si un champ peu modifié met les lignes à jour en avançant leurs germes */
+  @Test
+  public void testIncrementalUpdate() {
+    int xLength = 120;
+    int yLength = 60;
+    double[] xVelocity = new double[xLength * yLength];
+    double[] yVelocity = new double[xLength * yLength];
+    for (int i = 0; i < xVelocity.length; i++) {
+      xVelocity[i] = 1 + Math.sin(i * 0.01);
+      yVelocity[i] = Math.cos(i * 0.02);
+    }
+    WObstacleMask mask = WObstacleMask.of(new WObstacleCellMatrix(xLength, yLength, false));
+
+    StreamlineRenderer renderer = new StreamlineRenderer(forkJoinPool, 10, 30);
+    Assert.assertFalse(renderer.update(xVelocity, yVelocity, xLength, yLength, mask));
+
+    int lineCount = renderer.getLineCount();
+    float[][] before = new float[lineCount][];
+    for (int line = 0; line < lineCount; line++) {
+      if (renderer.getPointCount(line) < 3) continue;
+      before[line] =
+          new float[] {
+            renderer.getPointX(line, 0),
+            renderer.getPointY(line, 0),
+            renderer.getPointX(line, 1),
+            renderer.getPointY(line, 1)
+          };
+    }
+
+    // Avec le même champ, chaque germe avance d'un point ou repart de la grille
+    Assert.assertTrue(renderer.update(xVelocity, yVelocity, xLength, yLength, mask));
+    Assert.assertTrue(renderer.isIncremental());
+    int advected = 0;
+    for (int line = 0; line < lineCount; line++) {
+      if (before[line] == null) continue;
+      float x = renderer.getPointX(line, 0);
+      float y = renderer.getPointY(line, 0);
+      if (x == before[line][2] && y == before[line][3]) advected++;
+      else {
+        Assert.assertEquals(before[line][0], x, 0);
+        Assert.assertEquals(before[line][1], y, 0);
+      }
+    }
+    Assert.assertTrue(advected > lineCount / 2);
+
+    // Un champ inversé est entièrement recalculé
+    double[] reversed = new double[xVelocity.length];
+    for (int i = 0; i < reversed.length; i++) reversed[i] = -xVelocity[i];
+    Assert.assertFalse(renderer.update(reversed, yVelocity, xLength, yLength, mask));
+
+    // Un nouveau masque d'obstacles est aussi recalculé
+    WObstacleMask other = WObstacleMask.of(new WObstacleCellMatrix(xLength, yLength, false));
+    Assert.assertFalse(renderer.update(reversed, yVelocity, xLength, yLength, other));
+  }
+
+  /** Test si l'intégration en parallèle donne les mêmes lignes que l'intégration séquentielle */
+  @Test
+  public void testParallelMatchesSequential() {
+    int xLength = 640;
+    int yLength = 360;
+    double[] xVelocity = new double[xLength * yLength];
+    double[] yVelocity = new double[xLength * yLength];
+    for (int i = 0; i < xVelocity.length; i++) {
+      xVelocity[i] = Math.sin(i * 0.01);
+      yVelocity[i] = Math.cos(i * 0.003);
+    }
+    WObstacleMask mask = WObstacleMask.of(new WObstacleCellMatrix(xLength, yLength, false));
+
+    StreamlineRenderer parallel = new StreamlineRenderer(forkJoinPool, 8, 24);
+    parallel.update(xVelocity, yVelocity, xLength, yLength, mask);
+    parallel.update(xVelocity, yVelocity, xLength, yLength, mask);
+
+    ForkJoinPool single = new ForkJoinPool(1);
+    try {
+      StreamlineRenderer sequential = new StreamlineRenderer(single, 8, 24);
+      sequential.update(xVelocity, yVelocity, xLength, yLength, mask);
+      sequential.update(xVelocity, yVelocity, xLength, yLength, mask);
+
+      Assert.assertTrue(parallel.getLineCount() > StreamlineRenderer.MIN_PARALLEL_LINES);
+      Assert.assertEquals(sequential.getLineCount(), parallel.getLineCount());
+      for (int line = 0; line < parallel.getLineCount(); line++) {
+        Assert.assertEquals(sequential.getPointCount(line), parallel.getPointCount(line));
+        for (int point = 0; point < parallel.getPointCount(line); point++) {
+          Assert.assertEquals(
+              sequential.getPointX(line, point), parallel.getPointX(line, point), 0);
+          Assert.assertEquals(
+              sequential.getPointY(line, point), parallel.getPointY(line, point), 0);
+        }
+      }
+    } finally {
+      single.shutdownNow();
+    }
+  }
+
+  /** Test si les lignes sont dessinées dans deux images réutilisées en alternance */
+  @Test
+  public void testRender() {
+    double[] xVelocity = new double[40 * 20];
+    Arrays.fill(xVelocity, 1);
+    double[] yVelocity = new double[40 * 20];
+
+    StreamlineRenderer renderer = new StreamlineRenderer(forkJoinPool, 10, 20);
+    renderer.update(xVelocity, yVelocity, 40, 20, null);
+
+    BufferedImage first = renderer.render(2, 80, 40);
+    BufferedImage second = renderer.render(2, 80, 40);
+    BufferedImage third = renderer.render(2, 80, 40);
+
+    Assert.assertNotSame(first, second);
+    Assert.assertSame(first, third);
+
+    // La première ligne part de son germe vers la droite
+    int x = (int) ((renderer.getPointX(0, 0) + 3) * 2);
+    int y = (int) (renderer.getPointY(0, 0) * 2);
+    Assert.assertNotEquals(0, third.getRGB(x, y) >>> 24);
+  }
+}
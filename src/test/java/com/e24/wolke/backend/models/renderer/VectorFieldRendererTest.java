@@ -0,0 +1,135 @@
+package com.e24.wolke.backend.models.renderer;
+
+import com.e24.wolke.backend.models.obstacles.WObstacleCell;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * VectorFieldRendererTest.java
+ *
+ * <p>Classe de test pour la classe VectorFieldRenderer.
+ *
+ * @see VectorFieldRenderer
+ * @author Nilon123456789
+ */
+public class VectorFieldRendererTest {
+
+  /** Pool de threads du test */
+  private ForkJoinPool forkJoinPool;
+
+  /** Initialisation du pool de threads */
+  @Before
+  public void setUp() {
+    forkJoinPool = new ForkJoinPool(3);
+  }
+
+  /** Arrêt du pool de threads */
+  @After
+  public void tearDown() {
+    forkJoinPool.shutdownNow();
+  }
+
+  /** Test si les flèches partent de la grille, ont la bonne longueur et évitent les obstacles */
+  @Test
+  public void testArrows() {
+    int xLength = 40;
+    int yLength = 20;
+    double[] xValues = new double[xLength * yLength];
+    Arrays.fill(xValues, 0.5);
+
+    WObstacleCell[] obstacles = new WObstacleCell[xLength * yLength];
+    obstacles[9 * xLength + 19] = new WObstacleCell();
+
+    VectorFieldRenderer renderer = new VectorFieldRenderer(forkJoinPool);
+    renderer.render(xValues, null, 1, xLength, yLength, obstacles, 10, 2, 80, 40);
+
+    // Grille de 4 x 2 flèches, moins l'obstacle en (19, 9)
+    List<double[]> segments = getSegments(renderer.getPath());
+    Assert.assertEquals(7, segments.size());
+    Assert.assertArrayEquals(new double[] {9, 9, 9 + 2.5, 9}, segments.get(0), 1e-6);
+    Assert.assertArrayEquals(new double[] {29, 9, 29 + 2.5, 9}, segments.get(1), 1e-6);
+    Assert.assertArrayEquals(new double[] {9, 19, 9 + 2.5, 19}, segments.get(3), 1e-6);
+
+    // Un champ nul n'a pas de flèches
+    renderer.render(null, null, 0, xLength, yLength, null, 10, 2, 80, 40);
+    Assert.assertTrue(getSegments(renderer.getPath()).isEmpty());
+  }
+
+  /** Test si le calcul en parallèle donne les mêmes flèches que le calcul séquentiel */
+  @Test
+  public void testParallelMatchesSequential() {
+    int xLength = 640;
+    int yLength = 360;
+    double[] xValues = new double[xLength * yLength];
+    double[] yValues = new double[xLength * yLength];
+    for (int i = 0; i < xValues.length; i++) {
+      xValues[i] = Math.sin(i * 0.01);
+      yValues[i] = Math.cos(i * 0.003);
+    }
+
+    VectorFieldRenderer sequential = new VectorFieldRenderer(forkJoinPool);
+    sequential.setParallel(false);
+    sequential.render(xValues, yValues, 1, xLength, yLength, null, 5, 1, xLength, yLength);
+
+    VectorFieldRenderer parallel = new VectorFieldRenderer(forkJoinPool);
+    parallel.render(xValues, yValues, 1, xLength, yLength, null, 5, 1, xLength, yLength);
+
+    List<double[]> expected = getSegments(sequential.getPath());
+    List<double[]> actual = getSegments(parallel.getPath());
+    Assert.assertTrue(expected.size() > VectorFieldRenderer.MIN_PARALLEL_ARROWS);
+    Assert.assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++)
+      Assert.assertArrayEquals(expected.get(i), actual.get(i), 0);
+  }
+
+  /** Test si les deux images sont réutilisées en alternance et contiennent la grille de points */
+  @Test
+  public void testImageReuse() {
+    double[] xValues = new double[40 * 20];
+    VectorFieldRenderer renderer = new VectorFieldRenderer(forkJoinPool);
+
+    BufferedImage first = renderer.render(xValues, null, 1, 40, 20, null, 10, 2, 80, 40);
+    BufferedImage second = renderer.render(xValues, null, 1, 40, 20, null, 10, 2, 80, 40);
+    BufferedImage third = renderer.render(xValues, null, 1, 40, 20, null, 10, 2, 80, 40);
+
+    Assert.assertNotSame(first, second);
+    Assert.assertSame(first, third);
+
+    // Point de la grille en (9, 9), soit (18, 18) dans le canvas
+    Assert.assertNotEquals(0, third.getRGB(18, 18) >>> 24);
+    Assert.assertEquals(0, third.getRGB(5, 30) >>> 24);
+  }
+
+  /**
+   * Retourne les segments d'un chemin formé de paires {@code moveTo}, {@code lineTo}
+   *
+   * @param path Le chemin
+   * @return Les segments (x0, y0, x1, y1)
+   */
+  private static List<double[]> getSegments(Path2D path) {
+    List<double[]> segments = new ArrayList<>();
+    double[] coords = new double[6];
+    double[] segment = null;
+
+    for (PathIterator iterator = path.getPathIterator(null); !iterator.isDone(); iterator.next()) {
+      if (iterator.currentSegment(coords) == PathIterator.SEG_MOVETO)
+        segment = new double[] {coords[0], coords[1], 0, 0};
+      else {
+        segment[2] = coords[0];
+        segment[3] = coords[1];
+        segments.add(segment);
+      }
+    }
+
+    return segments;
+  }
+}
@@ -0,0 +1,67 @@
+package com.e24.wolke.backend.models.simulation;
+
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.simulation.physics.SimulationData;
+import com.e24.wolke.backend.simulation.physics.engine.PhysicsEngine;
+import java.util.Locale;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * PerformanceSnapshotTest.java
+ *
+ * <p>Classe de test pour la classe PerformanceSnapshot.
+ *
+ * @see PerformanceSnapshot
+ * @author Nilon123456789
+ */
+public class PerformanceSnapshotTest {
+
+  /** Nombre de pas effectués entre les deux relevés */
+  private static final int STEPS = 3;
+
+  /** Initialisation des tests */
+  @BeforeClass
+  public static void setUp() {
+    LocaleManager.update(Locale.FRENCH);
+  }
+
+  /** Test si deux relevés successifs donnent les moyennes et les compteurs des pas effectués */
+  @Test
+  public void testSnapshotDeltas() {
+    SimulationData simulationData =
+        new SimulationData(
+            40,
+            30,
+            SimulationConstants.DEFAULT_VISCOSITY,
+            SimulationConstants.DEFAULT_VOLUME_DENSITY,
+            SimulationConstants.DEFAULT_TIME_STEP,
+            0);
+    PhysicsEngine engine = new PhysicsEngine(simulationData);
+    engine.setMaxJacobiIterations(5);
+
+    PerformanceSnapshot before = PerformanceSnapshot.capture(engine, simulationData, null);
+
+    for (int i = 0; i < STEPS; i++) {
+      engine.update(simulationData.getTimeStep());
+      simulationData.returnParticleMatrixToPool(simulationData.pollRenderParticleMatrix());
+    }
+
+    PerformanceSnapshot after = PerformanceSnapshot.capture(engine, simulationData, null);
+
+    Assert.assertTrue(after.getSecondsSince(before) > 0);
+    Assert.assertTrue(after.getStepsPerSecond(before) > 0);
+    Assert.assertEquals(0, after.getFrameMillis(before), 0);
+
+    int advection = PhysicsEngine.STEP_STAGES.indexOf("Advection");
+    Assert.assertTrue(after.getStageMillis(before, advection) > 0);
+
+    Assert.assertTrue(after.getSolverIterations() > 0);
+    Assert.assertTrue(after.getSolverIterations() <= 5);
+
+    double hitRate = after.getPoolHitRate(before);
+    Assert.assertTrue(hitRate >= 0 && hitRate <= 1);
+    Assert.assertEquals(0, after.getDroppedFramesPerSecond(before), 0);
+  }
+}
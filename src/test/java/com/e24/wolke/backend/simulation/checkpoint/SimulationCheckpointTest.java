@@ -0,0 +1,264 @@
+package com.e24.wolke.backend.simulation.checkpoint;
+
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.models.obstacles.ObstacleModel;
+import com.e24.wolke.backend.models.obstacles.WObstacleCellMatrix;
+import com.e24.wolke.backend.models.simulation.SimulationProperties;
+import com.e24.wolke.backend.simulation.physics.FieldError;
+import com.e24.wolke.backend.simulation.physics.FieldSnapshot;
+import com.e24.wolke.backend.simulation.physics.ParticleMatrix;
+import com.e24.wolke.backend.simulation.physics.SimulationData;
+import com.e24.wolke.backend.simulation.physics.engine.PhysicsEngine;
+import com.e24.wolke.backend.simulation.physics.engine.PhysicsEngineMultiThreaded;
+import com.e24.wolke.backend.simulation.physics.engine.StepListener;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * SimulationCheckpointTest.java
+ *
+ * <p>Classe de test pour les classes SimulationCheckpoint et AutoCheckpointer.
+ *
+ * @see SimulationCheckpoint
+ * @see AutoCheckpointer
+ * @author Nilon123456789
+ */
+public class SimulationCheckpointTest {
+
+  /** Largeur de la simulation (px) */
+  private static final int WIDTH = 48;
+
+  /** Hauteur de la simulation (px) */
+  private static final int HEIGHT = 27;
+
+  /** Nombre de pas effectués avant le point de reprise */
+  private static final int STEPS = 6;
+
+  /** Dossier temporaire des points de reprise */
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  /** Initialisation des tests */
+  @BeforeClass
+  public static void setUp() {
+    LocaleManager.update(Locale.FRENCH);
+  }
+
+  /**
+   * Test si une simulation restaurée continue exactement comme la simulation d'origine
+   *
+   * @throws IOException En cas d'erreur d'écriture ou de lecture
+   */
+  @Test
+  public void testRestoreContinuesIdentically() throws IOException {
+    SimulationData original = createScene();
+    PhysicsEngine originalEngine = createEngine(original);
+    for (int i = 0; i < STEPS; i++) originalEngine.updateWithoutRender();
+
+    Path file = folder.getRoot().toPath().resolve("state" + SimulationCheckpoint.EXTENSION);
+    originalEngine.writeCheckpoint(file);
+
+    SimulationCheckpoint checkpoint = SimulationCheckpoint.read(file);
+    Assert.assertEquals(WIDTH, checkpoint.getXLength());
+    Assert.assertEquals(HEIGHT, checkpoint.getYLength());
+    Assert.assertEquals(STEPS, checkpoint.getIteration());
+    Assert.assertEquals(originalEngine.getCurrentTime(), checkpoint.getTime(), 0);
+
+    SimulationData restored = new SimulationProperties().createSimulationData(WIDTH, HEIGHT);
+    WObstacleCellMatrix obstacles = restored.getObstacle();
+    PhysicsEngine restoredEngine = createEngine(restored);
+    restoredEngine.restoreCheckpoint(checkpoint);
+
+    Assert.assertEquals(STEPS, restoredEngine.getCurrentIteration());
+    Assert.assertEquals(
+        original.getVortexConfinementFactor(), restored.getVortexConfinementFactor(), 0);
+
+    // La matrice d'obstacles partagée avec l'éditeur est conservée
+    Assert.assertSame(obstacles, restored.getObstacle());
+    Assert.assertArrayEquals(
+        original.getObstacle().toBinaryArray(), restored.getObstacle().toBinaryArray());
+
+    for (int i = 0; i < 2; i++) {
+      originalEngine.updateWithoutRender();
+      restoredEngine.updateWithoutRender();
+    }
+
+    Assert.assertEquals(originalEngine.getCurrentIteration(), restoredEngine.getCurrentIteration());
+
+    FieldSnapshot reference = FieldSnapshot.capture(original.getCurrentParticleMatrix());
+    for (FieldError error :
+        FieldSnapshot.capture(restored.getCurrentParticleMatrix()).compare(reference))
+      Assert.assertEquals(error.toString(), 0, error.getLInf(), 0);
+  }
+
+  /**
+   * Test si un point de reprise écrit par un moteur pipeliné en marche, depuis un {@link
+   * StepListener}, contient les champs d'un pas séquentiel et les min/max que le rendu reçoit
+   *
+   * @throws Exception En cas d'erreur d'écriture ou de lecture, ou si l'attente est interrompue
+   */
+  @Test
+  public void testPipelinedCheckpoint() throws Exception {
+    SimulationData reference = createScene();
+    PhysicsEngine referenceEngine = createEngine(reference);
+    for (int i = 0; i < STEPS; i++) referenceEngine.updateWithoutRender();
+
+    Path file = folder.getRoot().toPath().resolve("pipelined" + SimulationCheckpoint.EXTENSION);
+    CountDownLatch stopped = new CountDownLatch(1);
+    ParticleMatrix[] saved = new ParticleMatrix[1];
+    IOException[] failure = new IOException[1];
+
+    SimulationData simulationData = createScene();
+    simulationData.setSleepTime(0);
+    PhysicsEngine engine = createEngine(simulationData);
+    engine.setPipelined(true);
+    engine.addStepListener(
+        (stepEngine, iteration) -> {
+          if (iteration == STEPS) {
+            try {
+              stepEngine.writeCheckpoint(file);
+            } catch (IOException e) {
+              failure[0] = e;
+            }
+            saved[0] = simulationData.getCurrentParticleMatrix();
+          } else if (iteration == STEPS + 1) {
+            // La matrice du point de reprise est transmise au rendu pendant ce pas
+            stepEngine.stop();
+            stopped.countDown();
+          }
+        });
+
+    engine.start();
+    Assert.assertTrue(stopped.await(30, TimeUnit.SECONDS));
+    if (failure[0] != null) throw failure[0];
+
+    SimulationData restored = new SimulationProperties().createSimulationData(WIDTH, HEIGHT);
+    createEngine(restored).restoreCheckpoint(SimulationCheckpoint.read(file));
+    ParticleMatrix actual = restored.getCurrentParticleMatrix();
+
+    for (FieldError error :
+        FieldSnapshot.capture(actual)
+            .compare(FieldSnapshot.capture(reference.getCurrentParticleMatrix())))
+      Assert.assertEquals(error.toString(), 0, error.getLInf(), 0);
+
+    ParticleMatrix rendered;
+    do rendered = simulationData.pollRenderParticleMatrix();
+    while (rendered != null && rendered != saved[0]);
+    Assert.assertNotNull(rendered);
+
+    Assert.assertArrayEquals(rendered.getXVelocityMinMax(), actual.getXVelocityMinMax(), 0);
+    Assert.assertArrayEquals(rendered.getYVelocityMinMax(), actual.getYVelocityMinMax(), 0);
+    Assert.assertArrayEquals(rendered.getPressureMinMax(), actual.getPressureMinMax(), 0);
+    Assert.assertArrayEquals(rendered.getVelocityCurlMinMax(), actual.getVelocityCurlMinMax(), 0);
+  }
+
+  /**
+   * Test si un point de reprise dont l'écriture est incomplète est refusé
+   *
+   * @throws IOException En cas d'erreur d'écriture
+   */
+  @Test
+  public void testRejectsIncompleteCheckpoint() throws IOException {
+    SimulationData simulationData = createScene();
+    PhysicsEngine engine = createEngine(simulationData);
+    engine.updateWithoutRender();
+
+    Path file = folder.getRoot().toPath().resolve("state" + SimulationCheckpoint.EXTENSION);
+    engine.writeCheckpoint(file);
+
+    // Efface l'indicateur de fin d'écriture
+    byte[] bytes = Files.readAllBytes(file);
+    bytes[8] = 0;
+    Files.write(file, bytes);
+    Assert.assertThrows(IOException.class, () -> SimulationCheckpoint.read(file));
+
+    Path other = folder.newFile("other" + SimulationCheckpoint.EXTENSION).toPath();
+    Files.write(other, new byte[SimulationCheckpoint.HEADER_SIZE]);
+    Assert.assertThrows(IOException.class, () -> SimulationCheckpoint.read(other));
+  }
+
+  /**
+   * Test si un point de reprise ne peut pas être restauré dans une simulation d'une autre
+   * résolution
+   *
+   * @throws IOException En cas d'erreur d'écriture ou de lecture
+   */
+  @Test
+  public void testRejectsOtherResolution() throws IOException {
+    SimulationData simulationData = createScene();
+    PhysicsEngine engine = createEngine(simulationData);
+    engine.updateWithoutRender();
+
+    Path file = folder.getRoot().toPath().resolve("state" + SimulationCheckpoint.EXTENSION);
+    engine.writeCheckpoint(file);
+    SimulationCheckpoint checkpoint = SimulationCheckpoint.read(file);
+
+    SimulationData other = new SimulationProperties().createSimulationData(WIDTH + 1, HEIGHT);
+    Assert.assertThrows(
+        IllegalArgumentException.class, () -> createEngine(other).restoreCheckpoint(checkpoint));
+  }
+
+  /** Test si les points de reprise automatiques alternent et si le plus récent est retrouvé */
+  @Test
+  public void testAutoCheckpointer() {
+    Path directory = folder.getRoot().toPath();
+    Assert.assertNull(AutoCheckpointer.findLatest(directory));
+
+    SimulationData simulationData = createScene();
+    PhysicsEngine engine = createEngine(simulationData);
+    engine.addStepListener(new AutoCheckpointer(directory, 2));
+
+    for (int i = 0; i < 5; i++) engine.updateWithoutRender();
+
+    Assert.assertTrue(Files.isRegularFile(directory.resolve("autosave-0.wckp")));
+    Assert.assertTrue(Files.isRegularFile(directory.resolve("autosave-1.wckp")));
+
+    SimulationCheckpoint latest = AutoCheckpointer.findLatest(directory);
+    Assert.assertNotNull(latest);
+    Assert.assertEquals(4, latest.getIteration());
+
+    Assert.assertThrows(IllegalArgumentException.class, () -> new AutoCheckpointer(directory, 0));
+  }
+
+  /**
+   * Crée une scène avec un obstacle et du confinement des vortex
+   *
+   * @return Les données de la simulation
+   */
+  private static SimulationData createScene() {
+    SimulationData simulationData = new SimulationProperties().createSimulationData(WIDTH, HEIGHT);
+    simulationData.setVortexConfinementFactor(0.5);
+
+    int[] presence = new int[WIDTH * HEIGHT];
+    for (int y = 10; y < 17; y++)
+      for (int x = 12; x < 18; x++) presence[y * WIDTH + x] = 1;
+
+    ObstacleModel.mergeObstacleData(simulationData.getObstacle(), presence);
+    return simulationData;
+  }
+
+  /**
+   * Crée un moteur multi-threaded déterministe séquentiel. Dans les autres modes, le confinement
+   * de vorticité lit le curl laissé dans les matrices réutilisées de la piscine, qui ne fait pas
+   * partie du point de reprise.
+   *
+   * @param simulationData Les données de la simulation
+   * @return Le moteur physique
+   */
+  private static PhysicsEngine createEngine(SimulationData simulationData) {
+    PhysicsEngineMultiThreaded engine = new PhysicsEngineMultiThreaded(simulationData);
+    engine.setDeterministic(true);
+    engine.setPipelined(false);
+    engine.setMaxJacobiIterations(20);
+    engine.setMaxJacobiDiff(0);
+    return engine;
+  }
+}
@@ -0,0 +1,65 @@
+package com.e24.wolke.backend.simulation.physics;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * FieldSnapshotTest.java
+ *
+ * <p>Classe de test pour les classes FieldSnapshot et FieldError.
+ *
+ * @see FieldSnapshot
+ * @see FieldError
+ * @author Nilon123456789
+ */
+public class FieldSnapshotTest {
+
+  /**
+   * Test si une copie enregistrée est relue à l'identique
+   *
+   * @throws IOException En cas d'erreur d'écriture ou de lecture
+   */
+  @Test
+  public void testWriteRead() throws IOException {
+    ParticleMatrix matrix = new ParticleMatrix(4, 3);
+    matrix.setXVelocityAt(5, 1.5);
+    matrix.setPressureAt(11, -2);
+
+    FieldSnapshot snapshot = FieldSnapshot.capture(matrix);
+    Assert.assertEquals(FieldSnapshot.FIELDS, List.copyOf(snapshot.getFieldNames()));
+
+    File file = File.createTempFile("wolke", ".snapshot");
+    file.deleteOnExit();
+    snapshot.write(file);
+
+    FieldSnapshot read = FieldSnapshot.read(file);
+    Assert.assertEquals(4, read.getXLength());
+    Assert.assertEquals(3, read.getYLength());
+    for (FieldError error : read.compare(snapshot)) {
+      Assert.assertEquals(0, error.getL2(), 0);
+      Assert.assertEquals(0, error.getLInf(), 0);
+    }
+  }
+
+  /** Test si les écarts L2 et L∞ sont mesurés correctement */
+  @Test
+  public void testMeasure() {
+    FieldError error =
+        FieldError.measure("field", new double[] {1, 2, 3, 4}, new double[] {1, 2, 3, 8});
+
+    Assert.assertEquals(2, error.getL2(), 1e-12);
+    Assert.assertEquals(4, error.getLInf(), 0);
+    Assert.assertEquals(0.5, error.getRelativeLInf(), 0);
+    Assert.assertTrue(error.isWithin(0.5));
+    Assert.assertFalse(error.isWithin(0.49));
+
+    error = FieldError.measure("field", new double[] {Double.NaN}, new double[] {0});
+    Assert.assertEquals(Double.POSITIVE_INFINITY, error.getLInf(), 0);
+
+    error = FieldError.measure("field", new double[] {Double.NaN}, new double[] {Double.NaN});
+    Assert.assertEquals(0, error.getLInf(), 0);
+  }
+}
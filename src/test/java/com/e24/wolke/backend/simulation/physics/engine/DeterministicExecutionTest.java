@@ -0,0 +1,133 @@
+package com.e24.wolke.backend.simulation.physics.engine;
+
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.models.obstacles.ObstacleModel;
+import com.e24.wolke.backend.models.simulation.SimulationProperties;
+import com.e24.wolke.backend.simulation.physics.FieldError;
+import com.e24.wolke.backend.simulation.physics.FieldSnapshot;
+import com.e24.wolke.backend.simulation.physics.SimulationData;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * DeterministicExecutionTest.java
+ *
+ * <p>Classe de test pour le mode déterministe du moteur multi-threaded.
+ *
+ * @see PhysicsEngineMultiThreaded#setDeterministic(boolean)
+ * @author Nilon123456789
+ */
+public class DeterministicExecutionTest {
+
+  /** Graine de la scène */
+  private static final long SEED = 24;
+
+  /** Largeur de la simulation (px), assez grande pour être divisée en plusieurs tâches */
+  private static final int WIDTH = 128;
+
+  /** Hauteur de la simulation (px) */
+  private static final int HEIGHT = 72;
+
+  /** Nombre d'obstacles rectangulaires de la scène */
+  private static final int OBSTACLES = 12;
+
+  /** Nombre de pas effectués */
+  private static final int STEPS = 8;
+
+  /** Initialisation des tests */
+  @BeforeClass
+  public static void setUp() {
+    LocaleManager.update(Locale.FRENCH);
+  }
+
+  /** Test si les matrices sont identiques quels que soient le nombre de threads et le découpage */
+  @Test
+  public void testIdenticalAcrossThreadCounts() {
+    FieldSnapshot reference = run(1, 64);
+
+    for (int[] configuration : new int[][] {{2, 512}, {4, 4096}, {3, 100_000}}) {
+      FieldSnapshot snapshot = run(configuration[0], configuration[1]);
+
+      for (FieldError error : snapshot.compare(reference))
+        Assert.assertEquals(
+            configuration[0] + " threads, " + error.toString(), 0, error.getLInf(), 0);
+    }
+  }
+
+  /**
+   * Test si deux moteurs qui calculent en même temps obtiennent les mêmes matrices qu'un seul
+   *
+   * @throws Exception Si une exécution échoue
+   */
+  @Test
+  public void testConcurrentEngines() throws Exception {
+    FieldSnapshot reference = run(2, 512);
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      List<Callable<FieldSnapshot>> runs = List.of(() -> run(2, 512), () -> run(3, 512));
+      for (Future<FieldSnapshot> result : executor.invokeAll(runs))
+        for (FieldError error : result.get().compare(reference))
+          Assert.assertEquals(error.toString(), 0, error.getLInf(), 0);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Exécute la scène en mode déterministe
+   *
+   * @param parallelism Le nombre de threads
+   * @param subtaskThreshold La taille des sous-tâches, ignorée en mode déterministe
+   * @return Les champs après {@link #STEPS} pas
+   */
+  private static FieldSnapshot run(int parallelism, int subtaskThreshold) {
+    SimulationData simulationData = createScene();
+
+    PhysicsEngineMultiThreaded engine = new PhysicsEngineMultiThreaded(simulationData);
+    new EngineTuning(true, subtaskThreshold, parallelism, Double.NaN).apply(engine);
+    engine.setDeterministic(true);
+    engine.setPipelined(false);
+    engine.setMaxJacobiIterations(20);
+
+    for (int i = 0; i < STEPS; i++) {
+      engine.update(simulationData.getTimeStep());
+      simulationData.returnParticleMatrixToPool(simulationData.pollRenderParticleMatrix());
+    }
+
+    return FieldSnapshot.capture(simulationData.getCurrentParticleMatrix());
+  }
+
+  /**
+   * Crée une scène dont les obstacles sont placés à partir de {@link #SEED}
+   *
+   * @return Les données de la simulation
+   */
+  private static SimulationData createScene() {
+    SimulationData simulationData = new SimulationProperties().createSimulationData(WIDTH, HEIGHT);
+    simulationData.setVortexConfinementFactor(0.5);
+
+    Random random = new Random(SEED);
+    int[] presence = new int[WIDTH * HEIGHT];
+    for (int i = 0; i < OBSTACLES; i++) {
+      int x0 = 8 + random.nextInt(WIDTH - 24);
+      int y0 = 4 + random.nextInt(HEIGHT - 16);
+      int x1 = x0 + 2 + random.nextInt(10);
+      int y1 = y0 + 2 + random.nextInt(8);
+
+      for (int y = y0; y < y1; y++)
+        for (int x = x0; x < x1; x++) presence[y * WIDTH + x] = 1;
+    }
+
+    ObstacleModel.mergeObstacleData(simulationData.getObstacle(), presence);
+    return simulationData;
+  }
+}
@@ -0,0 +1,97 @@
+package com.e24.wolke.backend.simulation.physics.engine;
+
+import com.e24.wolke.backend.models.application.ApplicationConstants;
+import com.e24.wolke.backend.models.application.LocaleManager;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * EngineAutoTunerTest.java
+ *
+ * <p>Classe de test pour les classes EngineAutoTuner et EngineTuning.
+ *
+ * @see EngineAutoTuner
+ * @see EngineTuning
+ * @author Nilon123456789
+ */
+public class EngineAutoTunerTest {
+
+  /** Initialisation des tests */
+  @BeforeClass
+  public static void setUp() {
+    LocaleManager.update(Locale.FRENCH);
+  }
+
+  /**
+   * Test si les mesures retournent une configuration valide même sans temps alloué, seule la
+   * configuration par défaut étant alors mesurée
+   */
+  @Test
+  public void testTune() {
+    EngineTuning tuning = EngineAutoTuner.tune(40, 30, 0);
+
+    Assert.assertTrue(tuning.getStepMillis() > 0);
+    Assert.assertTrue(Double.isFinite(tuning.getStepMillis()));
+    Assert.assertTrue(tuning.isMultiThreaded());
+    Assert.assertEquals(ApplicationConstants.SUBTASK_THRESHOLD, tuning.getSubtaskThreshold());
+    Assert.assertEquals(
+        ApplicationConstants.FORK_JOIN_POOL.getParallelism(), tuning.getParallelism());
+  }
+
+  /** Test si les candidats commencent par la configuration par défaut du moteur multi-threaded */
+  @Test
+  public void testCandidates() {
+    List<EngineTuning> candidates = EngineAutoTuner.getCandidates(1920 * 1080);
+
+    Assert.assertTrue(candidates.size() > 1);
+
+    EngineTuning defaultTuning = candidates.get(0);
+    Assert.assertTrue(defaultTuning.isMultiThreaded());
+    Assert.assertEquals(
+        ApplicationConstants.SUBTASK_THRESHOLD, defaultTuning.getSubtaskThreshold());
+    Assert.assertEquals(
+        ApplicationConstants.FORK_JOIN_POOL.getParallelism(), defaultTuning.getParallelism());
+
+    for (EngineTuning candidate : candidates) {
+      Assert.assertTrue(candidate.isMultiThreaded());
+      Assert.assertTrue(candidate.getSubtaskThreshold() <= 1920 * 1080);
+    }
+  }
+
+  /** Test si une configuration écrite est relue à l'identique */
+  @Test
+  public void testWriteRead() {
+    Properties properties = new Properties();
+    new EngineTuning(true, 1024, 3, 12.5).write(properties, "200x100");
+
+    EngineTuning read = EngineTuning.read(properties, "200x100");
+    Assert.assertNotNull(read);
+    Assert.assertTrue(read.isMultiThreaded());
+    Assert.assertEquals(1024, read.getSubtaskThreshold());
+    Assert.assertEquals(3, read.getParallelism());
+    Assert.assertEquals(12.5, read.getStepMillis(), 0);
+
+    Assert.assertNull(EngineTuning.read(properties, "100x200"));
+
+    properties.setProperty("200x100.parallelism", "0");
+    Assert.assertNull(EngineTuning.read(properties, "200x100"));
+
+    properties.setProperty("200x100.parallelism", "abc");
+    Assert.assertNull(EngineTuning.read(properties, "200x100"));
+  }
+
+  /** Test si le pool de l'application est réutilisé pour le même nombre de threads */
+  @Test
+  public void testForkJoinPool() {
+    int processors = ApplicationConstants.FORK_JOIN_POOL.getParallelism();
+    Assert.assertSame(
+        ApplicationConstants.FORK_JOIN_POOL, EngineAutoTuner.getForkJoinPool(processors));
+    Assert.assertSame(
+        EngineAutoTuner.getForkJoinPool(processors + 1),
+        EngineAutoTuner.getForkJoinPool(processors + 1));
+  }
+}
@@ -0,0 +1,251 @@
+package com.e24.wolke.backend.simulation.physics.engine;
+
+import com.e24.wolke.application.BatchSimulation;
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.models.simulation.SimulationProperties;
+import com.e24.wolke.backend.simulation.physics.FieldError;
+import com.e24.wolke.backend.simulation.physics.FieldSnapshot;
+import com.e24.wolke.backend.simulation.physics.SimulationData;
+import com.e24.wolke.filesystem.scenes.WScene;
+import com.e24.wolke.filesystem.scenes.WSceneReader;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * GoldenOutputTest.java
+ *
+ * <p>Vérifie que tous les moteurs physiques produisent les mêmes champs que la référence pour
+ * chaque scène de {@code example-scenes/}. La référence est la copie enregistrée dans {@code
+ * src/test/resources/golden/}; une scène sans référence fait échouer le test, tout comme l'absence
+ * de scène. Les écarts L2 et L∞ de chaque moteur sont affichés, et un écart L∞ relatif au-delà de
+ * la tolérance du champ fait échouer le test.
+ *
+ * <p>Les moteurs multi-threaded non déterministes sont exécutés sur un seul thread : leur
+ * confinement de vorticité lit le curl des sous-tâches voisines, qui dépendrait sinon de l'ordre
+ * dans lequel les threads avancent.
+ *
+ * <p>Le mode déterministe du moteur multi-threaded calcule la vorticité en deux passes, ses champs
+ * diffèrent donc de ceux des autres moteurs. Ils sont plutôt comparés à leur propre référence, avec
+ * une tolérance de {@value #DETERMINISTIC_TOLERANCE}.
+ *
+ * <p>Pour enregistrer les références, exécuter les tests avec {@code -Dwolke.golden.update=true}.
+ *
+ * @see FieldSnapshot
+ * @author Nilon123456789
+ */
+@RunWith(Parameterized.class)
+public class GoldenOutputTest {
+
+  /** Propriété système qui enregistre les références au lieu de les comparer */
+  private static final String UPDATE_PROPERTY = "wolke.golden.update";
+
+  /** Dossier des scènes */
+  private static final File SCENES_DIRECTORY = new File("example-scenes");
+
+  /** Dossier des références */
+  private static final File GOLDEN_DIRECTORY = new File("src/test/resources/golden");
+
+  /** Largeur de la simulation (px) */
+  private static final int WIDTH = 64;
+
+  /** Hauteur de la simulation (px) */
+  private static final int HEIGHT = 36;
+
+  /** Nombre de pas effectués avant la comparaison */
+  private static final int STEPS = 10;
+
+  /** Nombre fixe d'itérations de Jacobi, pour que le travail d'un pas soit identique */
+  private static final int JACOBI_ITERATIONS = 20;
+
+  /** Tolérance de l'écart L∞ relatif de chaque champ */
+  private static final Map<String, Double> TOLERANCES =
+      Map.of(
+          "xVelocity", 1e-3,
+          "yVelocity", 1e-3,
+          "pressure", 1e-3,
+          "areaDensity", 1e-3,
+          "velocityCurl", 1e-2);
+
+  /** Tolérance de l'écart L∞ relatif du mode déterministe par rapport à sa propre référence */
+  private static final double DETERMINISTIC_TOLERANCE = 1e-9;
+
+  /** Moteur de la référence commune */
+  private static final String REFERENCE_ENGINE = "st";
+
+  /** Moteur en mode déterministe, comparé à sa propre référence */
+  private static final String DETERMINISTIC_ENGINE = "mt-deterministic";
+
+  /** Moteurs comparés, par nom */
+  private static final Map<String, Function<SimulationData, PhysicsEngine>> ENGINES =
+      new LinkedHashMap<>();
+
+  static {
+    ENGINES.put("st", PhysicsEngine::new);
+    ENGINES.put(
+        "mt",
+        simulationData -> {
+          PhysicsEngineMultiThreaded engine = new PhysicsEngineMultiThreaded(simulationData);
+          engine.setForkJoinPool(EngineAutoTuner.getForkJoinPool(1));
+          return engine;
+        });
+    ENGINES.put(
+        "mt-split",
+        simulationData -> {
+          PhysicsEngineMultiThreaded engine = new PhysicsEngineMultiThreaded(simulationData);
+          new EngineTuning(true, 64, 1, Double.NaN).apply(engine);
+          return engine;
+        });
+    ENGINES.put(
+        DETERMINISTIC_ENGINE,
+        simulationData -> {
+          PhysicsEngineMultiThreaded engine = new PhysicsEngineMultiThreaded(simulationData);
+          engine.setDeterministic(true);
+          return engine;
+        });
+  }
+
+  /** La scène testée */
+  private final File sceneFile;
+
+  /**
+   * Constructeur de la classe GoldenOutputTest
+   *
+   * @param sceneFile La scène testée
+   */
+  public GoldenOutputTest(File sceneFile) {
+    this.sceneFile = sceneFile;
+  }
+
+  /**
+   * Retourne les scènes testées
+   *
+   * @return Les fichiers des scènes de {@code example-scenes/}
+   */
+  @Parameterized.Parameters(name = "{0}")
+  public static List<Object[]> scenes() {
+    File[] files = SCENES_DIRECTORY.listFiles((dir, name) -> name.endsWith(".wlks"));
+    Assert.assertTrue(
+        "Aucune scène dans " + SCENES_DIRECTORY.getAbsolutePath(),
+        files != null && files.length > 0);
+
+    List<Object[]> scenes = new ArrayList<>();
+
+    Arrays.sort(files);
+    for (File file : files) scenes.add(new Object[] {file});
+    return scenes;
+  }
+
+  /** Initialisation des tests */
+  @BeforeClass
+  public static void setUp() {
+    LocaleManager.update(Locale.FRENCH);
+  }
+
+  /**
+   * Test si chaque moteur reste dans la tolérance de la référence pour chaque champ
+   *
+   * @throws IOException En cas d'erreur de lecture ou d'écriture de la référence
+   */
+  @Test
+  public void testEnginesMatchReference() throws IOException {
+    WScene scene = WSceneReader.read(sceneFile);
+    Assert.assertNotNull("Scène illisible : " + sceneFile, scene);
+
+    String name = sceneFile.getName().replaceFirst("\\.wlks$", "");
+    String prefix = name + "-" + WIDTH + "x" + HEIGHT;
+
+    Map<String, FieldSnapshot> snapshots = new LinkedHashMap<>();
+    for (Map.Entry<String, Function<SimulationData, PhysicsEngine>> engine : ENGINES.entrySet())
+      snapshots.put(engine.getKey(), run(scene, engine.getValue()));
+
+    FieldSnapshot reference =
+        getReference(new File(GOLDEN_DIRECTORY, prefix + ".snapshot"), snapshots, REFERENCE_ENGINE);
+    FieldSnapshot deterministicReference =
+        getReference(
+            new File(GOLDEN_DIRECTORY, prefix + "-" + DETERMINISTIC_ENGINE + ".snapshot"),
+            snapshots,
+            DETERMINISTIC_ENGINE);
+
+    List<String> failures = new ArrayList<>();
+    for (Map.Entry<String, FieldSnapshot> snapshot : snapshots.entrySet()) {
+      if (snapshot.getKey().equals(DETERMINISTIC_ENGINE)) continue;
+
+      for (FieldError error : snapshot.getValue().compare(reference)) {
+        String line = name + " [" + snapshot.getKey() + "] " + error;
+        System.out.println(line);
+
+        if (!error.isWithin(TOLERANCES.getOrDefault(error.getField(), 0.0))) failures.add(line);
+      }
+    }
+
+    for (FieldError error : snapshots.get(DETERMINISTIC_ENGINE).compare(deterministicReference)) {
+      String line = name + " [" + DETERMINISTIC_ENGINE + "] " + error;
+      System.out.println(line);
+
+      if (!error.isWithin(DETERMINISTIC_TOLERANCE)) failures.add(line);
+    }
+
+    Assert.assertTrue(String.join("\n", failures), failures.isEmpty());
+  }
+
+  /**
+   * Retourne une référence enregistrée, ou enregistre les champs d'un moteur si {@link
+   * #UPDATE_PROPERTY} est activée
+   *
+   * @param goldenFile Le fichier de la référence
+   * @param snapshots Les champs obtenus par chaque moteur
+   * @param engine Le moteur dont les champs sont enregistrés
+   * @return La référence
+   * @throws IOException En cas d'erreur de lecture ou d'écriture de la référence
+   */
+  private static FieldSnapshot getReference(
+      File goldenFile, Map<String, FieldSnapshot> snapshots, String engine) throws IOException {
+    if (Boolean.getBoolean(UPDATE_PROPERTY)) {
+      snapshots.get(engine).write(goldenFile);
+      return snapshots.get(engine);
+    }
+
+    Assert.assertTrue(
+        "Référence absente, l'enregistrer avec -D" + UPDATE_PROPERTY + "=true : " + goldenFile,
+        goldenFile.isFile());
+    return FieldSnapshot.read(goldenFile);
+  }
+
+  /**
+   * Exécute une scène sur un moteur et copie les champs obtenus
+   *
+   * @param scene La scène
+   * @param engineFactory Le constructeur du moteur
+   * @return Les champs après {@link #STEPS} pas
+   */
+  private static FieldSnapshot run(
+      WScene scene, Function<SimulationData, PhysicsEngine> engineFactory) {
+    SimulationProperties properties = BatchSimulation.readProperties(scene);
+    SimulationData simulationData =
+        BatchSimulation.createSimulationData(properties, scene, WIDTH, HEIGHT);
+
+    PhysicsEngine engine = engineFactory.apply(simulationData);
+    engine.setPipelined(false);
+    engine.setMaxJacobiIterations(JACOBI_ITERATIONS);
+    engine.setMaxJacobiDiff(0);
+
+    for (int i = 0; i < STEPS; i++) {
+      engine.update(simulationData.getTimeStep());
+      simulationData.returnParticleMatrixToPool(simulationData.pollRenderParticleMatrix());
+    }
+
+    return FieldSnapshot.capture(simulationData.getCurrentParticleMatrix());
+  }
+}
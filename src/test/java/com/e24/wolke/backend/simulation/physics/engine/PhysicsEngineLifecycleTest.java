@@ -0,0 +1,232 @@
+package com.e24.wolke.backend.simulation.physics.engine;
+
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.models.simulation.SimulationConstants;
+import com.e24.wolke.backend.models.simulation.SimulationConstants.ENGINE_STATE;
+import com.e24.wolke.backend.models.simulation.SimulationConstants.PACING_MODE;
+import com.e24.wolke.backend.simulation.physics.SimulationData;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * PhysicsEngineLifecycleTest.java
+ *
+ * <p>Classe de test pour le cycle de vie (démarrage, arrêt et réinitialisation) de la classe
+ * PhysicsEngine sous charge.
+ *
+ * @see PhysicsEngine
+ * @author Nilon123456789
+ */
+public class PhysicsEngineLifecycleTest {
+
+  /** Taille en x de la matrice des tests */
+  private static final int X_LENGTH = 160;
+
+  /** Taille en y de la matrice des tests */
+  private static final int Y_LENGTH = 90;
+
+  /** Temps pendant lequel une simulation arrêtée ne doit plus avancer (ms) */
+  private static final long FROZEN_CHECK_MS = 50;
+
+  /** Initialisation des tests */
+  @BeforeClass
+  public static void setUp() {
+    LocaleManager.update(Locale.FRENCH);
+  }
+
+  /**
+   * Crée des données de simulation de la taille donnée
+   *
+   * @param xLength La taille en x de la matrice
+   * @param yLength La taille en y de la matrice
+   * @return Les données de simulation
+   */
+  private static SimulationData createSimulationData(int xLength, int yLength) {
+    return new SimulationData(
+        xLength,
+        yLength,
+        SimulationConstants.DEFAULT_VISCOSITY,
+        SimulationConstants.DEFAULT_VOLUME_DENSITY,
+        SimulationConstants.DEFAULT_TIME_STEP,
+        0);
+  }
+
+  /**
+   * Vérifie que le moteur est arrêté, que sa boucle est terminée et que la simulation n'avance plus
+   *
+   * @param engine Le moteur à vérifier
+   * @throws InterruptedException Si le thread est interrompu
+   */
+  private static void assertStopped(PhysicsEngine engine) throws InterruptedException {
+    Assert.assertEquals(ENGINE_STATE.STOPPED, engine.getState());
+    Assert.assertFalse(engine.isRunning());
+    Assert.assertFalse(engine.isCalculating());
+
+    for (Thread thread : Thread.getAllStackTraces().keySet())
+      Assert.assertFalse(
+          "La boucle de simulation est encore active",
+          thread.isAlive() && thread.getName().equals(engine.getClass().getSimpleName() + " Thread"));
+
+    int iteration = engine.getCurrentIteration();
+    Thread.sleep(FROZEN_CHECK_MS);
+    Assert.assertEquals(iteration, engine.getCurrentIteration());
+  }
+
+  /**
+   * Attend que la simulation ait effectué au moins un pas depuis une itération donnée
+   *
+   * @param engine Le moteur
+   * @param iteration L'itération de départ
+   */
+  private static void awaitProgress(PhysicsEngine engine, int iteration) {
+    long deadline = System.nanoTime() + 5_000_000_000L;
+    while (engine.getCurrentIteration() <= iteration && System.nanoTime() < deadline)
+      Thread.onSpinWait();
+
+    Assert.assertTrue("La simulation n'avance pas", engine.getCurrentIteration() > iteration);
+  }
+
+  /**
+   * Test si des démarrages et arrêts successifs arrêtent toujours la boucle
+   *
+   * @throws InterruptedException Si le thread est interrompu
+   */
+  @Test
+  public void testStartStop() throws InterruptedException {
+    PhysicsEngine engine = new PhysicsEngine(createSimulationData(X_LENGTH, Y_LENGTH));
+
+    for (int i = 0; i < 20; i++) {
+      int iteration = engine.getCurrentIteration();
+      engine.start();
+      Assert.assertTrue(engine.isRunning());
+      if (i % 5 == 0) awaitProgress(engine, iteration);
+
+      engine.stop();
+      Assert.assertEquals(ENGINE_STATE.STOPPED, engine.getState());
+      Assert.assertFalse(engine.isCalculating());
+    }
+
+    assertStopped(engine);
+  }
+
+  /**
+   * Test si l'arrêt n'attend pas l'échéance du prochain pas lorsque la simulation est cadencée
+   * lentement
+   *
+   * @throws InterruptedException Si le thread est interrompu
+   */
+  @Test
+  public void testStopWhilePaced() throws InterruptedException {
+    PhysicsEngine engine = new PhysicsEngine(createSimulationData(X_LENGTH, Y_LENGTH));
+    engine.getStepScheduler().setMode(PACING_MODE.STEPS_PER_SECOND);
+    engine.getStepScheduler().setTargetStepsPerSecond(0.2);
+
+    engine.start();
+    awaitProgress(engine, 0);
+
+    long start = System.nanoTime();
+    engine.stop();
+    double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+
+    Assert.assertTrue("Arrêt trop lent : " + elapsedMs + " ms", elapsedMs < 1000);
+    assertStopped(engine);
+  }
+
+  /**
+   * Test si l'attente de la fin d'un pas n'occupe pas le processeur
+   *
+   * @throws InterruptedException Si le thread est interrompu
+   */
+  @Test
+  public void testWaitForCalculationDoesNotSpin() throws InterruptedException {
+    ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    if (!threadMXBean.isCurrentThreadCpuTimeSupported()) return;
+
+    PhysicsEngine engine = new PhysicsEngine(createSimulationData(X_LENGTH * 8, Y_LENGTH * 8));
+
+    Thread stepThread = new Thread(() -> engine.update(SimulationConstants.DEFAULT_TIME_STEP));
+    stepThread.start();
+    while (!engine.isCalculating() && stepThread.isAlive()) Thread.onSpinWait();
+
+    long cpuStart = threadMXBean.getCurrentThreadCpuTime();
+    long wallStart = System.nanoTime();
+    engine.waitForCalculation();
+    long cpu = threadMXBean.getCurrentThreadCpuTime() - cpuStart;
+    long wall = System.nanoTime() - wallStart;
+
+    Assert.assertFalse(engine.isCalculating());
+    stepThread.join();
+
+    // L'attente doit être assez longue pour que la mesure soit significative
+    if (wall < 20_000_000L) return;
+    Assert.assertTrue("Attente active : " + cpu + " ns CPU pour " + wall + " ns", cpu < wall / 2);
+  }
+
+  /**
+   * Test si des démarrages, arrêts, réinitialisations et pas manuels concurrents laissent toujours
+   * le moteur dans un état cohérent
+   *
+   * @throws InterruptedException Si le thread est interrompu
+   */
+  @Test
+  public void testConcurrentLifecycle() throws InterruptedException {
+    PhysicsEngine engine = new PhysicsEngine(createSimulationData(X_LENGTH, Y_LENGTH));
+    ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<Throwable>();
+    CountDownLatch ready = new CountDownLatch(1);
+
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int t = 0; t < 4; t++) {
+      Random random = new Random(t);
+      Thread thread =
+          new Thread(
+              () -> {
+                try {
+                  ready.await();
+                  for (int i = 0; i < 50; i++) {
+                    switch (random.nextInt(4)) {
+                      case 0:
+                        engine.start();
+                        break;
+                      case 1:
+                        engine.stop();
+                        break;
+                      case 2:
+                        engine.reinitialize();
+                        break;
+                      default:
+                        engine.update(SimulationConstants.DEFAULT_TIME_STEP);
+                    }
+                  }
+                } catch (Throwable e) {
+                  errors.add(e);
+                }
+              });
+      threads.add(thread);
+      thread.start();
+    }
+
+    ready.countDown();
+    for (Thread thread : threads) thread.join();
+
+    Assert.assertTrue("Erreurs : " + errors, errors.isEmpty());
+
+    if (engine.isRunning()) engine.stop();
+    assertStopped(engine);
+
+    // Le moteur doit pouvoir redémarrer normalement
+    int iteration = engine.getCurrentIteration();
+    engine.start();
+    awaitProgress(engine, iteration);
+    engine.stop();
+    assertStopped(engine);
+  }
+}
@@ -0,0 +1,108 @@
+package com.e24.wolke.backend.simulation.physics.engine;
+
+import com.e24.wolke.backend.models.simulation.SimulationConstants.PACING_MODE;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * StepSchedulerTest.java
+ *
+ * <p>Classe de test pour la classe StepScheduler.
+ *
+ * @see StepScheduler
+ * @author Nilon123456789
+ */
+public class StepSchedulerTest {
+
+  /** Nombre de pas effectués par les tests de cadencement */
+  private static final int STEPS = 20;
+
+  /** Test si le nombre de pas par seconde visé découle du mode de cadencement */
+  @Test
+  public void testTargetStepsPerSecond() {
+    StepScheduler scheduler = new StepScheduler(PACING_MODE.STEPS_PER_SECOND, 50, 2);
+    Assert.assertEquals(50, scheduler.getTargetStepsPerSecond(0.1), 0.01);
+
+    scheduler.setMode(PACING_MODE.TIME_SCALE);
+    Assert.assertEquals(20, scheduler.getTargetStepsPerSecond(0.1), 0.01);
+
+    scheduler.setMode(PACING_MODE.AS_FAST_AS_POSSIBLE);
+    Assert.assertEquals(0, scheduler.getTargetStepsPerSecond(0.1), 0);
+
+    scheduler.setMode(null);
+    Assert.assertEquals(PACING_MODE.AS_FAST_AS_POSSIBLE, scheduler.getMode());
+  }
+
+  /** Test si les échéances sont respectées et si le temps de calcul d'un pas est compensé */
+  @Test
+  public void testDeadlineCompensation() {
+    StepScheduler scheduler = new StepScheduler(PACING_MODE.STEPS_PER_SECOND, 200, 1);
+    scheduler.reset();
+
+    long start = System.nanoTime();
+    for (int i = 0; i < STEPS; i++) {
+      // Simule un pas qui prend environ la moitié de la période
+      long stepEnd = System.nanoTime() + 2_500_000L;
+      while (System.nanoTime() < stepEnd) Thread.onSpinWait();
+
+      scheduler.awaitNextStep(0.1, 0, () -> true);
+    }
+    double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+
+    // 20 pas à 200 pas/s durent au moins 100 ms, peu importe le temps de calcul de chaque pas.
+    // Seule une borne très large est vérifiée au-delà, la durée dépendant de la charge de la
+    // machine.
+    Assert.assertTrue("Trop rapide : " + elapsedMs + " ms", elapsedMs >= 95);
+    Assert.assertTrue("Trop lent : " + elapsedMs + " ms", elapsedMs < 5_000);
+  }
+
+  /** Test si le mode "aussi vite que possible" n'attend pas */
+  @Test
+  public void testAsFastAsPossible() {
+    StepScheduler scheduler = new StepScheduler(PACING_MODE.AS_FAST_AS_POSSIBLE, 1, 1);
+    scheduler.reset();
+
+    long start = System.nanoTime();
+    for (int i = 0; i < STEPS; i++) scheduler.awaitNextStep(0.1, 0, () -> true);
+    double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+
+    // Sans attente, 20 pas ne s'approchent pas de la période de 1 s par pas
+    Assert.assertTrue("Trop lent : " + elapsedMs + " ms", elapsedMs < 5_000);
+  }
+
+  /** Test si l'attente est interrompue lorsque la condition devient fausse */
+  @Test
+  public void testStopWaiting() {
+    StepScheduler scheduler = new StepScheduler(PACING_MODE.STEPS_PER_SECOND, 0.5, 1);
+    scheduler.reset();
+
+    long start = System.nanoTime();
+    scheduler.awaitNextStep(0.1, 0, () -> false);
+    double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+
+    // Une période dure 2 s à 0.5 pas/s
+    Assert.assertTrue("Trop lent : " + elapsedMs + " ms", elapsedMs < 1_000);
+  }
+
+  /** Test si un thread qui attend le prochain pas se réveille quand la condition devient fausse */
+  @Test
+  public void testUnparkWhileWaiting() throws InterruptedException {
+    StepScheduler scheduler = new StepScheduler(PACING_MODE.STEPS_PER_SECOND, 0.1, 1);
+    scheduler.reset();
+    AtomicBoolean running = new AtomicBoolean(true);
+
+    Thread thread = new Thread(() -> scheduler.awaitNextStep(0.1, 0, running::get));
+    thread.start();
+    Thread.sleep(50);
+
+    running.set(false);
+    LockSupport.unpark(thread);
+    thread.join(5_000);
+
+    // Une période dure 10 s à 0.1 pas/s
+    Assert.assertFalse(thread.isAlive());
+    Assert.assertFalse(thread.isInterrupted());
+  }
+}
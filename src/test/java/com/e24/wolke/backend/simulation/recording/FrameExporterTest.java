@@ -0,0 +1,178 @@
+package com.e24.wolke.backend.simulation.recording;
+
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.models.renderer.OffscreenRenderer;
+import com.e24.wolke.backend.models.renderer.RendererConstants;
+import com.e24.wolke.backend.models.renderer.RendererConstants.VisualizationType;
+import com.e24.wolke.backend.models.simulation.SimulationProperties;
+import com.e24.wolke.backend.simulation.physics.SimulationData;
+import com.e24.wolke.backend.simulation.physics.engine.PhysicsEngine;
+import com.e24.wolke.backend.simulation.recording.FrameExporter.ImageFormat;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import javax.imageio.ImageIO;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * FrameExporterTest.java
+ *
+ * <p>Classe de test pour les classes FrameExporter et OffscreenRenderer.
+ *
+ * @see FrameExporter
+ * @see OffscreenRenderer
+ * @author Nilon123456789
+ */
+public class FrameExporterTest {
+
+  /** Largeur de la simulation (px) */
+  private static final int WIDTH = 32;
+
+  /** Hauteur de la simulation (px) */
+  private static final int HEIGHT = 18;
+
+  /** Dossier temporaire de l'exportation */
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  /** Initialisation des tests */
+  @BeforeClass
+  public static void setUp() {
+    LocaleManager.update(Locale.FRENCH);
+  }
+
+  /**
+   * Test si chaque image exportée en PPM, écrite en parallèle, correspond au rendu de la matrice de
+   * son itération
+   *
+   * @throws IOException En cas d'erreur d'écriture ou de lecture
+   */
+  @Test
+  public void testExportSequence() throws IOException {
+    SimulationData simulationData = new SimulationProperties().createSimulationData(WIDTH, HEIGHT);
+    PhysicsEngine engine = new PhysicsEngine(simulationData);
+    engine.setPipelined(false);
+    engine.setMaxJacobiIterations(10);
+
+    Path directory = folder.getRoot().toPath();
+    OffscreenRenderer expectedRenderer = createRenderer(true);
+    List<BufferedImage> expected = new ArrayList<>();
+
+    try (FrameExporter exporter =
+        new FrameExporter(directory, createRenderer(true), ImageFormat.PPM, WIDTH, HEIGHT, 2, 2)) {
+      engine.addStepListener(exporter);
+      engine.addStepListener(
+          (stepEngine, iteration) -> {
+            if (iteration % 2 != 0) return;
+
+            BufferedImage image = expectedRenderer.createImage(WIDTH, HEIGHT);
+            expectedRenderer.render(
+                simulationData.getCurrentParticleMatrix(), simulationData.getObstacle(), image);
+            expected.add(image);
+          });
+
+      for (int i = 0; i < 12; i++) {
+        engine.update(simulationData.getTimeStep());
+        simulationData.returnParticleMatrixToPool(simulationData.pollRenderParticleMatrix());
+      }
+    }
+
+    Assert.assertEquals(6, expected.size());
+    int width = WIDTH + OffscreenRenderer.LEGEND_WIDTH;
+    byte[] header = ("P6\n" + width + " " + HEIGHT + "\n255\n").getBytes(StandardCharsets.US_ASCII);
+
+    for (int frame = 0; frame < expected.size(); frame++) {
+      byte[] bytes =
+          Files.readAllBytes(FrameExporter.getFrameFile(directory, frame, ImageFormat.PPM));
+      Assert.assertEquals(header.length + width * HEIGHT * 3, bytes.length);
+      for (int i = 0; i < header.length; i++) Assert.assertEquals(header[i], bytes[i]);
+
+      BufferedImage image = expected.get(frame);
+      for (int y = 0; y < HEIGHT; y++) {
+        for (int x = 0; x < width; x++) {
+          int offset = header.length + 3 * (y * width + x);
+          int rgb =
+              ((bytes[offset] & 0xFF) << 16)
+                  | ((bytes[offset + 1] & 0xFF) << 8)
+                  | (bytes[offset + 2] & 0xFF);
+          Assert.assertEquals(image.getRGB(x, y) & 0xFFFFFF, rgb);
+        }
+      }
+    }
+
+    Assert.assertFalse(Files.exists(FrameExporter.getFrameFile(directory, 6, ImageFormat.PPM)));
+  }
+
+  /**
+   * Test si une image exportée en PNG est relue à l'identique, sans légende
+   *
+   * @throws IOException En cas d'erreur d'écriture ou de lecture
+   */
+  @Test
+  public void testExportPng() throws IOException {
+    SimulationData simulationData = new SimulationProperties().createSimulationData(WIDTH, HEIGHT);
+    Path directory = folder.getRoot().toPath();
+
+    OffscreenRenderer renderer = createRenderer(false);
+    BufferedImage expected = renderer.createImage(WIDTH, HEIGHT);
+    renderer.render(
+        simulationData.getCurrentParticleMatrix(), simulationData.getObstacle(), expected);
+
+    FrameExporter exporter =
+        new FrameExporter(directory, createRenderer(false), ImageFormat.PNG, WIDTH, HEIGHT, 1, 1);
+    Assert.assertTrue(
+        exporter.exportFrame(
+            simulationData.getCurrentParticleMatrix(), simulationData.getObstacle()));
+    exporter.close();
+    Assert.assertEquals(1, exporter.getExportedFrames());
+    Assert.assertFalse(
+        exporter.exportFrame(
+            simulationData.getCurrentParticleMatrix(), simulationData.getObstacle()));
+
+    BufferedImage image =
+        ImageIO.read(FrameExporter.getFrameFile(directory, 0, ImageFormat.PNG).toFile());
+    Assert.assertEquals(WIDTH, image.getWidth());
+    Assert.assertEquals(HEIGHT, image.getHeight());
+    for (int y = 0; y < HEIGHT; y++)
+      for (int x = 0; x < WIDTH; x++)
+        Assert.assertEquals(expected.getRGB(x, y), image.getRGB(x, y));
+  }
+
+  /** Test si les paramètres invalides sont refusés */
+  @Test
+  public void testInvalidParameters() {
+    Path directory = folder.getRoot().toPath();
+    OffscreenRenderer renderer = createRenderer(false);
+
+    Assert.assertThrows(
+        IllegalArgumentException.class,
+        () -> new FrameExporter(directory, renderer, ImageFormat.PNG, WIDTH, HEIGHT, 0, 1));
+    Assert.assertThrows(
+        IllegalArgumentException.class,
+        () -> new FrameExporter(directory, renderer, ImageFormat.PNG, WIDTH, HEIGHT, 1, 0));
+  }
+
+  /**
+   * Crée un rendu de la vitesse dont l'intervalle est le minimum et le maximum de chaque image,
+   * pour que deux rendus de la même matrice soient identiques
+   *
+   * @param legend Si la légende est dessinée
+   * @return Le rendu
+   */
+  private static OffscreenRenderer createRenderer(boolean legend) {
+    return new OffscreenRenderer(
+        VisualizationType.VELOCITY,
+        false,
+        RendererConstants.DEFAULT_GRADIENT_HSB_COLORS,
+        false,
+        legend);
+  }
+}
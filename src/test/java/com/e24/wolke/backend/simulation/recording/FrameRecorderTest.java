@@ -0,0 +1,141 @@
+package com.e24.wolke.backend.simulation.recording;
+
+import com.e24.wolke.backend.models.application.LocaleManager;
+import com.e24.wolke.backend.models.simulation.SimulationProperties;
+import com.e24.wolke.backend.simulation.physics.FieldError;
+import com.e24.wolke.backend.simulation.physics.FieldSnapshot;
+import com.e24.wolke.backend.simulation.physics.SimulationData;
+import com.e24.wolke.backend.simulation.physics.engine.PhysicsEngine;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * FrameRecorderTest.java
+ *
+ * <p>Classe de test pour les classes FrameRecorder et FrameReader.
+ *
+ * @see FrameRecorder
+ * @see FrameReader
+ * @author Nilon123456789
+ */
+public class FrameRecorderTest {
+
+  /** Largeur de la simulation (px) */
+  private static final int WIDTH = 32;
+
+  /** Hauteur de la simulation (px) */
+  private static final int HEIGHT = 18;
+
+  /** Champs enregistrés */
+  private static final EnumSet<RecordedField> FIELDS =
+      EnumSet.of(RecordedField.PRESSURE, RecordedField.X_VELOCITY);
+
+  /** Dossier temporaire de l'enregistrement */
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  /** Initialisation des tests */
+  @BeforeClass
+  public static void setUp() {
+    LocaleManager.update(Locale.FRENCH);
+  }
+
+  /**
+   * Test si les images relues correspondent aux champs de la simulation et si l'anneau ne garde
+   * que les images les plus récentes
+   *
+   * @throws IOException En cas d'erreur d'écriture ou de lecture
+   */
+  @Test
+  public void testRecordAndReplay() throws IOException {
+    SimulationData simulationData = new SimulationProperties().createSimulationData(WIDTH, HEIGHT);
+    PhysicsEngine engine = new PhysicsEngine(simulationData);
+    engine.setPipelined(false);
+    engine.setMaxJacobiIterations(10);
+
+    Path directory = folder.getRoot().toPath();
+    Map<Integer, FieldSnapshot> expected = new HashMap<>();
+
+    // Anneau de 2 segments de 2 images, une image toutes les 2 itérations
+    try (FrameRecorder recorder = new FrameRecorder(directory, WIDTH, HEIGHT, FIELDS, 2, 2, 2)) {
+      Assert.assertEquals(4, recorder.getCapacity());
+
+      engine.addStepListener(recorder);
+      engine.addStepListener(
+          (stepEngine, iteration) ->
+              expected.put(
+                  iteration,
+                  FieldSnapshot.capture(simulationData.getCurrentParticleMatrix())));
+
+      for (int i = 0; i < 12; i++) {
+        engine.update(simulationData.getTimeStep());
+        simulationData.returnParticleMatrixToPool(simulationData.pollRenderParticleMatrix());
+
+        // Laisse le thread d'écriture suivre, pour qu'aucune image ne soit abandonnée
+        while (recorder.getRecordedFrames() + recorder.getDroppedFrames() < (i + 1) / 2)
+          Thread.onSpinWait();
+      }
+
+      Assert.assertEquals(0, recorder.getDroppedFrames());
+    }
+
+    FrameReader reader = new FrameReader(directory);
+    Assert.assertEquals(WIDTH, reader.getXLength());
+    Assert.assertEquals(HEIGHT, reader.getYLength());
+    Assert.assertEquals(FIELDS, reader.getFields());
+    Assert.assertEquals(2, reader.getDecimation());
+
+    // 6 images enregistrées, les 4 plus récentes restent dans l'anneau
+    Assert.assertEquals(4, reader.getFrameCount());
+    for (int frame = 0; frame < reader.getFrameCount(); frame++) {
+      int iteration = reader.getIteration(frame);
+      Assert.assertEquals(6 + 2 * frame, iteration);
+      Assert.assertEquals(frame + 2, reader.getSequence(frame));
+      Assert.assertEquals(iteration * simulationData.getTimeStep(), reader.getTime(frame), 1e-9);
+
+      FieldSnapshot snapshot = reader.readSnapshot(frame);
+      for (FieldError error : snapshot.compare(expectedSubset(expected.get(iteration))))
+        Assert.assertEquals(error.toString(), 0, error.getLInf(), 0);
+    }
+
+    Assert.assertThrows(
+        IllegalArgumentException.class, () -> reader.readField(0, RecordedField.VELOCITY_CURL));
+  }
+
+  /** Test si les paramètres invalides sont refusés */
+  @Test
+  public void testInvalidParameters() {
+    Path directory = folder.getRoot().toPath();
+
+    Assert.assertThrows(
+        IllegalArgumentException.class, () -> new FrameRecorder(directory, WIDTH, HEIGHT, FIELDS, 0));
+    Assert.assertThrows(
+        IllegalArgumentException.class,
+        () -> new FrameRecorder(directory, WIDTH, HEIGHT, EnumSet.noneOf(RecordedField.class), 1));
+    Assert.assertThrows(IllegalArgumentException.class, () -> RecordedField.parseList(" , "));
+    Assert.assertEquals(
+        EnumSet.of(RecordedField.PRESSURE, RecordedField.VELOCITY_CURL),
+        RecordedField.parseList("velocityCurl, PRESSURE"));
+  }
+
+  /**
+   * Retourne les champs enregistrés d'une copie
+   *
+   * @param snapshot La copie de tous les champs
+   * @return La copie des champs de {@link #FIELDS}
+   */
+  private static FieldSnapshot expectedSubset(FieldSnapshot snapshot) {
+    FieldSnapshot subset = new FieldSnapshot(snapshot.getXLength(), snapshot.getYLength());
+    for (RecordedField field : FIELDS)
+      subset.putField(field.getFieldName(), snapshot.getField(field.getFieldName()));
+    return subset;
+  }
+}
@@ -16,7 +16,6 @@ public class EventBrokerTest {
 
   // TODO : testSubscribe
   // TODO : testUnsubscribe
-  // TODO : testPublish
 
   /** Test permettant de tester la methode {@code EventBroker#get(Subject)}. */
   @Test
@@ -134,4 +133,46 @@ public class EventBrokerTest {
     Assert.assertEquals(2, list0.size());
     Assert.assertEquals(4, list1.size());
   }
+
+  /** Test permettant de tester la methode {@code EventBroker#publish(Subject, Object)}. */
+  @Test
+  public void testPublish() {
+    EventBroker broker = new EventBroker();
+    ArrayList<Object> list = new ArrayList<Object>();
+    Consumer<Object> callback = o -> list.add(o);
+
+    // Publish to a subject without subscription
+    Assert.assertFalse(broker.publish(Subject.ON_TEST_PUBSUB_INTEGER, 1));
+
+    broker.subscribe(Subject.ON_TEST_PUBSUB_INTEGER, callback);
+
+    // Publish an invalid message
+    Assert.assertFalse(broker.publish(Subject.ON_TEST_PUBSUB_INTEGER, "1"));
+    Assert.assertTrue(list.isEmpty());
+
+    Assert.assertTrue(broker.publish(Subject.ON_TEST_PUBSUB_INTEGER, 1));
+    Assert.assertEquals(1, list.size());
+
+    // Unsubscribing from within a callback must not affect the ongoing publication
+    Consumer<Object> selfRemoving =
+        new Consumer<Object>() {
+          @Override
+          public void accept(Object o) {
+            broker.unsubscribe(Subject.ON_TEST_PUBSUB_INTEGER, this);
+          }
+        };
+    broker.subscribe(Subject.ON_TEST_PUBSUB_INTEGER, selfRemoving);
+    broker.subscribe(Subject.ON_TEST_PUBSUB_INTEGER, callback);
+
+    Assert.assertTrue(broker.publish(Subject.ON_TEST_PUBSUB_INTEGER, 2));
+    Assert.assertEquals(3, list.size());
+
+    Assert.assertTrue(broker.publish(Subject.ON_TEST_PUBSUB_INTEGER, 3));
+    Assert.assertEquals(5, list.size());
+
+    // After reinitialization, no subscription remains
+    broker.reinitialize();
+    Assert.assertFalse(broker.publish(Subject.ON_TEST_PUBSUB_INTEGER, 4));
+    Assert.assertEquals(5, list.size());
+  }
 }
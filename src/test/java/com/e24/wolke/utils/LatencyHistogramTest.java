@@ -0,0 +1,106 @@
+package com.e24.wolke.utils;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * LatencyHistogramTest.java
+ *
+ * <p>Classe de test pour la classe LatencyHistogram.
+ *
+ * @see LatencyHistogram
+ * @author Nilon123456789
+ */
+public class LatencyHistogramTest {
+
+  /** Histogramme utilisé pour les tests */
+  private LatencyHistogram histogram;
+
+  /** Méthode exécutée avant chaque test */
+  @Before
+  public void setUp() {
+    this.histogram = new LatencyHistogram();
+  }
+
+  /** Test si un histogramme vide retourne 0 */
+  @Test
+  public void testEmpty() {
+    Assert.assertEquals(0, histogram.getCount());
+    Assert.assertEquals(0, histogram.getMax());
+    Assert.assertEquals(0, histogram.getValueAtPercentile(99));
+    Assert.assertEquals(0, histogram.getMean(), 0);
+  }
+
+  /** Test si les petites valeurs sont comptées exactement */
+  @Test
+  public void testExactSmallValues() {
+    for (int i = 1; i <= 100; i++) histogram.record(i);
+
+    Assert.assertEquals(100, histogram.getCount());
+    Assert.assertEquals(5050, histogram.getTotal());
+    Assert.assertEquals(50, histogram.getValueAtPercentile(50));
+    Assert.assertEquals(95, histogram.getValueAtPercentile(95));
+    Assert.assertEquals(100, histogram.getValueAtPercentile(100));
+    Assert.assertEquals(100, histogram.getMax());
+  }
+
+  /** Test si l'erreur relative des grandes valeurs reste sous la précision de l'histogramme */
+  @Test
+  public void testRelativeError() {
+    long[] values = {1_000, 123_456, 7_654_321, 250_000_000, 60_000_000_000L};
+
+    for (long value : values) {
+      LatencyHistogram single = new LatencyHistogram();
+      single.record(value);
+      single.record(value * 2);
+
+      long p50 = single.getValueAtPercentile(50);
+      Assert.assertTrue(Long.toString(value), p50 >= value);
+      Assert.assertTrue(Long.toString(value), (p50 - value) / (double) value <= 1.0 / 64);
+    }
+  }
+
+  /** Test si les valeurs hors limites sont ramenées dans l'histogramme */
+  @Test
+  public void testClampedValues() {
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+
+    Assert.assertEquals(0, histogram.getValueAtPercentile(50));
+    Assert.assertEquals(LatencyHistogram.MAX_TRACKABLE_VALUE, histogram.getMax());
+    Assert.assertEquals(LatencyHistogram.MAX_TRACKABLE_VALUE, histogram.getValueAtPercentile(100));
+  }
+
+  /** Test si un percentile invalide est refusé */
+  @Test
+  public void testInvalidPercentile() {
+    Assert.assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+    Assert.assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(-1));
+  }
+
+  /** Test si reset efface toutes les valeurs */
+  @Test
+  public void testReset() {
+    histogram.record(42);
+    histogram.reset();
+
+    Assert.assertEquals(0, histogram.getCount());
+    Assert.assertEquals(0, histogram.getTotal());
+    Assert.assertEquals(0, histogram.getMax());
+  }
+
+  /** Test si getCountAtOrBelow compte les valeurs cumulées jusqu'à une borne */
+  @Test
+  public void testCountAtOrBelow() {
+    histogram.record(10);
+    histogram.record(1_000);
+    histogram.record(1_000_000);
+
+    Assert.assertEquals(0, histogram.getCountAtOrBelow(-1));
+    Assert.assertEquals(0, histogram.getCountAtOrBelow(9));
+    Assert.assertEquals(1, histogram.getCountAtOrBelow(10));
+    Assert.assertEquals(2, histogram.getCountAtOrBelow(500_000));
+    Assert.assertEquals(3, histogram.getCountAtOrBelow(Long.MAX_VALUE));
+  }
+}
@@ -116,4 +116,53 @@ public class TimerTest {
     Timer timer = new Timer("Test");
     Assert.assertEquals(Long.MIN_VALUE, timer.stopAndPrint(""));
   }
+
+  /** Test si register retourne le même TimerHandle pour un même nom */
+  @Test
+  public void testRegisterSameName() {
+    Timer timer = new Timer("Test");
+    TimerHandle handle = timer.register("Test");
+
+    Assert.assertSame(handle, timer.register("Test"));
+    Assert.assertSame(handle, timer.getHandle("Test"));
+    Assert.assertEquals(1, timer.getHandles().size());
+  }
+
+  /** Test si register refuse un nom vide */
+  @Test
+  public void testRegisterEmptyName() {
+    Timer timer = new Timer("Test");
+    Assert.assertThrows(IllegalArgumentException.class, () -> timer.register(""));
+  }
+
+  /** Test si un TimerHandle enregistre ses mesures et les efface avec reinitialize */
+  @Test
+  public void testHandleReinitialize() {
+    Timer timer = new Timer("Test");
+    TimerHandle handle = timer.register("Test");
+
+    handle.stop(handle.start());
+    handle.record(2_000_000);
+    Assert.assertEquals(2, handle.getCount());
+    Assert.assertTrue(handle.getMaxMillis() >= 2);
+
+    timer.reinitialize();
+    Assert.assertEquals(0, handle.getCount());
+    Assert.assertSame(handle, timer.getHandle("Test"));
+  }
+
+  /** Test si un TimerHandle retient la durée de sa dernière mesure */
+  @Test
+  public void testHandleLastNanos() {
+    Timer timer = new Timer("Test");
+    TimerHandle handle = timer.register("Test");
+    Assert.assertEquals(0, handle.getLastNanos());
+
+    handle.record(3_000_000);
+    handle.record(1_000_000);
+    Assert.assertEquals(1_000_000, handle.getLastNanos());
+
+    timer.reinitialize();
+    Assert.assertEquals(0, handle.getLastNanos());
+  }
 }
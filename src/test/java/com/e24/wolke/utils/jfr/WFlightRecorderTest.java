@@ -0,0 +1,64 @@
+package com.e24.wolke.utils.jfr;
+
+import com.e24.wolke.backend.models.application.LocaleManager;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * WFlightRecorderTest.java
+ *
+ * <p>Classe de test pour la classe WFlightRecorder.
+ *
+ * @see WFlightRecorder
+ * @author Nilon123456789
+ */
+public class WFlightRecorderTest {
+
+  /** Initialisation des tests */
+  @BeforeClass
+  public static void setUp() {
+    LocaleManager.update(Locale.FRENCH);
+  }
+
+  /** Test si les arguments sans l'option --jfr sont retournés tels quels */
+  @Test
+  public void testArgumentsWithoutOption() {
+    String[] args = {"scene.wlks", "--steps", "10"};
+
+    Assert.assertArrayEquals(args, WFlightRecorder.startFromArguments(args));
+    Assert.assertFalse(WFlightRecorder.isRecording());
+  }
+
+  /**
+   * Test si l'option --jfr=fichier est retirée des arguments et si l'enregistrement, contenant un
+   * événement de Wolke, est écrit dans le fichier à son arrêt
+   *
+   * @throws IOException Si le fichier temporaire ne peut pas être créé
+   */
+  @Test
+  public void testRecordingToFile() throws IOException {
+    Path destination = Files.createTempFile("wolke", ".jfr");
+    Files.delete(destination);
+
+    String[] remaining =
+        WFlightRecorder.startFromArguments(new String[] {"--jfr=" + destination, "scene.wlks"});
+
+    Assert.assertArrayEquals(new String[] {"scene.wlks"}, remaining);
+    Assert.assertTrue(WFlightRecorder.isRecording());
+
+    ObstacleRebuildEvent event = new ObstacleRebuildEvent();
+    Assert.assertTrue(event.isEnabled());
+    event.commit();
+
+    Assert.assertTrue(WFlightRecorder.stop());
+    Assert.assertFalse(WFlightRecorder.isRecording());
+    Assert.assertTrue(Files.size(destination) > 0);
+
+    Files.delete(destination);
+  }
+}